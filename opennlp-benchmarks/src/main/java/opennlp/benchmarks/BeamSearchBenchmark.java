@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.postag.POSContextGenerator;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSSample;
+import opennlp.tools.postag.POSTaggerFactory;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * Measures {@link BeamSearch#bestSequences(int, Object[], Object[],
+ * opennlp.tools.util.BeamSearchContextGenerator, SequenceValidator)} with the model, context
+ * generator and sequence validator of the POS tagger, without the tagger around it.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeamSearchBenchmark {
+
+  private BeamSearch<String> beamSearch;
+
+  private POSContextGenerator contextGenerator;
+
+  private SequenceValidator<String> sequenceValidator;
+
+  private String[][] sentences;
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    POSModel posModel = TestCorpora.trainPOSTagger();
+    POSTaggerFactory factory = posModel.getFactory();
+
+    beamSearch = new BeamSearch<>(POSTaggerME.DEFAULT_BEAM_SIZE, posModel.getPosModel());
+    contextGenerator = factory.getPOSContextGenerator(POSTaggerME.DEFAULT_BEAM_SIZE);
+    sequenceValidator = factory.getSequenceValidator();
+
+    sentences = TestCorpora.readAll(TestCorpora.posSamples()).stream()
+        .map(POSSample::getSentence).toArray(String[][]::new);
+  }
+
+  @Benchmark
+  public Sequence[] bestSequences() {
+    String[] sentence = sentences[next];
+    next = (next + 1) % sentences.length;
+
+    return beamSearch.bestSequences(POSTaggerME.DEFAULT_BEAM_SIZE, sentence, null,
+        contextGenerator, sequenceValidator);
+  }
+}
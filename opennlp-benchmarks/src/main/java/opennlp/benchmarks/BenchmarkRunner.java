@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ * <p>
+ * Accepts the regular JMH command line options, e.g. a regular expression to select
+ * the benchmarks to run:
+ * <pre>
+ * java -jar opennlp-benchmarks/target/benchmarks.jar POSTaggerME
+ * </pre>
+ * Every benchmark reports its throughput and its sampled latency percentiles. The
+ * GC profiler is always enabled, it adds the allocation rate per operation
+ * (gc.alloc.rate.norm) to the results.
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws RunnerException {
+
+    CommandLineOptions commandLineOptions;
+    try {
+      commandLineOptions = new CommandLineOptions(args);
+    } catch (CommandLineOptionException e) {
+      System.err.println("Error parsing command line: " + e.getMessage());
+      System.exit(1);
+      return;
+    }
+
+    Options options = new OptionsBuilder()
+        .parent(commandLineOptions)
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(options).run();
+  }
+}
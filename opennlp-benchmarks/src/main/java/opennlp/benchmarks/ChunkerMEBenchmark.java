@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import opennlp.tools.chunker.ChunkSample;
+import opennlp.tools.chunker.ChunkerME;
+
+/**
+ * Measures {@link ChunkerME#chunk(String[], String[])} on the sentences of the chunker
+ * test corpus.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkerMEBenchmark {
+
+  private ChunkerME chunker;
+
+  private ChunkSample[] samples;
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    chunker = new ChunkerME(TestCorpora.trainChunker());
+
+    samples = TestCorpora.readAll(TestCorpora.chunkSamples()).toArray(new ChunkSample[0]);
+  }
+
+  @Benchmark
+  public String[] chunk() {
+    ChunkSample sample = samples[next];
+    next = (next + 1) % samples.length;
+
+    return chunker.chunk(sample.getSentence(), sample.getTags());
+  }
+}
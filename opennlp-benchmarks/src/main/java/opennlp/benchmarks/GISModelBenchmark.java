@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSSampleEventStream;
+
+/**
+ * Measures {@link GISModel#eval(String[])} in isolation. The model is the maxent model of
+ * the POS tagger and the contexts are the events which were generated to train it.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GISModelBenchmark {
+
+  private GISModel model;
+
+  private String[][] contexts;
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    POSModel posModel = TestCorpora.trainPOSTagger();
+
+    MaxentModel maxentModel = posModel.getPosModel();
+    if (!(maxentModel instanceof GISModel)) {
+      throw new IllegalStateException("Expected a GIS model, but got: " + maxentModel);
+    }
+    model = (GISModel) maxentModel;
+
+    contexts = TestCorpora.readAll(new POSSampleEventStream(TestCorpora.posSamples(),
+        posModel.getFactory().getPOSContextGenerator())).stream()
+        .map(Event::getContext).toArray(String[][]::new);
+  }
+
+  @Benchmark
+  public double[] eval() {
+    String[] context = contexts[next];
+    next = (next + 1) % contexts.length;
+
+    return model.eval(context);
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import opennlp.tools.chunker.ChunkSample;
+import opennlp.tools.chunker.ChunkSampleStream;
+import opennlp.tools.chunker.ChunkerFactory;
+import opennlp.tools.chunker.ChunkerME;
+import opennlp.tools.chunker.ChunkerModel;
+import opennlp.tools.doccat.DoccatFactory;
+import opennlp.tools.doccat.DoccatModel;
+import opennlp.tools.doccat.DocumentCategorizerME;
+import opennlp.tools.doccat.DocumentSample;
+import opennlp.tools.doccat.DocumentSampleStream;
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.langdetect.LanguageDetectorFactory;
+import opennlp.tools.langdetect.LanguageDetectorME;
+import opennlp.tools.langdetect.LanguageDetectorModel;
+import opennlp.tools.langdetect.LanguageDetectorSampleStream;
+import opennlp.tools.langdetect.LanguageSample;
+import opennlp.tools.lemmatizer.LemmaSample;
+import opennlp.tools.lemmatizer.LemmaSampleStream;
+import opennlp.tools.lemmatizer.LemmatizerFactory;
+import opennlp.tools.lemmatizer.LemmatizerME;
+import opennlp.tools.lemmatizer.LemmatizerModel;
+import opennlp.tools.namefind.BioCodec;
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderFactory;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSSample;
+import opennlp.tools.postag.POSTaggerFactory;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.postag.WordTagSampleStream;
+import opennlp.tools.sentdetect.SentenceDetectorFactory;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.sentdetect.SentenceSample;
+import opennlp.tools.sentdetect.SentenceSampleStream;
+import opennlp.tools.tokenize.TokenSample;
+import opennlp.tools.tokenize.TokenSampleStream;
+import opennlp.tools.tokenize.TokenizerFactory;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Reads the small training corpora which are shipped with the opennlp-tools tests
+ * and trains the models the benchmarks run against. The training parameters are
+ * the same as the ones used by the corresponding unit tests.
+ */
+final class TestCorpora {
+
+  private TestCorpora() {
+  }
+
+  private static ObjectStream<String> lines(String resource, Charset charset) throws IOException {
+    return new PlainTextByLineStream(new ResourceAsStreamFactory(TestCorpora.class, resource),
+        charset);
+  }
+
+  static <T> List<T> readAll(ObjectStream<T> samples) throws IOException {
+    List<T> result = new ArrayList<>();
+
+    T sample;
+    while ((sample = samples.read()) != null) {
+      result.add(sample);
+    }
+
+    samples.close();
+
+    return result;
+  }
+
+  private static TrainingParameters params(int iterations, int cutoff) {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, iterations);
+    params.put(TrainingParameters.CUTOFF_PARAM, cutoff);
+    return params;
+  }
+
+  static ObjectStream<TokenSample> tokenSamples() throws IOException {
+    return new TokenSampleStream(lines("/opennlp/tools/tokenize/token.train",
+        StandardCharsets.UTF_8));
+  }
+
+  static TokenizerModel trainTokenizer() throws IOException {
+    return TokenizerME.train(tokenSamples(),
+        TokenizerFactory.create(null, "eng", null, true, null), params(100, 0));
+  }
+
+  static ObjectStream<SentenceSample> sentenceSamples() throws IOException {
+    return new SentenceSampleStream(lines("/opennlp/tools/sentdetect/Sentences.txt",
+        StandardCharsets.UTF_8));
+  }
+
+  static SentenceModel trainSentenceDetector() throws IOException {
+    return SentenceDetectorME.train("eng", sentenceSamples(),
+        new SentenceDetectorFactory("eng", true, null, null), params(100, 0));
+  }
+
+  static ObjectStream<POSSample> posSamples() throws IOException {
+    return new WordTagSampleStream(lines("/opennlp/tools/postag/AnnotatedSentences.txt",
+        StandardCharsets.UTF_8));
+  }
+
+  static POSModel trainPOSTagger() throws IOException {
+    return POSTaggerME.train("eng", posSamples(), params(100, 5), new POSTaggerFactory());
+  }
+
+  static ObjectStream<NameSample> nameSamples() throws IOException {
+    return new NameSampleDataStream(lines("/opennlp/tools/namefind/AnnotatedSentences.txt",
+        StandardCharsets.ISO_8859_1));
+  }
+
+  static TokenNameFinderModel trainNameFinder() throws IOException {
+    return NameFinderME.train("eng", null, nameSamples(), params(70, 1),
+        TokenNameFinderFactory.create(null, null, Collections.emptyMap(),
+            new BioCodec()));
+  }
+
+  static ObjectStream<ChunkSample> chunkSamples() throws IOException {
+    return new ChunkSampleStream(lines("/opennlp/tools/chunker/test.txt",
+        StandardCharsets.UTF_8));
+  }
+
+  static ChunkerModel trainChunker() throws IOException {
+    return ChunkerME.train("eng", chunkSamples(), params(70, 1), new ChunkerFactory());
+  }
+
+  static ObjectStream<LemmaSample> lemmaSamples() throws IOException {
+    return new LemmaSampleStream(lines("/opennlp/tools/lemmatizer/trial.old.tsv",
+        StandardCharsets.UTF_8));
+  }
+
+  static LemmatizerModel trainLemmatizer() throws IOException {
+    return LemmatizerME.train("eng", lemmaSamples(), params(100, 5), new LemmatizerFactory());
+  }
+
+  static ObjectStream<DocumentSample> documentSamples() throws IOException {
+    return new DocumentSampleStream(lines("/opennlp/tools/doccat/DoccatSample.txt",
+        StandardCharsets.UTF_8));
+  }
+
+  static DoccatModel trainDocumentCategorizer() throws IOException {
+    return DocumentCategorizerME.train("x-unspecified", documentSamples(), params(100, 5),
+        new DoccatFactory());
+  }
+
+  static ObjectStream<LanguageSample> languageSamples() throws IOException {
+    return new LanguageDetectorSampleStream(lines("/opennlp/tools/doccat/DoccatSample.txt",
+        StandardCharsets.UTF_8));
+  }
+
+  static LanguageDetectorModel trainLanguageDetector() throws IOException {
+    TrainingParameters params = params(100, 5);
+    params.put("DataIndexer", "TwoPass");
+    params.put(TrainingParameters.ALGORITHM_PARAM, "NAIVEBAYES");
+
+    return LanguageDetectorME.train(languageSamples(), params, new LanguageDetectorFactory());
+  }
+}
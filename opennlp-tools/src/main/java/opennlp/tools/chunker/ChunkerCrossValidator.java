@@ -23,6 +23,7 @@ import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldEvaluationMonitor;
 
 public class ChunkerCrossValidator {
 
@@ -33,6 +34,16 @@ public class ChunkerCrossValidator {
   private ChunkerEvaluationMonitor[] listeners;
   private ChunkerFactory chunkerFactory;
 
+  private static class FoldMonitor extends FoldEvaluationMonitor<ChunkSample>
+      implements ChunkerEvaluationMonitor {
+
+    private FMeasure fmeasure;
+
+    FoldMonitor(ChunkerEvaluationMonitor[] listeners, boolean record) {
+      super(listeners, record);
+    }
+  }
+
   public ChunkerCrossValidator(String languageCode, TrainingParameters params,
       ChunkerFactory factory, ChunkerEvaluationMonitor... listeners) {
     this.chunkerFactory = factory;
@@ -53,24 +64,45 @@ public class ChunkerCrossValidator {
    */
   public void evaluate(ObjectStream<ChunkSample> samples, int nFolds)
       throws IOException {
-    CrossValidationPartitioner<ChunkSample> partitioner = new CrossValidationPartitioner<>(
-        samples, nFolds);
+    evaluate(samples, nFolds, 1);
+  }
 
-    while (partitioner.hasNext()) {
+  /**
+   * Starts the evaluation, the folds are trained and evaluated in parallel.
+   * The results and the events which are passed to the listeners are the
+   * same as in a sequential evaluation.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are trained and evaluated at the same time
+   *
+   * @throws IOException
+   */
+  public void evaluate(ObjectStream<ChunkSample> samples, int nFolds, int threads)
+      throws IOException {
 
-      CrossValidationPartitioner.TrainingSampleStream<ChunkSample> trainingSampleStream = partitioner
-          .next();
+    CrossValidationPartitioner.<ChunkSample, FoldMonitor>evaluateFolds(samples, nFolds, threads,
+        trainingSampleStream -> {
 
-      ChunkerModel model = ChunkerME.train(languageCode, trainingSampleStream,
-          params, chunkerFactory);
+          ChunkerModel model = ChunkerME.train(languageCode, trainingSampleStream,
+              params, chunkerFactory);
 
-      // do testing
-      ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model), listeners);
+          // do testing
+          FoldMonitor foldMonitor = new FoldMonitor(listeners, threads > 1);
+          ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model), foldMonitor);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
-    }
+          foldMonitor.fmeasure = evaluator.getFMeasure();
+          return foldMonitor;
+        },
+        foldMonitor -> {
+          foldMonitor.replay();
+          fmeasure.mergeInto(foldMonitor.fmeasure);
+        });
   }
 
   public FMeasure getFMeasure() {
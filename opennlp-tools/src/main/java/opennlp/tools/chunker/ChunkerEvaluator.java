@@ -74,6 +74,16 @@ public class ChunkerEvaluator extends Evaluator<ChunkSample> {
     return result;
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<ChunkSample> evaluator) {
+    fmeasure.mergeInto(((ChunkerEvaluator) evaluator).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
@@ -24,6 +24,7 @@ import java.util.Map;
 
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
@@ -171,6 +172,8 @@ public class ChunkerME implements Chunker {
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
+    SequenceDecoderFactory.addManifestEntries(mlParams, manifestInfoEntries);
+
     TrainerType trainerType = TrainerFactory.getTrainerType(mlParams);
 
 
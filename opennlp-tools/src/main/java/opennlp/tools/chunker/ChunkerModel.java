@@ -25,6 +25,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.model.AbstractModel;
@@ -77,10 +78,18 @@ public class ChunkerModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public ChunkerModel(InputStream in, Executor executor) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public ChunkerModel(File modelFile) throws IOException, InvalidFormatException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public ChunkerModel(File modelFile, Executor executor) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public ChunkerModel(Path modelPath) throws IOException, InvalidFormatException {
     this(modelPath.toFile());
   }
@@ -124,17 +133,8 @@ public class ChunkerModel extends BaseModel {
 
   public SequenceClassificationModel<TokenTag> getChunkerSequenceModel() {
 
-    Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
-
     if (artifactMap.get(CHUNKER_MODEL_ENTRY_NAME) instanceof MaxentModel) {
-      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
-
-      int beamSize = ChunkerME.DEFAULT_BEAM_SIZE;
-      if (beamSizeString != null) {
-        beamSize = Integer.parseInt(beamSizeString);
-      }
-
-      return new BeamSearch<>(beamSize, (MaxentModel) artifactMap.get(CHUNKER_MODEL_ENTRY_NAME));
+      return getSequenceDecoder(CHUNKER_MODEL_ENTRY_NAME, ChunkerME.DEFAULT_BEAM_SIZE);
     }
     else if (artifactMap.get(CHUNKER_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(CHUNKER_MODEL_ENTRY_NAME);
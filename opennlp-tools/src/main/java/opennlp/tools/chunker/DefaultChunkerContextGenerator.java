@@ -23,9 +23,23 @@ import opennlp.tools.util.TokenTag;
 /** Features based on chunking model described in Fei Sha and Fernando Pereira. Shallow
  *  parsing with conditional random fields. In Proceedings of HLT-NAACL 2003. Association
  *  for Computational Linguistics, 2003.
+ *  <p>
+ *  While a search runs, between {@link #startSequence(TokenTag[])} and {@link #endSequence()},
+ *  the word and tag features of the tokens of its sequence are computed once per token,
+ *  only the features of the previous predictions are computed on every call.
  */
 public class DefaultChunkerContextGenerator implements ChunkerContextGenerator {
 
+  private static final int NUM_WORD_FEATURES = 7;
+  private static final int NUM_TAG_FEATURES = 12;
+
+  // the sequence of the running search, its tokens and tags and
+  // the word and tag features of its tokens
+  private TokenTag[] sequence;
+  private String[] sequenceTokens;
+  private String[] sequenceTags;
+  private String[][] table;
+
   /**
    * Creates the default context generator a chunker.
    */
@@ -38,35 +52,102 @@ public class DefaultChunkerContextGenerator implements ChunkerContextGenerator {
   }
 
   public String[] getContext(int i, String[] toks, String[] tags, String[] preds) {
+
+    String[] wordTagFeatures = getWordTagFeatures(i, toks, tags);
+
+    String[] features = new String[wordTagFeatures.length + 3 + NUM_TAG_FEATURES
+        + NUM_WORD_FEATURES];
+
+    //add word and tag features
+    System.arraycopy(wordTagFeatures, 0, features, 0, wordTagFeatures.length);
+
+    addPredFeatures(features, wordTagFeatures.length, i, wordTagFeatures, preds);
+
+    return features;
+  }
+
+  private String[] getWordTagFeatures(int i, String[] toks, String[] tags) {
+    // only the arrays extracted from the sequence of the search are not modified by the caller
+    if (table == null || toks != sequenceTokens || tags != sequenceTags) {
+      return createWordTagFeatures(i, toks, tags);
+    }
+
+    String[] wordTagFeatures = table[i];
+    if (wordTagFeatures == null) {
+      wordTagFeatures = createWordTagFeatures(i, toks, tags);
+      table[i] = wordTagFeatures;
+    }
+
+    return wordTagFeatures;
+  }
+
+  /**
+   * Adds the features of the previous predictions, they are combined
+   * with the word and tag features.
+   */
+  private static void addPredFeatures(String[] features, int fi, int i, String[] wordTagFeatures,
+      String[] preds) {
+
+    // Previous predictions
+    String p_2, p_1;
+
+    if (i < 2) {
+      p_2 = "p_2=bos";
+    }
+    else {
+      p_2 = "p_2" + preds[i - 2];
+    }
+
+    if (i < 1) {
+      p_1 = "p_1=bos";
+    }
+    else {
+      p_1 = "p_1=" + preds[i - 1];
+    }
+
+    //add pred tags
+    features[fi++] = p_2;
+    features[fi++] = p_1;
+    features[fi++] = p_2 + p_1;
+
+    //add pred and tag
+    for (int ti = NUM_WORD_FEATURES; ti < NUM_WORD_FEATURES + NUM_TAG_FEATURES; ti++) {
+      features[fi++] = p_1 + wordTagFeatures[ti];
+    }
+
+    //add pred and word
+    for (int wi = 0; wi < NUM_WORD_FEATURES; wi++) {
+      features[fi++] = p_1 + wordTagFeatures[wi];
+    }
+  }
+
+  /**
+   * Creates the word and tag features of a token, they do not depend
+   * on the previous predictions.
+   */
+  private static String[] createWordTagFeatures(int i, String[] toks, String[] tags) {
     // Words in a 5-word window
     String w_2, w_1, w0, w1, w2;
 
     // Tags in a 5-word window
     String t_2, t_1, t0, t1, t2;
 
-    // Previous predictions
-    String p_2, p_1;
-
     if (i < 2) {
       w_2 = "w_2=bos";
       t_2 = "t_2=bos";
-      p_2 = "p_2=bos";
     }
     else {
       w_2 = "w_2=" + toks[i - 2];
       t_2 = "t_2=" + tags[i - 2];
-      p_2 = "p_2" + preds[i - 2];
     }
 
     if (i < 1) {
       w_1 = "w_1=bos";
       t_1 = "t_1=bos";
-      p_1 = "p_1=bos";
     }
     else {
       w_1 = "w_1=" + toks[i - 1];
       t_1 = "t_1=" + tags[i - 1];
-      p_1 = "p_1=" + preds[i - 1];
     }
 
     w0 = "w0=" + toks[i];
@@ -90,7 +171,7 @@ public class DefaultChunkerContextGenerator implements ChunkerContextGenerator {
       t2 = "t2=" + tags[i + 2];
     }
 
-    String[] features = new String[] {
+    return new String[] {
         //add word features
         w_2,
         w_1,
@@ -112,45 +193,70 @@ public class DefaultChunkerContextGenerator implements ChunkerContextGenerator {
         t1 + t2,
         t_2 + t_1 + t0,
         t_1 + t0 + t1,
-        t0 + t1 + t2,
-
-        //add pred tags
-        p_2,
-        p_1,
-        p_2 + p_1,
-
-        //add pred and tag
-        p_1 + t_2,
-        p_1 + t_1,
-        p_1 + t0,
-        p_1 + t1,
-        p_1 + t2,
-        p_1 + t_2 + t_1,
-        p_1 + t_1 + t0,
-        p_1 + t0 + t1,
-        p_1 + t1 + t2,
-        p_1 + t_2 + t_1 + t0,
-        p_1 + t_1 + t0 + t1,
-        p_1 + t0 + t1 + t2,
-
-        //add pred and word
-        p_1 + w_2,
-        p_1 + w_1,
-        p_1 + w0,
-        p_1 + w1,
-        p_1 + w2,
-        p_1 + w_1 + w0,
-        p_1 + w0 + w1
+        t0 + t1 + t2
     };
-
-    return features;
   }
 
   @Override
   public String[] getContext(int index, TokenTag[] sequence, String[] priorDecisions,
                              Object[] additionalContext) {
-    String[] token = TokenTag.extractTokens(sequence);
-    String[] tags = TokenTag.extractTags(sequence);
-    return getContext(index, token, tags, priorDecisions, additionalContext);
+    if (sequence != this.sequence) {
+      return getContext(index, TokenTag.extractTokens(sequence), TokenTag.extractTags(sequence),
+          priorDecisions, additionalContext);
+    }
+    return getContext(index, sequenceTokens, sequenceTags, priorDecisions, additionalContext);
+  }
+
+  /**
+   * Returns the word and tag features, subclasses do not split their contexts
+   * because they might override {@link #getContext(int, String[], String[], String[])}.
+   * For a subclass null is returned and the search falls back to the whole context.
+   */
+  @Override
+  public String[] getOutcomeIndependentContext(int index, TokenTag[] sequence,
+      Object[] additionalContext) {
+    if (getClass() != DefaultChunkerContextGenerator.class) {
+      return null;
+    }
+
+    return getWordTagFeatures(index, sequence).clone();
+  }
+
+  @Override
+  public String[] getOutcomeDependentContext(int index, TokenTag[] sequence,
+      String[] priorDecisions, Object[] additionalContext) {
+    if (getClass() != DefaultChunkerContextGenerator.class) {
+      return getContext(index, sequence, priorDecisions, additionalContext);
+    }
+
+    String[] wordTagFeatures = getWordTagFeatures(index, sequence);
+
+    String[] features = new String[3 + NUM_TAG_FEATURES + NUM_WORD_FEATURES];
+    addPredFeatures(features, 0, index, wordTagFeatures, priorDecisions);
+    return features;
+  }
+
+  private String[] getWordTagFeatures(int index, TokenTag[] sequence) {
+    if (sequence != this.sequence) {
+      return createWordTagFeatures(index, TokenTag.extractTokens(sequence),
+          TokenTag.extractTags(sequence));
+    }
+    return getWordTagFeatures(index, sequenceTokens, sequenceTags);
+  }
+
+  @Override
+  public void startSequence(TokenTag[] sequence) {
+    this.sequence = sequence;
+    sequenceTokens = TokenTag.extractTokens(sequence);
+    sequenceTags = TokenTag.extractTags(sequence);
+    table = new String[sequence.length][];
+  }
+
+  @Override
+  public void endSequence() {
+    sequence = null;
+    sequenceTokens = null;
+    sequenceTags = null;
+    table = null;
   }
 }
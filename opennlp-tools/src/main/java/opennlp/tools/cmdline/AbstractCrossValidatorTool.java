@@ -17,6 +17,8 @@
 
 package opennlp.tools.cmdline;
 
+import opennlp.tools.cmdline.params.CVParams;
+
 /**
  * Base class for cross validator tools.
  */
@@ -31,4 +33,14 @@ public abstract class AbstractCrossValidatorTool<T, P> extends AbstractTrainerTo
   protected AbstractCrossValidatorTool(Class<T> sampleType, Class<P> params) {
     super(sampleType, params);
   }
+
+  @Override
+  public void run(String format, String[] args) {
+    super.run(format, args);
+
+    if (params instanceof CVParams && ((CVParams) params).getThreads() < 1) {
+      throw new TerminateToolException(1, "The number of threads must be at least one but was "
+          + ((CVParams) params).getThreads() + "!");
+    }
+  }
 }
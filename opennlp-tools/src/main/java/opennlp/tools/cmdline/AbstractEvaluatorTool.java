@@ -17,6 +17,7 @@
 
 package opennlp.tools.cmdline;
 
+import opennlp.tools.cmdline.params.EvaluatorParams;
 import opennlp.tools.util.ObjectStream;
 
 /**
@@ -48,5 +49,10 @@ public class AbstractEvaluatorTool<T, P> extends AbstractTypedParamTool<T, P> {
     String[] fargs = ArgumentParser.filter(args, factory.getParameters());
     validateFactoryArgs(factory, fargs);
     sampleStream = factory.create(fargs);
+
+    if (params instanceof EvaluatorParams && ((EvaluatorParams) params).getThreads() < 1) {
+      throw new TerminateToolException(1, "The number of threads must be at least one but was "
+          + ((EvaluatorParams) params).getThreads() + "!");
+    }
   }
 }
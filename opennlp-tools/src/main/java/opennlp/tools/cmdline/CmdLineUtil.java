@@ -233,6 +233,26 @@ public final class CmdLineUtil {
     return null;
   }
 
+  /**
+   * Removes the specified parameter and its value from the given arguments.
+   *
+   * @param param parameter name
+   * @param args arguments
+   * @return the arguments without the parameter
+   */
+  public static String[] removeParameter(String param, String[] args) {
+    int i = getParameterIndex(param, args);
+    if (i == -1) {
+      return args;
+    }
+
+    int end = Math.min(i + 2, args.length);
+    String[] remaining = new String[args.length - (end - i)];
+    System.arraycopy(args, 0, remaining, 0, i);
+    System.arraycopy(args, end, remaining, i, args.length - end);
+    return remaining;
+  }
+
   /**
    * Retrieves the specified parameter from the specified arguments.
    *
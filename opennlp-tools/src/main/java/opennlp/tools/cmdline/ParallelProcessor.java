@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Processes the inputs which are read from an {@link ObjectStream} on a number
+ * of worker threads and passes the results to a consumer in input order.
+ * <p>
+ * Every worker thread creates its own processing function, e.g. a function
+ * which wraps a tool instance which is not thread safe. At most four inputs per
+ * thread are pending at a time, the reading is blocked until the oldest result
+ * was consumed. The consumer is called on the thread which calls
+ * {@link #process(ObjectStream, Consumer)}.
+ * <p>
+ * <b>Note:</b>
+ * Do not use this class, internal use only!
+ */
+public class ParallelProcessor<I, O> {
+
+  public static final String THREADS_PARAM = "-threads";
+
+  private static final int PENDING_INPUTS_PER_THREAD = 4;
+
+  private final int threads;
+  private final Supplier<Function<I, O>> workerFactory;
+
+  /**
+   * Initializes the processor.
+   *
+   * @param threads the number of worker threads, with one thread the inputs
+   *     are processed on the calling thread
+   * @param workerFactory creates the processing function of a worker thread
+   */
+  public ParallelProcessor(int threads, Supplier<Function<I, O>> workerFactory) {
+
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be at least one but was " + threads + "!");
+
+    this.threads = threads;
+    this.workerFactory = workerFactory;
+  }
+
+  /**
+   * Reads all inputs from the stream, processes them and passes the results
+   * to the consumer in input order.
+   *
+   * @param inputs the inputs
+   * @param consumer receives the results
+   *
+   * @throws IOException if reading from the stream fails
+   */
+  public void process(ObjectStream<I> inputs, Consumer<O> consumer) throws IOException {
+
+    if (threads == 1) {
+      Function<I, O> worker = workerFactory.get();
+
+      I input;
+      while ((input = inputs.read()) != null) {
+        consumer.accept(worker.apply(input));
+      }
+      return;
+    }
+
+    ThreadLocal<Function<I, O>> workers = ThreadLocal.withInitial(workerFactory);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    try {
+      Queue<Future<O>> pending = new ArrayDeque<>();
+
+      I input;
+      while ((input = inputs.read()) != null) {
+        if (pending.size() == threads * PENDING_INPUTS_PER_THREAD) {
+          consumer.accept(getResult(pending.poll()));
+        }
+
+        final I task = input;
+        pending.add(executor.submit(() -> workers.get().apply(task)));
+      }
+
+      while (!pending.isEmpty()) {
+        consumer.accept(getResult(pending.poll()));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads all inputs from the stream, processes them and passes the results
+   * to the consumer in input order, see {@link #process(ObjectStream, Consumer)}.
+   * <p>
+   * The inputs are divided into groups, e.g. the lines of a document. All inputs of
+   * a group are processed by the same worker in input order, a new group is assigned
+   * to the worker with the fewest unprocessed inputs. The result of an input is passed
+   * to the consumer as soon as it and the results of all previous inputs are available.
+   *
+   * @param inputs the inputs
+   * @param isGroupStart tests if an input starts a new group, the first input
+   *     always starts a group
+   * @param consumer receives the results
+   *
+   * @throws IOException if reading from the stream fails
+   */
+  public void process(ObjectStream<I> inputs, Predicate<I> isGroupStart, Consumer<O> consumer)
+      throws IOException {
+
+    if (threads == 1) {
+      process(inputs, consumer);
+      return;
+    }
+
+    // Each worker has its own thread, the inputs of a group are queued in order
+    ThreadLocal<Function<I, O>> workers = ThreadLocal.withInitial(workerFactory);
+    ExecutorService[] executors = new ExecutorService[threads];
+    AtomicIntegerArray unprocessed = new AtomicIntegerArray(threads);
+    for (int i = 0; i < threads; i++) {
+      executors[i] = Executors.newSingleThreadExecutor();
+    }
+
+    try {
+      Queue<Future<O>> pending = new ArrayDeque<>();
+
+      int worker = -1;
+      I input;
+      while ((input = inputs.read()) != null) {
+        if (pending.size() == threads * PENDING_INPUTS_PER_THREAD) {
+          consumer.accept(getResult(pending.poll()));
+        }
+
+        if (worker == -1 || isGroupStart.test(input)) {
+          worker = 0;
+          for (int i = 1; i < threads; i++) {
+            if (unprocessed.get(i) < unprocessed.get(worker)) {
+              worker = i;
+            }
+          }
+        }
+
+        final I task = input;
+        final int taskWorker = worker;
+        unprocessed.incrementAndGet(taskWorker);
+        pending.add(executors[taskWorker].submit(() -> {
+          try {
+            return workers.get().apply(task);
+          }
+          finally {
+            unprocessed.decrementAndGet(taskWorker);
+          }
+        }));
+      }
+
+      while (!pending.isEmpty()) {
+        consumer.accept(getResult(pending.poll()));
+      }
+    }
+    finally {
+      for (ExecutorService executor : executors) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private static <O> O getResult(Future<O> result) {
+    try {
+      return result.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TerminateToolException(-1, "Interrupted while waiting for a worker thread", e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new TerminateToolException(-1, "Processing failed: " + e.getCause().getMessage(),
+          e.getCause());
+    }
+  }
+
+  /**
+   * Retrieves the number of threads from the {@value #THREADS_PARAM} parameter.
+   *
+   * @param args the arguments of the tool
+   *
+   * @return the number of threads, one if the parameter is not specified
+   */
+  public static int getThreads(String[] args) {
+    Integer threads = CmdLineUtil.getIntParameter(THREADS_PARAM, args);
+
+    if (threads == null) {
+      if (CmdLineUtil.containsParam(THREADS_PARAM, args)) {
+        throw new TerminateToolException(1, "The number of threads must be an integer!");
+      }
+      return 1;
+    }
+
+    if (threads < 1) {
+      throw new TerminateToolException(1, "The number of threads must be at least one but was "
+          + threads + "!");
+    }
+
+    return threads;
+  }
+}
@@ -28,7 +28,8 @@ import java.util.concurrent.TimeUnit;
  * The {@link PerformanceMonitor} measures increments to a counter.
  * During the computation it prints out current and average throughput
  * per second. After the computation is done it prints a final performance
- * report.
+ * report. If the computation runs on several threads the reported
+ * throughput is the aggregate throughput of all threads.
  * <p>
  * <b>Note:</b>
  * This class is not thread safe. <br>
@@ -49,9 +50,20 @@ public class PerformanceMonitor {
 
   private final PrintStream out;
 
-  public PerformanceMonitor(PrintStream out, String unit) {
+  private final int threads;
+
+  public PerformanceMonitor(PrintStream out, String unit, int threads) {
+
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be at least one but was " + threads + "!");
+
     this.out = out;
     this.unit = unit;
+    this.threads = threads;
+  }
+
+  public PerformanceMonitor(PrintStream out, String unit) {
+    this(out, unit, 1);
   }
 
   public PerformanceMonitor(String unit) {
@@ -158,6 +170,10 @@ public class PerformanceMonitor {
     out.println();
 
     out.printf("Average: %.1f " + unit + "/s %n", average);
+    if (threads > 1) {
+      out.printf("Average per thread: %.1f " + unit + "/s with %d threads%n",
+          average / threads, threads);
+    }
     out.println("Total: " + counter + " " + unit);
     out.println("Runtime: " + timePassed / 1000d + "s");
   }
@@ -88,7 +88,8 @@ public final class ChunkerEvaluatorTool
     monitor.startAndPrintThroughput();
 
     try {
-      evaluator.evaluate(measuredSampleStream);
+      evaluator.evaluate(measuredSampleStream, params.getThreads(),
+          () -> new ChunkerEvaluator(new ChunkerME(model)));
     } catch (IOException e) {
       System.err.println("failed");
       throw new TerminateToolException(-1, "IO error while reading test data: " + e.getMessage(), e);
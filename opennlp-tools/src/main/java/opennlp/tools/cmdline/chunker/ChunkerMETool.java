@@ -26,6 +26,7 @@ import opennlp.tools.chunker.ChunkerModel;
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
 import opennlp.tools.postag.POSSample;
@@ -40,44 +41,54 @@ public class ChunkerMETool extends BasicCmdLineTool {
   }
 
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n"
+        + "-threads n: Process the sentences with n threads.";
   }
 
   public void run(String[] args) {
+
+    int threads = ParallelProcessor.getThreads(args);
+    args = CmdLineUtil.removeParameter(ParallelProcessor.THREADS_PARAM, args);
+
     if (args.length != 1) {
       System.out.println(getHelp());
     } else {
       ChunkerModel model = new ChunkerModelLoader().load(new File(args[0]));
 
-      ChunkerME chunker = new ChunkerME(model);
-
-      ObjectStream<String> lineStream;
-      PerformanceMonitor perfMon = null;
-
-      try {
-        lineStream = new PlainTextByLineStream(new SystemInputStreamFactory(),
-            SystemInputStreamFactory.encoding());
-        perfMon = new PerformanceMonitor(System.err, "sent");
-        perfMon.start();
-        String line;
-        while ((line = lineStream.read()) != null) {
-
+      ParallelProcessor<String, String> processor = new ParallelProcessor<>(threads, () -> {
+        ChunkerME chunker = new ChunkerME(model);
+        return line -> {
           POSSample posSample;
           try {
             posSample = POSSample.parse(line);
           } catch (InvalidFormatException e) {
-            System.err.println("Invalid format:");
-            System.err.println(line);
-            continue;
+            System.err.println("Invalid format:" + System.lineSeparator() + line);
+            return null;
           }
 
           String[] chunks = chunker.chunk(posSample.getSentence(), posSample.getTags());
 
-          System.out.println(new ChunkSample(posSample.getSentence(),
-              posSample.getTags(), chunks).nicePrint());
+          return new ChunkSample(posSample.getSentence(),
+              posSample.getTags(), chunks).nicePrint();
+        };
+      });
+
+      ObjectStream<String> lineStream;
+      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent", threads);
+      perfMon.start();
+
+      try {
+        lineStream = new PlainTextByLineStream(new SystemInputStreamFactory(),
+            SystemInputStreamFactory.encoding());
+        processor.process(lineStream, chunkSample -> {
+          if (chunkSample == null) {
+            return;
+          }
+
+          System.out.println(chunkSample);
 
           perfMon.incrementCounter();
-        }
+        });
       } catch (IOException e) {
         CmdLineUtil.handleStdinIoError(e);
       }
@@ -105,7 +105,8 @@ public final class DoccatEvaluatorTool extends
     monitor.startAndPrintThroughput();
 
     try {
-      evaluator.evaluate(measuredSampleStream);
+      evaluator.evaluate(measuredSampleStream, params.getThreads(),
+          () -> new DocumentCategorizerEvaluator(new DocumentCategorizerME(model)));
     } catch (IOException e) {
       System.err.println("failed");
       throw new TerminateToolException(-1, "IO error while reading test data: "
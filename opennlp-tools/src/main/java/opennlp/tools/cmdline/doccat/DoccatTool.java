@@ -23,6 +23,7 @@ import java.io.IOException;
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
 import opennlp.tools.doccat.DoccatModel;
@@ -42,43 +43,50 @@ public class DoccatTool extends BasicCmdLineTool {
 
   @Override
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < documents";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < documents\n"
+        + "-threads n: Process the documents with n threads.";
   }
 
   @Override
   public void run(String[] args) {
 
+    int threads = ParallelProcessor.getThreads(args);
+    args = CmdLineUtil.removeParameter(ParallelProcessor.THREADS_PARAM, args);
+
     if (0 == args.length) {
       System.out.println(getHelp());
     } else {
 
       DoccatModel model = new DoccatModelLoader().load(new File(args[0]));
 
-      DocumentCategorizerME documentCategorizerME = new DocumentCategorizerME(model);
+      ParallelProcessor<String, DocumentSample> processor = new ParallelProcessor<>(threads, () -> {
+        DocumentCategorizerME documentCategorizerME = new DocumentCategorizerME(model);
+        return document -> {
+          String[] tokens = WhitespaceTokenizer.INSTANCE.tokenize(document);
+
+          double[] prob = documentCategorizerME.categorize(tokens);
+          String category = documentCategorizerME.getBestCategory(prob);
+
+          return new DocumentSample(category, tokens);
+        };
+      });
 
       /*
        * moved initialization to the try block to catch new IOException
        */
       ObjectStream<String> documentStream;
 
-      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "doc");
+      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "doc", threads);
       perfMon.start();
 
       try {
         documentStream = new ParagraphStream(new PlainTextByLineStream(
             new SystemInputStreamFactory(), SystemInputStreamFactory.encoding()));
-        String document;
-        while ((document = documentStream.read()) != null) {
-          String[] tokens = WhitespaceTokenizer.INSTANCE.tokenize(document);
-
-          double[] prob = documentCategorizerME.categorize(tokens);
-          String category = documentCategorizerME.getBestCategory(prob);
-
-          DocumentSample sample = new DocumentSample(category, tokens);
+        processor.process(documentStream, sample -> {
           System.out.println(sample.toString());
 
           perfMon.incrementCounter();
-        }
+        });
       } catch (IOException e) {
         CmdLineUtil.handleStdinIoError(e);
       }
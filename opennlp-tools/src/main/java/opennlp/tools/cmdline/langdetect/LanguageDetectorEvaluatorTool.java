@@ -104,7 +104,8 @@ public final class LanguageDetectorEvaluatorTool extends
     monitor.startAndPrintThroughput();
 
     try {
-      evaluator.evaluate(measuredSampleStream);
+      evaluator.evaluate(measuredSampleStream, params.getThreads(),
+          () -> new LanguageDetectorEvaluator(new LanguageDetectorME(model)));
     } catch (IOException e) {
       System.err.println("failed");
       throw new TerminateToolException(-1, "IO error while reading test data: "
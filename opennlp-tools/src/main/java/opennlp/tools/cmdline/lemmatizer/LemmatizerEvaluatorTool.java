@@ -76,7 +76,8 @@ public final class LemmatizerEvaluatorTool
 
     System.out.print("Evaluating ... ");
     try {
-      evaluator.evaluate(sampleStream);
+      evaluator.evaluate(sampleStream, params.getThreads(),
+          () -> new LemmatizerEvaluator(new opennlp.tools.lemmatizer.LemmatizerME(model)));
     } catch (IOException e) {
       System.err.println("failed");
       throw new TerminateToolException(-1,
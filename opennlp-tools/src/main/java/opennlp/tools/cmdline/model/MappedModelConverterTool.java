@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import opennlp.tools.cmdline.BasicCmdLineTool;
+import opennlp.tools.cmdline.CLI;
+import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.TerminateToolException;
+import opennlp.tools.util.model.ModelUtil;
+
+/**
+ * Converts the maxent models of a model package to the memory-mapped format.
+ *
+ * @see opennlp.tools.ml.model.MappedMaxentModel
+ */
+public final class MappedModelConverterTool extends BasicCmdLineTool {
+
+  public String getShortDescription() {
+    return "converts a model to the memory-mapped format";
+  }
+
+  public String getHelp() {
+    return "Usage: " + CLI.CMD + " " + getName() + " model.in model.out";
+  }
+
+  public void run(String[] args) {
+
+    if (args.length != 2) {
+      System.out.println(getHelp());
+    } else {
+
+      File modelInFile = new File(args[0]);
+      File modelOutFile = new File(args[1]);
+
+      CmdLineUtil.checkInputFile("model", modelInFile);
+      CmdLineUtil.checkOutputFile("converted model", modelOutFile);
+
+      System.err.print("Converting model ... ");
+
+      long beginConversionTime = System.currentTimeMillis();
+
+      int convertedModels;
+      try (InputStream in = new BufferedInputStream(new FileInputStream(modelInFile));
+          OutputStream out = new BufferedOutputStream(new FileOutputStream(modelOutFile))) {
+        convertedModels = ModelUtil.convertToMappedModels(in, out);
+      } catch (IOException e) {
+        System.err.println("failed");
+        throw new TerminateToolException(-1, "Error during converting model file '" + modelInFile + "'", e);
+      }
+
+      long conversionDuration = System.currentTimeMillis() - beginConversionTime;
+
+      System.err.printf("done (%.3fs)\n", conversionDuration / 1000d);
+
+      System.err.println();
+
+      System.err.println("Converted " + convertedModels + " maxent model(s), wrote model to");
+      System.err.println("path: " + modelOutFile.getAbsolutePath());
+
+      System.err.println();
+    }
+  }
+}
@@ -125,7 +125,8 @@ public final class TokenNameFinderEvaluatorTool
     monitor.startAndPrintThroughput();
 
     try {
-      evaluator.evaluate(measuredSampleStream);
+      evaluator.evaluate(measuredSampleStream, params.getThreads(),
+          () -> new TokenNameFinderEvaluator(new NameFinderME(model)));
     } catch (IOException e) {
       System.err.println("failed");
       throw new TerminateToolException(-1, "IO error while reading test data: " + e.getMessage(), e);
@@ -26,6 +26,7 @@ import java.util.List;
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
 import opennlp.tools.namefind.NameFinderME;
@@ -44,68 +45,86 @@ public final class TokenNameFinderTool extends BasicCmdLineTool {
   }
 
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model1 model2 ... modelN < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model1 model2 ... modelN < sentences\n"
+        + "-threads n: Process the documents with n threads.";
   }
 
   @Override
   public void run(String[] args) {
 
-    if (args.length == 0) {
+    int threads = ParallelProcessor.getThreads(args);
+    String[] modelNames = CmdLineUtil.removeParameter(ParallelProcessor.THREADS_PARAM, args);
+
+    if (modelNames.length == 0) {
       System.out.println(getHelp());
     } else {
 
-      NameFinderME[] nameFinders = new NameFinderME[args.length];
+      TokenNameFinderModel[] models = new TokenNameFinderModel[modelNames.length];
 
-      for (int i = 0; i < nameFinders.length; i++) {
-        TokenNameFinderModel model = new TokenNameFinderModelLoader().load(new File(args[i]));
-        nameFinders[i] = new NameFinderME(model);
+      for (int i = 0; i < models.length; i++) {
+        models[i] = new TokenNameFinderModelLoader().load(new File(modelNames[i]));
       }
 
       // ObjectStream<String> untokenizedLineStream =
       // new PlainTextByLineStream(new InputStreamReader(System.in));
       ObjectStream<String> untokenizedLineStream;
-      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent");
+      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent", threads);
       perfMon.start();
 
+      // The lines of a document are processed in order by one thread, the adaptive
+      // data of its name finders is cleared at the empty line which starts a document
+      ParallelProcessor<String, String> processor =
+          new ParallelProcessor<>(threads, () -> {
+            NameFinderME[] nameFinders = new NameFinderME[models.length];
+            for (int i = 0; i < nameFinders.length; i++) {
+              nameFinders[i] = new NameFinderME(models[i]);
+            }
+            return line -> findNames(nameFinders, line);
+          });
+
       try {
         untokenizedLineStream = new PlainTextByLineStream(
             new SystemInputStreamFactory(), SystemInputStreamFactory.encoding());
-        String line;
-        while ((line = untokenizedLineStream.read()) != null) {
-          String[] whitespaceTokenizerLine = WhitespaceTokenizer.INSTANCE.tokenize(line);
 
-          // A new line indicates a new document,
-          // adaptive data must be cleared for a new document
+        processor.process(untokenizedLineStream,
+            line -> WhitespaceTokenizer.INSTANCE.tokenize(line).length == 0, sample -> {
+              System.out.println(sample);
+              perfMon.incrementCounter();
+            });
+      } catch (IOException e) {
+        CmdLineUtil.handleStdinIoError(e);
+      }
 
-          if (whitespaceTokenizerLine.length == 0) {
-            for (NameFinderME nameFinder : nameFinders) {
-              nameFinder.clearAdaptiveData();
-            }
-          }
+      perfMon.stopAndPrintFinalResult();
+    }
+  }
 
-          List<Span> names = new ArrayList<>();
+  private static String findNames(NameFinderME[] nameFinders, String line) {
+    String[] whitespaceTokenizerLine = WhitespaceTokenizer.INSTANCE.tokenize(line);
 
-          for (TokenNameFinder nameFinder : nameFinders) {
-            Collections.addAll(names, nameFinder.find(whitespaceTokenizerLine));
-          }
+    // A new line indicates a new document,
+    // adaptive data must be cleared for a new document
 
-          // Simple way to drop intersecting spans, otherwise the
-          // NameSample is invalid
-          Span[] reducedNames = NameFinderME.dropOverlappingSpans(
-                  names.toArray(new Span[names.size()]));
+    if (whitespaceTokenizerLine.length == 0) {
+      for (NameFinderME nameFinder : nameFinders) {
+        nameFinder.clearAdaptiveData();
+      }
+    }
 
-          NameSample nameSample = new NameSample(whitespaceTokenizerLine,
-                  reducedNames, false);
+    List<Span> names = new ArrayList<>();
 
-          System.out.println(nameSample.toString());
+    for (TokenNameFinder nameFinder : nameFinders) {
+      Collections.addAll(names, nameFinder.find(whitespaceTokenizerLine));
+    }
 
-          perfMon.incrementCounter();
-        }
-      } catch (IOException e) {
-        CmdLineUtil.handleStdinIoError(e);
-      }
+    // Simple way to drop intersecting spans, otherwise the
+    // NameSample is invalid
+    Span[] reducedNames = NameFinderME.dropOverlappingSpans(
+            names.toArray(new Span[names.size()]));
 
-      perfMon.stopAndPrintFinalResult();
-    }
+    NameSample nameSample = new NameSample(whitespaceTokenizerLine,
+            reducedNames, false);
+
+    return nameSample.toString();
   }
 }
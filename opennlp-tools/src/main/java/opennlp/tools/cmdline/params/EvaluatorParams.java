@@ -37,4 +37,9 @@ public interface EvaluatorParams {
   @OptionalParameter(defaultValue = "false")
   Boolean getMisclassified();
 
+  @ParameterDescription(valueName = "num",
+      description = "number of threads which evaluate the samples, default is 1.")
+  @OptionalParameter(defaultValue = "1")
+  Integer getThreads();
+
 }
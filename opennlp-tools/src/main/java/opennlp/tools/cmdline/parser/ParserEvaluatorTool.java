@@ -51,7 +51,8 @@ public class ParserEvaluatorTool extends AbstractEvaluatorTool<Parse, EvaluatorP
 
     System.out.print("Evaluating ... ");
     try {
-      evaluator.evaluate(sampleStream);
+      evaluator.evaluate(sampleStream, params.getThreads(),
+          () -> new ParserEvaluator(ParserFactory.create(model)));
     }
     catch (IOException e) {
       System.err.println("failed");
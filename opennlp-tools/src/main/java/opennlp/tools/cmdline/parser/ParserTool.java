@@ -27,6 +27,7 @@ import java.util.regex.Pattern;
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
 import opennlp.tools.cmdline.tokenizer.TokenizerModelLoader;
@@ -50,12 +51,14 @@ public final class ParserTool extends BasicCmdLineTool {
   }
 
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " [-bs n -ap n -k n -tk tok_model] model < sentences \n"
+    return "Usage: " + CLI.CMD + " " + getName()
+            + " [-bs n -ap n -k n -tk tok_model -threads n] model < sentences \n"
             + "-bs n: Use a beam size of n.\n"
             + "-ap f: Advance outcomes in with at least f% of the probability mass.\n"
             + "-k n: Show the top n parses.  This will also display their log-probablities.\n"
             + "-tk tok_model: Use the specified tokenizer model to tokenize the sentences. "
-            + "Defaults to a WhitespaceTokenizer.";
+            + "Defaults to a WhitespaceTokenizer.\n"
+            + "-threads n: Parse the sentences with n threads.";
   }
 
   private static Pattern untokenizedParenPattern1 = Pattern.compile("([^ ])([({)}])");
@@ -93,55 +96,56 @@ public final class ParserTool extends BasicCmdLineTool {
 
   public void run(String[] args) {
 
+    int threads = ParallelProcessor.getThreads(args);
+    args = CmdLineUtil.removeParameter(ParallelProcessor.THREADS_PARAM, args);
+
     if (args.length < 1) {
       System.out.println(getHelp());
     } else {
 
       ParserModel model = new ParserModelLoader().load(new File(args[args.length - 1]));
 
-      Integer beamSize = CmdLineUtil.getIntParameter("-bs", args);
-      if (beamSize == null) {
-        beamSize = AbstractBottomUpParser.defaultBeamSize;
-      }
+      Integer bs = CmdLineUtil.getIntParameter("-bs", args);
+      int beamSize = bs != null ? bs : AbstractBottomUpParser.defaultBeamSize;
 
-      Integer numParses = CmdLineUtil.getIntParameter("-k", args);
+      Integer k = CmdLineUtil.getIntParameter("-k", args);
       boolean showTopK;
-      if (numParses == null) {
+      int numParses;
+      if (k == null) {
         numParses = 1;
         showTopK = false;
       } else {
+        numParses = k;
         showTopK = true;
       }
 
-      Double advancePercentage = CmdLineUtil.getDoubleParameter("-ap", args);
-
-      if (advancePercentage == null) {
-        advancePercentage = AbstractBottomUpParser.defaultAdvancePercentage;
-      }
+      Double ap = CmdLineUtil.getDoubleParameter("-ap", args);
+      double advancePercentage = ap != null ? ap : AbstractBottomUpParser.defaultAdvancePercentage;
 
-      Tokenizer tokenizer = WhitespaceTokenizer.INSTANCE;
       String tokenizerModelName = CmdLineUtil.getParameter( "-tk", args );
-      if (tokenizerModelName != null ) {
-        TokenizerModel tokenizerModel = new TokenizerModelLoader().load(new File(tokenizerModelName));
-        tokenizer = new TokenizerME( tokenizerModel );
-      }
+      TokenizerModel tokenizerModel = tokenizerModelName != null
+          ? new TokenizerModelLoader().load(new File(tokenizerModelName)) : null;
+
+      // every thread has its own parser and tokenizer
+      ParallelProcessor<String, Parse[]> processor = new ParallelProcessor<>(threads, () -> {
+        Parser parser = ParserFactory.create(model, beamSize, advancePercentage);
+        Tokenizer tokenizer = tokenizerModel != null
+            ? new TokenizerME(tokenizerModel) : WhitespaceTokenizer.INSTANCE;
 
-      Parser parser = ParserFactory.create(model, beamSize, advancePercentage);
+        return line -> line.trim().length() == 0 ? null
+            : parseLine(line, parser, tokenizer, numParses);
+      });
 
       ObjectStream<String> lineStream = null;
-      PerformanceMonitor perfMon = null;
+      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent", threads);
+      perfMon.start();
       try {
         lineStream = new PlainTextByLineStream(new SystemInputStreamFactory(),
             SystemInputStreamFactory.encoding());
-        perfMon = new PerformanceMonitor(System.err, "sent");
-        perfMon.start();
-        String line;
-        while ((line = lineStream.read()) != null) {
-          if (line.trim().length() == 0) {
+        processor.process(lineStream, parses -> {
+          if (parses == null) {
             System.out.println();
           } else {
-            Parse[] parses = parseLine(line, parser, tokenizer, numParses);
-
             for (int pi = 0, pn = parses.length; pi < pn; pi++) {
               if (showTopK) {
                 System.out.print(pi + " " + parses[pi].getProb() + " ");
@@ -152,7 +156,7 @@ public final class ParserTool extends BasicCmdLineTool {
               perfMon.incrementCounter();
             }
           }
-        }
+        });
       } catch (IOException e) {
         CmdLineUtil.handleStdinIoError(e);
       }
@@ -94,7 +94,7 @@ public final class POSTaggerCrossValidatorTool
           params.getDict(), featureGeneratorBytes, resources, params.getTagDictCutoff(),
           params.getFactory(), missclassifiedListener, reportListener);
 
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(), params.getThreads());
     } catch (IOException e) {
       throw new TerminateToolException(-1, "IO error while reading training data or indexing data: "
           + e.getMessage(), e);
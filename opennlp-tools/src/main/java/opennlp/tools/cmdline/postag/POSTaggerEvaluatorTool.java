@@ -80,7 +80,8 @@ public final class POSTaggerEvaluatorTool
 
     System.out.print("Evaluating ... ");
     try {
-      evaluator.evaluate(sampleStream);
+      evaluator.evaluate(sampleStream, params.getThreads(),
+          () -> new POSEvaluator(new opennlp.tools.postag.POSTaggerME(model)));
     }
     catch (IOException e) {
       System.err.println("failed");
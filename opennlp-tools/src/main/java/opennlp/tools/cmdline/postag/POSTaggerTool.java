@@ -23,6 +23,7 @@ import java.io.IOException;
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
 import opennlp.tools.postag.POSModel;
@@ -39,38 +40,44 @@ public final class POSTaggerTool extends BasicCmdLineTool {
   }
 
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n"
+        + "-threads n: Process the sentences with n threads.";
   }
 
   public void run(String[] args) {
 
+    int threads = ParallelProcessor.getThreads(args);
+    args = CmdLineUtil.removeParameter(ParallelProcessor.THREADS_PARAM, args);
+
     if (args.length != 1) {
       System.out.println(getHelp());
     } else {
 
       POSModel model = new POSModelLoader().load(new File(args[0]));
 
-      POSTaggerME tagger = new POSTaggerME(model);
+      ParallelProcessor<String, String> processor = new ParallelProcessor<>(threads, () -> {
+        POSTaggerME tagger = new POSTaggerME(model);
+        return line -> {
+          String[] whitespaceTokenizerLine = WhitespaceTokenizer.INSTANCE.tokenize(line);
+          String[] tags = tagger.tag(whitespaceTokenizerLine);
+
+          POSSample sample = new POSSample(whitespaceTokenizerLine, tags);
+          return sample.toString();
+        };
+      });
 
       ObjectStream<String> lineStream;
-      PerformanceMonitor perfMon = null;
+      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent", threads);
+      perfMon.start();
 
       try {
         lineStream =
             new PlainTextByLineStream(new SystemInputStreamFactory(), SystemInputStreamFactory.encoding());
-        perfMon = new PerformanceMonitor(System.err, "sent");
-        perfMon.start();
-        String line;
-        while ((line = lineStream.read()) != null) {
-
-          String[] whitespaceTokenizerLine = WhitespaceTokenizer.INSTANCE.tokenize(line);
-          String[] tags = tagger.tag(whitespaceTokenizerLine);
-
-          POSSample sample = new POSSample(whitespaceTokenizerLine, tags);
-          System.out.println(sample.toString());
+        processor.process(lineStream, sample -> {
+          System.out.println(sample);
 
           perfMon.incrementCounter();
-        }
+        });
       } catch (IOException e) {
         CmdLineUtil.handleStdinIoError(e);
       }
@@ -58,7 +58,8 @@ public final class SentenceDetectorEvaluatorTool
 
     System.out.print("Evaluating ... ");
     try {
-      evaluator.evaluate(sampleStream);
+      evaluator.evaluate(sampleStream, params.getThreads(),
+          () -> new SentenceDetectorEvaluator(new SentenceDetectorME(model)));
     }
     catch (IOException e) {
       throw new TerminateToolException(-1, "IO error while reading training data or indexing data: " +
@@ -23,6 +23,7 @@ import java.io.IOException;
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
 import opennlp.tools.sentdetect.SentenceDetectorME;
@@ -41,7 +42,8 @@ public final class SentenceDetectorTool extends BasicCmdLineTool {
   }
 
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n"
+        + "-threads n: Process the paragraphs with n threads.";
   }
 
   /**
@@ -51,24 +53,27 @@ public final class SentenceDetectorTool extends BasicCmdLineTool {
    */
   public void run(String[] args) {
 
+    int threads = ParallelProcessor.getThreads(args);
+    args = CmdLineUtil.removeParameter(ParallelProcessor.THREADS_PARAM, args);
+
     if (args.length != 1) {
       System.out.println(getHelp());
     } else {
 
       SentenceModel model = new SentenceModelLoader().load(new File(args[0]));
 
-      SentenceDetectorME sdetector = new SentenceDetectorME(model);
+      ParallelProcessor<String, String[]> processor = new ParallelProcessor<>(threads, () -> {
+        SentenceDetectorME sdetector = new SentenceDetectorME(model);
+        return sdetector::sentDetect;
+      });
 
-      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent");
+      PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent", threads);
       perfMon.start();
 
       try (ObjectStream<String> paraStream = new ParagraphStream(new PlainTextByLineStream(
             new SystemInputStreamFactory(), SystemInputStreamFactory.encoding()))) {
 
-        String para;
-        while ((para = paraStream.read()) != null) {
-
-          String[] sents = sdetector.sentDetect(para);
+        processor.process(paraStream, sents -> {
           for (String sentence : sents) {
             System.out.println(sentence);
           }
@@ -76,7 +81,7 @@ public final class SentenceDetectorTool extends BasicCmdLineTool {
           perfMon.incrementCounter(sents.length);
 
           System.out.println();
-        }
+        });
       }
       catch (IOException e) {
         CmdLineUtil.handleStdinIoError(e);
@@ -18,45 +18,53 @@
 package opennlp.tools.cmdline.tokenizer;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
 import opennlp.tools.tokenize.Tokenizer;
-import opennlp.tools.tokenize.TokenizerStream;
-import opennlp.tools.tokenize.WhitespaceTokenStream;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 
 final class CommandLineTokenizer {
 
-  private final Tokenizer tokenizer;
+  private final Supplier<Tokenizer> tokenizerFactory;
+  private final int threads;
 
   CommandLineTokenizer(Tokenizer tokenizer) {
-    this.tokenizer = tokenizer;
+    this(() -> tokenizer, 1);
+  }
+
+  /**
+   * @param tokenizerFactory creates a tokenizer for each thread
+   * @param threads the number of threads
+   */
+  CommandLineTokenizer(Supplier<Tokenizer> tokenizerFactory, int threads) {
+    this.tokenizerFactory = tokenizerFactory;
+    this.threads = threads;
   }
 
   void process() {
     ObjectStream<String> untokenizedLineStream;
 
-    ObjectStream<String> tokenizedLineStream;
-    PerformanceMonitor perfMon = null;
+    ParallelProcessor<String, String> processor = new ParallelProcessor<>(threads, () -> {
+      Tokenizer tokenizer = tokenizerFactory.get();
+      return line -> String.join(" ", tokenizer.tokenize(line));
+    });
+
+    PerformanceMonitor perfMon = new PerformanceMonitor(System.err, "sent", threads);
+    perfMon.start();
+
     try {
       untokenizedLineStream =
               new PlainTextByLineStream(new SystemInputStreamFactory(), SystemInputStreamFactory.encoding());
 
-      tokenizedLineStream = new WhitespaceTokenStream(
-              new TokenizerStream(tokenizer, untokenizedLineStream));
-
-      perfMon = new PerformanceMonitor(System.err, "sent");
-      perfMon.start();
-
-
-      String tokenizedLine;
-      while ((tokenizedLine = tokenizedLineStream.read()) != null) {
+      processor.process(untokenizedLineStream, tokenizedLine -> {
         System.out.println(tokenizedLine);
         perfMon.incrementCounter();
-      }
+      });
     } catch (IOException e) {
       CmdLineUtil.handleStdinIoError(e);
     }
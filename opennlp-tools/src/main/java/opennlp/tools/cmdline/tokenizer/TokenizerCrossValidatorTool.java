@@ -69,7 +69,7 @@ public final class TokenizerCrossValidatorTool
       validator = new opennlp.tools.tokenize.TokenizerCrossValidator(mlParams,
           tokFactory, listener);
 
-      validator.evaluate(sampleStream, params.getFolds());
+      validator.evaluate(sampleStream, params.getFolds(), params.getThreads());
     }
     catch (IOException e) {
       throw createTerminationIOException(e);
@@ -58,7 +58,8 @@ public final class TokenizerMEEvaluatorTool
     System.out.print("Evaluating ... ");
 
     try {
-      evaluator.evaluate(sampleStream);
+      evaluator.evaluate(sampleStream, params.getThreads(),
+          () -> new TokenizerEvaluator(new opennlp.tools.tokenize.TokenizerME(model)));
     } catch (IOException e) {
       System.err.println("failed");
       throw new TerminateToolException(-1, "IO error while reading test data: " + e.getMessage(), e);
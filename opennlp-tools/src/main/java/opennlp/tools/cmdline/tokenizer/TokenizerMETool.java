@@ -21,6 +21,9 @@ import java.io.File;
 
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
+import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.ParallelProcessor;
+import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
 
 public final class TokenizerMETool extends BasicCmdLineTool {
@@ -30,10 +33,15 @@ public final class TokenizerMETool extends BasicCmdLineTool {
   }
 
   public String getHelp() {
-    return "Usage: " + CLI.CMD + " " + getName() + " model < sentences";
+    return "Usage: " + CLI.CMD + " " + getName() + " [-threads n] model < sentences\n"
+        + "-threads n: Process the sentences with n threads.";
   }
 
   public void run(String[] args) {
+
+    int threads = ParallelProcessor.getThreads(args);
+    args = CmdLineUtil.removeParameter(ParallelProcessor.THREADS_PARAM, args);
+
     if (args.length != 1) {
       System.out.println(getHelp());
     } else {
@@ -41,7 +49,7 @@ public final class TokenizerMETool extends BasicCmdLineTool {
       TokenizerModel model = new TokenizerModelLoader().load(new File(args[0]));
 
       CommandLineTokenizer tokenizer =
-          new CommandLineTokenizer(new opennlp.tools.tokenize.TokenizerME(model));
+          new CommandLineTokenizer(() -> new TokenizerME(model), threads);
 
       tokenizer.process();
     }
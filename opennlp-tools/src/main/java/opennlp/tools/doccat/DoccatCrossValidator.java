@@ -22,6 +22,7 @@ import java.io.IOException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
+import opennlp.tools.util.eval.FoldEvaluationMonitor;
 import opennlp.tools.util.eval.Mean;
 
 /**
@@ -29,6 +30,17 @@ import opennlp.tools.util.eval.Mean;
  */
 public class DoccatCrossValidator {
 
+  private static class FoldMonitor extends FoldEvaluationMonitor<DocumentSample>
+      implements DoccatEvaluationMonitor {
+
+    private double accuracy;
+    private long documentCount;
+
+    FoldMonitor(DoccatEvaluationMonitor[] listeners, boolean record) {
+      super(listeners, record);
+    }
+  }
+
   private final String languageCode;
 
   private final TrainingParameters params;
@@ -64,27 +76,46 @@ public class DoccatCrossValidator {
    */
   public void evaluate(ObjectStream<DocumentSample> samples, int nFolds)
       throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
 
-    CrossValidationPartitioner<DocumentSample> partitioner = new CrossValidationPartitioner<>(
-        samples, nFolds);
-
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<DocumentSample> trainingSampleStream = partitioner
-          .next();
+  /**
+   * Starts the evaluation, the folds are trained and evaluated in parallel.
+   * The results and the events which are passed to the listeners are the
+   * same as in a sequential evaluation.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are trained and evaluated at the same time
+   *
+   * @throws IOException
+   */
+  public void evaluate(ObjectStream<DocumentSample> samples, int nFolds, int threads)
+      throws IOException {
 
-      DoccatModel model = DocumentCategorizerME.train(languageCode,
-          trainingSampleStream, params, factory);
+    CrossValidationPartitioner.<DocumentSample, FoldMonitor>evaluateFolds(samples, nFolds, threads,
+        trainingSampleStream -> {
 
-      DocumentCategorizerEvaluator evaluator = new DocumentCategorizerEvaluator(
-          new DocumentCategorizerME(model), listeners);
+          DoccatModel model = DocumentCategorizerME.train(languageCode,
+              trainingSampleStream, params, factory);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          FoldMonitor foldMonitor = new FoldMonitor(listeners, threads > 1);
+          DocumentCategorizerEvaluator evaluator = new DocumentCategorizerEvaluator(
+              new DocumentCategorizerME(model), foldMonitor);
 
-      documentAccuracy.add(evaluator.getAccuracy(),
-          evaluator.getDocumentCount());
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-    }
+          foldMonitor.accuracy = evaluator.getAccuracy();
+          foldMonitor.documentCount = evaluator.getDocumentCount();
+          return foldMonitor;
+        },
+        foldMonitor -> {
+          foldMonitor.replay();
+          documentAccuracy.add(foldMonitor.accuracy, foldMonitor.documentCount);
+        });
   }
 
   /**
@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.MaxentModel;
@@ -50,10 +51,18 @@ public class DoccatModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public DoccatModel(InputStream in, Executor executor) throws IOException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public DoccatModel(File modelFile) throws IOException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public DoccatModel(File modelFile, Executor executor) throws IOException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public DoccatModel(Path modelPath) throws IOException {
     this(modelPath.toFile());
   }
@@ -73,6 +73,16 @@ public class DocumentCategorizerEvaluator extends Evaluator<DocumentSample> {
     return new DocumentSample(cat, sample.getText());
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<DocumentSample> evaluator) {
+    accuracy.mergeInto(((DocumentCategorizerEvaluator) evaluator).accuracy);
+  }
+
   /**
    * Retrieves the accuracy of provided {@link DocumentCategorizer}.
    *
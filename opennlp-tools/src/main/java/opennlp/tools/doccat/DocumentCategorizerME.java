@@ -18,17 +18,21 @@
 package opennlp.tools.doccat;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.BatchUtil;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 
@@ -80,6 +84,36 @@ public class DocumentCategorizerME implements DocumentCategorizer {
     return this.categorize(text, Collections.emptyMap());
   }
 
+  /**
+   * Categorizes a batch of texts. The contexts of all texts are evaluated
+   * together with {@link MaxentModel#evalBatch(String[][])}.
+   *
+   * @param texts the texts to categorize, each provided as tokens
+   *
+   * @return the category probabilities of each text, in input order
+   */
+  public List<double[]> categorize(List<String[]> texts) {
+    String[][] contexts = new String[texts.size()][];
+    for (int i = 0; i < contexts.length; i++) {
+      contexts[i] = mContextGenerator.getContext(texts.get(i), Collections.emptyMap());
+    }
+    return Arrays.asList(model.getMaxentModel().evalBatch(contexts));
+  }
+
+  /**
+   * Categorizes a batch of texts, the work is distributed in chunks over the
+   * executor. The feature generators of the model must be thread safe,
+   * which the built-in ones are.
+   *
+   * @param texts the texts to categorize, each provided as tokens
+   * @param executor the executor which runs the chunks
+   *
+   * @return the category probabilities of each text, in input order
+   */
+  public List<double[]> categorize(List<String[]> texts, Executor executor) {
+    return BatchUtil.process(texts, this::categorize, executor);
+  }
+
   /**
    * Returns a map in which the key is the category name and the value is the score
    *
@@ -23,6 +23,7 @@ import opennlp.tools.doccat.FeatureGenerator;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
+import opennlp.tools.util.eval.FoldEvaluationMonitor;
 import opennlp.tools.util.eval.Mean;
 
 /**
@@ -30,6 +31,17 @@ import opennlp.tools.util.eval.Mean;
  */
 public class LanguageDetectorCrossValidator {
 
+  private static class FoldMonitor extends FoldEvaluationMonitor<LanguageSample>
+      implements LanguageDetectorEvaluationMonitor {
+
+    private double accuracy;
+    private long documentCount;
+
+    FoldMonitor(LanguageDetectorEvaluationMonitor[] listeners, boolean record) {
+      super(listeners, record);
+    }
+  }
+
   private final TrainingParameters params;
 
   private Mean documentAccuracy = new Mean();
@@ -63,27 +75,46 @@ public class LanguageDetectorCrossValidator {
    */
   public void evaluate(ObjectStream<LanguageSample> samples, int nFolds)
       throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
 
-    CrossValidationPartitioner<LanguageSample> partitioner =
-        new CrossValidationPartitioner<>(samples, nFolds);
-
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<LanguageSample> trainingSampleStream =
-          partitioner.next();
+  /**
+   * Starts the evaluation, the folds are trained and evaluated in parallel.
+   * The results and the events which are passed to the listeners are the
+   * same as in a sequential evaluation.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are trained and evaluated at the same time
+   *
+   * @throws IOException
+   */
+  public void evaluate(ObjectStream<LanguageSample> samples, int nFolds, int threads)
+      throws IOException {
 
-      LanguageDetectorModel model = LanguageDetectorME.train(
-          trainingSampleStream, params, factory);
+    CrossValidationPartitioner.<LanguageSample, FoldMonitor>evaluateFolds(samples, nFolds, threads,
+        trainingSampleStream -> {
 
-      LanguageDetectorEvaluator evaluator = new LanguageDetectorEvaluator(
-          new LanguageDetectorME(model), listeners);
+          LanguageDetectorModel model = LanguageDetectorME.train(
+              trainingSampleStream, params, factory);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          FoldMonitor foldMonitor = new FoldMonitor(listeners, threads > 1);
+          LanguageDetectorEvaluator evaluator = new LanguageDetectorEvaluator(
+              new LanguageDetectorME(model), foldMonitor);
 
-      documentAccuracy.add(evaluator.getAccuracy(),
-          evaluator.getDocumentCount());
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-    }
+          foldMonitor.accuracy = evaluator.getAccuracy();
+          foldMonitor.documentCount = evaluator.getDocumentCount();
+          return foldMonitor;
+        },
+        foldMonitor -> {
+          foldMonitor.replay();
+          documentAccuracy.add(foldMonitor.accuracy, foldMonitor.documentCount);
+        });
   }
 
   /**
@@ -73,6 +73,16 @@ public class LanguageDetectorEvaluator extends Evaluator<LanguageSample> {
     return new LanguageSample(predicted, sample.getContext());
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<LanguageSample> evaluator) {
+    accuracy.mergeInto(((LanguageDetectorEvaluator) evaluator).accuracy);
+  }
+
   /**
    * Retrieves the accuracy of provided {@link DocumentCategorizer}.
    *
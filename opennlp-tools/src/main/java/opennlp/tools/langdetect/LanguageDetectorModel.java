@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.MaxentModel;
@@ -50,10 +51,18 @@ public class LanguageDetectorModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public LanguageDetectorModel(InputStream in, Executor executor) throws IOException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public LanguageDetectorModel(File modelFile) throws IOException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public LanguageDetectorModel(File modelFile, Executor executor) throws IOException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public LanguageDetectorModel(URL modelURL) throws IOException {
     super(COMPONENT_NAME, modelURL);
   }
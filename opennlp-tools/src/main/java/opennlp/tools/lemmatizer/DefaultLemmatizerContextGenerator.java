@@ -87,6 +87,51 @@ public class DefaultLemmatizerContextGenerator implements LemmatizerContextGener
     features.add(p_1 + t0);
     features.add(p_1 + w0);
 
+    addWordFeatures(features, lex);
+
+    return features.toArray(new String[features.size()]);
+  }
+
+  /**
+   * Returns the features which do not depend on the previous predictions, subclasses
+   * do not split their contexts because they might override
+   * {@link #getContext(int, String[], String[], String[])}.
+   * A subclass gets null, the caller then evaluates the whole context.
+   */
+  @Override
+  public String[] getOutcomeIndependentContext(int index, String[] sequence,
+      Object[] additionalContext) {
+    if (getClass() != DefaultLemmatizerContextGenerator.class) {
+      return null;
+    }
+
+    String[] tags = (String[]) additionalContext[0];
+
+    List<String> features = new ArrayList<>();
+
+    features.add("w0=" + sequence[index]);
+    features.add("t0=" + tags[index]);
+
+    addWordFeatures(features, sequence[index]);
+
+    return features.toArray(new String[features.size()]);
+  }
+
+  @Override
+  public String[] getOutcomeDependentContext(int index, String[] sequence,
+      String[] priorDecisions, Object[] additionalContext) {
+    if (getClass() != DefaultLemmatizerContextGenerator.class) {
+      return getContext(index, sequence, priorDecisions, additionalContext);
+    }
+
+    String[] tags = (String[]) additionalContext[0];
+
+    String p_1 = index < 1 ? "p_1=bos" : "p_1=" + priorDecisions[index - 1];
+
+    return new String[] {p_1, p_1 + "t0=" + tags[index], p_1 + "w0=" + sequence[index]};
+  }
+
+  private static void addWordFeatures(List<String> features, String lex) {
     // do some basic suffix analysis
     String[] suffs = getSuffixes(lex);
     for (int i = 0; i < suffs.length; i++) {
@@ -109,8 +154,5 @@ public class DefaultLemmatizerContextGenerator implements LemmatizerContextGener
     if (hasNum.matcher(lex).find()) {
       features.add("d");
     }
-
-    return features.toArray(new String[features.size()]);
   }
 }
-
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.lemmatizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The candidate lemmas of one token, ordered by decreasing probability.
+ * <p>
+ * The candidates are stored as the predicted shortest edit scripts, a lemma
+ * is only decoded from its edit script when it is retrieved the first time.
+ *
+ * @see LemmatizerME#predictLemmaCandidates(String[], String[], int, double)
+ */
+public class LemmaCandidates {
+
+  private final String token;
+  private final String[] editScripts;
+  private final double[] probs;
+
+  private String[] lemmas;
+
+  LemmaCandidates(String token, String[] editScripts, double[] probs) {
+    this.token = token;
+    this.editScripts = editScripts;
+    this.probs = probs;
+  }
+
+  /**
+   * @return the token
+   */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * @return the number of candidates
+   */
+  public int size() {
+    return editScripts.length;
+  }
+
+  /**
+   * @param index the index of the candidate
+   *
+   * @return the edit script of the candidate
+   */
+  public String getEditScript(int index) {
+    return editScripts[index];
+  }
+
+  /**
+   * @param index the index of the candidate
+   *
+   * @return the probability of the candidate at the position of the token
+   */
+  public double getProbability(int index) {
+    return probs[index];
+  }
+
+  /**
+   * @param index the index of the candidate
+   *
+   * @return the lemma of the candidate
+   */
+  public String getLemma(int index) {
+    if (lemmas == null) {
+      lemmas = new String[editScripts.length];
+    }
+
+    if (lemmas[index] == null) {
+      lemmas[index] = LemmatizerME.decodeLemma(token, editScripts[index]);
+    }
+
+    return lemmas[index];
+  }
+
+  /**
+   * @return the lemmas of all candidates
+   */
+  public List<String> getLemmas() {
+    List<String> result = new ArrayList<>(editScripts.length);
+    for (int i = 0; i < editScripts.length; i++) {
+      result.add(getLemma(i));
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder string = new StringBuilder(token).append(" [");
+    for (int i = 0; i < editScripts.length; i++) {
+      if (i > 0) {
+        string.append(", ");
+      }
+      string.append(getLemma(i)).append(' ').append(probs[i]);
+    }
+    return string.append(']').toString();
+  }
+}
@@ -70,6 +70,16 @@ public class LemmatizerEvaluator extends Evaluator<LemmaSample> {
     return new LemmaSample(reference.getTokens(), reference.getTags(), predictedLemmas);
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<LemmaSample> evaluator) {
+    wordAccuracy.mergeInto(((LemmatizerEvaluator) evaluator).wordAccuracy);
+  }
+
   /**
    * Retrieves the word accuracy.
    *
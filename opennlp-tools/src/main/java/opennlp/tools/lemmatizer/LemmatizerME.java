@@ -27,6 +27,7 @@ import java.util.Map;
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
@@ -54,6 +55,7 @@ public class LemmatizerME implements Lemmatizer {
   private Sequence bestSequence;
 
   private SequenceClassificationModel<String> model;
+  private MaxentModel maxentModel;
 
   private LemmatizerContextGenerator contextGenerator;
   private SequenceValidator<String> sequenceValidator;
@@ -78,6 +80,8 @@ public class LemmatizerME implements Lemmatizer {
 
     sequenceValidator = factory.getSequenceValidator();
 
+    maxentModel = model.getLemmatizerMaxentModel();
+
     if (model.getLemmatizerSequenceModel() != null) {
       this.model = model.getLemmatizerSequenceModel();
     }
@@ -136,6 +140,205 @@ public class LemmatizerME implements Lemmatizer {
     return allLemmas;
   }
 
+  /**
+   * Predicts the most probable lemmas of every token.
+   * <p>
+   * Unlike {@link #predictLemmas(int, String[], String[])}, which decodes whole
+   * sequences, the candidates are ranked per token by the probability of their
+   * lemma class at the position of the token. The probabilities are summed over
+   * the hypotheses of the beam, weighted with the probabilities of the hypotheses,
+   * while the sentence is decoded once. The lemmas are only decoded when they are
+   * retrieved from the {@link LemmaCandidates}.
+   * <p>
+   * If the lemmatizer was trained as a sequence model the probabilities are instead
+   * summed over the best sequences of the model.
+   *
+   * @param toks the tokens
+   * @param tags the pos tags
+   * @param numCandidates the maximum number of candidates per token
+   * @param probabilityMass no more candidates are added to a token once the
+   *     probabilities of its candidates sum up to this mass, but every token keeps
+   *     its most probable candidate, 1 disables the cut-off
+   *
+   * @return the candidates of every token
+   */
+  public LemmaCandidates[] predictLemmaCandidates(String[] toks, String[] tags,
+      int numCandidates, double probabilityMass) {
+
+    if (numCandidates < 1) {
+      throw new IllegalArgumentException("numCandidates must be at least one but was "
+          + numCandidates + "!");
+    }
+
+    String[] outcomes;
+    double[][] marginals;
+    if (maxentModel != null) {
+      outcomes = new String[maxentModel.getNumOutcomes()];
+      for (int i = 0; i < outcomes.length; i++) {
+        outcomes[i] = maxentModel.getOutcome(i);
+      }
+      marginals = beamMarginals(toks, tags, outcomes);
+    }
+    else {
+      outcomes = model.getOutcomes();
+      marginals = sequenceMarginals(toks, tags, outcomes, numCandidates);
+    }
+
+    LemmaCandidates[] candidates = new LemmaCandidates[toks.length];
+    for (int i = 0; i < toks.length; i++) {
+      candidates[i] = selectCandidates(toks[i], marginals[i], outcomes, numCandidates,
+          probabilityMass);
+    }
+    return candidates;
+  }
+
+  /**
+   * Decodes the sentence with a beam search over the maxent model and sums the
+   * outcome probabilities of every position over the hypotheses of the beam.
+   */
+  private double[][] beamMarginals(String[] toks, String[] tags, String[] outcomes) {
+    Object[] additionalContext = new Object[] {tags};
+    double[][] marginals = new double[toks.length][outcomes.length];
+
+    List<String[]> histories = new ArrayList<>();
+    histories.add(new String[0]);
+    double[] historyScores = new double[] {0};
+
+    String[] nextOutcomes = new String[beamSize];
+    int[] nextHistories = new int[beamSize];
+    double[] nextScores = new double[beamSize];
+
+    for (int i = 0; i < toks.length; i++) {
+      double maxScore = Double.NEGATIVE_INFINITY;
+      for (int h = 0; h < histories.size(); h++) {
+        maxScore = Math.max(maxScore, historyScores[h]);
+      }
+
+      double[] marginal = marginals[i];
+      double total = 0;
+      int count = 0;
+
+      for (int h = 0; h < histories.size(); h++) {
+        String[] history = histories.get(h);
+        double[] probs = maxentModel.eval(
+            contextGenerator.getContext(i, toks, history, additionalContext));
+        double weight = Math.exp(historyScores[h] - maxScore);
+
+        for (int p = 0; p < probs.length; p++) {
+          if (sequenceValidator.validSequence(i, toks, history, outcomes[p])) {
+            marginal[p] += weight * probs[p];
+            total += weight * probs[p];
+
+            // keep the best extensions ordered by decreasing score
+            double score = historyScores[h] + Math.log(probs[p]);
+            if (count < beamSize || score > nextScores[count - 1]) {
+              int j = count < beamSize ? count++ : count - 1;
+              while (j > 0 && nextScores[j - 1] < score) {
+                nextOutcomes[j] = nextOutcomes[j - 1];
+                nextHistories[j] = nextHistories[j - 1];
+                nextScores[j] = nextScores[j - 1];
+                j--;
+              }
+              nextOutcomes[j] = outcomes[p];
+              nextHistories[j] = h;
+              nextScores[j] = score;
+            }
+          }
+        }
+      }
+
+      if (count == 0) {
+        break;
+      }
+
+      for (int p = 0; p < marginal.length; p++) {
+        marginal[p] /= total;
+      }
+
+      List<String[]> extended = new ArrayList<>(count);
+      for (int j = 0; j < count; j++) {
+        String[] history = Arrays.copyOf(histories.get(nextHistories[j]), i + 1);
+        history[i] = nextOutcomes[j];
+        extended.add(history);
+      }
+      histories = extended;
+      historyScores = Arrays.copyOf(nextScores, count);
+    }
+
+    return marginals;
+  }
+
+  /**
+   * Sums the outcome probabilities of every position over the best sequences
+   * of the sequence model, weighted with the scores of the sequences.
+   */
+  private double[][] sequenceMarginals(String[] toks, String[] tags, String[] outcomes,
+      int numSequences) {
+    Map<String, Integer> outcomeIndex = new HashMap<>();
+    for (int i = 0; i < outcomes.length; i++) {
+      outcomeIndex.put(outcomes[i], i);
+    }
+
+    double[][] marginals = new double[toks.length][outcomes.length];
+
+    Sequence[] sequences = model.bestSequences(Math.max(numSequences, beamSize), toks,
+        new Object[] {tags}, contextGenerator, sequenceValidator);
+    if (sequences.length == 0) {
+      return marginals;
+    }
+
+    double total = 0;
+    for (Sequence sequence : sequences) {
+      double weight = Math.exp(sequence.getScore() - sequences[0].getScore());
+      total += weight;
+
+      List<String> ses = sequence.getOutcomes();
+      for (int i = 0; i < ses.size(); i++) {
+        marginals[i][outcomeIndex.get(ses.get(i))] += weight;
+      }
+    }
+
+    for (double[] marginal : marginals) {
+      for (int p = 0; p < marginal.length; p++) {
+        marginal[p] /= total;
+      }
+    }
+
+    return marginals;
+  }
+
+  private static LemmaCandidates selectCandidates(String tok, double[] marginal,
+      String[] outcomes, int numCandidates, double probabilityMass) {
+
+    int[] best = new int[Math.min(numCandidates, marginal.length)];
+    int count = 0;
+    for (int p = 0; p < marginal.length; p++) {
+      if (marginal[p] > 0 && (count < best.length || marginal[p] > marginal[best[count - 1]])) {
+        int j = count < best.length ? count++ : count - 1;
+        while (j > 0 && marginal[best[j - 1]] < marginal[p]) {
+          best[j] = best[j - 1];
+          j--;
+        }
+        best[j] = p;
+      }
+    }
+
+    int size = 0;
+    double mass = 0;
+    while (size < count && (size == 0 || mass < probabilityMass)) {
+      mass += marginal[best[size++]];
+    }
+
+    String[] editScripts = new String[size];
+    double[] probs = new double[size];
+    for (int j = 0; j < size; j++) {
+      editScripts[j] = outcomes[best[j]];
+      probs[j] = marginal[best[j]];
+    }
+
+    return new LemmaCandidates(tok, editScripts, probs);
+  }
+
   /**
    * Decodes the lemma from the word and the induced lemma class.
    * @param toks the array of tokens
@@ -145,15 +348,19 @@ public class LemmatizerME implements Lemmatizer {
   public static String[] decodeLemmas(String[] toks, String[] preds) {
     List<String> lemmas = new ArrayList<>();
     for (int i = 0; i < toks.length; i++) {
-      String lemma = StringUtil.decodeShortestEditScript(toks[i].toLowerCase(), preds[i]);
-      if (lemma.length() == 0) {
-        lemma = "_";
-      }
-      lemmas.add(lemma);
+      lemmas.add(decodeLemma(toks[i], preds[i]));
     }
     return lemmas.toArray(new String[lemmas.size()]);
   }
 
+  static String decodeLemma(String tok, String pred) {
+    String lemma = StringUtil.decodeShortestEditScript(tok.toLowerCase(), pred);
+    if (lemma.length() == 0) {
+      lemma = "_";
+    }
+    return lemma;
+  }
+
   public static String[] encodeLemmas(String[] toks, String[] lemmas) {
     List<String> sesList = new ArrayList<>();
     for (int i = 0; i < toks.length; i++) {
@@ -209,6 +416,8 @@ public class LemmatizerME implements Lemmatizer {
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
+    SequenceDecoderFactory.addManifestEntries(trainParams, manifestInfoEntries);
+
     TrainerType trainerType = TrainerFactory.getTrainerType(trainParams);
 
     MaxentModel lemmatizerModel = null;
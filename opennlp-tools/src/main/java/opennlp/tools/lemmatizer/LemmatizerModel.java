@@ -24,6 +24,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.model.AbstractModel;
@@ -74,10 +75,18 @@ public class LemmatizerModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public LemmatizerModel(InputStream in, Executor executor) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public LemmatizerModel(File modelFile) throws IOException, InvalidFormatException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public LemmatizerModel(File modelFile, Executor executor) throws IOException, InvalidFormatException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public LemmatizerModel(Path modelPath) throws IOException, InvalidFormatException {
     this(modelPath.toFile());
   }
@@ -95,19 +104,24 @@ public class LemmatizerModel extends BaseModel {
     }
   }
 
-  public SequenceClassificationModel<String> getLemmatizerSequenceModel() {
-
-    Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
-
+  /**
+   * Retrieves the maxent model of the lemmatizer.
+   *
+   * @return the maxent model, or null if the lemmatizer was trained as a sequence model
+   */
+  MaxentModel getLemmatizerMaxentModel() {
     if (artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME) instanceof MaxentModel) {
-      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
+      return (MaxentModel) artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME);
+    }
+    else {
+      return null;
+    }
+  }
 
-      int beamSize = LemmatizerME.DEFAULT_BEAM_SIZE;
-      if (beamSizeString != null) {
-        beamSize = Integer.parseInt(beamSizeString);
-      }
+  public SequenceClassificationModel<String> getLemmatizerSequenceModel() {
 
-      return new BeamSearch<>(beamSize, (MaxentModel) artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME));
+    if (artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME) instanceof MaxentModel) {
+      return getSequenceDecoder(LEMMATIZER_MODEL_ENTRY_NAME, LemmatizerME.DEFAULT_BEAM_SIZE);
     }
     else if (artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME);
@@ -20,10 +20,13 @@ package opennlp.tools.ml;
 import java.io.IOException;
 
 import opennlp.tools.ml.model.AbstractDataIndexer;
+import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.DataIndexerFactory;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FeatureHashingEventStream;
 import opennlp.tools.ml.model.HashSumEventStream;
+import opennlp.tools.ml.model.HashedMaxentModel;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
@@ -35,6 +38,13 @@ public abstract class AbstractEventTrainer extends AbstractTrainer implements Ev
   public static final String DATA_INDEXER_ONE_PASS_VALUE = "OnePass";
   public static final String DATA_INDEXER_TWO_PASS_VALUE = "TwoPass";
   public static final String DATA_INDEXER_ONE_PASS_REAL_VALUE = "OnePassRealValue";
+  public static final String DATA_INDEXER_DISK_VALUE = "Disk";
+
+  /**
+   * The number of bits the features are hashed to, if set the model is trained
+   * on feature buckets and evaluated as a {@link HashedMaxentModel}.
+   */
+  public static final String FEATURE_HASHING_BITS_PARAM = "FeatureHashingBits";
 
   public AbstractEventTrainer() {
   }
@@ -46,6 +56,11 @@ public abstract class AbstractEventTrainer extends AbstractTrainer implements Ev
   @Override
   public void validate() {
     super.validate();
+
+    int hashBits = trainingParameters.getIntParameter(FEATURE_HASHING_BITS_PARAM, 0);
+    if (hashBits != 0) {
+      HashedMaxentModel.checkHashBits(hashBits);
+    }
   }
 
   @Deprecated
@@ -86,10 +101,21 @@ public abstract class AbstractEventTrainer extends AbstractTrainer implements Ev
   public final MaxentModel train(ObjectStream<Event> events) throws IOException {
     validate();
 
+    int hashBits = trainingParameters.getIntParameter(FEATURE_HASHING_BITS_PARAM, 0);
+
     HashSumEventStream hses = new HashSumEventStream(events);
-    DataIndexer indexer = getDataIndexer(hses);
+    DataIndexer indexer = getDataIndexer(hashBits != 0
+        ? new FeatureHashingEventStream(hses, hashBits) : hses);
 
     addToReport("Training-Eventhash", hses.calculateHashSum().toString(16));
-    return train(indexer);
+    MaxentModel model = train(indexer);
+
+    if (hashBits != 0) {
+      // the manifest entry makes the model serializer load the model as a hashed model
+      addToReport("Feature-Hashing-Bits", Integer.toString(hashBits));
+      model = HashedMaxentModel.hash((AbstractModel) model, hashBits);
+    }
+
+    return model;
   }
 }
@@ -17,21 +17,21 @@
 
 package opennlp.tools.ml;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
-
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.BeamSearchContextGenerator;
-import opennlp.tools.util.Cache;
+import opennlp.tools.util.ConcurrentCache;
+import opennlp.tools.util.ContextKey;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
 
 /**
  * Performs k-best search over sequence.  This is based on the description in
  * Ratnaparkhi (1998), PhD diss, Univ. of Pennsylvania.
+ * <p>
+ * Instances are thread-safe, the scratch buffers are allocated per call and
+ * the optional contexts cache is a {@link ConcurrentCache} which is shared
+ * by all threads.
  *
  * @see Sequence
  * @see SequenceValidator
@@ -41,13 +41,18 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
 
   public static final String BEAM_SIZE_PARAMETER = "BeamSize";
 
+  /**
+   * The manifest or training parameter which specifies the number of
+   * evaluated contexts the beam search caches, zero disables the cache.
+   */
+  public static final String CACHE_SIZE_PARAMETER = "BeamCacheSize";
+
   private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
 
   protected int size;
   protected MaxentModel model;
 
-  private double[] probs;
-  private Cache<String[], double[]> contextsCache;
+  private final ConcurrentCache<ContextKey, double[]> contextsCache;
   private static final int zeroLog = -100000;
 
   /**
@@ -61,19 +66,42 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
   }
 
   public BeamSearch(int size, MaxentModel model, int cacheSize) {
+    this(size, model, cacheSize > 0 ? new ConcurrentCache<>(cacheSize) : null);
+  }
 
+  /**
+   * Creates new search object which caches the evaluated contexts in the
+   * specified cache. The cache can be shared between search objects of
+   * the same model.
+   *
+   * @param size The size of the beam (k).
+   * @param model the model for assigning probabilities to the sequence outcomes.
+   * @param contextsCache the cache, or null to disable caching
+   */
+  public BeamSearch(int size, MaxentModel model,
+      ConcurrentCache<ContextKey, double[]> contextsCache) {
     this.size = size;
     this.model = model;
+    this.contextsCache = contextsCache;
+  }
 
-    if (cacheSize > 0) {
-      contextsCache = new Cache<>(cacheSize);
-    }
-
-    this.probs = new double[model.getNumOutcomes()];
+  /**
+   * Retrieves the contexts cache, e.g. to inspect its statistics.
+   *
+   * @return the cache or null if caching is disabled
+   */
+  public ConcurrentCache<ContextKey, double[]> getContextsCache() {
+    return contextsCache;
   }
 
   /**
    * Returns the best sequence of outcomes based on model for this object.
+   * <p>
+   * The search works on outcome indices. The hypotheses which are kept at each
+   * position are stored in preallocated arrays, each one references its
+   * predecessor at the previous position, and the {@link Sequence} objects are
+   * only created for the returned sequences. The beam threshold of each
+   * hypothesis is found with a partial selection of the best scores.
    *
    * @param sequence The input sequence.
    * @param additionalContext An Object[] of additional context.
@@ -86,79 +114,235 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
       Object[] additionalContext, double minSequenceScore,
       BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
 
-    Queue<Sequence> prev = new PriorityQueue<>(size);
-    Queue<Sequence> next = new PriorityQueue<>(size);
-    Queue<Sequence> tmp;
-    prev.add(new Sequence());
-
     if (additionalContext == null) {
       additionalContext = EMPTY_ADDITIONAL_CONTEXT;
     }
 
-    for (int i = 0; i < sequence.length; i++) {
-      int sz = Math.min(size, prev.size());
-
-      for (int sc = 0; prev.size() > 0 && sc < sz; sc++) {
-        Sequence top = prev.remove();
-        List<String> tmpOutcomes = top.getOutcomes();
-        String[] outcomes = tmpOutcomes.toArray(new String[tmpOutcomes.size()]);
-        String[] contexts = cg.getContext(i, sequence, outcomes, additionalContext);
-        double[] scores;
-        if (contextsCache != null) {
-          scores = contextsCache.computeIfAbsent(contexts, c -> model.eval(c, probs));
-        } else {
-          scores = model.eval(contexts, probs);
-        }
-
-        double[] temp_scores = new double[scores.length];
-        System.arraycopy(scores, 0, temp_scores, 0, scores.length);
+    if (sequence.length == 0) {
+      return numSequences > 0 ? new Sequence[] {new Sequence()} : new Sequence[0];
+    }
 
-        Arrays.sort(temp_scores);
+    int numOutcomes = model.getNumOutcomes();
+    String[] outcomeNames = getOutcomes();
+
+    // the kept hypotheses of position i are stored at i * width until i * width + count,
+    // each hypothesis consists of its outcome, its probability and its predecessor
+    int width = Math.max(size, numSequences);
+    int[] hypOutcomes = new int[sequence.length * width];
+    int[] hypPredecessors = new int[sequence.length * width];
+    double[] hypProbs = new double[sequence.length * width];
+
+    double[] prevScores = new double[width];
+    double[] nextScores = new double[width];
+    int prevCount = 1;
+
+    // every kept hypothesis can be extended by at most all outcomes
+    int maxCandidates = size * numOutcomes;
+    int[] candidateOutcomes = new int[maxCandidates];
+    int[] candidatePredecessors = new int[maxCandidates];
+    double[] candidateProbs = new double[maxCandidates];
+    double[] candidateScores = new double[maxCandidates];
+
+    int[] selected = new int[width];
+    int[] heap = new int[maxCandidates];
+    double[] bestScores = new double[size];
+    double[] probs = new double[numOutcomes];
+
+    // the sequence is not modified until the search is done
+    cg.startSequence(sequence);
+    try {
+      for (int i = 0; i < sequence.length; i++) {
+        int candidateCount = 0;
+
+        for (int h = 0; h < prevCount; h++) {
+          String[] outcomes = getHistory(i, h, width, hypOutcomes, hypPredecessors, outcomeNames);
+          String[] contexts = cg.getContext(i, sequence, outcomes, additionalContext);
+          double[] scores;
+          if (contextsCache != null) {
+            scores = contextsCache.computeIfAbsent(new ContextKey(contexts),
+                key -> model.eval(key.getContext()));
+          } else {
+            scores = model.eval(contexts, probs);
+          }
 
-        double min = temp_scores[Math.max(0,scores.length - size)];
+          double min = selectThreshold(scores, bestScores);
 
-        for (int p = 0; p < scores.length; p++) {
-          if (scores[p] >= min) {
-            String out = model.getOutcome(p);
-            if (validator.validSequence(i, sequence, outcomes, out)) {
-              Sequence ns = new Sequence(top, out, scores[p]);
-              if (ns.getScore() > minSequenceScore) {
-                next.add(ns);
+          for (int p = 0; p < scores.length; p++) {
+            if (scores[p] >= min && validator.validSequence(i, sequence, outcomes, outcomeNames[p])) {
+              double score = prevScores[h] + Math.log(scores[p]);
+              if (score > minSequenceScore) {
+                candidateOutcomes[candidateCount] = p;
+                candidatePredecessors[candidateCount] = h;
+                candidateProbs[candidateCount] = scores[p];
+                candidateScores[candidateCount++] = score;
               }
             }
           }
-        }
 
-        if (next.size() == 0) { //if no advanced sequences, advance all valid
-          for (int p = 0; p < scores.length; p++) {
-            String out = model.getOutcome(p);
-            if (validator.validSequence(i, sequence, outcomes, out)) {
-              Sequence ns = new Sequence(top, out, scores[p]);
-              if (ns.getScore() > minSequenceScore) {
-                next.add(ns);
+          if (candidateCount == 0) { //if no advanced sequences, advance all valid
+            for (int p = 0; p < scores.length; p++) {
+              if (validator.validSequence(i, sequence, outcomes, outcomeNames[p])) {
+                double score = prevScores[h] + Math.log(scores[p]);
+                if (score > minSequenceScore) {
+                  candidateOutcomes[candidateCount] = p;
+                  candidatePredecessors[candidateCount] = h;
+                  candidateProbs[candidateCount] = scores[p];
+                  candidateScores[candidateCount++] = score;
+                }
               }
             }
           }
         }
-      }
 
-      //    make prev = next; and re-init next (we reuse existing prev set once we clear it)
-      prev.clear();
-      tmp = prev;
-      prev = next;
-      next = tmp;
+        // only the best hypotheses are extended, at the last position
+        // the best hypotheses are the returned sequences
+        int keep = i + 1 < sequence.length ? size : numSequences;
+        int count = selectBest(candidateScores, candidateCount, keep, selected, heap);
+
+        int offset = i * width;
+        for (int j = 0; j < count; j++) {
+          int c = selected[j];
+          hypOutcomes[offset + j] = candidateOutcomes[c];
+          hypPredecessors[offset + j] = candidatePredecessors[c];
+          hypProbs[offset + j] = candidateProbs[c];
+          nextScores[j] = candidateScores[c];
+        }
+
+        double[] tmp = prevScores;
+        prevScores = nextScores;
+        nextScores = tmp;
+        prevCount = count;
+      }
     }
+    finally {
+      cg.endSequence();
+    }
+
+    Sequence[] topSequences = new Sequence[prevCount];
 
-    int numSeq = Math.min(numSequences, prev.size());
-    Sequence[] topSequences = new Sequence[numSeq];
+    int last = sequence.length - 1;
+    int[] path = new int[sequence.length];
+    for (int seqIndex = 0; seqIndex < prevCount; seqIndex++) {
+      int h = seqIndex;
+      for (int i = last; i >= 0; i--) {
+        path[i] = i * width + h;
+        h = hypPredecessors[path[i]];
+      }
 
-    for (int seqIndex = 0; seqIndex < numSeq; seqIndex++) {
-      topSequences[seqIndex] = prev.remove();
+      Sequence topSequence = new Sequence();
+      for (int i = 0; i <= last; i++) {
+        topSequence.add(outcomeNames[hypOutcomes[path[i]]], hypProbs[path[i]]);
+      }
+      topSequences[seqIndex] = topSequence;
     }
 
     return topSequences;
   }
 
+  /**
+   * Retrieves the outcomes of the hypothesis which is kept at the
+   * specified index of the previous position.
+   */
+  private static String[] getHistory(int position, int index, int width, int[] hypOutcomes,
+      int[] hypPredecessors, String[] outcomeNames) {
+    String[] outcomes = new String[position];
+    for (int i = position - 1; i >= 0; i--) {
+      outcomes[i] = outcomeNames[hypOutcomes[i * width + index]];
+      index = hypPredecessors[i * width + index];
+    }
+    return outcomes;
+  }
+
+  /**
+   * Selects the beam threshold, the score which is ranked at the beam size,
+   * or the lowest score if there are less scores than the beam size.
+   *
+   * @param scores the scores
+   * @param best buffer for the best scores, its length is the beam size
+   *
+   * @return the threshold
+   */
+  private static double selectThreshold(double[] scores, double[] best) {
+    int k = Math.min(best.length, scores.length);
+    int filled = 0;
+
+    for (double score : scores) {
+      if (filled < k || score > best[k - 1]) {
+        int j = filled < k ? filled++ : k - 1;
+        while (j > 0 && best[j - 1] < score) {
+          best[j] = best[j - 1];
+          j--;
+        }
+        best[j] = score;
+      }
+    }
+
+    return best[k - 1];
+  }
+
+  /**
+   * Selects the indices of the best candidates, ordered by decreasing score.
+   * <p>
+   * The candidates are ranked with a binary heap which is maintained exactly
+   * like a {@link java.util.PriorityQueue} of {@link Sequence}s, candidates
+   * with equal scores are therefore selected in the same order as before the
+   * search worked on indices.
+   *
+   * @param scores the candidate scores
+   * @param count the number of candidates
+   * @param k the maximum number of candidates to select
+   * @param selected receives the indices of the selected candidates
+   * @param heap buffer for the heap, it must be able to hold all candidates
+   *
+   * @return the number of selected candidates
+   */
+  private static int selectBest(double[] scores, int count, int k, int[] selected, int[] heap) {
+    for (int c = 0; c < count; c++) {
+      int i = c;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (compare(c, heap[parent], scores) >= 0) {
+          break;
+        }
+        heap[i] = heap[parent];
+        i = parent;
+      }
+      heap[i] = c;
+    }
+
+    int numSelected = Math.min(k, count);
+    int heapSize = count;
+    for (int j = 0; j < numSelected; j++) {
+      selected[j] = heap[0];
+
+      int last = heap[--heapSize];
+      int i = 0;
+      int half = heapSize >>> 1;
+      while (i < half) {
+        int child = (i << 1) + 1;
+        if (child + 1 < heapSize && compare(heap[child], heap[child + 1], scores) > 0) {
+          child++;
+        }
+        if (compare(last, heap[child], scores) <= 0) {
+          break;
+        }
+        heap[i] = heap[child];
+        i = child;
+      }
+      heap[i] = last;
+    }
+
+    return numSelected;
+  }
+
+  /**
+   * Compares two candidates like {@link Sequence#compareTo(Sequence)},
+   * the candidate with the higher score is ordered first.
+   */
+  private static int compare(int c1, int c2, double[] scores) {
+    return Double.compare(scores[c2], scores[c1]);
+  }
+
   public Sequence[] bestSequences(int numSequences, T[] sequence,
       Object[] additionalContext, BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
     return bestSequences(numSequences, sequence, additionalContext, zeroLog, cg, validator);
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Map;
+import java.util.Properties;
+
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Creates the {@link SequenceClassificationModel} which decodes the sequences
+ * of a tool with its {@link MaxentModel}.
+ * <p>
+ * The decoder is selected with the {@link #DECODER_PARAMETER} training parameter,
+ * which is stored in the model manifest together with the
+ * {@link BeamSearch#CACHE_SIZE_PARAMETER}. The default is the {@link BeamSearch}.
+ */
+public class SequenceDecoderFactory {
+
+  public static final String DECODER_PARAMETER = "SequenceDecoder";
+
+  public static final String BEAM_SEARCH_VALUE = "BeamSearch";
+  public static final String VITERBI_VALUE = "Viterbi";
+
+  private SequenceDecoderFactory() {
+  }
+
+  private static void checkDecoder(String decoder) {
+    if (!BEAM_SEARCH_VALUE.equals(decoder) && !VITERBI_VALUE.equals(decoder)) {
+      throw new IllegalArgumentException("Unknown sequence decoder: " + decoder);
+    }
+  }
+
+  /**
+   * Copies the decoder settings from the training parameters into the manifest
+   * entries of the model which is trained.
+   *
+   * @param trainParams the training parameters
+   * @param manifestInfoEntries the manifest entries of the model
+   *
+   * @throws IllegalArgumentException if the decoder is unknown
+   */
+  public static void addManifestEntries(TrainingParameters trainParams,
+      Map<String, String> manifestInfoEntries) {
+
+    String decoder = trainParams.getStringParameter(DECODER_PARAMETER, null);
+    if (decoder != null) {
+      checkDecoder(decoder);
+      manifestInfoEntries.put(DECODER_PARAMETER, decoder);
+    }
+
+    int cacheSize = trainParams.getIntParameter(BeamSearch.CACHE_SIZE_PARAMETER, 0);
+    if (cacheSize > 0) {
+      manifestInfoEntries.put(BeamSearch.CACHE_SIZE_PARAMETER, Integer.toString(cacheSize));
+    }
+  }
+
+  /**
+   * Creates the decoder which is configured in the manifest.
+   *
+   * @param model the model which assigns the outcome probabilities
+   * @param manifest the manifest of the model
+   * @param defaultBeamSize the beam size which is used if the manifest does not specify one
+   *
+   * @return the decoder
+   *
+   * @throws IllegalArgumentException if the decoder is unknown
+   */
+  public static <T> SequenceClassificationModel<T> create(MaxentModel model, Properties manifest,
+      int defaultBeamSize) {
+
+    int cacheSize = 0;
+    String cacheSizeString = manifest.getProperty(BeamSearch.CACHE_SIZE_PARAMETER);
+    if (cacheSizeString != null) {
+      cacheSize = Integer.parseInt(cacheSizeString);
+    }
+
+    String decoder = manifest.getProperty(DECODER_PARAMETER, BEAM_SEARCH_VALUE);
+    checkDecoder(decoder);
+
+    if (VITERBI_VALUE.equals(decoder)) {
+      return new ViterbiSearch<>(model, cacheSize);
+    }
+
+    int beamSize = defaultBeamSize;
+    String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
+    if (beamSizeString != null) {
+      beamSize = Integer.parseInt(beamSizeString);
+    }
+
+    return new BeamSearch<>(beamSize, model, cacheSize);
+  }
+}
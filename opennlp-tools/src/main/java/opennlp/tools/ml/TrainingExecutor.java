@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Executes the parallel parts of a trainer on one fork-join pool which is kept
+ * for the lifetime of the training.
+ * <p>
+ * Task ranges are split recursively, idle workers steal the pending halves from
+ * busy workers. The events can be partitioned into chunks of about equal work with
+ * {@link #partition(int[][], int)}. The reductions always add the partial results
+ * in the same order, the results do not depend on the scheduling of the tasks.
+ */
+public final class TrainingExecutor implements AutoCloseable {
+
+  /** The number of array elements which are reduced by one task. */
+  private static final int REDUCE_BLOCK_SIZE = 1 << 14;
+
+  /**
+   * A task which processes a range of indexes.
+   */
+  @FunctionalInterface
+  public interface RangeTask {
+
+    /**
+     * Processes the indexes from start until end.
+     *
+     * @param start the first index
+     * @param end the index after the last index
+     */
+    void run(int start, int end);
+  }
+
+  private final int threads;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Initializes the executor.
+   *
+   * @param threads the number of worker threads, must be at least one
+   */
+  public TrainingExecutor(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be >= 1");
+    }
+
+    this.threads = threads;
+    this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Partitions the events into chunks of about equal work. The work of an event
+   * is estimated from the length of its context.
+   *
+   * @param contexts the contexts of the events
+   * @param numChunks the number of chunks
+   *
+   * @return the numChunks + 1 chunk boundaries bounds, chunk c contains the events from
+   *     bounds[c] (inclusive) up to bounds[c + 1] (exclusive), some chunks are empty
+   *     if there are fewer events than chunks
+   */
+  public static int[] partition(int[][] contexts, int numChunks) {
+    return partition(contexts.length, ei -> contexts[ei].length, numChunks);
+  }
+
+  /**
+   * Partitions the events into chunks of about equal work, see
+   * {@link #partition(int[][], int)}.
+   *
+   * @param numEvents the number of events
+   * @param contextLength the length of the context of each event
+   * @param numChunks the number of chunks
+   *
+   * @return the chunk boundaries
+   */
+  public static int[] partition(int numEvents, IntUnaryOperator contextLength, int numChunks) {
+    int[] work = new int[numEvents];
+    long totalWork = 0;
+    for (int ei = 0; ei < numEvents; ei++) {
+      work[ei] = contextLength.applyAsInt(ei) + 1;
+      totalWork += work[ei];
+    }
+
+    int[] bounds = new int[numChunks + 1];
+
+    long chunkWork = 0;
+    int ei = 0;
+    for (int c = 1; c < numChunks; c++) {
+      long chunkEnd = totalWork * c / numChunks;
+      while (ei < numEvents && chunkWork + work[ei] <= chunkEnd) {
+        chunkWork += work[ei];
+        ei++;
+      }
+      bounds[c] = ei;
+    }
+    bounds[numChunks] = numEvents;
+
+    return bounds;
+  }
+
+  /**
+   * Runs a task for each index and waits until all tasks are done.
+   *
+   * @param numTasks the number of tasks
+   * @param task the task, called with each index from zero until numTasks
+   */
+  public void forEach(int numTasks, IntConsumer task) {
+    if (pool == null) {
+      for (int i = 0; i < numTasks; i++) {
+        task.accept(i);
+      }
+    }
+    else if (numTasks > 0) {
+      pool.invoke(new ForEachAction(task, 0, numTasks));
+    }
+  }
+
+  /**
+   * Splits the indexes from zero until size into blocks and runs a task for
+   * each block. Waits until all tasks are done.
+   *
+   * @param size the number of indexes
+   * @param blockSize the maximum number of indexes in one block
+   * @param task the task, called with the range of each block
+   */
+  public void forEachBlock(int size, int blockSize, RangeTask task) {
+    int numBlocks = (size + blockSize - 1) / blockSize;
+
+    forEach(numBlocks, block -> {
+      int start = block * blockSize;
+      task.run(start, Math.min(start + blockSize, size));
+    });
+  }
+
+  /**
+   * Runs a task for each index and adds the results of the tasks in a tree.
+   *
+   * @param numTasks the number of tasks
+   * @param task the task, called with each index from zero until numTasks
+   *
+   * @return the sum of the results
+   */
+  public double sum(int numTasks, IntToDoubleFunction task) {
+    if (numTasks == 0) {
+      return 0;
+    }
+
+    return pool == null ? sum(task, 0, numTasks) : pool.invoke(new SumTask(task, 0, numTasks));
+  }
+
+  private static double sum(IntToDoubleFunction task, int start, int end) {
+    if (end - start == 1) {
+      return task.applyAsDouble(start);
+    }
+
+    int middle = (start + end) >>> 1;
+    return sum(task, start, middle) + sum(task, middle, end);
+  }
+
+  /**
+   * Adds the partial arrays element by element in a tree. The array blocks are
+   * reduced in parallel.
+   *
+   * @param partials the partial arrays, all arrays must have the same length,
+   *     the arrays are overwritten by the intermediate sums
+   * @param result the array the sums are written to
+   */
+  public void reduce(double[][] partials, double[] result) {
+    forEachBlock(result.length, REDUCE_BLOCK_SIZE, (start, end) -> {
+      for (int stride = 1; stride < partials.length; stride *= 2) {
+        for (int t = 0; t + stride < partials.length; t += 2 * stride) {
+          double[] left = partials[t];
+          double[] right = partials[t + stride];
+          for (int i = start; i < end; i++) {
+            left[i] += right[i];
+          }
+        }
+      }
+
+      System.arraycopy(partials[0], start, result, start, end - start);
+    });
+  }
+
+  /**
+   * Shuts down the worker threads.
+   */
+  @Override
+  public void close() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  private static class ForEachAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntConsumer task;
+    private final int start;
+    private final int end;
+
+    ForEachAction(IntConsumer task, int start, int end) {
+      this.task = task;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start == 1) {
+        task.accept(start);
+      }
+      else {
+        int middle = (start + end) >>> 1;
+        invokeAll(new ForEachAction(task, start, middle), new ForEachAction(task, middle, end));
+      }
+    }
+  }
+
+  private static class SumTask extends RecursiveTask<Double> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntToDoubleFunction task;
+    private final int start;
+    private final int end;
+
+    SumTask(IntToDoubleFunction task, int start, int end) {
+      this.task = task;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected Double compute() {
+      if (end - start == 1) {
+        return task.applyAsDouble(start);
+      }
+
+      int middle = (start + end) >>> 1;
+      SumTask left = new SumTask(task, start, middle);
+      SumTask right = new SumTask(task, middle, end);
+      right.fork();
+      return left.compute() + right.join();
+    }
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledMaxentModel;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.ConcurrentCache;
+import opennlp.tools.util.ContextKey;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * Finds the most probable sequences with the Viterbi algorithm.
+ * <p>
+ * The lattice has one state per outcome and position. The context of a state
+ * is generated with the outcomes of the best path which ends in the previous
+ * state, and the {@link SequenceValidator} is applied as a mask on the
+ * transitions between the states of two positions. The search is exact for
+ * models whose context depends at most on the previous outcome, for models
+ * which use more outcomes it is an approximation which still evaluates every
+ * outcome at every position, instead of a fixed number of beam entries.
+ * <p>
+ * Each state keeps its n best paths, the n most probable sequences are
+ * found by backtracking through the lattice. The contexts which are generated
+ * for the states of a position are evaluated once per distinct context.
+ * <p>
+ * If the context generator splits its contexts, see
+ * {@link BeamSearchContextGenerator#getOutcomeIndependentContext(int, Object[], Object[])},
+ * the outcome independent features are generated once per position and only the
+ * outcome dependent features are generated per state of the previous position. If the
+ * model is additive, see {@link CompiledMaxentModel#isAdditive()}, the outcome
+ * independent features are also scored once per position, and the scores of the
+ * outcome dependent features are added to them per state.
+ * <p>
+ * Instances are thread-safe, the lattice is allocated per call.
+ *
+ * @see BeamSearch
+ * @see SequenceDecoderFactory
+ */
+public class ViterbiSearch<T> implements SequenceClassificationModel<T> {
+
+  private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
+  private static final int zeroLog = -100000;
+
+  private final MaxentModel model;
+  private final ConcurrentCache<ContextKey, double[]> contextsCache;
+
+  /** The model in a form which can score the parts of a context, or null. */
+  private final CompiledMaxentModel additiveModel;
+
+  public ViterbiSearch(MaxentModel model) {
+    this(model, 0);
+  }
+
+  /**
+   * Initializes the search.
+   *
+   * @param model the model for assigning probabilities to the sequence outcomes
+   * @param cacheSize the number of evaluated contexts to cache, zero disables the cache
+   */
+  public ViterbiSearch(MaxentModel model, int cacheSize) {
+    this.model = model;
+    this.contextsCache = cacheSize > 0 ? new ConcurrentCache<>(cacheSize) : null;
+    this.additiveModel = compileAdditive(model);
+  }
+
+  private static CompiledMaxentModel compileAdditive(MaxentModel model) {
+    CompiledMaxentModel compiled = null;
+
+    if (model instanceof CompiledMaxentModel) {
+      compiled = (CompiledMaxentModel) model;
+    }
+    else if (model instanceof AbstractModel && CompiledMaxentModel.isCompilable((AbstractModel) model)) {
+      compiled = CompiledMaxentModel.compile((AbstractModel) model);
+    }
+
+    return compiled != null && compiled.isAdditive() ? compiled : null;
+  }
+
+  @Override
+  public Sequence[] bestSequences(int numSequences, T[] sequence, Object[] additionalContext,
+      double minSequenceScore, BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+
+    if (additionalContext == null) {
+      additionalContext = EMPTY_ADDITIONAL_CONTEXT;
+    }
+
+    if (sequence.length == 0) {
+      return numSequences > 0 ? new Sequence[] {new Sequence()} : new Sequence[0];
+    }
+
+    if (numSequences < 1) {
+      return new Sequence[0];
+    }
+
+    int numOutcomes = model.getNumOutcomes();
+    String[] outcomeNames = getOutcomes();
+
+    // the paths of state (position, outcome) are stored at
+    // (position * numOutcomes + outcome) * numSequences, ordered by decreasing score
+    int stride = numOutcomes * numSequences;
+    double[] scores = new double[sequence.length * stride];
+    double[] probs = new double[sequence.length * stride];
+    int[] backStates = new int[sequence.length * stride];
+    int[] backRanks = new int[sequence.length * stride];
+    int[] counts = new int[sequence.length * numOutcomes];
+
+    Map<ContextKey, double[]> positionContexts = new HashMap<>();
+
+    // the sequence is not modified until the search is done
+    cg.startSequence(sequence);
+    try {
+      for (int i = 0; i < sequence.length; i++) {
+        positionContexts.clear();
+
+        String[] independentContext = cg.getOutcomeIndependentContext(i, sequence, additionalContext);
+        double[] independentScores = null;
+        if (independentContext != null && additiveModel != null) {
+          independentScores = additiveModel.score(independentContext, new double[numOutcomes]);
+        }
+
+        // the first position has a single start state without predecessors
+        int numPrevStates = i == 0 ? 1 : numOutcomes;
+
+        for (int prev = 0; prev < numPrevStates; prev++) {
+          int prevCount = i == 0 ? 1 : counts[(i - 1) * numOutcomes + prev];
+
+          if (prevCount == 0) {
+            continue;
+          }
+
+          String[] outcomes = getHistory(i, prev, outcomeNames, backStates, backRanks, numSequences);
+          double[] outcomeProbs;
+          if (independentContext == null) {
+            outcomeProbs = eval(cg.getContext(i, sequence, outcomes, additionalContext),
+                positionContexts);
+          }
+          else {
+            String[] dependentContext =
+                cg.getOutcomeDependentContext(i, sequence, outcomes, additionalContext);
+
+            if (independentScores != null) {
+              outcomeProbs = evalDependent(dependentContext, independentScores, positionContexts);
+            }
+            else {
+              outcomeProbs = eval(concat(independentContext, dependentContext), positionContexts);
+            }
+          }
+
+          for (int o = 0; o < numOutcomes; o++) {
+            if (!validator.validSequence(i, sequence, outcomes, outcomeNames[o])) {
+              continue;
+            }
+
+            double logProb = Math.log(outcomeProbs[o]);
+
+            for (int r = 0; r < prevCount; r++) {
+              double score = (i == 0 ? 0 : scores[((i - 1) * numOutcomes + prev) * numSequences + r])
+                  + logProb;
+
+              if (score > minSequenceScore) {
+                insert(i * numOutcomes + o, numSequences, score, outcomeProbs[o], prev, r,
+                    scores, probs, backStates, backRanks, counts);
+              }
+            }
+          }
+        }
+      }
+    }
+    finally {
+      cg.endSequence();
+    }
+
+    // select the best paths of all states of the last position
+    int last = sequence.length - 1;
+    int[] bestStates = new int[numSequences];
+    int[] bestRanks = new int[numSequences];
+    double[] bestScores = new double[numSequences];
+    int numBest = 0;
+
+    for (int o = 0; o < numOutcomes; o++) {
+      int state = last * numOutcomes + o;
+      for (int r = 0; r < counts[state]; r++) {
+        double score = scores[state * numSequences + r];
+
+        if (numBest < numSequences || score > bestScores[numBest - 1]) {
+          int j = numBest < numSequences ? numBest++ : numBest - 1;
+          while (j > 0 && bestScores[j - 1] < score) {
+            bestScores[j] = bestScores[j - 1];
+            bestStates[j] = bestStates[j - 1];
+            bestRanks[j] = bestRanks[j - 1];
+            j--;
+          }
+          bestScores[j] = score;
+          bestStates[j] = o;
+          bestRanks[j] = r;
+        }
+      }
+    }
+
+    Sequence[] topSequences = new Sequence[numBest];
+
+    int[] pathOutcomes = new int[sequence.length];
+    double[] pathProbs = new double[sequence.length];
+    for (int b = 0; b < numBest; b++) {
+      int state = bestStates[b];
+      int rank = bestRanks[b];
+      for (int i = last; i >= 0; i--) {
+        int entry = (i * numOutcomes + state) * numSequences + rank;
+        pathOutcomes[i] = state;
+        pathProbs[i] = probs[entry];
+        state = backStates[entry];
+        rank = backRanks[entry];
+      }
+
+      Sequence topSequence = new Sequence();
+      for (int i = 0; i <= last; i++) {
+        topSequence.add(outcomeNames[pathOutcomes[i]], pathProbs[i]);
+      }
+      topSequences[b] = topSequence;
+    }
+
+    return topSequences;
+  }
+
+  private double[] eval(String[] context, Map<ContextKey, double[]> positionContexts) {
+    ContextKey key = new ContextKey(context);
+
+    double[] outcomeProbs = positionContexts.get(key);
+
+    if (outcomeProbs == null) {
+      if (contextsCache != null) {
+        outcomeProbs = contextsCache.computeIfAbsent(key, k -> model.eval(k.getContext()));
+      }
+      else {
+        outcomeProbs = model.eval(context);
+      }
+      positionContexts.put(key, outcomeProbs);
+    }
+
+    return outcomeProbs;
+  }
+
+  /**
+   * Adds the scores of the outcome dependent features to the scores of the outcome
+   * independent features of the position, the probabilities are computed once per
+   * distinct outcome dependent context.
+   */
+  private double[] evalDependent(String[] dependentContext, double[] independentScores,
+      Map<ContextKey, double[]> positionContexts) {
+    ContextKey key = new ContextKey(dependentContext);
+
+    double[] outcomeProbs = positionContexts.get(key);
+
+    if (outcomeProbs == null) {
+      outcomeProbs = independentScores.clone();
+      additiveModel.addScores(dependentContext, outcomeProbs);
+      additiveModel.normalize(outcomeProbs);
+      positionContexts.put(key, outcomeProbs);
+    }
+
+    return outcomeProbs;
+  }
+
+  private static String[] concat(String[] independentContext, String[] dependentContext) {
+    String[] context = Arrays.copyOf(independentContext,
+        independentContext.length + dependentContext.length);
+    System.arraycopy(dependentContext, 0, context, independentContext.length,
+        dependentContext.length);
+    return context;
+  }
+
+  /**
+   * Retrieves the outcomes of the best path which ends in the specified
+   * state of the previous position.
+   */
+  private String[] getHistory(int position, int state, String[] outcomeNames,
+      int[] backStates, int[] backRanks, int numSequences) {
+    String[] outcomes = new String[position];
+
+    int numOutcomes = outcomeNames.length;
+    int rank = 0;
+    for (int i = position - 1; i >= 0; i--) {
+      outcomes[i] = outcomeNames[state];
+      int entry = (i * numOutcomes + state) * numSequences + rank;
+      state = backStates[entry];
+      rank = backRanks[entry];
+    }
+
+    return outcomes;
+  }
+
+  /**
+   * Inserts a path into the n best paths of a state, if its score is high enough.
+   * Paths with equal scores keep the order in which they were inserted.
+   */
+  private static void insert(int state, int numSequences, double score, double prob,
+      int backState, int backRank, double[] scores, double[] probs, int[] backStates,
+      int[] backRanks, int[] counts) {
+
+    int offset = state * numSequences;
+    int count = counts[state];
+
+    if (count == numSequences && score <= scores[offset + count - 1]) {
+      return;
+    }
+
+    int j = count < numSequences ? count++ : count - 1;
+    while (j > 0 && scores[offset + j - 1] < score) {
+      scores[offset + j] = scores[offset + j - 1];
+      probs[offset + j] = probs[offset + j - 1];
+      backStates[offset + j] = backStates[offset + j - 1];
+      backRanks[offset + j] = backRanks[offset + j - 1];
+      j--;
+    }
+
+    scores[offset + j] = score;
+    probs[offset + j] = prob;
+    backStates[offset + j] = backState;
+    backRanks[offset + j] = backRank;
+    counts[state] = count;
+  }
+
+  @Override
+  public Sequence[] bestSequences(int numSequences, T[] sequence, Object[] additionalContext,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+    return bestSequences(numSequences, sequence, additionalContext, zeroLog, cg, validator);
+  }
+
+  @Override
+  public Sequence bestSequence(T[] sequence, Object[] additionalContext,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+    Sequence[] sequences = bestSequences(1, sequence, additionalContext, cg, validator);
+
+    if (sequences.length > 0)
+      return sequences[0];
+    else
+      return null;
+  }
+
+  @Override
+  public String[] getOutcomes() {
+    String[] outcomes = new String[model.getNumOutcomes()];
+
+    for (int i = 0; i < model.getNumOutcomes(); i++) {
+      outcomes[i] = model.getOutcome(i);
+    }
+
+    return outcomes;
+  }
+}
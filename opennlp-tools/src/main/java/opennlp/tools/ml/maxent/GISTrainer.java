@@ -21,13 +21,9 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.TrainingExecutor;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.EvalParameters;
@@ -90,9 +86,9 @@ public class GISTrainer extends AbstractEventTrainer {
    */
   private int numOutcomes;
   /**
-   * Records the array of predicates seen in each event.
+   * The indexed events, the predicates seen in each event are read one event at a time.
    */
-  private int[][] contexts;
+  private DataIndexer indexer;
   /**
    * The value associated with each context. If null then context values are assumes to be 1.
    */
@@ -150,6 +146,9 @@ public class GISTrainer extends AbstractEventTrainer {
   private static final String SMOOTHING_PARAM = "smoothing";
   private static final boolean SMOOTHING_DEFAULT = false;
 
+  /** The number of predicates whose model expectations are merged by one task. */
+  private static final int MERGE_BLOCK_SIZE = 1024;
+
   /**
    * Creates a new <code>GISTrainer</code> instance which does not print
    * progress messages about training to STDOUT.
@@ -302,23 +301,24 @@ public class GISTrainer extends AbstractEventTrainer {
 
     /* Incorporate all of the needed info *****/
     display("Incorporating indexed data for training...  \n");
-    contexts = di.getContexts();
+    indexer = di;
     values = di.getValues();
     /*
     The number of times a predicate occured in the training data.
    */
     int[] predicateCounts = di.getPredCounts();
     numTimesEventsSeen = di.getNumTimesEventsSeen();
-    numUniqueEvents = contexts.length;
+    numUniqueEvents = numTimesEventsSeen.length;
     this.prior = modelPrior;
     //printTable(contexts);
 
     // determine the correction constant and its inverse
     double correctionConstant = 0;
-    for (int ci = 0; ci < contexts.length; ci++) {
+    for (int ci = 0; ci < numUniqueEvents; ci++) {
       if (values == null || values[ci] == null) {
-        if (contexts[ci].length > correctionConstant) {
-          correctionConstant = contexts[ci].length;
+        int contextLength = di.getContextLength(ci);
+        if (contextLength > correctionConstant) {
+          correctionConstant = contextLength;
         }
       } else {
         float cl = values[ci][0];
@@ -348,11 +348,12 @@ public class GISTrainer extends AbstractEventTrainer {
     // set up feature arrays
     float[][] predCount = new float[numPreds][numOutcomes];
     for (int ti = 0; ti < numUniqueEvents; ti++) {
-      for (int j = 0; j < contexts[ti].length; j++) {
+      int[] context = di.getContext(ti);
+      for (int j = 0; j < context.length; j++) {
         if (values != null && values[ti] != null) {
-          predCount[contexts[ti][j]][outcomeList[ti]] += numTimesEventsSeen[ti] * values[ti][j];
+          predCount[context[j]][outcomeList[ti]] += numTimesEventsSeen[ti] * values[ti][j];
         } else {
-          predCount[contexts[ti][j]][outcomeList[ti]] += numTimesEventsSeen[ti];
+          predCount[context[j]][outcomeList[ti]] += numTimesEventsSeen[ti];
         }
       }
     }
@@ -442,39 +443,43 @@ public class GISTrainer extends AbstractEventTrainer {
   /* Estimate and return the model parameters. */
   private void findParameters(int iterations, double correctionConstant) {
     int threads = modelExpects.length;
-    ExecutorService executor = Executors.newFixedThreadPool(threads);
-    CompletionService<ModelExpectationComputeTask> completionService =
-        new ExecutorCompletionService<>(executor);
+
+    // Each thread has its own model expectations, the events are
+    // partitioned into one chunk of about equal work per thread
+    int[] chunks = TrainingExecutor.partition(numUniqueEvents,
+        indexer::getContextLength, threads);
+
     double prevLL = 0.0;
     double currLL;
     display("Performing " + iterations + " iterations.\n");
-    for (int i = 1; i <= iterations; i++) {
-      if (i < 10) {
-        display("  " + i + ":  ");
-      } else if (i < 100) {
-        display(" " + i + ":  ");
-      } else {
-        display(i + ":  ");
-      }
-      currLL = nextIteration(correctionConstant, completionService);
-      if (i > 1) {
-        if (prevLL > currLL) {
-          System.err.println("Model Diverging: loglikelihood decreased");
-          break;
+    try (TrainingExecutor executor = new TrainingExecutor(threads)) {
+      for (int i = 1; i <= iterations; i++) {
+        if (i < 10) {
+          display("  " + i + ":  ");
+        } else if (i < 100) {
+          display(" " + i + ":  ");
+        } else {
+          display(i + ":  ");
         }
-        if (currLL - prevLL < llThreshold) {
-          break;
+        currLL = nextIteration(correctionConstant, executor, chunks);
+        if (i > 1) {
+          if (prevLL > currLL) {
+            System.err.println("Model Diverging: loglikelihood decreased");
+            break;
+          }
+          if (currLL - prevLL < llThreshold) {
+            break;
+          }
         }
+        prevLL = currLL;
       }
-      prevLL = currLL;
     }
 
     // kill a bunch of these big objects now that we don't need them
     observedExpects = null;
     modelExpects = null;
     numTimesEventsSeen = null;
-    contexts = null;
-    executor.shutdown();
+    indexer = null;
   }
 
   //modeled on implementation in  Zhang Le's maxent kit
@@ -501,50 +506,22 @@ public class GISTrainer extends AbstractEventTrainer {
   }
 
   /* Compute one iteration of GIS and retutn log-likelihood.*/
-  private double nextIteration(double correctionConstant,
-                               CompletionService<ModelExpectationComputeTask> completionService) {
+  private double nextIteration(double correctionConstant, TrainingExecutor executor,
+                               int[] chunks) {
     // compute contribution of p(a|b_i) for each feature and the new
     // correction parameter
     double loglikelihood = 0.0;
     int numEvents = 0;
     int numCorrect = 0;
 
-    // Each thread gets equal number of tasks, if the number of tasks
-    // is not divisible by the number of threads, the first "leftOver"
-    // threads have one extra task.
     int numberOfThreads = modelExpects.length;
-    int taskSize = numUniqueEvents / numberOfThreads;
-    int leftOver = numUniqueEvents % numberOfThreads;
-
-    // submit all tasks to the completion service.
-    for (int i = 0; i < numberOfThreads; i++) {
-      if (i < leftOver) {
-        completionService.submit(new ModelExpectationComputeTask(i, i * taskSize + i,
-            taskSize + 1));
-      } else {
-        completionService.submit(new ModelExpectationComputeTask(i,
-            i * taskSize + leftOver, taskSize));
-      }
-    }
+    ModelExpectationComputeTask[] tasks = new ModelExpectationComputeTask[numberOfThreads];
 
-    for (int i = 0; i < numberOfThreads; i++) {
-      ModelExpectationComputeTask finishedTask;
-      try {
-        finishedTask = completionService.take().get();
-      } catch (InterruptedException e) {
-        // TODO: We got interrupted, but that is currently not really supported!
-        // For now we just print the exception and fail hard. We hopefully soon
-        // handle this case properly!
-        e.printStackTrace();
-        throw new IllegalStateException("Interruption is not supported!", e);
-      } catch (ExecutionException e) {
-        // Only runtime exception can be thrown during training, if one was thrown
-        // it should be re-thrown. That could for example be a NullPointerException
-        // which is caused through a bug in our implementation.
-        throw new RuntimeException("Exception during training: " + e.getMessage(), e);
-      }
+    executor.forEach(numberOfThreads, i -> tasks[i] = new ModelExpectationComputeTask(i, chunks[i],
+        chunks[i + 1] - chunks[i]).call());
 
-      // When they are done, retrieve the results ...
+    // When they are done, retrieve the results ...
+    for (ModelExpectationComputeTask finishedTask : tasks) {
       numEvents += finishedTask.getNumEvents();
       numCorrect += finishedTask.getNumCorrect();
       loglikelihood += finishedTask.getLoglikelihood();
@@ -552,16 +529,20 @@ public class GISTrainer extends AbstractEventTrainer {
 
     display(".");
 
-    // merge the results of the two computations
-    for (int pi = 0; pi < numPreds; pi++) {
-      int[] activeOutcomes = params[pi].getOutcomes();
+    // merge the results of the threads pairwise, the predicates are merged in parallel
+    executor.forEachBlock(numPreds, MERGE_BLOCK_SIZE, (start, end) -> {
+      for (int pi = start; pi < end; pi++) {
+        int[] activeOutcomes = params[pi].getOutcomes();
 
-      for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
-        for (int i = 1; i < modelExpects.length; i++) {
-          modelExpects[0][pi].updateParameter(aoi, modelExpects[i][pi].getParameters()[aoi]);
+        for (int stride = 1; stride < numberOfThreads; stride *= 2) {
+          for (int i = 0; i + stride < numberOfThreads; i += 2 * stride) {
+            for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
+              modelExpects[i][pi].updateParameter(aoi, modelExpects[i + stride][pi].getParameters()[aoi]);
+            }
+          }
         }
       }
-    }
+    });
 
     display(".");
 
@@ -625,15 +606,17 @@ public class GISTrainer extends AbstractEventTrainer {
 
         // TODO: check interruption status here, if interrupted set a poisoned flag and return
 
+        int[] context = indexer.getContext(ei);
+
         if (values != null) {
-          prior.logPrior(modelDistribution, contexts[ei], values[ei]);
-          GISModel.eval(contexts[ei], values[ei], modelDistribution, evalParams);
+          prior.logPrior(modelDistribution, context, values[ei]);
+          GISModel.eval(context, values[ei], modelDistribution, evalParams);
         } else {
-          prior.logPrior(modelDistribution, contexts[ei]);
-          GISModel.eval(contexts[ei], modelDistribution, evalParams);
+          prior.logPrior(modelDistribution, context);
+          GISModel.eval(context, modelDistribution, evalParams);
         }
-        for (int j = 0; j < contexts[ei].length; j++) {
-          int pi = contexts[ei][j];
+        for (int j = 0; j < context.length; j++) {
+          int pi = context[j];
           int[] activeOutcomes = modelExpects[threadIndex][pi].getOutcomes();
           for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
             int oi = activeOutcomes[aoi];
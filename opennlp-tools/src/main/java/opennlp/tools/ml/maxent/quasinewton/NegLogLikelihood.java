@@ -20,6 +20,7 @@ package opennlp.tools.ml.maxent.quasinewton;
 import java.util.Arrays;
 
 import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.DiskDataIndexer;
 import opennlp.tools.ml.model.OnePassRealValueDataIndexer;
 
 /**
@@ -34,7 +35,13 @@ public class NegLogLikelihood implements Function {
 
   // Information from data index
   protected final float[][] values;
+  /**
+   * @deprecated the contexts are read with {@link #getContext(int, int[][])}, the field
+   *     is null if the indexer does not keep its contexts in memory
+   */
+  @Deprecated
   protected final int[][] contexts;
+  protected final DataIndexer indexer;
   protected final int[] outcomeList;
   protected final int[] numTimesEventsSeen;
 
@@ -44,6 +51,12 @@ public class NegLogLikelihood implements Function {
 
   protected double[] gradient;
 
+  // The length of the longest context
+  protected final int maxContextLength;
+
+  // Reused context arrays of each length
+  private final int[][] contextBuffers;
+
   public NegLogLikelihood(DataIndexer indexer) {
 
     // Get data from indexer.
@@ -53,18 +66,27 @@ public class NegLogLikelihood implements Function {
       this.values = null;
     }
 
-    this.contexts    = indexer.getContexts();
+    // the contexts of the disk indexer are only read one at a time
+    this.contexts    = indexer instanceof DiskDataIndexer ? null : indexer.getContexts();
+    this.indexer     = indexer;
     this.outcomeList = indexer.getOutcomeList();
     this.numTimesEventsSeen = indexer.getNumTimesEventsSeen();
 
     this.numOutcomes = indexer.getOutcomeLabels().length;
     this.numFeatures = indexer.getPredLabels().length;
-    this.numContexts = this.contexts.length;
+    this.numContexts = this.outcomeList.length;
     this.dimension   = numOutcomes * numFeatures;
 
     this.expectation = new double[numOutcomes];
     this.tempSums    = new double[numOutcomes];
     this.gradient    = new double[dimension];
+
+    int maxLength = 0;
+    for (int ci = 0; ci < numContexts; ci++) {
+      maxLength = Math.max(maxLength, indexer.getContextLength(ci));
+    }
+    this.maxContextLength = maxLength;
+    this.contextBuffers   = new int[maxContextLength + 1][];
   }
 
   public int getDimension() {
@@ -89,10 +111,11 @@ public class NegLogLikelihood implements Function {
     double negLogLikelihood = 0;
 
     for (ci = 0; ci < numContexts; ci++) {
+      int[] context = getContext(ci, contextBuffers);
       for (oi = 0; oi < numOutcomes; oi++) {
         tempSums[oi] = 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
+        for (ai = 0; ai < context.length; ai++) {
+          vectorIndex = indexOf(oi, context[ai]);
           predValue = values != null ? values[ci][ai] : 1.0;
           tempSums[oi] += predValue * x[vectorIndex];
         }
@@ -124,10 +147,11 @@ public class NegLogLikelihood implements Function {
     Arrays.fill(gradient, 0);
 
     for (ci = 0; ci < numContexts; ci++) {
+      int[] context = getContext(ci, contextBuffers);
       for (oi = 0; oi < numOutcomes; oi++) {
         expectation[oi] = 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
+        for (ai = 0; ai < context.length; ai++) {
+          vectorIndex = indexOf(oi, context[ai]);
           predValue = values != null ? values[ci][ai] : 1.0;
           expectation[oi] += predValue * x[vectorIndex];
         }
@@ -141,8 +165,8 @@ public class NegLogLikelihood implements Function {
 
       for (oi = 0; oi < numOutcomes; oi++) {
         empirical = outcomeList[ci] == oi ? 1 : 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
+        for (ai = 0; ai < context.length; ai++) {
+          vectorIndex = indexOf(oi, context[ai]);
           predValue = values != null ? values[ci][ai] : 1.0;
           gradient[vectorIndex] +=
               predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
@@ -153,6 +177,29 @@ public class NegLogLikelihood implements Function {
     return gradient;
   }
 
+  /**
+   * Retrieves the context of an event. A context which is not kept in memory is copied
+   * into the buffer of its length, which is created on first use and then reused.
+   *
+   * @param ci the index of the event
+   * @param buffers the context buffers, indexed by length, the array must have
+   *     {@link #maxContextLength} + 1 elements
+   *
+   * @return the context, a buffer is only valid until it is used for the next context
+   */
+  protected int[] getContext(int ci, int[][] buffers) {
+    if (contexts != null) {
+      return contexts[ci];
+    }
+
+    int length = indexer.getContextLength(ci);
+    if (buffers[length] == null) {
+      buffers[length] = new int[length];
+    }
+    indexer.getContext(ci, buffers[length]);
+    return buffers[length];
+  }
+
   protected int indexOf(int outcomeId, int featureId) {
     return outcomeId * numFeatures + featureId;
   }
@@ -17,41 +17,70 @@
 
 package opennlp.tools.ml.maxent.quasinewton;
 
-import java.lang.reflect.Constructor;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
 
+import opennlp.tools.ml.TrainingExecutor;
 import opennlp.tools.ml.model.DataIndexer;
 
 /**
- * Evaluate negative log-likelihood and its gradient in parallel
+ * Evaluate negative log-likelihood and its gradient in parallel. A function which
+ * created its own executor must be closed to shut down the worker threads.
  */
-public class ParallelNegLogLikelihood extends NegLogLikelihood {
+public class ParallelNegLogLikelihood extends NegLogLikelihood implements AutoCloseable {
 
-  // Number of threads
-  private int threads;
+  // Number of chunks per thread for the value, idle threads steal chunks
+  private static final int VALUE_CHUNKS_PER_THREAD = 8;
 
-  // Partial value of negative log-likelihood to be computed by each thread
-  private double[] negLogLikelihoodThread;
+  private final TrainingExecutor executor;
+
+  // True if the executor was created by this function
+  private final boolean ownsExecutor;
+
+  // Chunk boundaries for the value computation
+  private final int[] valueChunks;
+
+  // Chunk boundaries for the gradient computation, one chunk per partial gradient
+  private final int[] gradientChunks;
 
   // Partial gradient
-  private double[][] gradientThread;
+  private final double[][] gradientThread;
 
+  /**
+   * Initializes the function with its own executor, which is shut down by {@link #close()}.
+   *
+   * @param indexer the indexed training events
+   * @param threads the number of worker threads
+   */
   public ParallelNegLogLikelihood(DataIndexer indexer, int threads) {
-    super(indexer);
+    this(indexer, new TrainingExecutor(threads), true);
+  }
 
-    if (threads <= 0)
-      throw new IllegalArgumentException(
-          "Number of threads must 1 or larger");
+  /**
+   * Initializes the function with an executor which is shared with the trainer.
+   *
+   * @param indexer the indexed training events
+   * @param executor the executor the function is evaluated on
+   */
+  public ParallelNegLogLikelihood(DataIndexer indexer, TrainingExecutor executor) {
+    this(indexer, executor, false);
+  }
 
-    this.threads                = threads;
-    this.negLogLikelihoodThread = new double[threads];
-    this.gradientThread         = new double[threads][dimension];
+  private ParallelNegLogLikelihood(DataIndexer indexer, TrainingExecutor executor,
+      boolean ownsExecutor) {
+    super(indexer);
+
+    int threads = executor.getThreads();
+    IntUnaryOperator contextLength = indexer::getContextLength;
+
+    this.executor       = executor;
+    this.ownsExecutor   = ownsExecutor;
+    this.valueChunks    = TrainingExecutor.partition(numContexts, contextLength,
+        threads * VALUE_CHUNKS_PER_THREAD);
+    // Each partial gradient has the dimension of the function,
+    // only one chunk per thread keeps the memory bounded
+    this.gradientChunks = TrainingExecutor.partition(numContexts, contextLength, threads);
+    this.gradientThread = new double[threads][dimension];
   }
 
   /**
@@ -64,15 +93,8 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
       throw new IllegalArgumentException(
           "x is invalid, its dimension is not equal to domain dimension.");
 
-    // Compute partial value of negative log-likelihood in each thread
-    computeInParallel(x, NegLLComputeTask.class);
-
-    double negLogLikelihood = 0;
-    for (int t = 0; t < threads; t++) {
-      negLogLikelihood += negLogLikelihoodThread[t];
-    }
-
-    return negLogLikelihood;
+    return executor.sum(valueChunks.length - 1,
+        chunk -> negLogLikelihood(x, valueChunks[chunk], valueChunks[chunk + 1]));
   }
 
   /**
@@ -85,164 +107,93 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
       throw new IllegalArgumentException(
           "x is invalid, its dimension is not equal to the function.");
 
-    // Compute partial gradient in each thread
-    computeInParallel(x, GradientComputeTask.class);
+    executor.forEach(gradientThread.length, chunk -> computeGradient(x,
+        gradientChunks[chunk], gradientChunks[chunk + 1], gradientThread[chunk]));
 
-    // Accumulate gradient
-    for (int i = 0; i < dimension; i++) {
-      gradient[i] = 0;
-      for (int t = 0; t < threads; t++) {
-        gradient[i] += gradientThread[t][i];
-      }
-    }
+    executor.reduce(gradientThread, gradient);
 
     return gradient;
   }
 
   /**
-   * Compute tasks in parallel
+   * Shuts down the executor if it was created by this function, a shared
+   * executor is left to its owner.
    */
-  private void computeInParallel(double[] x, Class<? extends ComputeTask> taskClass) {
-    ExecutorService executor = Executors.newFixedThreadPool(threads);
-    int taskSize = numContexts / threads;
-    int leftOver = numContexts % threads;
-
-    try {
-      Constructor<? extends ComputeTask> cons = taskClass.getConstructor(
-          ParallelNegLogLikelihood.class,
-          int.class, int.class, int.class, double[].class);
-
-      List<Future<?>> futures = new ArrayList<>();
-      for (int i = 0; i < threads; i++) {
-        if (i != threads - 1)
-          futures.add(executor.submit(
-              cons.newInstance(this, i, i * taskSize, taskSize, x)));
-        else
-          futures.add(executor.submit(
-              cons.newInstance(this, i, i * taskSize, taskSize + leftOver, x)));
-      }
-
-      for (Future<?> future: futures)
-        future.get();
-
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-
-    executor.shutdown();
-  }
-
-  /**
-   * Task that is computed in parallel
-   */
-  abstract class ComputeTask implements Callable<ComputeTask> {
-
-    final int threadIndex;
-
-    // Start index of contexts to compute
-    final int startIndex;
-
-    // Number of contexts to compute
-    final int length;
-
-    final double[] x;
-
-    public ComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      this.threadIndex = threadIndex;
-      this.startIndex  = startIndex;
-      this.length      = length;
-      this.x           = x;
+  @Override
+  public void close() {
+    if (ownsExecutor) {
+      executor.close();
     }
   }
 
   /**
-   * Task for computing partial value of negative log-likelihood
+   * Compute partial value of negative log-likelihood
    */
-  class NegLLComputeTask extends ComputeTask {
-
-    final double[] tempSums;
-
-    public NegLLComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      super(threadIndex, startIndex, length, x);
-      this.tempSums = new double[numOutcomes];
-    }
-
-    @Override
-    public NegLLComputeTask call() {
-      int ci, oi, ai, vectorIndex, outcome;
-      double predValue, logSumOfExps;
-      negLogLikelihoodThread[threadIndex] = 0;
-
-      for (ci = startIndex; ci < startIndex + length; ci++) {
-        for (oi = 0; oi < numOutcomes; oi++) {
-          tempSums[oi] = 0;
-          for (ai = 0; ai < contexts[ci].length; ai++) {
-            vectorIndex = indexOf(oi, contexts[ci][ai]);
-            predValue = values != null ? values[ci][ai] : 1.0;
-            tempSums[oi] += predValue * x[vectorIndex];
-          }
+  private double negLogLikelihood(double[] x, int startIndex, int endIndex) {
+    int[][] contextBuffers = new int[maxContextLength + 1][];
+    int ci, oi, ai, vectorIndex, outcome;
+    double predValue, logSumOfExps;
+    double negLogLikelihood = 0;
+    double[] tempSums = new double[numOutcomes];
+
+    for (ci = startIndex; ci < endIndex; ci++) {
+      int[] context = getContext(ci, contextBuffers);
+      for (oi = 0; oi < numOutcomes; oi++) {
+        tempSums[oi] = 0;
+        for (ai = 0; ai < context.length; ai++) {
+          vectorIndex = indexOf(oi, context[ai]);
+          predValue = values != null ? values[ci][ai] : 1.0;
+          tempSums[oi] += predValue * x[vectorIndex];
         }
-
-        logSumOfExps = ArrayMath.logSumOfExps(tempSums);
-
-        outcome = outcomeList[ci];
-        negLogLikelihoodThread[threadIndex] -=
-            (tempSums[outcome] - logSumOfExps) * numTimesEventsSeen[ci];
       }
 
-      return this;
+      logSumOfExps = ArrayMath.logSumOfExps(tempSums);
+
+      outcome = outcomeList[ci];
+      negLogLikelihood -= (tempSums[outcome] - logSumOfExps) * numTimesEventsSeen[ci];
     }
+
+    return negLogLikelihood;
   }
 
   /**
-   * Task for computing partial gradient
+   * Compute partial gradient
    */
-  class GradientComputeTask extends ComputeTask {
-
-    final double[] expectation;
-
-    public GradientComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      super(threadIndex, startIndex, length, x);
-      this.expectation = new double[numOutcomes];
-    }
-
-    @Override
-    public GradientComputeTask call() {
-      int ci, oi, ai, vectorIndex;
-      double predValue, logSumOfExps;
-      int empirical;
-
-      // Reset gradientThread
-      Arrays.fill(gradientThread[threadIndex], 0);
-
-      for (ci = startIndex; ci < startIndex + length; ci++) {
-        for (oi = 0; oi < numOutcomes; oi++) {
-          expectation[oi] = 0;
-          for (ai = 0; ai < contexts[ci].length; ai++) {
-            vectorIndex = indexOf(oi, contexts[ci][ai]);
-            predValue = values != null ? values[ci][ai] : 1.0;
-            expectation[oi] += predValue * x[vectorIndex];
-          }
+  private void computeGradient(double[] x, int startIndex, int endIndex, double[] partialGradient) {
+    int[][] contextBuffers = new int[maxContextLength + 1][];
+    int ci, oi, ai, vectorIndex;
+    double predValue, logSumOfExps;
+    int empirical;
+    double[] expectation = new double[numOutcomes];
+
+    Arrays.fill(partialGradient, 0);
+
+    for (ci = startIndex; ci < endIndex; ci++) {
+      int[] context = getContext(ci, contextBuffers);
+      for (oi = 0; oi < numOutcomes; oi++) {
+        expectation[oi] = 0;
+        for (ai = 0; ai < context.length; ai++) {
+          vectorIndex = indexOf(oi, context[ai]);
+          predValue = values != null ? values[ci][ai] : 1.0;
+          expectation[oi] += predValue * x[vectorIndex];
         }
+      }
 
-        logSumOfExps = ArrayMath.logSumOfExps(expectation);
+      logSumOfExps = ArrayMath.logSumOfExps(expectation);
 
-        for (oi = 0; oi < numOutcomes; oi++) {
-          expectation[oi] = Math.exp(expectation[oi] - logSumOfExps);
-        }
+      for (oi = 0; oi < numOutcomes; oi++) {
+        expectation[oi] = Math.exp(expectation[oi] - logSumOfExps);
+      }
 
-        for (oi = 0; oi < numOutcomes; oi++) {
-          empirical = outcomeList[ci] == oi ? 1 : 0;
-          for (ai = 0; ai < contexts[ci].length; ai++) {
-            vectorIndex = indexOf(oi, contexts[ci][ai]);
-            predValue = values != null ? values[ci][ai] : 1.0;
-            gradientThread[threadIndex][vectorIndex] +=
-                predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
-          }
+      for (oi = 0; oi < numOutcomes; oi++) {
+        empirical = outcomeList[ci] == oi ? 1 : 0;
+        for (ai = 0; ai < context.length; ai++) {
+          vectorIndex = indexOf(oi, context[ai]);
+          predValue = values != null ? values[ci][ai] : 1.0;
+          partialGradient[vectorIndex] +=
+              predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
         }
       }
-
-      return this;
     }
   }
 }
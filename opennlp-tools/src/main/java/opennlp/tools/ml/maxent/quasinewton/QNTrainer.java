@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 
 import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.TrainingExecutor;
 import opennlp.tools.ml.maxent.quasinewton.QNMinimizer.Evaluator;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.Context;
@@ -175,21 +176,26 @@ public class QNTrainer extends AbstractEventTrainer {
   // << Members related to AbstractEventTrainer
   public QNModel trainModel(int iterations, DataIndexer indexer) {
 
-    // Train model's parameters
-    Function objectiveFunction;
-    if (threads == 1) {
-      System.out.println("Computing model parameters ...");
-      objectiveFunction = new NegLogLikelihood(indexer);
-    } else {
-      System.out.println("Computing model parameters in " + threads + " threads ...");
-      objectiveFunction = new ParallelNegLogLikelihood(indexer, threads);
-    }
+    double[] parameters;
+
+    // The worker threads are shared by all function evaluations
+    try (TrainingExecutor executor = new TrainingExecutor(threads)) {
+      // Train model's parameters
+      Function objectiveFunction;
+      if (threads == 1) {
+        System.out.println("Computing model parameters ...");
+        objectiveFunction = new NegLogLikelihood(indexer);
+      } else {
+        System.out.println("Computing model parameters in " + threads + " threads ...");
+        objectiveFunction = new ParallelNegLogLikelihood(indexer, executor);
+      }
 
-    QNMinimizer minimizer = new QNMinimizer(
-        l1Cost, l2Cost, iterations, m, maxFctEval, printMessages);
-    minimizer.setEvaluator(new ModelEvaluator(indexer));
+      QNMinimizer minimizer = new QNMinimizer(
+          l1Cost, l2Cost, iterations, m, maxFctEval, printMessages);
+      minimizer.setEvaluator(new ModelEvaluator(indexer));
 
-    double[] parameters = minimizer.minimize(objectiveFunction);
+      parameters = minimizer.minimize(objectiveFunction);
+    }
 
     // Construct model with trained parameters
     String[] predLabels = indexer.getPredLabels();
@@ -231,7 +237,6 @@ public class QNTrainer extends AbstractEventTrainer {
      */
     @Override
     public double evaluate(double[] parameters) {
-      int[][] contexts  = indexer.getContexts();
       float[][] values  = indexer.getValues();
       int[] nEventsSeen = indexer.getNumTimesEventsSeen();
       int[] outcomeList = indexer.getOutcomeList();
@@ -241,8 +246,8 @@ public class QNTrainer extends AbstractEventTrainer {
       int nCorrect     = 0;
       int nTotalEvents = 0;
 
-      for (int ei = 0; ei < contexts.length; ei++) {
-        int[] context  = contexts[ei];
+      for (int ei = 0; ei < outcomeList.length; ei++) {
+        int[] context  = indexer.getContext(ei);
         float[] value  = values == null ? null : values[ei];
 
         double[] probs = new double[nOutcomes];
@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent.sgd;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import opennlp.tools.ml.AbstractTrainer;
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.maxent.quasinewton.ArrayMath;
+import opennlp.tools.ml.maxent.quasinewton.QNModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.InsufficientTrainingDataException;
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Maxent model trainer which reads the events as a stream and updates the
+ * parameters after each mini-batch, with plain stochastic gradient descent, AdaGrad
+ * or FTRL-Proximal.
+ * <p>
+ * The events are not indexed. The predicates are hashed into a fixed number of
+ * buckets, see {@link #HASH_BITS_PARAM}, the memory does not grow with the number
+ * of events or predicates. Each iteration is one pass over the events, the event
+ * stream is reset between the passes and once more after the last pass to collect
+ * the predicates of the model. The {@link #CUTOFF_PARAM} is not used.
+ * <p>
+ * The trained model is a {@link QNModel}, it contains the predicates of the events
+ * whose bucket has a non-zero parameter.
+ */
+public class SGDTrainer extends AbstractTrainer implements EventTrainer {
+
+  public static final String MAXENT_SGD_VALUE = "MAXENT_SGD";
+
+  public static final String SOLVER_PARAM = "Solver";
+  public static final String SOLVER_SGD_VALUE = "SGD";
+  public static final String SOLVER_ADAGRAD_VALUE = "AdaGrad";
+  public static final String SOLVER_FTRL_VALUE = "FTRL";
+  public static final String SOLVER_DEFAULT = SOLVER_ADAGRAD_VALUE;
+
+  public static final String LEARNING_RATE_PARAM = "LearningRate";
+  public static final double LEARNING_RATE_DEFAULT = 0.1;
+
+  public static final String BATCH_SIZE_PARAM = "BatchSize";
+  public static final int BATCH_SIZE_DEFAULT = 16;
+
+  public static final String HASH_BITS_PARAM = "HashBits";
+  public static final int HASH_BITS_DEFAULT = 18;
+
+  public static final String L1COST_PARAM = "L1Cost";
+  public static final double L1COST_DEFAULT = 0;
+
+  public static final String L2COST_PARAM = "L2Cost";
+  public static final double L2COST_DEFAULT = 0;
+
+  /** The default number of passes over the events. */
+  public static final int ITERATIONS_DEFAULT = 10;
+
+  /** Avoids a division by zero in the AdaGrad update. */
+  private static final double ADAGRAD_EPSILON = 1e-8;
+
+  /** The beta of the FTRL-Proximal learning rate schedule. */
+  private static final double FTRL_BETA = 1;
+
+  private String solver;
+  private double learningRate;
+  private int batchSize;
+  private int hashBits;
+  private double l1Cost;
+  private double l2Cost;
+
+  private int bucketMask;
+
+  private final Map<String, Integer> outcomeIndex = new LinkedHashMap<>();
+
+  /** The parameters of each outcome, addressed by the predicate bucket. */
+  private double[][] weights;
+
+  /** AdaGrad: the sums of the squared gradients. FTRL: the n of each parameter. */
+  private double[][] squaredGradients;
+
+  /** FTRL: the z of each parameter. */
+  private double[][] ftrlZ;
+
+  /** The gradient of the current mini-batch. */
+  private double[][] gradient;
+
+  /** The buckets which have a gradient in the current mini-batch. */
+  private int[] touchedBuckets;
+  private int numTouchedBuckets;
+  private boolean[] touched;
+
+  /** The number of mini-batches which have been applied. */
+  private int numUpdates;
+
+  public SGDTrainer() {
+  }
+
+  @Override
+  public void validate() {
+    super.validate();
+
+    String algorithmName = getAlgorithm();
+    if (algorithmName != null && !MAXENT_SGD_VALUE.equals(algorithmName)) {
+      throw new IllegalArgumentException("algorithmName must be MAXENT_SGD");
+    }
+
+    String solverName = trainingParameters.getStringParameter(SOLVER_PARAM, SOLVER_DEFAULT);
+    if (!SOLVER_SGD_VALUE.equals(solverName) && !SOLVER_ADAGRAD_VALUE.equals(solverName)
+        && !SOLVER_FTRL_VALUE.equals(solverName)) {
+      throw new IllegalArgumentException("Solver must be SGD, AdaGrad or FTRL but is " + solverName);
+    }
+
+    if (trainingParameters.getDoubleParameter(LEARNING_RATE_PARAM, LEARNING_RATE_DEFAULT) <= 0) {
+      throw new IllegalArgumentException("Learning rate must be > 0");
+    }
+
+    if (trainingParameters.getIntParameter(BATCH_SIZE_PARAM, BATCH_SIZE_DEFAULT) < 1) {
+      throw new IllegalArgumentException("Batch size must be >= 1");
+    }
+
+    int bits = trainingParameters.getIntParameter(HASH_BITS_PARAM, HASH_BITS_DEFAULT);
+    if (bits < 1 || bits > 30) {
+      throw new IllegalArgumentException("Hash bits must be between 1 and 30 but is " + bits);
+    }
+
+    if (trainingParameters.getDoubleParameter(L1COST_PARAM, L1COST_DEFAULT) < 0
+        || trainingParameters.getDoubleParameter(L2COST_PARAM, L2COST_DEFAULT) < 0) {
+      throw new IllegalArgumentException("Regularization costs must be >= 0");
+    }
+  }
+
+  @Override
+  public int getIterations() {
+    return trainingParameters.getIntParameter(ITERATIONS_PARAM, ITERATIONS_DEFAULT);
+  }
+
+  @Override
+  public MaxentModel train(DataIndexer indexer) throws IOException {
+    return train(new IndexedEventStream(indexer));
+  }
+
+  @Override
+  public MaxentModel train(ObjectStream<Event> events) throws IOException {
+    validate();
+
+    solver = trainingParameters.getStringParameter(SOLVER_PARAM, SOLVER_DEFAULT);
+    learningRate = trainingParameters.getDoubleParameter(LEARNING_RATE_PARAM, LEARNING_RATE_DEFAULT);
+    batchSize = trainingParameters.getIntParameter(BATCH_SIZE_PARAM, BATCH_SIZE_DEFAULT);
+    hashBits = trainingParameters.getIntParameter(HASH_BITS_PARAM, HASH_BITS_DEFAULT);
+    l1Cost = trainingParameters.getDoubleParameter(L1COST_PARAM, L1COST_DEFAULT);
+    l2Cost = trainingParameters.getDoubleParameter(L2COST_PARAM, L2COST_DEFAULT);
+
+    int numBuckets = 1 << hashBits;
+    bucketMask = numBuckets - 1;
+
+    outcomeIndex.clear();
+    weights = new double[0][];
+    squaredGradients = new double[0][];
+    ftrlZ = new double[0][];
+    gradient = new double[0][];
+    touchedBuckets = new int[64];
+    touched = new boolean[numBuckets];
+    numTouchedBuckets = 0;
+    numUpdates = 0;
+
+    int iterations = getIterations();
+
+    display("Training with " + solver + " on " + numBuckets + " predicate buckets...\n");
+    display("Performing " + iterations + " iterations.\n");
+
+    for (int i = 1; i <= iterations; i++) {
+      if (i > 1) {
+        events.reset();
+      }
+
+      display((i < 10 ? "  " : i < 100 ? " " : "") + i + ":  ");
+      nextIteration(events);
+    }
+
+    if (outcomeIndex.size() <= 1) {
+      throw new InsufficientTrainingDataException("Training data must contain more than one outcome");
+    }
+
+    events.reset();
+    QNModel model = createModel(events);
+
+    addToReport(AbstractTrainer.TRAINER_TYPE_PARAM, EventTrainer.EVENT_VALUE);
+
+    return model;
+  }
+
+  /**
+   * Performs one pass over the events.
+   */
+  private void nextIteration(ObjectStream<Event> events) throws IOException {
+    double loss = 0;
+    int numEvents = 0;
+    int numCorrect = 0;
+    int eventsInBatch = 0;
+
+    double[] probs = new double[0];
+
+    Event event;
+    while ((event = events.read()) != null) {
+      int outcome = outcomeIndex.computeIfAbsent(event.getOutcome(), o -> addOutcome());
+      if (probs.length != weights.length) {
+        probs = new double[weights.length];
+      }
+
+      String[] context = event.getContext();
+      float[] values = event.getValues();
+
+      int[] buckets = new int[context.length];
+      for (int ci = 0; ci < context.length; ci++) {
+        buckets[ci] = bucket(context[ci]);
+      }
+
+      eval(buckets, values, probs);
+
+      loss -= Math.log(probs[outcome]);
+      numEvents++;
+      if (maxIndex(probs) == outcome) {
+        numCorrect++;
+      }
+
+      // gradient of the negative log-likelihood
+      for (int ci = 0; ci < buckets.length; ci++) {
+        int bucket = buckets[ci];
+        double value = values != null ? values[ci] : 1;
+
+        if (!touched[bucket]) {
+          touched[bucket] = true;
+          if (numTouchedBuckets == touchedBuckets.length) {
+            touchedBuckets = Arrays.copyOf(touchedBuckets, numTouchedBuckets * 2);
+          }
+          touchedBuckets[numTouchedBuckets++] = bucket;
+        }
+
+        for (int oi = 0; oi < probs.length; oi++) {
+          gradient[oi][bucket] += value * (probs[oi] - (oi == outcome ? 1 : 0));
+        }
+      }
+
+      if (++eventsInBatch == batchSize) {
+        update(eventsInBatch);
+        eventsInBatch = 0;
+      }
+    }
+
+    if (eventsInBatch > 0) {
+      update(eventsInBatch);
+    }
+
+    display(". loss=" + (numEvents > 0 ? loss / numEvents : 0) + "\t"
+        + (numEvents > 0 ? (double) numCorrect / numEvents : 0) + "\n");
+  }
+
+  /**
+   * Applies the gradient of the mini-batch to the touched parameters.
+   */
+  private void update(int eventsInBatch) {
+    numUpdates++;
+
+    double rate = learningRate / Math.sqrt(numUpdates);
+
+    for (int ti = 0; ti < numTouchedBuckets; ti++) {
+      int bucket = touchedBuckets[ti];
+      touched[bucket] = false;
+
+      for (int oi = 0; oi < weights.length; oi++) {
+        double g = gradient[oi][bucket] / eventsInBatch;
+        gradient[oi][bucket] = 0;
+
+        double w = weights[oi][bucket];
+
+        switch (solver) {
+          case SOLVER_SGD_VALUE:
+            w -= rate * (g + l2Cost * w);
+            weights[oi][bucket] = shrink(w, rate * l1Cost);
+            break;
+
+          case SOLVER_ADAGRAD_VALUE:
+            g += l2Cost * w;
+            squaredGradients[oi][bucket] += g * g;
+            double adaptiveRate =
+                learningRate / (Math.sqrt(squaredGradients[oi][bucket]) + ADAGRAD_EPSILON);
+            weights[oi][bucket] = shrink(w - adaptiveRate * g, adaptiveRate * l1Cost);
+            break;
+
+          case SOLVER_FTRL_VALUE:
+            double n = squaredGradients[oi][bucket];
+            double sigma = (Math.sqrt(n + g * g) - Math.sqrt(n)) / learningRate;
+            ftrlZ[oi][bucket] += g - sigma * w;
+            squaredGradients[oi][bucket] = n + g * g;
+            weights[oi][bucket] = ftrlWeight(ftrlZ[oi][bucket], squaredGradients[oi][bucket]);
+            break;
+
+          default:
+            throw new IllegalStateException("Unknown solver: " + solver);
+        }
+      }
+    }
+
+    numTouchedBuckets = 0;
+  }
+
+  /**
+   * Computes the FTRL-Proximal parameter in closed form, the L1 cost sets
+   * parameters with a small accumulated gradient to zero.
+   */
+  private double ftrlWeight(double z, double n) {
+    if (Math.abs(z) <= l1Cost) {
+      return 0;
+    }
+    return -(z - Math.signum(z) * l1Cost) / ((FTRL_BETA + Math.sqrt(n)) / learningRate + l2Cost);
+  }
+
+  /**
+   * Applies the proximal step of the L1 cost, which truncates the parameter at zero.
+   */
+  private static double shrink(double w, double amount) {
+    if (w > amount) {
+      return w - amount;
+    }
+    else if (w < -amount) {
+      return w + amount;
+    }
+    return 0;
+  }
+
+  private int addOutcome() {
+    int numBuckets = bucketMask + 1;
+    int oi = weights.length;
+
+    weights = Arrays.copyOf(weights, oi + 1);
+    weights[oi] = new double[numBuckets];
+    gradient = Arrays.copyOf(gradient, oi + 1);
+    gradient[oi] = new double[numBuckets];
+
+    if (!SOLVER_SGD_VALUE.equals(solver)) {
+      squaredGradients = Arrays.copyOf(squaredGradients, oi + 1);
+      squaredGradients[oi] = new double[numBuckets];
+    }
+    if (SOLVER_FTRL_VALUE.equals(solver)) {
+      ftrlZ = Arrays.copyOf(ftrlZ, oi + 1);
+      ftrlZ[oi] = new double[numBuckets];
+    }
+
+    return oi;
+  }
+
+  private int bucket(String predicate) {
+    int hash = predicate.hashCode() * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & bucketMask;
+  }
+
+  private void eval(int[] buckets, float[] values, double[] probs) {
+    Arrays.fill(probs, 0);
+
+    for (int ci = 0; ci < buckets.length; ci++) {
+      double value = values != null ? values[ci] : 1;
+      for (int oi = 0; oi < probs.length; oi++) {
+        probs[oi] += value * weights[oi][buckets[ci]];
+      }
+    }
+
+    double logSumExp = ArrayMath.logSumOfExps(probs);
+    for (int oi = 0; oi < probs.length; oi++) {
+      probs[oi] = Math.exp(probs[oi] - logSumExp);
+    }
+  }
+
+  private static int maxIndex(double[] values) {
+    int max = 0;
+    for (int i = 1; i < values.length; i++) {
+      if (values[i] > values[max]) {
+        max = i;
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Reads the events once more and creates a model which contains each predicate
+   * whose bucket has at least one non-zero parameter.
+   */
+  private QNModel createModel(ObjectStream<Event> events) throws IOException {
+    Map<String, Context> params = new HashMap<>();
+
+    List<Integer> outcomes = new ArrayList<>();
+    List<Double> parameters = new ArrayList<>();
+
+    Event event;
+    while ((event = events.read()) != null) {
+      for (String predicate : event.getContext()) {
+        if (!params.containsKey(predicate)) {
+          int bucket = bucket(predicate);
+
+          outcomes.clear();
+          parameters.clear();
+          for (int oi = 0; oi < weights.length; oi++) {
+            if (weights[oi][bucket] != 0) {
+              outcomes.add(oi);
+              parameters.add(weights[oi][bucket]);
+            }
+          }
+
+          if (!outcomes.isEmpty()) {
+            params.put(predicate, new Context(ArrayMath.toIntArray(outcomes),
+                ArrayMath.toDoubleArray(parameters)));
+          }
+        }
+      }
+    }
+
+    String[] predLabels = params.keySet().toArray(new String[params.size()]);
+    Context[] contexts = new Context[predLabels.length];
+    for (int pi = 0; pi < predLabels.length; pi++) {
+      contexts[pi] = params.get(predLabels[pi]);
+    }
+
+    return new QNModel(contexts, predLabels, outcomeIndex.keySet().toArray(new String[0]));
+  }
+
+  /**
+   * Replays the events of a {@link DataIndexer}.
+   */
+  private static class IndexedEventStream implements ObjectStream<Event> {
+
+    private final DataIndexer indexer;
+    private int eventIndex;
+    private int seen;
+
+    IndexedEventStream(DataIndexer indexer) {
+      this.indexer = indexer;
+    }
+
+    @Override
+    public Event read() {
+      int[][] contexts = indexer.getContexts();
+
+      while (eventIndex < contexts.length && seen == indexer.getNumTimesEventsSeen()[eventIndex]) {
+        eventIndex++;
+        seen = 0;
+      }
+
+      if (eventIndex == contexts.length) {
+        return null;
+      }
+
+      seen++;
+
+      String[] context = new String[contexts[eventIndex].length];
+      for (int ci = 0; ci < context.length; ci++) {
+        context[ci] = indexer.getPredLabels()[contexts[eventIndex][ci]];
+      }
+
+      float[] values = indexer.getValues() != null ? indexer.getValues()[eventIndex] : null;
+
+      return new Event(indexer.getOutcomeLabels()[indexer.getOutcomeList()[eventIndex]],
+          context, values);
+    }
+
+    @Override
+    public void reset() {
+      eventIndex = 0;
+      seen = 0;
+    }
+  }
+}
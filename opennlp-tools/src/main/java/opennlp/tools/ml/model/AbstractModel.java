@@ -156,7 +156,7 @@ public abstract class AbstractModel implements MaxentModel {
    *
    * @return An Object[] with the values as described above.
    */
-  public final Object[] getDataStructures() {
+  public Object[] getDataStructures() {
     Object[] data = new Object[3];
     data[0] = evalParams.getParams();
     data[1] = pmap;
@@ -178,7 +178,8 @@ public abstract class AbstractModel implements MaxentModel {
     if (obj instanceof AbstractModel) {
       AbstractModel model = (AbstractModel) obj;
 
-      return pmap.equals(model.pmap) && Objects.deepEquals(outcomeNames, model.outcomeNames)
+      return getDataStructures()[1].equals(model.getDataStructures()[1])
+          && Objects.deepEquals(outcomeNames, model.outcomeNames)
           && Objects.equals(prior, model.prior);
     }
 
@@ -0,0 +1,491 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import opennlp.tools.ml.maxent.quasinewton.ArrayMath;
+import opennlp.tools.ml.naivebayes.NaiveBayesEvalParameters;
+
+/**
+ * An evaluation-only form of a GIS, QN, Perceptron or Naive Bayes model.
+ * <p>
+ * The predicates are stored in an open addressing hash table which maps them
+ * to a primitive index, and the parameters of all predicates are flattened into
+ * one contiguous array which is addressed through per-predicate offsets. The eval
+ * methods which take an output array do not allocate.
+ * <p>
+ * The computations are performed in the same order as in the source model,
+ * the probabilities are bit-identical to the ones the source model produces.
+ * The source model's data structures are shared, a compiled model can be
+ * serialized like the model it was compiled from.
+ *
+ * @see #compile(AbstractModel)
+ */
+public final class CompiledMaxentModel extends AbstractModel {
+
+  /** Lidstone smoothing value used by the {@link ModelType#NaiveBayes} models. */
+  static final double NAIVE_BAYES_DELTA = 0.05;
+
+  /** Hash table slots, holding the predicate index plus one, zero marks an empty slot. */
+  final int[] slots;
+  private final int slotMask;
+
+  final String[] predicates;
+  final int[] predicateHashes;
+
+  /** The parameters of predicate i are stored at offsets[i] until offsets[i + 1]. */
+  final int[] offsets;
+  final int[] outcomes;
+  final double[] parameters;
+
+  private final int numOutcomes;
+
+  /** Naive Bayes only, the smoothing denominator of each outcome. */
+  private double[] smoothedOutcomeTotals;
+  /** Naive Bayes only, the prior probability of each outcome. */
+  private double[] outcomePriors;
+
+  private CompiledMaxentModel(AbstractModel model) {
+    super(model.evalParams.getParams(), null, model.pmap, model.outcomeNames);
+    this.evalParams = model.evalParams;
+    this.prior = model.prior;
+    this.modelType = model.modelType;
+
+    numOutcomes = model.getNumOutcomes();
+
+    int numPredicates = pmap.size();
+
+    predicates = new String[numPredicates];
+    predicateHashes = new int[numPredicates];
+    offsets = new int[numPredicates + 1];
+
+    int numParameters = 0;
+    for (Context context : pmap.values()) {
+      numParameters += context.getOutcomes().length;
+    }
+
+    outcomes = new int[numParameters];
+    parameters = new double[numParameters];
+
+    int capacity = Integer.highestOneBit(Math.max(2, numPredicates * 2 - 1)) << 1;
+    slots = new int[capacity];
+    slotMask = capacity - 1;
+
+    int pi = 0;
+    int offset = 0;
+    for (Map.Entry<String, Context> entry : pmap.entrySet()) {
+      String predicate = entry.getKey();
+      Context context = entry.getValue();
+
+      predicates[pi] = predicate;
+      predicateHashes[pi] = predicate.hashCode();
+
+      int[] activeOutcomes = context.getOutcomes();
+      double[] activeParameters = context.getParameters();
+      System.arraycopy(activeOutcomes, 0, outcomes, offset, activeOutcomes.length);
+      System.arraycopy(activeParameters, 0, parameters, offset, activeOutcomes.length);
+      offsets[pi] = offset;
+      offset += activeOutcomes.length;
+
+      int slot = spread(predicateHashes[pi]) & slotMask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & slotMask;
+      }
+      slots[slot] = pi + 1;
+
+      pi++;
+    }
+    offsets[numPredicates] = offset;
+
+    if (modelType == ModelType.NaiveBayes) {
+      NaiveBayesEvalParameters nbParams = (NaiveBayesEvalParameters) evalParams;
+      double[] outcomeTotals = nbParams.getOutcomeTotals();
+
+      double total = 0;
+      for (int i = 0; i < outcomeTotals.length; ++i) {
+        total += outcomeTotals[i];
+      }
+
+      double vocabulary = nbParams.getVocabulary();
+      smoothedOutcomeTotals = new double[outcomeTotals.length];
+      outcomePriors = new double[outcomeTotals.length];
+      for (int i = 0; i < outcomeTotals.length; ++i) {
+        smoothedOutcomeTotals[i] = outcomeTotals[i] + NAIVE_BAYES_DELTA * vocabulary;
+        outcomePriors[i] = outcomeTotals[i] / total;
+      }
+    }
+  }
+
+  /**
+   * Checks if the specified model can be compiled.
+   *
+   * @param model the model to check
+   *
+   * @return true if {@link #compile(AbstractModel)} accepts the model
+   */
+  public static boolean isCompilable(AbstractModel model) {
+    if (model instanceof CompiledMaxentModel || model instanceof MappedMaxentModel
+        || model.getModelType() == null) {
+      return false;
+    }
+
+    switch (model.getModelType()) {
+      case Maxent:
+        // the prior must not depend on the context, since the
+        // compiled model has no Context objects to pass to it
+        return model.prior instanceof UniformPrior;
+      case NaiveBayes:
+        return model.evalParams instanceof NaiveBayesEvalParameters;
+      case MaxentQn:
+      case Perceptron:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Compiles the specified model.
+   *
+   * @param model a GIS, QN, Perceptron or Naive Bayes model
+   *
+   * @return the compiled model
+   *
+   * @throws IllegalArgumentException if the model cannot be compiled
+   */
+  public static CompiledMaxentModel compile(AbstractModel model) {
+    if (!isCompilable(model)) {
+      throw new IllegalArgumentException("Model cannot be compiled: " + model.getModelType());
+    }
+
+    return new CompiledMaxentModel(model);
+  }
+
+  /**
+   * Spreads the higher bits of a predicate hash code to the lower bits which
+   * address the hash table. The {@link MappedMaxentModel} format relies on it.
+   */
+  static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Retrieves the index of a predicate.
+   *
+   * @param predicate the predicate
+   *
+   * @return the index of the predicate or -1 if the model does not contain it
+   */
+  public int getPredicateIndex(String predicate) {
+    int hash = predicate.hashCode();
+
+    int slot = spread(hash) & slotMask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      int pi = entry - 1;
+      if (predicateHashes[pi] == hash && predicates[pi].equals(predicate)) {
+        return pi;
+      }
+      slot = (slot + 1) & slotMask;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Retrieves the index of a predicate which is not available as a {@link String}.
+   * The caller supplies the hash code the predicate would have as a {@link String},
+   * the characters are only compared if a predicate of the model has this hash code.
+   *
+   * @param predicate the characters of the predicate
+   * @param hash the {@link String#hashCode()} of the predicate
+   *
+   * @return the index of the predicate or -1 if the model does not contain it
+   */
+  public int getPredicateIndex(CharSequence predicate, int hash) {
+    int slot = spread(hash) & slotMask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      int pi = entry - 1;
+      if (predicateHashes[pi] == hash && predicates[pi].contentEquals(predicate)) {
+        return pi;
+      }
+      slot = (slot + 1) & slotMask;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Retrieves the predicate with the specified index.
+   *
+   * @param index the index of the predicate
+   *
+   * @return the predicate
+   */
+  public String getPredicate(int index) {
+    return predicates[index];
+  }
+
+  @Override
+  public int getNumOutcomes() {
+    return numOutcomes;
+  }
+
+  @Override
+  public double[] eval(String[] context) {
+    return eval(context, null, new double[numOutcomes]);
+  }
+
+  @Override
+  public double[] eval(String[] context, double[] probs) {
+    return eval(context, null, probs);
+  }
+
+  @Override
+  public double[] eval(String[] context, float[] values) {
+    return eval(context, values, new double[numOutcomes]);
+  }
+
+  /**
+   * Evaluates a context with the specified context values.
+   *
+   * @param context the contextual predicates
+   * @param values the values associated with each predicate, or null
+   * @param probs the array the probabilities are written to
+   *
+   * @return the probs array
+   */
+  public double[] eval(String[] context, float[] values, double[] probs) {
+    switch (modelType) {
+      case Maxent:
+        prior.logPrior(probs, (int[]) null, values);
+        sumParameters(context, values, probs);
+        return normalizeGIS(probs, numOutcomes);
+      case MaxentQn:
+        sumParameters(context, values, probs);
+        return normalizeQN(probs, numOutcomes);
+      case Perceptron:
+        Arrays.fill(probs, 0);
+        sumParameters(context, values, probs);
+        return normalizePerceptron(probs, numOutcomes);
+      case NaiveBayes:
+        return evalNaiveBayes(context, values, probs);
+      default:
+        throw new IllegalStateException("Unsupported model type: " + modelType);
+    }
+  }
+
+  /**
+   * Checks if the outcome scores of a context are the sums of the parameters of its
+   * predicates. The scores of such a context can be computed in parts with
+   * {@link #score(String[], double[])} and {@link #addScores(String[], double[])},
+   * and are turned into probabilities with {@link #normalize(double[])}.
+   *
+   * @return true for GIS, QN and Perceptron models, false for Naive Bayes models
+   */
+  public boolean isAdditive() {
+    return modelType == ModelType.Maxent || modelType == ModelType.MaxentQn
+        || modelType == ModelType.Perceptron;
+  }
+
+  /**
+   * Initializes the outcome scores with the prior of the model and adds the
+   * parameters of the predicates of the context.
+   *
+   * @param context the contextual predicates
+   * @param scores the array the scores are written to
+   *
+   * @return the scores array
+   *
+   * @throws IllegalStateException if the model is not {@link #isAdditive() additive}
+   */
+  public double[] score(String[] context, double[] scores) {
+    switch (modelType) {
+      case Maxent:
+        prior.logPrior(scores, (int[]) null, null);
+        break;
+      case MaxentQn:
+      case Perceptron:
+        Arrays.fill(scores, 0, numOutcomes, 0);
+        break;
+      default:
+        throw new IllegalStateException("Model type is not additive: " + modelType);
+    }
+
+    sumParameters(context, null, scores);
+    return scores;
+  }
+
+  /**
+   * Adds the parameters of the predicates of the context to the outcome scores.
+   *
+   * @param context the contextual predicates
+   * @param scores the scores
+   *
+   * @return the scores array
+   */
+  public double[] addScores(String[] context, double[] scores) {
+    sumParameters(context, null, scores);
+    return scores;
+  }
+
+  /**
+   * Turns the outcome scores into probabilities, like the eval methods do
+   * after the parameters of the predicates are summed.
+   *
+   * @param scores the scores, they are replaced by the probabilities
+   *
+   * @return the scores array
+   *
+   * @throws IllegalStateException if the model is not {@link #isAdditive() additive}
+   */
+  public double[] normalize(double[] scores) {
+    switch (modelType) {
+      case Maxent:
+        return normalizeGIS(scores, numOutcomes);
+      case MaxentQn:
+        return normalizeQN(scores, numOutcomes);
+      case Perceptron:
+        return normalizePerceptron(scores, numOutcomes);
+      default:
+        throw new IllegalStateException("Model type is not additive: " + modelType);
+    }
+  }
+
+  private void sumParameters(String[] context, float[] values, double[] probs) {
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int pi = getPredicateIndex(context[ci]);
+      if (pi >= 0) {
+        if (values != null) {
+          value = values[ci];
+        }
+        for (int ai = offsets[pi]; ai < offsets[pi + 1]; ai++) {
+          probs[outcomes[ai]] += parameters[ai] * value;
+        }
+      }
+    }
+  }
+
+  static double[] normalizeGIS(double[] probs, int numOutcomes) {
+    double normal = 0.0;
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      probs[oid] = Math.exp(probs[oid]);
+      normal += probs[oid];
+    }
+
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      probs[oid] /= normal;
+    }
+    return probs;
+  }
+
+  static double[] normalizeQN(double[] probs, int numOutcomes) {
+    double logSumExp = ArrayMath.logSumOfExps(probs);
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      probs[oi] = Math.exp(probs[oi] - logSumExp);
+    }
+    return probs;
+  }
+
+  static double[] normalizePerceptron(double[] probs, int numOutcomes) {
+    double maxPrior = 1;
+
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      if (maxPrior < Math.abs(probs[oid]))
+        maxPrior = Math.abs(probs[oid]);
+    }
+
+    double normal = 0.0;
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      probs[oid] = Math.exp(probs[oid] / maxPrior);
+      normal += probs[oid];
+    }
+
+    for (int oid = 0; oid < numOutcomes; oid++) {
+      probs[oid] /= normal;
+    }
+    return probs;
+  }
+
+  /**
+   * Computes the Naive Bayes log probabilities directly in the output array,
+   * see {@link opennlp.tools.ml.naivebayes.NaiveBayesModel} and
+   * {@link opennlp.tools.ml.naivebayes.LogProbabilities}.
+   */
+  private double[] evalNaiveBayes(String[] context, float[] values, double[] probs) {
+    int numTotals = smoothedOutcomeTotals.length;
+
+    Arrays.fill(probs, 0, numTotals, 0);
+
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int pi = getPredicateIndex(context[ci]);
+      if (pi >= 0) {
+        if (values != null) {
+          value = values[ci];
+        }
+        int ai = offsets[pi];
+        int end = offsets[pi + 1];
+        for (int i = 0; i < numTotals && ai < end; ++i) {
+          double numerator = outcomes[ai] == i ? parameters[ai++] * value : 0;
+          probs[i] += Math.log((numerator + NAIVE_BAYES_DELTA) / smoothedOutcomeTotals[i]);
+        }
+      }
+    }
+
+    return normalizeNaiveBayes(probs, outcomePriors);
+  }
+
+  static double[] normalizeNaiveBayes(double[] probs, double[] outcomePriors) {
+    int numTotals = outcomePriors.length;
+
+    for (int i = 0; i < numTotals; ++i) {
+      probs[i] += Math.log(outcomePriors[i]);
+    }
+
+    double highestLogProbability = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < numTotals; ++i) {
+      if (probs[i] > highestLogProbability) {
+        highestLogProbability = probs[i];
+      }
+    }
+
+    double sum = 0;
+    for (int i = 0; i < numTotals; ++i) {
+      probs[i] = Math.exp(probs[i] - highestLogProbability);
+      if (!Double.isNaN(probs[i])) {
+        sum += probs[i];
+      }
+    }
+
+    for (int i = 0; i < numTotals; ++i) {
+      if (Double.isNaN(probs[i])) {
+        probs[i] = 0.0;
+      }
+      else if (sum > Double.MIN_VALUE) {
+        probs[i] /= sum;
+      }
+    }
+
+    return probs;
+  }
+}
@@ -33,6 +33,41 @@ public interface DataIndexer {
    */
   int[][] getContexts();
 
+  /**
+   * Returns the predicates seen in one event. Trainers which read the contexts one
+   * event at a time do not require the contexts of all events in memory at once.
+   *
+   * @param index the index of the event
+   *
+   * @return the predicate indexes of the event
+   */
+  default int[] getContext(int index) {
+    return getContexts()[index];
+  }
+
+  /**
+   * Returns the number of predicates seen in one event.
+   *
+   * @param index the index of the event
+   *
+   * @return the length of the context of the event
+   */
+  default int getContextLength(int index) {
+    return getContext(index).length;
+  }
+
+  /**
+   * Copies the predicates seen in one event into an array, an indexer which does not
+   * keep its contexts in memory does not allocate an array for the context.
+   *
+   * @param index the index of the event
+   * @param context the array the predicate indexes are copied to, its length
+   *     must be the {@link #getContextLength(int) length of the context}
+   */
+  default void getContext(int index, int[] context) {
+    System.arraycopy(getContext(index), 0, context, 0, context.length);
+  }
+
   /**
    * Returns an array indicating the number of times a particular event was seen.
    * @return an array indexed by the event index indicating the number of times a particular event was seen.
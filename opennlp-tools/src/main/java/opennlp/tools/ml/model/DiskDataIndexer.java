@@ -0,0 +1,514 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+import opennlp.tools.util.InsufficientTrainingDataException;
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Collecting event and context counts without holding the events in memory.
+ * <p>
+ * The events are read once. Each predicate is mapped to an int as soon as it is
+ * seen and the events are spilled to a temporary file as int records. After the
+ * cutoff has been applied, the spilled events are sorted and merged in runs of
+ * bounded size, see {@link #SORT_BUFFER_SIZE_PARAM}, and the runs are merged into
+ * the unique events. The contexts of the unique events are kept in a memory mapped
+ * file and are read one event at a time with {@link #getContext(int)}, the GIS and
+ * the QN trainers train on the mapped contexts. The other trainers call
+ * {@link #getContexts()} which copies the contexts onto the heap.
+ * <p>
+ * The predicate and outcome labels, and per unique event the outcome, the seen count
+ * and the offset of its context, are kept on the heap. While the events are read,
+ * the predicates are mapped to their ids with an in-memory map.
+ * <p>
+ * The indexed events are identical to the ones of the {@link TwoPassDataIndexer}.
+ */
+public class DiskDataIndexer extends AbstractDataIndexer {
+
+  /**
+   * The number of predicate indexes which are sorted in memory at once, a
+   * larger value results in fewer runs which must be merged.
+   */
+  public static final String SORT_BUFFER_SIZE_PARAM = "SortBufferSize";
+  public static final int SORT_BUFFER_SIZE_DEFAULT = 1 << 22;
+
+  /** The number of ints in one mapped segment of the contexts file. */
+  private static final int SEGMENT_SIZE = 1 << 28;
+
+  private int numEvents;
+
+  /** The segments of the contexts file. */
+  private IntBuffer[] contextSegments;
+  /** The contexts of unique event i are stored from contextOffsets[i] until contextOffsets[i + 1]. */
+  private long[] contextOffsets;
+
+  public DiskDataIndexer() {}
+
+  @Override
+  public void index(ObjectStream<Event> eventStream) throws IOException {
+    int cutoff = trainingParameters.getIntParameter(CUTOFF_PARAM, CUTOFF_DEFAULT);
+    boolean sort = trainingParameters.getBooleanParameter(SORT_PARAM, SORT_DEFAULT);
+    int sortBufferSize = trainingParameters.getIntParameter(SORT_BUFFER_SIZE_PARAM,
+        SORT_BUFFER_SIZE_DEFAULT);
+
+    long start = System.currentTimeMillis();
+
+    display("Indexing events with Disk using cutoff of " + cutoff + "\n\n");
+
+    display("\tComputing event counts...  ");
+
+    Map<String, Integer> predicateIds = new HashMap<>();
+    Map<String, Integer> outcomeIds = new HashMap<>();
+    int[] counts = new int[1024];
+
+    File spill = createTempFile("events");
+    int numSpilledEvents = 0;
+    try (DataOutputStream out = openOutput(spill)) {
+      Event ev;
+      while ((ev = eventStream.read()) != null) {
+        String[] context = ev.getContext();
+
+        out.writeInt(outcomeIds.computeIfAbsent(ev.getOutcome(), outcome -> outcomeIds.size()));
+        out.writeInt(context.length);
+        for (String predicate : context) {
+          int id = predicateIds.computeIfAbsent(predicate, p -> predicateIds.size());
+          if (id == counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+          }
+          counts[id]++;
+          out.writeInt(id);
+        }
+        numSpilledEvents++;
+      }
+    }
+    display("done. " + numSpilledEvents + " events\n");
+
+    display("\tIndexing...  ");
+
+    String[] spilledLabels = toIndexedStringArray(predicateIds);
+    predicateIds.clear();
+
+    // the ids of the predicates which pass the cutoff, ordered by their labels
+    int[] finalCounts = counts;
+    int[] predicateSet = IntStream.range(0, spilledLabels.length)
+        .filter(id -> finalCounts[id] >= cutoff)
+        .boxed()
+        .sorted(Comparator.comparing(id -> spilledLabels[id]))
+        .mapToInt(Integer::intValue)
+        .toArray();
+
+    int[] predicateIndex = new int[spilledLabels.length];
+    Arrays.fill(predicateIndex, -1);
+    predLabels = new String[predicateSet.length];
+    predCounts = new int[predicateSet.length];
+    for (int i = 0; i < predicateSet.length; i++) {
+      int id = predicateSet[i];
+      predicateIndex[id] = i;
+      predLabels[i] = spilledLabels[id];
+      predCounts[i] = counts[id];
+    }
+
+    outcomeLabels = toIndexedStringArray(outcomeIds);
+
+    List<File> runs = new ArrayList<>();
+    try {
+      display("done.\n");
+
+      try {
+        if (sort) {
+          display("Sorting and merging events... ");
+          numEvents = writeRuns(spill, predicateIndex, spilledLabels, sortBufferSize, runs);
+        }
+        else {
+          display("Collecting events... ");
+          File run = createTempFile("run");
+          runs.add(run);
+          numEvents = writeRun(spill, predicateIndex, spilledLabels, run);
+        }
+      }
+      finally {
+        // the runs contain all events, the spill is not needed anymore
+        spill.delete();
+      }
+
+      File contextsFile = createTempFile("contexts");
+      try {
+        int numUniqueEvents = mergeRuns(runs, contextsFile, sort);
+
+        if (numUniqueEvents == 0) {
+          throw new InsufficientTrainingDataException("Insufficient training data to create model.");
+        }
+
+        if (sort) display("done. Reduced " + numEvents + " events to " + numUniqueEvents + ".\n");
+
+        mapContexts(contextsFile);
+      }
+      finally {
+        contextsFile.delete();
+      }
+    }
+    finally {
+      runs.forEach(File::delete);
+    }
+
+    display(String.format("Done indexing in %.2f s.\n", (System.currentTimeMillis() - start) / 1000d));
+  }
+
+  /**
+   * Reads the spilled events, replaces the spilled predicate ids with the predicate
+   * indexes and writes runs of sorted and merged events.
+   *
+   * @return the number of events which have at least one active predicate
+   */
+  private int writeRuns(File spill, int[] predicateIndex, String[] spilledLabels,
+      int sortBufferSize, List<File> runs) throws IOException {
+    int numIndexedEvents = 0;
+
+    try (DataInputStream in = openInput(spill)) {
+      List<ComparableEvent> buffer = new ArrayList<>();
+      int bufferedSize = 0;
+
+      ComparableEvent event;
+      while ((event = readSpilledEvent(in, predicateIndex, spilledLabels)) != null) {
+        buffer.add(event);
+        bufferedSize += event.predIndexes.length;
+        numIndexedEvents++;
+
+        if (bufferedSize >= sortBufferSize) {
+          runs.add(writeSortedRun(buffer));
+          buffer.clear();
+          bufferedSize = 0;
+        }
+      }
+
+      if (!buffer.isEmpty()) {
+        runs.add(writeSortedRun(buffer));
+      }
+    }
+
+    return numIndexedEvents;
+  }
+
+  /**
+   * Reads the spilled events and writes them in their original order to a single run.
+   *
+   * @return the number of events which have at least one active predicate
+   */
+  private int writeRun(File spill, int[] predicateIndex, String[] spilledLabels, File run)
+      throws IOException {
+    int numIndexedEvents = 0;
+
+    try (DataInputStream in = openInput(spill); DataOutputStream out = openOutput(run)) {
+      ComparableEvent event;
+      while ((event = readSpilledEvent(in, predicateIndex, spilledLabels)) != null) {
+        writeEvent(out, event);
+        numIndexedEvents++;
+      }
+    }
+
+    return numIndexedEvents;
+  }
+
+  private File writeSortedRun(List<ComparableEvent> events) throws IOException {
+    Collections.sort(events);
+
+    File run = createTempFile("run");
+    try (DataOutputStream out = openOutput(run)) {
+      ComparableEvent current = events.get(0);
+      for (int i = 1; i < events.size(); i++) {
+        ComparableEvent next = events.get(i);
+        if (current.compareTo(next) == 0) {
+          current.seen++;
+        }
+        else {
+          writeEvent(out, current);
+          current = next;
+        }
+      }
+      writeEvent(out, current);
+    }
+    return run;
+  }
+
+  /**
+   * Reads the next spilled event which has at least one active predicate.
+   *
+   * @return the event or null if all events have been read
+   */
+  private ComparableEvent readSpilledEvent(DataInputStream in, int[] predicateIndex,
+      String[] spilledLabels) throws IOException {
+    while (true) {
+      int outcome;
+      try {
+        outcome = in.readInt();
+      }
+      catch (EOFException e) {
+        return null;
+      }
+
+      int[] ids = new int[in.readInt()];
+      int length = 0;
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = in.readInt();
+        if (predicateIndex[ids[i]] != -1) {
+          length++;
+        }
+      }
+
+      // drop events with no active features
+      if (length > 0) {
+        int[] predIndexes = new int[length];
+        for (int i = 0, j = 0; i < ids.length; i++) {
+          if (predicateIndex[ids[i]] != -1) {
+            predIndexes[j++] = predicateIndex[ids[i]];
+          }
+        }
+        return new ComparableEvent(outcome, predIndexes);
+      }
+      else {
+        display("Dropped event " + outcomeLabels[outcome] + ":"
+            + Arrays.asList(Arrays.stream(ids).mapToObj(id -> spilledLabels[id]).toArray()) + "\n");
+      }
+    }
+  }
+
+  /**
+   * Merges the runs into the contexts file. The outcomes and the seen counts of
+   * the events are kept in memory.
+   *
+   * @return the number of unique events
+   */
+  private int mergeRuns(List<File> runs, File contextsFile, boolean merge) throws IOException {
+    PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()),
+        (r1, r2) -> r1.current.compareTo(r2.current));
+
+    int[] outcomes = new int[1024];
+    int[] seen = new int[1024];
+    long[] offsets = new long[1025];
+    int numUniqueEvents = 0;
+
+    try (DataOutputStream out = openOutput(contextsFile)) {
+      for (File run : runs) {
+        RunReader reader = new RunReader(run);
+        if (reader.next()) {
+          queue.add(reader);
+        }
+        else {
+          reader.close();
+        }
+      }
+
+      ComparableEvent last = null;
+      while (!queue.isEmpty()) {
+        RunReader reader = queue.poll();
+        ComparableEvent event = reader.current;
+
+        if (merge && last != null && last.compareTo(event) == 0) {
+          seen[numUniqueEvents - 1] += event.seen;
+        }
+        else {
+          if (numUniqueEvents == outcomes.length) {
+            outcomes = Arrays.copyOf(outcomes, outcomes.length * 2);
+            seen = Arrays.copyOf(seen, seen.length * 2);
+            offsets = Arrays.copyOf(offsets, outcomes.length + 1);
+          }
+
+          outcomes[numUniqueEvents] = event.outcome;
+          seen[numUniqueEvents] = event.seen;
+          for (int predIndex : event.predIndexes) {
+            out.writeInt(predIndex);
+          }
+          offsets[numUniqueEvents + 1] = offsets[numUniqueEvents] + event.predIndexes.length;
+          numUniqueEvents++;
+          last = event;
+        }
+
+        if (reader.next()) {
+          queue.add(reader);
+        }
+        else {
+          reader.close();
+        }
+      }
+    }
+    finally {
+      for (RunReader reader : queue) {
+        reader.close();
+      }
+    }
+
+    outcomeList = Arrays.copyOf(outcomes, numUniqueEvents);
+    numTimesEventsSeen = Arrays.copyOf(seen, numUniqueEvents);
+    contextOffsets = Arrays.copyOf(offsets, numUniqueEvents + 1);
+    return numUniqueEvents;
+  }
+
+  private void mapContexts(File contextsFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(contextsFile.toPath(), StandardOpenOption.READ)) {
+      long numInts = channel.size() / Integer.BYTES;
+      contextSegments = new IntBuffer[(int) ((numInts + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+      for (int i = 0; i < contextSegments.length; i++) {
+        long position = (long) i * SEGMENT_SIZE;
+        long size = Math.min(SEGMENT_SIZE, numInts - position);
+        contextSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+            position * Integer.BYTES, size * Integer.BYTES).asIntBuffer();
+      }
+    }
+  }
+
+  /**
+   * Retrieves the context of a unique event from the mapped contexts file.
+   *
+   * @param index the index of the unique event
+   *
+   * @return the predicate indexes of the event
+   */
+  @Override
+  public int[] getContext(int index) {
+    int[] context = new int[getContextLength(index)];
+    getContext(index, context);
+    return context;
+  }
+
+  @Override
+  public int getContextLength(int index) {
+    return (int) (contextOffsets[index + 1] - contextOffsets[index]);
+  }
+
+  @Override
+  public void getContext(int index, int[] context) {
+    long position = contextOffsets[index];
+
+    int copied = 0;
+    while (copied < context.length) {
+      IntBuffer segment = contextSegments[(int) (position / SEGMENT_SIZE)].duplicate();
+      ((Buffer) segment).position((int) (position % SEGMENT_SIZE));
+      int length = Math.min(context.length - copied, segment.remaining());
+      segment.get(context, copied, length);
+      copied += length;
+      position += length;
+    }
+  }
+
+  /**
+   * Retrieves the contexts of the unique events. The contexts are read from the
+   * mapped contexts file on the first call and are kept on the heap afterwards,
+   * trainers which support it should use {@link #getContext(int)} instead.
+   */
+  @Override
+  public int[][] getContexts() {
+    if (contexts == null && contextOffsets != null) {
+      int[][] eventContexts = new int[outcomeList.length][];
+      for (int i = 0; i < eventContexts.length; i++) {
+        eventContexts[i] = getContext(i);
+      }
+      contexts = eventContexts;
+    }
+    return contexts;
+  }
+
+  @Override
+  public int getNumEvents() {
+    return numEvents;
+  }
+
+  private static File createTempFile(String prefix) throws IOException {
+    File tmp = File.createTempFile(prefix, null);
+    tmp.deleteOnExit();
+    return tmp;
+  }
+
+  private static DataOutputStream openOutput(File file) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+  }
+
+  private static DataInputStream openInput(File file) throws IOException {
+    return new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+  }
+
+  private static void writeEvent(DataOutputStream out, ComparableEvent event) throws IOException {
+    out.writeInt(event.outcome);
+    out.writeInt(event.seen);
+    out.writeInt(event.predIndexes.length);
+    for (int predIndex : event.predIndexes) {
+      out.writeInt(predIndex);
+    }
+  }
+
+  /**
+   * Reads the events of a run one at a time.
+   */
+  private static class RunReader implements AutoCloseable {
+
+    private final DataInputStream in;
+    private ComparableEvent current;
+
+    RunReader(File run) throws IOException {
+      in = openInput(run);
+    }
+
+    boolean next() throws IOException {
+      int outcome;
+      try {
+        outcome = in.readInt();
+      }
+      catch (EOFException e) {
+        current = null;
+        return false;
+      }
+
+      int seen = in.readInt();
+      int[] predIndexes = new int[in.readInt()];
+      for (int i = 0; i < predIndexes.length; i++) {
+        predIndexes[i] = in.readInt();
+      }
+
+      current = new ComparableEvent(outcome, predIndexes);
+      current.seen = seen;
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+
+import opennlp.tools.util.AbstractObjectStream;
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Replaces the features of each event by the numbers of their buckets, see
+ * {@link HashedMaxentModel#bucket(CharSequence, int)}. A model trained on the
+ * hashed events has at most 2^hashBits predicates, and is evaluated with a
+ * {@link HashedMaxentModel}.
+ */
+public class FeatureHashingEventStream extends AbstractObjectStream<Event> {
+
+  private final int hashBits;
+
+  public FeatureHashingEventStream(ObjectStream<Event> eventStream, int hashBits) {
+    super(eventStream);
+    HashedMaxentModel.checkHashBits(hashBits);
+    this.hashBits = hashBits;
+  }
+
+  @Override
+  public Event read() throws IOException {
+    Event event = super.read();
+
+    if (event != null) {
+      String[] context = event.getContext();
+      String[] buckets = new String[context.length];
+      for (int i = 0; i < context.length; i++) {
+        buckets[i] = Integer.toString(HashedMaxentModel.bucket(context[i], hashBits));
+      }
+      event = new Event(event.getOutcome(), buckets, event.getValues());
+    }
+
+    return event;
+  }
+}
@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import opennlp.tools.ml.naivebayes.NaiveBayesEvalParameters;
+
+/**
+ * An evaluation-only form of a GIS, QN, Perceptron or Naive Bayes model which
+ * was trained on hashed features.
+ * <p>
+ * During training every feature is replaced by the number of its bucket, see
+ * {@link FeatureHashingEventStream}, the predicates of the trained model are the
+ * bucket numbers. This model keeps no predicate strings, the parameters of all
+ * buckets are flattened into one array which is addressed directly by the bucket
+ * of a feature. The bucket is computed from the characters of the feature, no
+ * lookup key is created. Features which were not seen in training fall into the
+ * bucket of a seen feature if their hashes collide.
+ * <p>
+ * The predicate map and the {@link Context} objects are only created if they are
+ * requested through {@link #getDataStructures()}, e.g. to write the model, the
+ * written model has the bucket numbers as predicates.
+ *
+ * @see #hash(AbstractModel, int)
+ */
+public final class HashedMaxentModel extends AbstractModel {
+
+  /** The largest supported number of hash bits, the model has an offset for every bucket. */
+  public static final int MAX_HASH_BITS = 24;
+
+  private static final int C1 = 0xcc9e2d51;
+  private static final int C2 = 0x1b873593;
+
+  private final int hashBits;
+  private final int bucketMask;
+
+  /** The parameters of bucket b are stored at offsets[b] until offsets[b + 1]. */
+  private final int[] offsets;
+  private final int[] outcomes;
+  private final double[] parameters;
+
+  private final int numOutcomes;
+
+  /** Naive Bayes only, the outcome totals and the vocabulary size of the source model. */
+  private double[] outcomeTotals;
+  private long vocabulary;
+
+  /** Naive Bayes only, the smoothing denominator of each outcome. */
+  private double[] smoothedOutcomeTotals;
+  /** Naive Bayes only, the prior probability of each outcome. */
+  private double[] outcomePriors;
+
+  private HashedMaxentModel(AbstractModel model, int hashBits) {
+    super(null, null, null, model.outcomeNames);
+    this.prior = model.prior;
+    this.modelType = model.modelType;
+    this.hashBits = hashBits;
+
+    numOutcomes = model.getNumOutcomes();
+
+    int numBuckets = 1 << hashBits;
+    bucketMask = numBuckets - 1;
+
+    Context[] contexts = new Context[numBuckets];
+    int numParameters = 0;
+    for (Map.Entry<String, Context> entry : model.pmap.entrySet()) {
+      int bucket = parseBucket(entry.getKey(), numBuckets);
+      contexts[bucket] = entry.getValue();
+      numParameters += entry.getValue().getOutcomes().length;
+    }
+
+    offsets = new int[numBuckets + 1];
+    outcomes = new int[numParameters];
+    parameters = new double[numParameters];
+
+    int offset = 0;
+    for (int bucket = 0; bucket < numBuckets; bucket++) {
+      offsets[bucket] = offset;
+      if (contexts[bucket] != null) {
+        int[] activeOutcomes = contexts[bucket].getOutcomes();
+        double[] activeParameters = contexts[bucket].getParameters();
+        System.arraycopy(activeOutcomes, 0, outcomes, offset, activeOutcomes.length);
+        System.arraycopy(activeParameters, 0, parameters, offset, activeOutcomes.length);
+        offset += activeOutcomes.length;
+      }
+    }
+    offsets[numBuckets] = offset;
+
+    if (modelType == ModelType.NaiveBayes) {
+      NaiveBayesEvalParameters nbParams = (NaiveBayesEvalParameters) model.evalParams;
+      outcomeTotals = nbParams.getOutcomeTotals();
+      vocabulary = nbParams.getVocabulary();
+
+      double total = 0;
+      for (int i = 0; i < outcomeTotals.length; ++i) {
+        total += outcomeTotals[i];
+      }
+
+      smoothedOutcomeTotals = new double[outcomeTotals.length];
+      outcomePriors = new double[outcomeTotals.length];
+      for (int i = 0; i < outcomeTotals.length; ++i) {
+        smoothedOutcomeTotals[i] = outcomeTotals[i]
+            + CompiledMaxentModel.NAIVE_BAYES_DELTA * vocabulary;
+        outcomePriors[i] = outcomeTotals[i] / total;
+      }
+    }
+  }
+
+  private static int parseBucket(String predicate, int numBuckets) {
+    int bucket;
+    try {
+      bucket = Integer.parseInt(predicate);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Model was not trained on hashed features, predicate: "
+          + predicate);
+    }
+
+    if (bucket < 0 || bucket >= numBuckets) {
+      throw new IllegalArgumentException("Bucket " + bucket + " is out of range for "
+          + Integer.numberOfTrailingZeros(numBuckets) + " hash bits");
+    }
+
+    return bucket;
+  }
+
+  /**
+   * Checks the number of hash bits.
+   *
+   * @param hashBits the number of hash bits
+   *
+   * @throws IllegalArgumentException if the number is not between 1 and {@link #MAX_HASH_BITS}
+   */
+  public static void checkHashBits(int hashBits) {
+    if (hashBits < 1 || hashBits > MAX_HASH_BITS) {
+      throw new IllegalArgumentException("Hash bits must be between 1 and " + MAX_HASH_BITS
+          + " but is " + hashBits);
+    }
+  }
+
+  /**
+   * Creates the evaluation form of a model which was trained on hashed features.
+   *
+   * @param model a GIS, QN, Perceptron or Naive Bayes model, or such a model in the
+   *     mapped format, which has bucket numbers as predicates
+   * @param hashBits the number of hash bits the features were hashed with
+   *
+   * @return the hashed model
+   *
+   * @throws IllegalArgumentException if the model type is not supported or the
+   *     predicates are not bucket numbers
+   */
+  public static HashedMaxentModel hash(AbstractModel model, int hashBits) {
+    checkHashBits(hashBits);
+
+    if (model instanceof MappedMaxentModel) {
+      // the predicate map of a mapped model is only created on demand
+      ((MappedMaxentModel) model).materialize();
+    }
+    else if (!CompiledMaxentModel.isCompilable(model)) {
+      throw new IllegalArgumentException("Model does not support feature hashing: "
+          + model.getModelType());
+    }
+
+    return new HashedMaxentModel(model, hashBits);
+  }
+
+  /**
+   * Computes the 32 bit MurmurHash3 of the UTF-16LE encoding of a feature. The
+   * characters are read directly, two per block, the feature is not encoded.
+   *
+   * @param feature the feature
+   *
+   * @return the hash of the feature
+   */
+  public static int murmur3(CharSequence feature) {
+    int length = feature.length();
+    int h = 0;
+
+    int i = 0;
+    for (; i + 1 < length; i += 2) {
+      int k = feature.charAt(i) | (feature.charAt(i + 1) << 16);
+      k *= C1;
+      k = Integer.rotateLeft(k, 15);
+      k *= C2;
+
+      h ^= k;
+      h = Integer.rotateLeft(h, 13);
+      h = h * 5 + 0xe6546b64;
+    }
+
+    if (i < length) {
+      int k = feature.charAt(i);
+      k *= C1;
+      k = Integer.rotateLeft(k, 15);
+      k *= C2;
+      h ^= k;
+    }
+
+    h ^= length * Character.BYTES;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  /**
+   * Computes the bucket of a feature.
+   *
+   * @param feature the feature
+   * @param hashBits the number of hash bits
+   *
+   * @return the bucket, a number between 0 and 2^hashBits - 1
+   */
+  public static int bucket(CharSequence feature, int hashBits) {
+    return murmur3(feature) & ((1 << hashBits) - 1);
+  }
+
+  public int getHashBits() {
+    return hashBits;
+  }
+
+  @Override
+  public int getNumOutcomes() {
+    return numOutcomes;
+  }
+
+  @Override
+  public double[] eval(String[] context) {
+    return eval(context, null, new double[numOutcomes]);
+  }
+
+  @Override
+  public double[] eval(String[] context, double[] probs) {
+    return eval(context, null, probs);
+  }
+
+  @Override
+  public double[] eval(String[] context, float[] values) {
+    return eval(context, values, new double[numOutcomes]);
+  }
+
+  /**
+   * Evaluates a context with the specified context values.
+   *
+   * @param context the contextual predicates
+   * @param values the values associated with each predicate, or null
+   * @param probs the array the probabilities are written to
+   *
+   * @return the probs array
+   */
+  public double[] eval(String[] context, float[] values, double[] probs) {
+    switch (modelType) {
+      case Maxent:
+        prior.logPrior(probs, (int[]) null, values);
+        sumParameters(context, values, probs);
+        return CompiledMaxentModel.normalizeGIS(probs, numOutcomes);
+      case MaxentQn:
+        sumParameters(context, values, probs);
+        return CompiledMaxentModel.normalizeQN(probs, numOutcomes);
+      case Perceptron:
+        Arrays.fill(probs, 0);
+        sumParameters(context, values, probs);
+        return CompiledMaxentModel.normalizePerceptron(probs, numOutcomes);
+      case NaiveBayes:
+        return evalNaiveBayes(context, values, probs);
+      default:
+        throw new IllegalStateException("Unsupported model type: " + modelType);
+    }
+  }
+
+  private void sumParameters(String[] context, float[] values, double[] probs) {
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int bucket = murmur3(context[ci]) & bucketMask;
+      if (values != null) {
+        value = values[ci];
+      }
+      for (int ai = offsets[bucket]; ai < offsets[bucket + 1]; ai++) {
+        probs[outcomes[ai]] += parameters[ai] * value;
+      }
+    }
+  }
+
+  private double[] evalNaiveBayes(String[] context, float[] values, double[] probs) {
+    int numTotals = smoothedOutcomeTotals.length;
+
+    Arrays.fill(probs, 0, numTotals, 0);
+
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int bucket = murmur3(context[ci]) & bucketMask;
+      int ai = offsets[bucket];
+      int end = offsets[bucket + 1];
+      if (ai < end) {
+        if (values != null) {
+          value = values[ci];
+        }
+        for (int i = 0; i < numTotals && ai < end; ++i) {
+          double numerator = outcomes[ai] == i ? parameters[ai++] * value : 0;
+          probs[i] += Math.log((numerator + CompiledMaxentModel.NAIVE_BAYES_DELTA)
+              / smoothedOutcomeTotals[i]);
+        }
+      }
+    }
+
+    return CompiledMaxentModel.normalizeNaiveBayes(probs, outcomePriors);
+  }
+
+  private synchronized void materialize() {
+    if (pmap == null) {
+      Map<String, Context> predicateMap = new HashMap<>();
+      Context[] params = new Context[offsets.length - 1];
+
+      int numPredicates = 0;
+      for (int bucket = 0; bucket < offsets.length - 1; bucket++) {
+        int start = offsets[bucket];
+        int end = offsets[bucket + 1];
+
+        if (start < end) {
+          Context context = new Context(Arrays.copyOfRange(outcomes, start, end),
+              Arrays.copyOfRange(parameters, start, end));
+          params[numPredicates++] = context;
+          predicateMap.put(Integer.toString(bucket), context);
+        }
+      }
+
+      params = Arrays.copyOf(params, numPredicates);
+
+      if (modelType == ModelType.NaiveBayes) {
+        evalParams = new NaiveBayesEvalParameters(params, numOutcomes, outcomeTotals, vocabulary);
+      }
+      else {
+        evalParams = new EvalParameters(params, numOutcomes);
+      }
+
+      pmap = predicateMap;
+    }
+  }
+
+  @Override
+  public Object[] getDataStructures() {
+    materialize();
+    return super.getDataStructures();
+  }
+
+  @Override
+  public int hashCode() {
+    materialize();
+    return super.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    materialize();
+    return super.equals(obj);
+  }
+}
@@ -0,0 +1,599 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import opennlp.tools.ml.naivebayes.NaiveBayesEvalParameters;
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * A GIS, QN, Perceptron or Naive Bayes model which is evaluated in place from a
+ * {@link ByteBuffer}, usually a memory-mapped region of a model file.
+ * <p>
+ * The buffer holds the tables of a {@link CompiledMaxentModel}: the predicate
+ * hash table, the UTF-8 encoded predicates and the flattened outcome and parameter
+ * arrays. Only the outcome names are copied to the heap, a model which is mapped
+ * from a file is shared through the page cache by all processes which map it.
+ * The predicate map and the {@link Context} objects are only created if they are
+ * requested through {@link #getDataStructures()}, e.g. to write the model in the
+ * stream based format.
+ * <p>
+ * The probabilities are bit-identical to the ones the source model produces.
+ *
+ * @see #write(AbstractModel, OutputStream)
+ * @see #map(ByteBuffer)
+ */
+public final class MappedMaxentModel extends AbstractModel {
+
+  /** The bytes "ONLPMMAP" read as a little-endian long. */
+  private static final long MAGIC = 0x50414D4D504C4E4FL;
+  private static final int FORMAT_VERSION = 1;
+
+  // The header, all numbers are little-endian and the sections are 8 byte aligned.
+  private static final int VERSION_OFFSET = 8;
+  private static final int MODEL_TYPE_OFFSET = 12;
+  private static final int NUM_OUTCOMES_OFFSET = 16;
+  private static final int NUM_PREDICATES_OFFSET = 20;
+  private static final int NUM_PARAMETERS_OFFSET = 24;
+  private static final int NUM_SLOTS_OFFSET = 28;
+  private static final int VOCABULARY_OFFSET = 32;
+  private static final int SECTIONS_OFFSET = 40;
+
+  // The sections, their offsets are stored in this order after the header fields.
+  private static final int OUTCOME_NAME_OFFSETS = 0;
+  private static final int OUTCOME_NAMES = 1;
+  private static final int SLOTS = 2;
+  private static final int PREDICATE_HASHES = 3;
+  private static final int PREDICATE_OFFSETS = 4;
+  private static final int PARAMETER_OFFSETS = 5;
+  private static final int OUTCOMES = 6;
+  private static final int PARAMETERS = 7;
+  private static final int OUTCOME_TOTALS = 8;
+  private static final int PREDICATES = 9;
+  private static final int NUM_SECTIONS = 10;
+
+  private static final int HEADER_SIZE = SECTIONS_OFFSET + NUM_SECTIONS * Integer.BYTES;
+
+  private final ByteBuffer buffer;
+
+  private final IntBuffer slots;
+  private final int slotMask;
+
+  private final IntBuffer predicateHashes;
+  /** The UTF-8 bytes of predicate i are stored at predicateOffsets[i] until predicateOffsets[i + 1]. */
+  private final IntBuffer predicateOffsets;
+  private final ByteBuffer predicates;
+
+  /** The parameters of predicate i are stored at parameterOffsets[i] until parameterOffsets[i + 1]. */
+  private final IntBuffer parameterOffsets;
+  private final IntBuffer outcomes;
+  private final DoubleBuffer parameters;
+
+  private final int numOutcomes;
+  private final int numPredicates;
+
+  /** Naive Bayes only, the outcome totals and the vocabulary size of the source model. */
+  private double[] outcomeTotals;
+  private long vocabulary;
+
+  /** Naive Bayes only, the smoothing denominator of each outcome. */
+  private double[] smoothedOutcomeTotals;
+  /** Naive Bayes only, the prior probability of each outcome. */
+  private double[] outcomePriors;
+
+  private MappedMaxentModel(ByteBuffer buffer, ModelType modelType, String[] outcomeNames)
+      throws InvalidFormatException {
+    super(null, null, null, outcomeNames);
+    this.modelType = modelType;
+    this.buffer = buffer;
+
+    numOutcomes = outcomeNames.length;
+    numPredicates = buffer.getInt(NUM_PREDICATES_OFFSET);
+    int numParameters = buffer.getInt(NUM_PARAMETERS_OFFSET);
+    int numSlots = buffer.getInt(NUM_SLOTS_OFFSET);
+
+    if (Integer.bitCount(numSlots) != 1 || numSlots <= numPredicates) {
+      throw new InvalidFormatException("Invalid hash table size: " + numSlots);
+    }
+
+    slots = section(buffer, SLOTS, numSlots * Integer.BYTES).asIntBuffer();
+    slotMask = numSlots - 1;
+
+    predicateHashes = section(buffer, PREDICATE_HASHES, numPredicates * Integer.BYTES).asIntBuffer();
+    predicateOffsets = section(buffer, PREDICATE_OFFSETS, (numPredicates + 1) * Integer.BYTES)
+        .asIntBuffer();
+    predicates = section(buffer, PREDICATES, predicateOffsets.get(numPredicates));
+
+    parameterOffsets = section(buffer, PARAMETER_OFFSETS, (numPredicates + 1) * Integer.BYTES)
+        .asIntBuffer();
+    outcomes = section(buffer, OUTCOMES, numParameters * Integer.BYTES).asIntBuffer();
+    parameters = section(buffer, PARAMETERS, numParameters * Double.BYTES).asDoubleBuffer();
+
+    if (modelType == ModelType.Maxent) {
+      prior = new UniformPrior();
+      prior.setLabels(outcomeNames, null);
+    }
+    else if (modelType == ModelType.NaiveBayes) {
+      outcomeTotals = new double[numOutcomes];
+      section(buffer, OUTCOME_TOTALS, numOutcomes * Double.BYTES).asDoubleBuffer().get(outcomeTotals);
+      vocabulary = buffer.getLong(VOCABULARY_OFFSET);
+
+      double total = 0;
+      for (int i = 0; i < numOutcomes; ++i) {
+        total += outcomeTotals[i];
+      }
+
+      smoothedOutcomeTotals = new double[numOutcomes];
+      outcomePriors = new double[numOutcomes];
+      for (int i = 0; i < numOutcomes; ++i) {
+        smoothedOutcomeTotals[i] = outcomeTotals[i] + CompiledMaxentModel.NAIVE_BAYES_DELTA * vocabulary;
+        outcomePriors[i] = outcomeTotals[i] / total;
+      }
+    }
+  }
+
+  /**
+   * Returns a little-endian view of a section of the buffer.
+   */
+  private static ByteBuffer section(ByteBuffer buffer, int section, int length)
+      throws InvalidFormatException {
+    int offset = buffer.getInt(SECTIONS_OFFSET + section * Integer.BYTES);
+
+    if (offset < HEADER_SIZE || length < 0 || offset > buffer.limit() - length) {
+      throw new InvalidFormatException("Mapped model section " + section + " is out of bounds!");
+    }
+
+    return slice(buffer, offset, length);
+  }
+
+  private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer duplicate = buffer.duplicate();
+    // the cast keeps the Java 8 signatures of position and limit
+    ((Buffer) duplicate).position(offset);
+    ((Buffer) duplicate).limit(offset + length);
+    return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Checks if the buffer starts with a model in the mapped format.
+   *
+   * @param buffer the buffer, it is read from its current position
+   *
+   * @return true if the buffer contains a mapped model
+   */
+  public static boolean isMappedModel(ByteBuffer buffer) {
+    return buffer.remaining() >= Long.BYTES
+        && buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getLong(buffer.position()) == MAGIC;
+  }
+
+  /**
+   * Creates a model which is evaluated in place from the specified buffer. The
+   * buffer must not be modified while the model is in use.
+   *
+   * @param buffer the buffer which contains the model from its current position
+   *     until its limit, e.g. a memory-mapped region of a model file
+   *
+   * @return the model
+   *
+   * @throws InvalidFormatException if the buffer does not contain a mapped model
+   */
+  public static MappedMaxentModel map(ByteBuffer buffer) throws InvalidFormatException {
+    ByteBuffer model = slice(buffer, buffer.position(), buffer.remaining());
+
+    if (model.remaining() < HEADER_SIZE || !isMappedModel(model)) {
+      throw new InvalidFormatException("The buffer does not contain a mapped model!");
+    }
+
+    int version = model.getInt(VERSION_OFFSET);
+    if (version != FORMAT_VERSION) {
+      throw new InvalidFormatException("Unsupported mapped model version: " + version);
+    }
+
+    ModelType modelType = toModelType(model.getInt(MODEL_TYPE_OFFSET));
+
+    int numOutcomes = model.getInt(NUM_OUTCOMES_OFFSET);
+    if (numOutcomes <= 0) {
+      throw new InvalidFormatException("Invalid number of outcomes: " + numOutcomes);
+    }
+
+    IntBuffer outcomeNameOffsets =
+        section(model, OUTCOME_NAME_OFFSETS, (numOutcomes + 1) * Integer.BYTES).asIntBuffer();
+    ByteBuffer outcomeNameBytes = section(model, OUTCOME_NAMES, outcomeNameOffsets.get(numOutcomes));
+
+    String[] outcomeNames = new String[numOutcomes];
+    for (int i = 0; i < numOutcomes; i++) {
+      outcomeNames[i] = decode(outcomeNameBytes, outcomeNameOffsets.get(i), outcomeNameOffsets.get(i + 1));
+    }
+
+    return new MappedMaxentModel(model, modelType, outcomeNames);
+  }
+
+  private static int toCode(ModelType modelType) {
+    switch (modelType) {
+      case Maxent:
+        return 1;
+      case MaxentQn:
+        return 2;
+      case Perceptron:
+        return 3;
+      case NaiveBayes:
+        return 4;
+      default:
+        throw new IllegalArgumentException("Unsupported model type: " + modelType);
+    }
+  }
+
+  private static ModelType toModelType(int code) throws InvalidFormatException {
+    switch (code) {
+      case 1:
+        return ModelType.Maxent;
+      case 2:
+        return ModelType.MaxentQn;
+      case 3:
+        return ModelType.Perceptron;
+      case 4:
+        return ModelType.NaiveBayes;
+      default:
+        throw new InvalidFormatException("Unknown mapped model type: " + code);
+    }
+  }
+
+  private static String decode(ByteBuffer bytes, int start, int end) {
+    byte[] text = new byte[end - start];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = bytes.get(start + i);
+    }
+    return new String(text, StandardCharsets.UTF_8);
+  }
+
+  private static int align(long offset) {
+    long aligned = (offset + Long.BYTES - 1) & -Long.BYTES;
+
+    if (aligned > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The model is too large for the mapped format!");
+    }
+
+    return (int) aligned;
+  }
+
+  /**
+   * Writes a model in the mapped format.
+   *
+   * @param model a GIS, QN, Perceptron or Naive Bayes model
+   * @param out the stream the model is written to, it is not closed
+   *
+   * @throws IOException if writing to the stream fails
+   * @throws IllegalArgumentException if the model cannot be written in the mapped format
+   *
+   * @see CompiledMaxentModel#isCompilable(AbstractModel)
+   */
+  public static void write(AbstractModel model, OutputStream out) throws IOException {
+
+    if (model instanceof MappedMaxentModel) {
+      ByteBuffer source = ((MappedMaxentModel) model).buffer.duplicate();
+      byte[] chunk = new byte[8192];
+      while (source.hasRemaining()) {
+        int length = Math.min(chunk.length, source.remaining());
+        source.get(chunk, 0, length);
+        out.write(chunk, 0, length);
+      }
+      return;
+    }
+
+    CompiledMaxentModel compiled = model instanceof CompiledMaxentModel
+        ? (CompiledMaxentModel) model : CompiledMaxentModel.compile(model);
+
+    int numOutcomes = compiled.getNumOutcomes();
+    int numPredicates = compiled.predicates.length;
+    int numParameters = compiled.parameters.length;
+
+    byte[][] outcomeNameBytes = new byte[numOutcomes][];
+    int outcomeNamesLength = 0;
+    for (int i = 0; i < numOutcomes; i++) {
+      outcomeNameBytes[i] = compiled.getOutcome(i).getBytes(StandardCharsets.UTF_8);
+      outcomeNamesLength += outcomeNameBytes[i].length;
+    }
+
+    byte[][] predicateBytes = new byte[numPredicates][];
+    long predicatesLength = 0;
+    for (int i = 0; i < numPredicates; i++) {
+      predicateBytes[i] = compiled.predicates[i].getBytes(StandardCharsets.UTF_8);
+      predicatesLength += predicateBytes[i].length;
+    }
+
+    int[] sections = new int[NUM_SECTIONS];
+    long offset = HEADER_SIZE;
+    sections[OUTCOME_NAME_OFFSETS] = align(offset);
+    offset = sections[OUTCOME_NAME_OFFSETS] + (numOutcomes + 1L) * Integer.BYTES;
+    sections[OUTCOME_NAMES] = align(offset);
+    offset = sections[OUTCOME_NAMES] + (long) outcomeNamesLength;
+    sections[SLOTS] = align(offset);
+    offset = sections[SLOTS] + (long) compiled.slots.length * Integer.BYTES;
+    sections[PREDICATE_HASHES] = align(offset);
+    offset = sections[PREDICATE_HASHES] + (long) numPredicates * Integer.BYTES;
+    sections[PREDICATE_OFFSETS] = align(offset);
+    offset = sections[PREDICATE_OFFSETS] + (numPredicates + 1L) * Integer.BYTES;
+    sections[PARAMETER_OFFSETS] = align(offset);
+    offset = sections[PARAMETER_OFFSETS] + (numPredicates + 1L) * Integer.BYTES;
+    sections[OUTCOMES] = align(offset);
+    offset = sections[OUTCOMES] + (long) numParameters * Integer.BYTES;
+    sections[PARAMETERS] = align(offset);
+    offset = sections[PARAMETERS] + (long) numParameters * Double.BYTES;
+    sections[OUTCOME_TOTALS] = align(offset);
+    offset = sections[OUTCOME_TOTALS] + (long) numOutcomes * Double.BYTES;
+    sections[PREDICATES] = align(offset);
+    int size = align(sections[PREDICATES] + predicatesLength);
+
+    ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+
+    buffer.putLong(0, MAGIC);
+    buffer.putInt(VERSION_OFFSET, FORMAT_VERSION);
+    buffer.putInt(MODEL_TYPE_OFFSET, toCode(compiled.getModelType()));
+    buffer.putInt(NUM_OUTCOMES_OFFSET, numOutcomes);
+    buffer.putInt(NUM_PREDICATES_OFFSET, numPredicates);
+    buffer.putInt(NUM_PARAMETERS_OFFSET, numParameters);
+    buffer.putInt(NUM_SLOTS_OFFSET, compiled.slots.length);
+    for (int i = 0; i < NUM_SECTIONS; i++) {
+      buffer.putInt(SECTIONS_OFFSET + i * Integer.BYTES, sections[i]);
+    }
+
+    int textOffset = 0;
+    for (int i = 0; i < numOutcomes; i++) {
+      buffer.putInt(sections[OUTCOME_NAME_OFFSETS] + i * Integer.BYTES, textOffset);
+      for (byte b : outcomeNameBytes[i]) {
+        buffer.put(sections[OUTCOME_NAMES] + textOffset++, b);
+      }
+    }
+    buffer.putInt(sections[OUTCOME_NAME_OFFSETS] + numOutcomes * Integer.BYTES, textOffset);
+
+    for (int i = 0; i < compiled.slots.length; i++) {
+      buffer.putInt(sections[SLOTS] + i * Integer.BYTES, compiled.slots[i]);
+    }
+
+    textOffset = 0;
+    for (int i = 0; i < numPredicates; i++) {
+      buffer.putInt(sections[PREDICATE_HASHES] + i * Integer.BYTES, compiled.predicateHashes[i]);
+      buffer.putInt(sections[PREDICATE_OFFSETS] + i * Integer.BYTES, textOffset);
+      for (byte b : predicateBytes[i]) {
+        buffer.put(sections[PREDICATES] + textOffset++, b);
+      }
+    }
+    buffer.putInt(sections[PREDICATE_OFFSETS] + numPredicates * Integer.BYTES, textOffset);
+
+    for (int i = 0; i <= numPredicates; i++) {
+      buffer.putInt(sections[PARAMETER_OFFSETS] + i * Integer.BYTES, compiled.offsets[i]);
+    }
+
+    for (int i = 0; i < numParameters; i++) {
+      buffer.putInt(sections[OUTCOMES] + i * Integer.BYTES, compiled.outcomes[i]);
+      buffer.putDouble(sections[PARAMETERS] + i * Double.BYTES, compiled.parameters[i]);
+    }
+
+    if (compiled.getModelType() == ModelType.NaiveBayes) {
+      NaiveBayesEvalParameters nbParams = (NaiveBayesEvalParameters) compiled.evalParams;
+      double[] totals = nbParams.getOutcomeTotals();
+      for (int i = 0; i < numOutcomes; i++) {
+        buffer.putDouble(sections[OUTCOME_TOTALS] + i * Double.BYTES, totals[i]);
+      }
+      buffer.putLong(VOCABULARY_OFFSET, nbParams.getVocabulary());
+    }
+
+    out.write(buffer.array(), 0, size);
+  }
+
+  /**
+   * Retrieves the index of a predicate.
+   *
+   * @param predicate the predicate
+   *
+   * @return the index of the predicate or -1 if the model does not contain it
+   */
+  public int getPredicateIndex(String predicate) {
+    int hash = predicate.hashCode();
+
+    int slot = CompiledMaxentModel.spread(hash) & slotMask;
+    int entry;
+    while ((entry = slots.get(slot)) != 0) {
+      int pi = entry - 1;
+      if (predicateHashes.get(pi) == hash && predicateEquals(pi, predicate)) {
+        return pi;
+      }
+      slot = (slot + 1) & slotMask;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Compares a predicate to the stored UTF-8 bytes, without allocation if the
+   * predicate is ASCII.
+   */
+  private boolean predicateEquals(int pi, String predicate) {
+    int start = predicateOffsets.get(pi);
+    int end = predicateOffsets.get(pi + 1);
+
+    if (end - start < predicate.length()) {
+      return false;
+    }
+
+    int pos = start;
+    for (int i = 0; i < predicate.length(); i++) {
+      char c = predicate.charAt(i);
+      if (c >= 0x80) {
+        return decode(predicates, start, end).equals(predicate);
+      }
+      if (predicates.get(pos++) != c) {
+        return false;
+      }
+    }
+
+    return pos == end;
+  }
+
+  @Override
+  public int getNumOutcomes() {
+    return numOutcomes;
+  }
+
+  @Override
+  public double[] eval(String[] context) {
+    return eval(context, null, new double[numOutcomes]);
+  }
+
+  @Override
+  public double[] eval(String[] context, double[] probs) {
+    return eval(context, null, probs);
+  }
+
+  @Override
+  public double[] eval(String[] context, float[] values) {
+    return eval(context, values, new double[numOutcomes]);
+  }
+
+  /**
+   * Evaluates a context with the specified context values.
+   *
+   * @param context the contextual predicates
+   * @param values the values associated with each predicate, or null
+   * @param probs the array the probabilities are written to
+   *
+   * @return the probs array
+   */
+  public double[] eval(String[] context, float[] values, double[] probs) {
+    switch (modelType) {
+      case Maxent:
+        prior.logPrior(probs, (int[]) null, values);
+        sumParameters(context, values, probs);
+        return CompiledMaxentModel.normalizeGIS(probs, numOutcomes);
+      case MaxentQn:
+        sumParameters(context, values, probs);
+        return CompiledMaxentModel.normalizeQN(probs, numOutcomes);
+      case Perceptron:
+        Arrays.fill(probs, 0);
+        sumParameters(context, values, probs);
+        return CompiledMaxentModel.normalizePerceptron(probs, numOutcomes);
+      case NaiveBayes:
+        return evalNaiveBayes(context, values, probs);
+      default:
+        throw new IllegalStateException("Unsupported model type: " + modelType);
+    }
+  }
+
+  private void sumParameters(String[] context, float[] values, double[] probs) {
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int pi = getPredicateIndex(context[ci]);
+      if (pi >= 0) {
+        if (values != null) {
+          value = values[ci];
+        }
+        int end = parameterOffsets.get(pi + 1);
+        for (int ai = parameterOffsets.get(pi); ai < end; ai++) {
+          probs[outcomes.get(ai)] += parameters.get(ai) * value;
+        }
+      }
+    }
+  }
+
+  private double[] evalNaiveBayes(String[] context, float[] values, double[] probs) {
+    Arrays.fill(probs, 0, numOutcomes, 0);
+
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int pi = getPredicateIndex(context[ci]);
+      if (pi >= 0) {
+        if (values != null) {
+          value = values[ci];
+        }
+        int ai = parameterOffsets.get(pi);
+        int end = parameterOffsets.get(pi + 1);
+        for (int i = 0; i < numOutcomes && ai < end; ++i) {
+          double numerator = outcomes.get(ai) == i ? parameters.get(ai++) * value : 0;
+          probs[i] += Math.log((numerator + CompiledMaxentModel.NAIVE_BAYES_DELTA)
+              / smoothedOutcomeTotals[i]);
+        }
+      }
+    }
+
+    return CompiledMaxentModel.normalizeNaiveBayes(probs, outcomePriors);
+  }
+
+  /**
+   * Creates the predicate map and the parameters on the heap, if that was not done before.
+   */
+  synchronized void materialize() {
+    if (pmap == null) {
+      Context[] params = new Context[numPredicates];
+      Map<String, Context> predicateMap = new HashMap<>(numPredicates);
+
+      for (int pi = 0; pi < numPredicates; pi++) {
+        int start = parameterOffsets.get(pi);
+        int end = parameterOffsets.get(pi + 1);
+
+        int[] activeOutcomes = new int[end - start];
+        double[] activeParameters = new double[end - start];
+        for (int ai = start; ai < end; ai++) {
+          activeOutcomes[ai - start] = outcomes.get(ai);
+          activeParameters[ai - start] = parameters.get(ai);
+        }
+
+        params[pi] = new Context(activeOutcomes, activeParameters);
+        predicateMap.put(decode(predicates, predicateOffsets.get(pi), predicateOffsets.get(pi + 1)),
+            params[pi]);
+      }
+
+      if (modelType == ModelType.NaiveBayes) {
+        evalParams = new NaiveBayesEvalParameters(params, numOutcomes, outcomeTotals, vocabulary);
+      }
+      else {
+        evalParams = new EvalParameters(params, numOutcomes);
+      }
+
+      pmap = predicateMap;
+    }
+  }
+
+  @Override
+  public Object[] getDataStructures() {
+    materialize();
+    return super.getDataStructures();
+  }
+
+  @Override
+  public int hashCode() {
+    materialize();
+    return super.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    materialize();
+    return super.equals(obj);
+  }
+}
@@ -53,6 +53,22 @@ public interface MaxentModel {
    */
   double[] eval(String[] context, float[] values);
 
+  /**
+   * Evaluates a batch of contexts.
+   *
+   * @param contexts The contexts to evaluate, each one a list of String names of the
+   *                 contextual predicates which are to be evaluated together.
+   * @return an array which contains the probabilities for each context, in the
+   *         order of the contexts.
+   */
+  default double[][] evalBatch(String[][] contexts) {
+    double[][] probs = new double[contexts.length][getNumOutcomes()];
+    for (int i = 0; i < contexts.length; i++) {
+      probs[i] = eval(contexts[i], probs[i]);
+    }
+    return probs;
+  }
+
   /**
    * Simple function to return the outcome associated with the index
    * containing the highest probability in the double[].
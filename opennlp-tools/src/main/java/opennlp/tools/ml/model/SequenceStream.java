@@ -26,10 +26,25 @@ public interface SequenceStream extends ObjectStream<Sequence> {
 
   /**
    * Creates a new event array based on the outcomes predicted by the specified parameters
-   * for the specified sequence.
+   * for the specified sequence. The method is called concurrently if a sequence model
+   * is trained with more than one thread.
    * @param sequence The sequence to be evaluated.
    * @return event array
    */
   Event[] updateContext(Sequence sequence, AbstractModel model);
 
+  /**
+   * Creates a stream which updates the contexts of one shard of the sequences. A trainer
+   * which updates the contexts of its shards in parallel calls this method once per shard,
+   * a stream whose context generator keeps adaptive data gives each shard its own
+   * context generator, so that the features do not depend on the thread scheduling.
+   * The default returns this stream.
+   *
+   * @return the stream whose {@link #updateContext(Sequence, AbstractModel)} is called
+   *     for the sequences of the shard
+   */
+  default SequenceStream createShardStream() {
+    return this;
+  }
+
 }
@@ -18,8 +18,10 @@
 package opennlp.tools.ml.perceptron;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.TrainingExecutor;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.EvalParameters;
@@ -39,6 +41,9 @@ public class PerceptronTrainer extends AbstractEventTrainer {
   public static final String PERCEPTRON_VALUE = "PERCEPTRON";
   public static final double TOLERANCE_DEFAULT = .00001;
 
+  /** The number of predicates whose shard parameters are mixed by one task. */
+  private static final int MIX_BLOCK_SIZE = 1024;
+
   /** Number of unique events which occurred in the event set. */
   private int numUniqueEvents;
   /** Number of events in the event set. */
@@ -78,6 +83,8 @@ public class PerceptronTrainer extends AbstractEventTrainer {
 
   private boolean useSkippedlAveraging;
 
+  private int threads = 1;
+
   public PerceptronTrainer() {
   }
 
@@ -143,6 +150,8 @@ public class PerceptronTrainer extends AbstractEventTrainer {
 
     this.setTolerance(tolerance);
 
+    this.setThreads(trainingParameters.getIntParameter(TrainingParameters.THREADS_PARAM, 1));
+
     model = this.trainModel(iterations, indexer, cutoff, useAverage);
 
     return model;
@@ -201,6 +210,25 @@ public class PerceptronTrainer extends AbstractEventTrainer {
     useSkippedlAveraging = averaging;
   }
 
+  /**
+   * Sets the number of threads. With more than one thread the events are split
+   * into one shard per thread. Each iteration trains a copy of the parameters on
+   * every shard in parallel, and the copies are then mixed, weighted by the number of
+   * events in their shard (iterative parameter mixing). The shards do not depend on
+   * the scheduling of the threads, the trained model can be reproduced.
+   *
+   * @param threads the number of threads, must be at least one
+   */
+  public void setThreads(int threads) {
+
+    if (threads < 1) {
+      throw new
+          IllegalArgumentException("threads must be at least one but is " + threads + "!");
+    }
+
+    this.threads = threads;
+  }
+
   public AbstractModel trainModel(int iterations, DataIndexer di, int cutoff) {
     return trainModel(iterations,di,cutoff,true);
   }
@@ -226,9 +254,16 @@ public class PerceptronTrainer extends AbstractEventTrainer {
     display("\t    Number of Outcomes: " + numOutcomes + "\n");
     display("\t  Number of Predicates: " + numPreds + "\n");
 
-    display("Computing model parameters...\n");
-
-    MutableContext[] finalParameters = findParameters(iterations, useAverage);
+    MutableContext[] finalParameters;
+    if (threads == 1) {
+      display("Computing model parameters...\n");
+      finalParameters = findParameters(iterations, useAverage, null);
+    } else {
+      display("Computing model parameters in " + threads + " threads...\n");
+      try (TrainingExecutor executor = new TrainingExecutor(threads)) {
+        finalParameters = findParameters(iterations, useAverage, executor);
+      }
+    }
 
     display("...done.\n");
 
@@ -236,7 +271,8 @@ public class PerceptronTrainer extends AbstractEventTrainer {
     return new PerceptronModel(finalParameters, predLabels, outcomeLabels);
   }
 
-  private MutableContext[] findParameters(int iterations, boolean useAverage) {
+  private MutableContext[] findParameters(int iterations, boolean useAverage,
+                                          TrainingExecutor executor) {
 
     display("Performing " + iterations + " iterations.\n");
 
@@ -254,6 +290,19 @@ public class PerceptronTrainer extends AbstractEventTrainer {
 
     EvalParameters evalParams = new EvalParameters(params, numOutcomes);
 
+    /* Stores the parameters which are trained on each shard when the training is parallel. */
+    MutableContext[][] shardParams = null;
+    int[] shards = null;
+    if (executor != null) {
+      shards = TrainingExecutor.partition(contexts, executor.getThreads());
+      shardParams = new MutableContext[executor.getThreads()][numPreds];
+      for (MutableContext[] shard : shardParams) {
+        for (int pi = 0; pi < numPreds; pi++) {
+          shard[pi] = new MutableContext(allOutcomesPattern, new double[numOutcomes]);
+        }
+      }
+    }
+
     /* Stores the sum of parameter values of each predicate over many iterations. */
     MutableContext[] summedParams = new MutableContext[numPreds];
     if (useAverage) {
@@ -283,43 +332,11 @@ public class PerceptronTrainer extends AbstractEventTrainer {
 
       displayIteration(i);
 
-      int numCorrect = 0;
-
-      for (int ei = 0; ei < numUniqueEvents; ei++) {
-        int targetOutcome = outcomeList[ei];
-
-        for (int ni = 0; ni < this.numTimesEventsSeen[ei]; ni++) {
-
-          // Compute the model's prediction according to the current parameters.
-          double[] modelDistribution = new double[numOutcomes];
-          if (values != null)
-            PerceptronModel.eval(contexts[ei], values[ei], modelDistribution, evalParams, false);
-          else
-            PerceptronModel.eval(contexts[ei], null, modelDistribution, evalParams, false);
-
-          int maxOutcome = maxIndex(modelDistribution);
-
-          // If the predicted outcome is different from the target
-          // outcome, do the standard update: boost the parameters
-          // associated with the target and reduce those associated
-          // with the incorrect predicted outcome.
-          if (maxOutcome != targetOutcome) {
-            for (int ci = 0; ci < contexts[ei].length; ci++) {
-              int pi = contexts[ei][ci];
-              if (values == null) {
-                params[pi].updateParameter(targetOutcome, stepsize);
-                params[pi].updateParameter(maxOutcome, -stepsize);
-              } else {
-                params[pi].updateParameter(targetOutcome, stepsize * values[ei][ci]);
-                params[pi].updateParameter(maxOutcome, -stepsize * values[ei][ci]);
-              }
-            }
-          }
-
-          // Update the counts for accuracy.
-          if (maxOutcome == targetOutcome)
-            numCorrect++;
-        }
+      int numCorrect;
+      if (executor == null) {
+        numCorrect = nextIteration(0, numUniqueEvents, params, evalParams, stepsize);
+      } else {
+        numCorrect = nextIteration(params, shardParams, shards, executor, stepsize);
       }
 
       // Calculate the training accuracy and display.
@@ -375,6 +392,104 @@ public class PerceptronTrainer extends AbstractEventTrainer {
 
   }
 
+  /**
+   * Trains the parameters on the specified events.
+   *
+   * @return the number of correctly predicted events
+   */
+  private int nextIteration(int startIndex, int endIndex, MutableContext[] params,
+                            EvalParameters evalParams, double stepsize) {
+    int numCorrect = 0;
+
+    for (int ei = startIndex; ei < endIndex; ei++) {
+      int targetOutcome = outcomeList[ei];
+
+      for (int ni = 0; ni < this.numTimesEventsSeen[ei]; ni++) {
+
+        // Compute the model's prediction according to the current parameters.
+        double[] modelDistribution = new double[numOutcomes];
+        if (values != null)
+          PerceptronModel.eval(contexts[ei], values[ei], modelDistribution, evalParams, false);
+        else
+          PerceptronModel.eval(contexts[ei], null, modelDistribution, evalParams, false);
+
+        int maxOutcome = maxIndex(modelDistribution);
+
+        // If the predicted outcome is different from the target
+        // outcome, do the standard update: boost the parameters
+        // associated with the target and reduce those associated
+        // with the incorrect predicted outcome.
+        if (maxOutcome != targetOutcome) {
+          for (int ci = 0; ci < contexts[ei].length; ci++) {
+            int pi = contexts[ei][ci];
+            if (values == null) {
+              params[pi].updateParameter(targetOutcome, stepsize);
+              params[pi].updateParameter(maxOutcome, -stepsize);
+            } else {
+              params[pi].updateParameter(targetOutcome, stepsize * values[ei][ci]);
+              params[pi].updateParameter(maxOutcome, -stepsize * values[ei][ci]);
+            }
+          }
+        }
+
+        // Update the counts for accuracy.
+        if (maxOutcome == targetOutcome)
+          numCorrect++;
+      }
+    }
+
+    return numCorrect;
+  }
+
+  /**
+   * Trains a copy of the parameters on each shard in parallel and mixes the
+   * trained copies into the parameters.
+   *
+   * @return the number of correctly predicted events
+   */
+  private int nextIteration(MutableContext[] params, MutableContext[][] shardParams, int[] shards,
+                            TrainingExecutor executor, double stepsize) {
+    int numShards = shardParams.length;
+    int[] shardEvents = new int[numShards];
+    int[] shardCorrect = new int[numShards];
+
+    executor.forEach(numShards, s -> {
+      MutableContext[] shard = shardParams[s];
+      for (int pi = 0; pi < numPreds; pi++) {
+        System.arraycopy(params[pi].getParameters(), 0, shard[pi].getParameters(), 0, numOutcomes);
+      }
+
+      for (int ei = shards[s]; ei < shards[s + 1]; ei++) {
+        shardEvents[s] += numTimesEventsSeen[ei];
+      }
+
+      shardCorrect[s] = nextIteration(shards[s], shards[s + 1], shard,
+          new EvalParameters(shard, numOutcomes), stepsize);
+    });
+
+    int numCorrect = 0;
+    for (int s = 0; s < numShards; s++) {
+      numCorrect += shardCorrect[s];
+    }
+
+    // Mix the parameters of the shards, the mixing order is fixed
+    executor.forEachBlock(numPreds, MIX_BLOCK_SIZE, (start, end) -> {
+      for (int pi = start; pi < end; pi++) {
+        double[] mixed = params[pi].getParameters();
+        Arrays.fill(mixed, 0);
+        for (int s = 0; s < numShards; s++) {
+          double weight = (double) shardEvents[s] / numEvents;
+          double[] trained = shardParams[s][pi].getParameters();
+          for (int oi = 0; oi < numOutcomes; oi++) {
+            mixed[oi] += weight * trained[oi];
+          }
+        }
+      }
+    });
+
+    return numCorrect;
+  }
+
   private double trainingStats(EvalParameters evalParams) {
     int numCorrect = 0;
 
@@ -19,11 +19,13 @@ package opennlp.tools.ml.perceptron;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import opennlp.tools.ml.AbstractEventModelSequenceTrainer;
+import opennlp.tools.ml.TrainingExecutor;
 import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.DataIndexer;
@@ -33,6 +35,7 @@ import opennlp.tools.ml.model.OnePassDataIndexer;
 import opennlp.tools.ml.model.Sequence;
 import opennlp.tools.ml.model.SequenceStream;
 import opennlp.tools.ml.model.SequenceStreamEventStream;
+import opennlp.tools.util.TrainingParameters;
 
 /**
  * Trains models for sequences using the perceptron algorithm.  Each outcome is represented as
@@ -42,6 +45,15 @@ import opennlp.tools.ml.model.SequenceStreamEventStream;
  * with the Perceptron Algorithm. Michael Collins, EMNLP 2002.
  * Specifically only updates are applied to tokens which were incorrectly tagged by a sequence tagger
  * rather than to all feature across the sequence which differ from the training sequence.
+ * <p>
+ * With more than one thread the sequences are split into one shard per thread and
+ * trained with iterative parameter mixing: each iteration trains a copy of the parameters
+ * on every shard in parallel and mixes the copies, weighted by the number of events in
+ * their shard. The averaged model is then the average of the mixed parameters of all
+ * iterations. The sequences are kept in memory, the contexts of each shard are updated
+ * by its own {@link SequenceStream#createShardStream() shard stream}, and a stream which
+ * returns itself must support concurrent calls to
+ * {@link SequenceStream#updateContext(Sequence, AbstractModel)}.
  */
 public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceTrainer {
 
@@ -77,9 +89,14 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
   private static final int ITER = 1;
   private static final int EVENT = 2;
 
+  /** The number of predicates whose shard parameters are mixed by one task. */
+  private static final int MIX_BLOCK_SIZE = 1024;
+
   private String[] predLabels;
   private int numSequences;
 
+  private int threads = 1;
+
   public SimplePerceptronSequenceTrainer() {
   }
 
@@ -113,6 +130,11 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
 
     boolean useAverage = trainingParameters.getBooleanParameter("UseAverage", true);
 
+    threads = trainingParameters.getIntParameter(TrainingParameters.THREADS_PARAM, 1);
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least one but is " + threads + "!");
+    }
+
     return trainModel(iterations, events, cutoff, useAverage);
   }
 
@@ -187,8 +209,15 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     }
     double[] modelDistribution = new double[numOutcomes];
 
-    display("Computing model parameters...\n");
-    findParameters(iterations);
+    if (threads == 1) {
+      display("Computing model parameters...\n");
+      findParameters(iterations);
+    } else {
+      display("Computing model parameters in " + threads + " threads...\n");
+      try (TrainingExecutor executor = new TrainingExecutor(threads)) {
+        findParametersInParallel(iterations, executor);
+      }
+    }
     display("...done.\n");
 
     /* Create and return the model ****/
@@ -221,6 +250,202 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     }
   }
 
+  private void findParametersInParallel(int iterations, TrainingExecutor executor)
+      throws IOException {
+    List<Sequence<?>> sequences = new ArrayList<>(numSequences);
+
+    sequenceStream.reset();
+
+    Sequence<?> sequence;
+    while ((sequence = sequenceStream.read()) != null) {
+      sequences.add(sequence);
+    }
+
+    // The shards have about the same number of events
+    int numShards = executor.getThreads();
+    int[] shards = new int[numShards + 1];
+    int[] shardEvents = new int[numShards];
+    int si = 0;
+    int seenEvents = 0;
+    for (int s = 0; s < numShards; s++) {
+      long shardEnd = (long) numEvents * (s + 1) / numShards;
+      while (si < sequences.size() && (s == numShards - 1
+          || seenEvents + sequences.get(si).getEvents().length <= shardEnd)) {
+        seenEvents += sequences.get(si).getEvents().length;
+        shardEvents[s] += sequences.get(si).getEvents().length;
+        si++;
+      }
+      shards[s + 1] = si;
+    }
+
+    // Each shard updates its contexts with its own stream for all iterations
+    SequenceStream[] shardStreams = new SequenceStream[numShards];
+    for (int s = 0; s < numShards; s++) {
+      shardStreams[s] = sequenceStream.createShardStream();
+    }
+
+    MutableContext[][] shardParams = new MutableContext[numShards][numPreds];
+    for (MutableContext[] shard : shardParams) {
+      for (int pi = 0; pi < numPreds; pi++) {
+        shard[pi] = new MutableContext(params[pi].getOutcomes(), new double[numOutcomes]);
+      }
+    }
+
+    display("Performing " + iterations + " iterations.\n");
+    for (int i = 1; i <= iterations; i++) {
+      if (i < 10)
+        display("  " + i + ":  ");
+      else if (i < 100)
+        display(" " + i + ":  ");
+      else
+        display(i + ":  ");
+
+      int[] shardCorrect = new int[numShards];
+      executor.forEach(numShards, s -> {
+        MutableContext[] shard = shardParams[s];
+        for (int pi = 0; pi < numPreds; pi++) {
+          System.arraycopy(params[pi].getParameters(), 0, shard[pi].getParameters(), 0, numOutcomes);
+        }
+        shardCorrect[s] = nextIteration(sequences.subList(shards[s], shards[s + 1]), shard,
+            shardStreams[s]);
+      });
+
+      int numCorrect = 0;
+      for (int s = 0; s < numShards; s++) {
+        numCorrect += shardCorrect[s];
+      }
+
+      // Mix the parameters of the shards, the mixing order is fixed
+      executor.forEachBlock(numPreds, MIX_BLOCK_SIZE, (start, end) -> {
+        for (int pi = start; pi < end; pi++) {
+          double[] mixed = params[pi].getParameters();
+          Arrays.fill(mixed, 0);
+          for (int s = 0; s < numShards; s++) {
+            double weight = (double) shardEvents[s] / numEvents;
+            double[] trained = shardParams[s][pi].getParameters();
+            for (int oi = 0; oi < numOutcomes; oi++) {
+              mixed[oi] += weight * trained[oi];
+            }
+          }
+
+          if (useAverage) {
+            for (int oi = 0; oi < numOutcomes; oi++) {
+              averageParams[pi].updateParameter(oi, mixed[oi] / iterations);
+            }
+          }
+        }
+      });
+
+      display(". (" + numCorrect + "/" + numEvents + ") " + ((double) numCorrect / numEvents) + "\n");
+    }
+
+    if (useAverage) {
+      trainingStats(averageParams);
+    }
+    else {
+      trainingStats(params);
+    }
+  }
+
+  /**
+   * Trains the parameters of one shard on its sequences.
+   *
+   * @return the number of correctly tagged events
+   */
+  private int nextIteration(List<Sequence<?>> sequences, MutableContext[] shardParams,
+      SequenceStream shardStream) {
+    int numCorrect = 0;
+    List<Map<String,Float>> featureCounts = new ArrayList<>(numOutcomes);
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      featureCounts.add(new HashMap<>());
+    }
+    PerceptronModel model = new PerceptronModel(shardParams, predLabels, outcomeLabels);
+
+    for (Sequence<?> sequence : sequences) {
+      Event[] taggerEvents = shardStream.updateContext(sequence, model);
+      Event[] events = sequence.getEvents();
+      boolean update = false;
+      for (int ei = 0; ei < events.length; ei++) {
+        if (!taggerEvents[ei].getOutcome().equals(events[ei].getOutcome())) {
+          update = true;
+        }
+        else {
+          numCorrect++;
+        }
+      }
+      if (update) {
+        computeFeatureCounts(events, taggerEvents, featureCounts);
+        for (int oi = 0; oi < numOutcomes; oi++) {
+          for (Map.Entry<String, Float> feature : featureCounts.get(oi).entrySet()) {
+            Integer pi = pmap.get(feature.getKey());
+            if (pi != null) {
+              shardParams[pi].updateParameter(oi, feature.getValue());
+            }
+          }
+        }
+        model = new PerceptronModel(shardParams, predLabels, outcomeLabels);
+      }
+    }
+
+    return numCorrect;
+  }
+
+  /**
+   * Computes the difference between the feature counts of the training events
+   * and the feature counts of the events the tagger produced.
+   */
+  private void computeFeatureCounts(Event[] events, Event[] taggerEvents,
+      List<Map<String,Float>> featureCounts) {
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      featureCounts.get(oi).clear();
+    }
+    //training feature count computation
+    for (Event event : events) {
+      String[] contextStrings = event.getContext();
+      float[] values = event.getValues();
+      int oi = omap.get(event.getOutcome());
+      for (int ci = 0; ci < contextStrings.length; ci++) {
+        float value = 1;
+        if (values != null) {
+          value = values[ci];
+        }
+        Float c = featureCounts.get(oi).get(contextStrings[ci]);
+        if (c == null) {
+          c = value;
+        }
+        else {
+          c += value;
+        }
+        featureCounts.get(oi).put(contextStrings[ci], c);
+      }
+    }
+    //evaluation feature count computation
+    for (Event taggerEvent : taggerEvents) {
+      String[] contextStrings = taggerEvent.getContext();
+      float[] values = taggerEvent.getValues();
+      int oi = omap.get(taggerEvent.getOutcome());
+      for (int ci = 0; ci < contextStrings.length; ci++) {
+        float value = 1;
+        if (values != null) {
+          value = values[ci];
+        }
+        Float c = featureCounts.get(oi).get(contextStrings[ci]);
+        if (c == null) {
+          c = -1 * value;
+        }
+        else {
+          c -= value;
+        }
+        if (c == 0f) {
+          featureCounts.get(oi).remove(contextStrings[ci]);
+        }
+        else {
+          featureCounts.get(oi).put(contextStrings[ci], c);
+        }
+      }
+    }
+  }
+
   public void nextIteration(int iteration) throws IOException {
     iteration--; //move to 0-based index
     int numCorrect = 0;
@@ -249,58 +474,11 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
         }
       }
       if (update) {
-        for (int oi = 0; oi < numOutcomes; oi++) {
-          featureCounts.get(oi).clear();
-        }
         //System.err.print("train:");for (int ei=0;ei<events.length;ei++)
         // {System.err.print(" "+events[ei].getOutcome());} System.err.println();
-        //training feature count computation
-        for (int ei = 0; ei < events.length; ei++, oei++) {
-          String[] contextStrings = events[ei].getContext();
-          float[] values = events[ei].getValues();
-          int oi = omap.get(events[ei].getOutcome());
-          for (int ci = 0; ci < contextStrings.length; ci++) {
-            float value = 1;
-            if (values != null) {
-              value = values[ci];
-            }
-            Float c = featureCounts.get(oi).get(contextStrings[ci]);
-            if (c == null) {
-              c = value;
-            }
-            else {
-              c += value;
-            }
-            featureCounts.get(oi).put(contextStrings[ci], c);
-          }
-        }
-        //evaluation feature count computation
         //System.err.print("test: ");for (int ei=0;ei<taggerEvents.length;ei++)
         // {System.err.print(" "+taggerEvents[ei].getOutcome());} System.err.println();
-        for (Event taggerEvent : taggerEvents) {
-          String[] contextStrings = taggerEvent.getContext();
-          float[] values = taggerEvent.getValues();
-          int oi = omap.get(taggerEvent.getOutcome());
-          for (int ci = 0; ci < contextStrings.length; ci++) {
-            float value = 1;
-            if (values != null) {
-              value = values[ci];
-            }
-            Float c = featureCounts.get(oi).get(contextStrings[ci]);
-            if (c == null) {
-              c = -1 * value;
-            }
-            else {
-              c -= value;
-            }
-            if (c == 0f) {
-              featureCounts.get(oi).remove(contextStrings[ci]);
-            }
-            else {
-              featureCounts.get(oi).put(contextStrings[ci], c);
-            }
-          }
-        }
+        computeFeatureCounts(events, taggerEvents, featureCounts);
         for (int oi = 0; oi < numOutcomes; oi++) {
           for (String feature : featureCounts.get(oi).keySet()) {
             int pi = pmap.get(feature);
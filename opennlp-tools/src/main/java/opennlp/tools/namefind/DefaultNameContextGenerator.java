@@ -26,6 +26,7 @@ import opennlp.tools.util.featuregen.CachedFeatureGenerator;
 import opennlp.tools.util.featuregen.FeatureGeneratorUtil;
 import opennlp.tools.util.featuregen.OutcomePriorFeatureGenerator;
 import opennlp.tools.util.featuregen.PreviousMapFeatureGenerator;
+import opennlp.tools.util.featuregen.SentenceFeatureTable;
 import opennlp.tools.util.featuregen.TokenClassFeatureGenerator;
 import opennlp.tools.util.featuregen.TokenFeatureGenerator;
 import opennlp.tools.util.featuregen.WindowFeatureGenerator;
@@ -33,11 +34,16 @@ import opennlp.tools.util.featuregen.WindowFeatureGenerator;
 /**
  * Class for determining contextual features for a tag/chunk style
  * named-entity recognizer.
+ * <p>
+ * While a search runs the features of the outcome independent feature generators
+ * are computed once per token of its sentence, see {@link SentenceFeatureTable}.
  */
 public class DefaultNameContextGenerator implements NameContextGenerator {
 
   private AdaptiveFeatureGenerator[] featureGenerators;
 
+  private SentenceFeatureTable featureTable;
+
   @Deprecated
   private static AdaptiveFeatureGenerator windowFeatures = new CachedFeatureGenerator(
       new WindowFeatureGenerator(new TokenFeatureGenerator(), 2, 2),
@@ -70,6 +76,8 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
           windowFeatures,
           new PreviousMapFeatureGenerator()};
     }
+
+    featureTable = new SentenceFeatureTable(this.featureGenerators);
   }
 
   public void addFeatureGenerator(AdaptiveFeatureGenerator generator) {
@@ -80,6 +88,8 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
     System.arraycopy(generators, 0, featureGenerators, 0, generators.length);
 
     featureGenerators[featureGenerators.length - 1] = generator;
+
+    featureTable = new SentenceFeatureTable(featureGenerators);
   }
 
   public void updateAdaptiveData(String[] tokens, String[] outcomes) {
@@ -89,15 +99,21 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
           "The tokens and outcome arrays MUST have the same size!");
     }
 
-    for (AdaptiveFeatureGenerator featureGenerator : featureGenerators) {
-      featureGenerator.updateAdaptiveData(tokens, outcomes);
-    }
+    featureTable.updateAdaptiveData(tokens, outcomes);
   }
 
   public void clearAdaptiveData() {
-    for (AdaptiveFeatureGenerator featureGenerator : featureGenerators) {
-      featureGenerator.clearAdaptiveData();
-    }
+    featureTable.clearAdaptiveData();
+  }
+
+  @Override
+  public void startSequence(String[] sequence) {
+    featureTable.startSentence(sequence);
+  }
+
+  @Override
+  public void endSequence() {
+    featureTable.endSentence();
   }
 
   /**
@@ -115,10 +131,50 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
   public String[] getContext(int index, String[] tokens, String[] preds, Object[] additionalContext) {
     List<String> features = new ArrayList<>();
 
-    for (AdaptiveFeatureGenerator featureGenerator : featureGenerators) {
-      featureGenerator.createFeatures(features, tokens, index, preds);
+    featureTable.createFeatures(features, tokens, index, preds);
+    addPreviousOutcomeFeatures(features, index, tokens, preds);
+
+    return features.toArray(new String[features.size()]);
+  }
+
+  /**
+   * Returns the features which do not depend on the previous outcomes, subclasses do
+   * not split their contexts because they might override
+   * {@link #getContext(int, String[], String[], Object[])}.
+   * Returns {@code null} for a subclass, callers then use the whole context instead.
+   */
+  @Override
+  public String[] getOutcomeIndependentContext(int index, String[] tokens,
+      Object[] additionalContext) {
+    if (getClass() != DefaultNameContextGenerator.class) {
+      return null;
+    }
+
+    List<String> features = new ArrayList<>();
+
+    featureTable.createOutcomeIndependentFeatures(features, tokens, index);
+
+    return features.toArray(new String[features.size()]);
+  }
+
+  @Override
+  public String[] getOutcomeDependentContext(int index, String[] tokens, String[] preds,
+      Object[] additionalContext) {
+    if (getClass() != DefaultNameContextGenerator.class) {
+      return getContext(index, tokens, preds, additionalContext);
     }
 
+    List<String> features = new ArrayList<>();
+
+    featureTable.createOutcomeDependentFeatures(features, tokens, index, preds);
+    addPreviousOutcomeFeatures(features, index, tokens, preds);
+
+    return features.toArray(new String[features.size()]);
+  }
+
+  private static void addPreviousOutcomeFeatures(List<String> features, int index,
+      String[] tokens, String[] preds) {
+
     //previous outcome features
     String po = NameFinderME.OTHER;
     String ppo = NameFinderME.OTHER;
@@ -137,7 +193,5 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
       features.add("powf=" + po + "," + FeatureGeneratorUtil.tokenFeature(tokens[index]));
       features.add("ppo=" + ppo);
     }
-
-    return features.toArray(new String[features.size()]);
   }
 }
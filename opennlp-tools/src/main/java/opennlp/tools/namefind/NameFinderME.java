@@ -31,6 +31,7 @@ import java.util.regex.Pattern;
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
@@ -93,7 +94,7 @@ public class NameFinderME implements TokenNameFinder {
     AdaptiveFeatureGenerator featureGenerator;
 
     if (generatorDescriptor != null) {
-      featureGenerator = GeneratorFactory.create(new ByteArrayInputStream(
+      featureGenerator = GeneratorFactory.createCompiled(new ByteArrayInputStream(
           generatorDescriptor), key -> {
             if (resources != null) {
               return resources.get(key);
@@ -135,6 +136,26 @@ public class NameFinderME implements TokenNameFinder {
     return spans;
   }
 
+  /**
+   * Finds the names in a batch of independent sentences. Each sentence is
+   * processed as a document of its own, the adaptive data is cleared before
+   * and after each sentence. The feature generators and buffers are reused for
+   * all sentences of the batch.
+   *
+   * @param sentences the sentences, each an array of tokens
+   *
+   * @return the names of each sentence, in input order
+   */
+  public List<Span[]> find(List<String[]> sentences) {
+    List<Span[]> names = new ArrayList<>(sentences.size());
+    for (String[] tokens : sentences) {
+      clearAdaptiveData();
+      names.add(find(tokens));
+    }
+    clearAdaptiveData();
+    return names;
+  }
+
   /**
    * Forgets all adaptive data which was collected during previous calls to one
    * of the find methods.
@@ -230,6 +251,8 @@ public class NameFinderME implements TokenNameFinder {
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
+    SequenceDecoderFactory.addManifestEntries(trainParams, manifestInfoEntries);
+
     MaxentModel nameFinderModel = null;
 
     SequenceClassificationModel<String> seqModel = null;
@@ -245,7 +268,7 @@ public class NameFinderME implements TokenNameFinder {
     } // TODO: Maybe it is not a good idea, that these two don't use the context generator ?!
     // These also don't use the sequence codec ?!
     else if (TrainerType.EVENT_MODEL_SEQUENCE_TRAINER.equals(trainerType)) {
-      NameSampleSequenceStream ss = new NameSampleSequenceStream(samples, factory.createContextGenerator());
+      NameSampleSequenceStream ss = new NameSampleSequenceStream(samples, factory, true);
 
       EventModelSequenceTrainer trainer = TrainerFactory.getEventModelSequenceTrainer(
               trainParams, manifestInfoEntries);
@@ -255,7 +278,7 @@ public class NameFinderME implements TokenNameFinder {
               trainParams, manifestInfoEntries);
 
       NameSampleSequenceStream ss =
-          new NameSampleSequenceStream(samples, factory.createContextGenerator(), false);
+          new NameSampleSequenceStream(samples, factory, false);
       seqModel = trainer.train(ss);
     } else {
       throw new IllegalStateException("Unexpected trainer type!");
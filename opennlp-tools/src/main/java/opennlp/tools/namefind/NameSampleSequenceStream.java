@@ -34,6 +34,7 @@ public class NameSampleSequenceStream implements SequenceStream {
   private final boolean useOutcomes;
   private ObjectStream<NameSample> psi;
   private SequenceCodec<String> seqCodec;
+  private final TokenNameFinderFactory factory;
 
   public NameSampleSequenceStream(ObjectStream<NameSample> psi) throws IOException {
     this(psi, new DefaultNameContextGenerator((AdaptiveFeatureGenerator) null), true);
@@ -63,10 +64,30 @@ public class NameSampleSequenceStream implements SequenceStream {
   public NameSampleSequenceStream(ObjectStream<NameSample> psi, NameContextGenerator pcg, boolean useOutcomes,
       SequenceCodec<String> seqCodec)
           throws IOException {
+    this(psi, pcg, useOutcomes, seqCodec, null);
+  }
+
+  /**
+   * Initializes the stream with a context generator created by the factory. Each
+   * {@link #createShardStream() shard stream} gets its own context generator from the
+   * factory, the adaptive data of a shard is then only updated by its own sequences.
+   *
+   * @param psi the name samples
+   * @param factory the factory which creates the context generators
+   * @param useOutcomes whether the previous outcomes are used in the contexts
+   */
+  public NameSampleSequenceStream(ObjectStream<NameSample> psi, TokenNameFinderFactory factory,
+      boolean useOutcomes) throws IOException {
+    this(psi, factory.createContextGenerator(), useOutcomes, new BioCodec(), factory);
+  }
+
+  private NameSampleSequenceStream(ObjectStream<NameSample> psi, NameContextGenerator pcg,
+      boolean useOutcomes, SequenceCodec<String> seqCodec, TokenNameFinderFactory factory) {
     this.psi = psi;
     this.useOutcomes = useOutcomes;
     this.pcg = pcg;
     this.seqCodec = seqCodec;
+    this.factory = factory;
   }
 
   @SuppressWarnings("unchecked")
@@ -77,11 +98,23 @@ public class NameSampleSequenceStream implements SequenceStream {
     String[] tags = seqCodec.encode(tagger.find(sentence), sentence.length);
     Event[] events = new Event[sentence.length];
 
-    NameFinderEventStream.generateEvents(sentence,tags,pcg).toArray(events);
+    // without a factory the shard streams share this stream and its context generator
+    synchronized (pcg) {
+      NameFinderEventStream.generateEvents(sentence,tags,pcg).toArray(events);
+    }
 
     return events;
   }
 
+  @Override
+  public SequenceStream createShardStream() {
+    if (factory == null) {
+      return this;
+    }
+    return new NameSampleSequenceStream(psi, factory.createContextGenerator(), useOutcomes,
+        seqCodec, factory);
+  }
+
   @Override
   public Sequence read() throws IOException {
     NameSample sample = psi.read();
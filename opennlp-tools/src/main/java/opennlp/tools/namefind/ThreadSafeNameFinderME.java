@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.namefind;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import opennlp.tools.util.BatchUtil;
+import opennlp.tools.util.Span;
+
+/**
+ * A thread-safe version of the {@link NameFinderME}. One instance can be shared
+ * by all threads, the {@link TokenNameFinderModel} is shared and the per call
+ * state of the name finder is kept per thread.
+ * <p>
+ * The adaptive data is collected per thread as well. A document must be
+ * processed on a single thread, and {@link #clearAdaptiveData()} must be called
+ * on that thread at the end of the document.
+ * <p>
+ * The returned spans carry their probabilities, the
+ * {@link NameFinderME#probs()} getter is not needed.
+ *
+ * @see NameFinderME
+ */
+public class ThreadSafeNameFinderME implements TokenNameFinder {
+
+  private final ThreadLocal<NameFinderME> nameFinder;
+
+  public ThreadSafeNameFinderME(TokenNameFinderModel model) {
+    nameFinder = ThreadLocal.withInitial(() -> new NameFinderME(model));
+  }
+
+  @Override
+  public Span[] find(String[] tokens) {
+    return nameFinder.get().find(tokens);
+  }
+
+  public Span[] find(String[] tokens, String[][] additionalContext) {
+    return nameFinder.get().find(tokens, additionalContext);
+  }
+
+  /**
+   * Finds the names in a batch of independent sentences on the calling thread.
+   *
+   * @param sentences the sentences, each an array of tokens
+   *
+   * @return the names of each sentence, in input order
+   *
+   * @see NameFinderME#find(List)
+   */
+  public List<Span[]> find(List<String[]> sentences) {
+    return nameFinder.get().find(sentences);
+  }
+
+  /**
+   * Finds the names in a batch of independent sentences, the work is
+   * distributed in chunks over the executor.
+   *
+   * @param sentences the sentences, each an array of tokens
+   * @param executor the executor which runs the chunks
+   *
+   * @return the names of each sentence, in input order
+   *
+   * @see NameFinderME#find(List)
+   */
+  public List<Span[]> find(List<String[]> sentences, Executor executor) {
+    return BatchUtil.process(sentences, this::find, executor);
+  }
+
+  /**
+   * Forgets the adaptive data the calling thread collected.
+   */
+  @Override
+  public void clearAdaptiveData() {
+    nameFinder.get().clearAdaptiveData();
+  }
+}
@@ -31,6 +31,7 @@ import opennlp.tools.util.SequenceCodec;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldEvaluationMonitor;
 
 public class TokenNameFinderCrossValidator {
 
@@ -135,6 +136,16 @@ public class TokenNameFinderCrossValidator {
     }
   }
 
+  private static class FoldMonitor extends FoldEvaluationMonitor<NameSample>
+      implements TokenNameFinderEvaluationMonitor {
+
+    private FMeasure fmeasure;
+
+    FoldMonitor(TokenNameFinderEvaluationMonitor[] listeners, boolean record) {
+      super(listeners, record);
+    }
+  }
+
   private final String languageCode;
   private final TrainingParameters params;
   private final String type;
@@ -202,35 +213,56 @@ public class TokenNameFinderCrossValidator {
    */
   public void evaluate(ObjectStream<NameSample> samples, int nFolds)
       throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
 
-    // Note: The name samples need to be grouped on a document basis.
-
-    CrossValidationPartitioner<DocumentSample> partitioner = new CrossValidationPartitioner<>(
-        new NameToDocumentSampleStream(samples), nFolds);
-
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<DocumentSample> trainingSampleStream =
-          partitioner.next();
-
-      TokenNameFinderModel model;
-      if (factory != null) {
-        model = NameFinderME.train(languageCode, type, new DocumentToNameSampleStream(trainingSampleStream),
-            params, factory);
-      }
-      else {
-        model = NameFinderME.train(languageCode, type, new DocumentToNameSampleStream(trainingSampleStream),
-            params, TokenNameFinderFactory.create(null, featureGeneratorBytes, resources, new BioCodec()));
-      }
-
-      // do testing
-      TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
-          new NameFinderME(model), listeners);
+  /**
+   * Starts the evaluation, the folds are trained and evaluated in parallel.
+   * The results and the events which are passed to the listeners are the
+   * same as in a sequential evaluation.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are trained and evaluated at the same time
+   *
+   * @throws IOException
+   */
+  public void evaluate(ObjectStream<NameSample> samples, int nFolds, int threads)
+      throws IOException {
 
-      evaluator.evaluate(new DocumentToNameSampleStream(trainingSampleStream.getTestSampleStream()));
+    // Note: The name samples need to be grouped on a document basis.
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
-    }
+    CrossValidationPartitioner.<DocumentSample, FoldMonitor>evaluateFolds(
+        new NameToDocumentSampleStream(samples), nFolds, threads, trainingSampleStream -> {
+
+          TokenNameFinderModel model;
+          if (factory != null) {
+            model = NameFinderME.train(languageCode, type,
+                new DocumentToNameSampleStream(trainingSampleStream), params, factory);
+          }
+          else {
+            model = NameFinderME.train(languageCode, type,
+                new DocumentToNameSampleStream(trainingSampleStream), params,
+                TokenNameFinderFactory.create(null, featureGeneratorBytes, resources, new BioCodec()));
+          }
+
+          // do testing
+          FoldMonitor foldMonitor = new FoldMonitor(listeners, threads > 1);
+          TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
+              new NameFinderME(model), foldMonitor);
+
+          evaluator.evaluate(new DocumentToNameSampleStream(trainingSampleStream.getTestSampleStream()));
+
+          foldMonitor.fmeasure = evaluator.getFMeasure();
+          return foldMonitor;
+        },
+        foldMonitor -> {
+          foldMonitor.replay();
+          fmeasure.mergeInto(foldMonitor.fmeasure);
+        });
   }
 
   public FMeasure getFMeasure() {
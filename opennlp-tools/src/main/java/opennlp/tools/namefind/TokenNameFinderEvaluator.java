@@ -90,6 +90,25 @@ public class TokenNameFinderEvaluator extends Evaluator<NameSample> {
     return new NameSample(reference.getSentence(), predictedNames, reference.isClearAdaptiveDataSet());
   }
 
+  /**
+   * A shard starts with the first sample of a document, the name finder
+   * keeps adaptive data between the samples of a document.
+   */
+  @Override
+  protected boolean isShardStart(NameSample sample) {
+    return sample.isClearAdaptiveDataSet();
+  }
+
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<NameSample> evaluator) {
+    fmeasure.mergeInto(((TokenNameFinderEvaluator) evaluator).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
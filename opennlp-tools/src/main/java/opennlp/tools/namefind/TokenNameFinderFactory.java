@@ -186,7 +186,7 @@ public class TokenNameFinderFactory extends BaseToolFactory {
 
     AdaptiveFeatureGenerator generator;
     try {
-      generator = GeneratorFactory.create(descriptorIn, key -> {
+      generator = GeneratorFactory.createCompiled(descriptorIn, key -> {
         if (artifactProvider != null) {
           return artifactProvider.getArtifact(key);
         }
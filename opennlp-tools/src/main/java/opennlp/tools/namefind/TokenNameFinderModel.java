@@ -25,6 +25,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.model.MaxentModel;
@@ -104,10 +105,18 @@ public class TokenNameFinderModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public TokenNameFinderModel(InputStream in, Executor executor) throws IOException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public TokenNameFinderModel(File modelFile) throws IOException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public TokenNameFinderModel(File modelFile, Executor executor) throws IOException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public TokenNameFinderModel(Path modelPath) throws IOException {
     this(modelPath.toFile());
   }
@@ -145,17 +154,8 @@ public class TokenNameFinderModel extends BaseModel {
 
   public SequenceClassificationModel<String> getNameFinderSequenceModel() {
 
-    Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
-
     if (artifactMap.get(MAXENT_MODEL_ENTRY_NAME) instanceof MaxentModel) {
-      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
-
-      int beamSize = NameFinderME.DEFAULT_BEAM_SIZE;
-      if (beamSizeString != null) {
-        beamSize = Integer.parseInt(beamSizeString);
-      }
-
-      return new BeamSearch<>(beamSize, (MaxentModel) artifactMap.get(MAXENT_MODEL_ENTRY_NAME));
+      return getSequenceDecoder(MAXENT_MODEL_ENTRY_NAME, NameFinderME.DEFAULT_BEAM_SIZE);
     }
     else if (artifactMap.get(MAXENT_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(MAXENT_MODEL_ENTRY_NAME);
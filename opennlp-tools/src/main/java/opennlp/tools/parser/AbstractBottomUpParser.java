@@ -19,11 +19,11 @@ package opennlp.tools.parser;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.chunker.Chunker;
 import opennlp.tools.dictionary.Dictionary;
@@ -45,6 +45,9 @@ import opennlp.tools.util.TrainingParameters;
  * node reference.  {@link #setParents setParents} can be used to make the parents consistent
  * with a particular parse, but subsequent calls to <code>setParents</code> can invalidate
  * the results of earlier calls.<br>
+ * <p>
+ * The parses of a derivation stage are derived as {@link ParseHypothesis} objects,
+ * only the ones which are advanced or returned are built.
  */
 public abstract class AbstractBottomUpParser implements Parser {
 
@@ -77,17 +80,17 @@ public abstract class AbstractBottomUpParser implements Parser {
   /**
    * Completed parses.
    */
-  private SortedSet<Parse> completeParses;
+  private HypothesisHeap completeParses;
 
   /**
    * Incomplete parses which will be advanced.
    */
-  private SortedSet<Parse> odh;
+  private HypothesisHeap odh;
 
   /**
    * Incomplete parses which have been advanced.
    */
-  private SortedSet<Parse> ndh;
+  private HypothesisHeap ndh;
 
   /**
    * The head rules for the parser.
@@ -172,6 +175,12 @@ public abstract class AbstractBottomUpParser implements Parser {
    */
   protected boolean debugOn = false;
 
+  /**
+   * The executor which advances the parses of a derivation stage, or null
+   * if they are advanced by the calling thread.
+   */
+  private Executor executor;
+
   public AbstractBottomUpParser(POSTagger tagger, Chunker chunker, HeadRules headRules,
       int beamSize, double advancePercentage) {
     this.tagger = tagger;
@@ -182,9 +191,9 @@ public abstract class AbstractBottomUpParser implements Parser {
     reportFailedParse = true;
     this.headRules = headRules;
     this.punctSet = headRules.getPunctuationTags();
-    odh = new TreeSet<>();
-    ndh = new TreeSet<>();
-    completeParses = new TreeSet<>();
+    odh = new HypothesisHeap(K);
+    ndh = new HypothesisHeap(K);
+    completeParses = new HypothesisHeap(Integer.MAX_VALUE);
   }
 
   /**
@@ -196,6 +205,37 @@ public abstract class AbstractBottomUpParser implements Parser {
     this.reportFailedParse = errorReporting;
   }
 
+  /**
+   * Specifies an executor which advances the parses of a derivation stage concurrently.
+   * <p>
+   * Every parse of the beam is advanced by its own task, the advanced parses are
+   * merged into the beam of the next stage in the order of their preceding parses,
+   * the result does not depend on the scheduling of the tasks.
+   * The tagging and chunking stages and parsers which do not support it
+   * ({@link #isConcurrentAdvanceSupported()}) are always advanced by the calling thread.
+   * <p>
+   * A parser instance still parses only one sentence at a time.
+   *
+   * @param executor the executor or null to advance the parses in the calling thread
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Checks if {@link #advanceParseHypotheses(Parse, double)} may be called concurrently
+   * for the different parses of a derivation stage. An implementation which returns true
+   * must not write to shared state while it advances a parse, parses it derives
+   * lazily are only built by the calling thread.
+   * <p>
+   * The default implementation returns false.
+   *
+   * @return true if parses can be advanced concurrently, false otherwise
+   */
+  protected boolean isConcurrentAdvanceSupported() {
+    return false;
+  }
+
   /**
    * Assigns parent references for the specified parse so that they
    * are consistent with the children references.
@@ -260,6 +300,21 @@ public abstract class AbstractBottomUpParser implements Parser {
    */
   protected abstract Parse[] advanceParses(final Parse p, double probMass);
 
+  /**
+   * Advances the specified parse like {@link #advanceParses(Parse, double)}, but
+   * returns hypotheses which build the advanced parses on demand.
+   * <p>
+   * The default implementation wraps the parses of {@link #advanceParses(Parse, double)}.
+   *
+   * @param p The parse to advance.
+   * @param probMass The amount of probability mass that should be accounted for
+   *                 by the advanced parses.
+   * @return The advanced parses or null if the parse can not be advanced.
+   */
+  protected ParseHypothesis[] advanceParseHypotheses(final Parse p, double probMass) {
+    return ParseHypothesis.of(advanceParses(p, probMass));
+  }
+
   /**
    * Adds the "TOP" node to the specified parse.
    * @param p The complete parse.
@@ -273,18 +328,24 @@ public abstract class AbstractBottomUpParser implements Parser {
     completeParses.clear();
     int derivationStage = 0; //derivation length
     int maxDerivationLength = 2 * tokens.getChildCount() + 3;
-    odh.add(tokens);
+    odh.add(new ParseHypothesis(tokens));
+    ParseHypothesis[] derivations = odh.toSortedArray();
     Parse guess = null;
     double minComplete = 2;
     double bestComplete = -100000; //approximating -infinity/0 in ln domain
-    while (odh.size() > 0 && (completeParses.size() < M || (odh.first()).getProb() < minComplete)
+    while (derivations.length > 0
+        && (completeParses.size() < M || derivations[0].getProb() < minComplete)
         && derivationStage < maxDerivationLength) {
-      ndh = new TreeSet<>();
+      ndh.clear();
+
+      ParseHypothesis[][] advancedConcurrently = null;
+      if (derivationStage > 1 && executor != null && isConcurrentAdvanceSupported()) {
+        advancedConcurrently = advanceConcurrently(derivations);
+      }
 
-      int derivationRank = 0;
-      for (Iterator<Parse> pi = odh.iterator(); pi.hasNext()
+      for (int derivationRank = 0; derivationRank < derivations.length
           && derivationRank < K; derivationRank++) { // foreach derivation
-        Parse tp = pi.next();
+        Parse tp = derivations[derivationRank].getParse();
         //TODO: Need to look at this for K-best parsing cases
         /*
          //this parse and the ones which follow will never win, stop advancing.
@@ -300,34 +361,37 @@ public abstract class AbstractBottomUpParser implements Parser {
           tp.show();
           System.out.println();
         }
-        Parse[] nd;
+        ParseHypothesis[] nd;
         if (0 == derivationStage) {
-          nd = advanceTags(tp);
+          nd = advanceTagHypotheses(tp);
         }
         else if (1 == derivationStage) {
           if (ndh.size() < K) {
-            //System.err.println("advancing ts "+j+" "+ndh.size()+" < "+K);
-            nd = advanceChunks(tp,bestComplete);
+            nd = advanceChunkHypotheses(tp,bestComplete);
           }
           else {
-            //System.err.println("advancing ts "+j+" prob="+((Parse) ndh.last()).getProb());
-            nd = advanceChunks(tp,(ndh.last()).getProb());
+            // the lowest probability of all parses which were derived in this stage
+            nd = advanceChunkHypotheses(tp,ndh.getLowestAddedProb());
           }
         }
+        else if (advancedConcurrently != null) {
+          nd = advancedConcurrently[derivationRank];
+        }
         else { // i > 1
-          nd = advanceParses(tp, Q);
+          nd = advanceParseHypotheses(tp, Q);
         }
         if (nd != null) {
           for (int k = 0, kl = nd.length; k < kl; k++) {
-            if (nd[k].complete()) {
-              advanceTop(nd[k]);
-              if (nd[k].getProb() > bestComplete) {
-                bestComplete = nd[k].getProb();
+            if (nd[k].isComplete()) {
+              Parse cp = nd[k].getParse();
+              advanceTop(cp);
+              if (cp.getProb() > bestComplete) {
+                bestComplete = cp.getProb();
               }
-              if (nd[k].getProb() < minComplete) {
-                minComplete = nd[k].getProb();
+              if (cp.getProb() < minComplete) {
+                minComplete = cp.getProb();
               }
-              completeParses.add(nd[k]);
+              completeParses.add(new ParseHypothesis(cp));
             }
             else {
               ndh.add(nd[k]);
@@ -340,34 +404,73 @@ public abstract class AbstractBottomUpParser implements Parser {
           //      + " stage " + derivationRank + "!\n");
           //}
           advanceTop(tp);
-          completeParses.add(tp);
+          completeParses.add(new ParseHypothesis(tp));
         }
       }
       derivationStage++;
-      odh = ndh;
+      HypothesisHeap advanced = ndh;
+      ndh = odh;
+      odh = advanced;
+      derivations = odh.toSortedArray();
     }
     if (completeParses.size() == 0) {
       // if (reportFailedParse) System.err.println("Couldn't find parse for: " + tokens);
-      //Parse r = (Parse) odh.first();
-      //r.show();
-      //System.out.println();
       return new Parse[] {guess};
     }
-    else if (numParses == 1) {
-      return new Parse[] {completeParses.first()};
+
+    ParseHypothesis[] sortedParses = completeParses.toSortedArray();
+    if (numParses == 1) {
+      return new Parse[] {sortedParses[0].getParse()};
     }
     else {
       List<Parse> topParses = new ArrayList<>(numParses);
-      while (!completeParses.isEmpty() && topParses.size() < numParses) {
-        Parse tp = completeParses.last();
-        completeParses.remove(tp);
-        topParses.add(tp);
-        //parses.remove(tp);
+      for (int pi = sortedParses.length - 1; pi >= 0 && topParses.size() < numParses; pi--) {
+        topParses.add(sortedParses[pi].getParse());
       }
       return topParses.toArray(new Parse[topParses.size()]);
     }
   }
 
+  /**
+   * Advances the parses of a derivation stage with the executor.
+   *
+   * @param derivations the parses of the stage, highest probability first
+   * @return the advanced parses of each parse, in the order of the derivations
+   */
+  private ParseHypothesis[][] advanceConcurrently(ParseHypothesis[] derivations) {
+    int numDerivations = Math.min(derivations.length, K);
+
+    // the parses are built and their punctuation is assigned before the tasks start,
+    // both modify nodes which are shared between the parses
+    Parse[] parses = new Parse[numDerivations];
+    for (int di = 0; di < numDerivations; di++) {
+      parses[di] = derivations[di].getParse();
+      collapsePunctuation(parses[di].getChildren(), punctSet);
+    }
+
+    List<CompletableFuture<ParseHypothesis[]>> tasks = new ArrayList<>(numDerivations);
+    for (Parse p : parses) {
+      tasks.add(CompletableFuture.supplyAsync(() -> advanceParseHypotheses(p, Q), executor));
+    }
+
+    ParseHypothesis[][] advanced = new ParseHypothesis[numDerivations][];
+    for (int di = 0; di < numDerivations; di++) {
+      try {
+        advanced[di] = tasks.get(di).join();
+      }
+      catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw e;
+      }
+    }
+    return advanced;
+  }
+
   public Parse parse(Parse tokens) {
 
     if (tokens.getChildCount() > 0) {
@@ -387,11 +490,21 @@ public abstract class AbstractBottomUpParser implements Parser {
    * @return The top chunk assignments to the specified parse.
    */
   protected Parse[] advanceChunks(final Parse p, double minChunkScore) {
+    return ParseHypothesis.getParses(advanceChunkHypotheses(p, minChunkScore));
+  }
+
+  /**
+   * Returns the top chunk sequences for the specified parse as hypotheses, a chunk
+   * assignment is only built if it is requested.
+   * @param p A pos-tag assigned parse.
+   * @param minChunkScore A minimum score below which chunks should not be advanced.
+   * @return The top chunk assignments to the specified parse.
+   */
+  protected ParseHypothesis[] advanceChunkHypotheses(final Parse p, double minChunkScore) {
     // chunk
     Parse[] children = p.getChildren();
     String[] words = new String[children.length];
     String[] ptags = new String[words.length];
-    double[] probs = new double[words.length];
 
     for (int i = 0, il = children.length; i < il; i++) {
       Parse sp = children[i];
@@ -400,64 +513,82 @@ public abstract class AbstractBottomUpParser implements Parser {
     }
     //System.err.println("adjusted mcs = "+(minChunkScore-p.getProb()));
     Sequence[] cs = chunker.topKSequences(words, ptags,minChunkScore - p.getProb());
-    Parse[] newParses = new Parse[cs.length];
+    ParseHypothesis[] newParses = new ParseHypothesis[cs.length];
     for (int si = 0, sl = cs.length; si < sl; si++) {
-      newParses[si] = (Parse) p.clone(); //copies top level
-      if (createDerivationString) newParses[si].getDerivation().append(si).append(".");
-      String[] tags = cs[si].getOutcomes().toArray(new String[words.length]);
-      cs[si].getProbs(probs);
-      int start = -1;
-      int end = 0;
-      String type = null;
-      //System.err.print("sequence "+si+" ");
-      for (int j = 0; j <= tags.length; j++) {
-        // if (j != tags.length) {System.err.println(words[j]+" "
-        // +ptags[j]+" "+tags[j]+" "+probs.get(j));}
-        if (j != tags.length) {
-          newParses[si].addProb(Math.log(probs[j]));
+      final int sequenceIndex = si;
+      final Sequence sequence = cs[si];
+      double[] probs = sequence.getProbs();
+      double prob = p.getProb();
+      // the chunk continuations are inserted into the chunk of the preceding start
+      int numNodes = children.length;
+      boolean inChunk = false;
+      for (int j = 0; j < probs.length; j++) {
+        prob += Math.log(probs[j]);
+        String tag = sequence.getOutcomes().get(j);
+        if (tag.startsWith(CONT)) {
+          if (inChunk) {
+            numNodes--;
+          }
         }
-        // if continue just update end chunking tag don't use contTypeMap
-        if (j != tags.length && tags[j].startsWith(CONT)) {
-          end = j;
+        else {
+          inChunk = tag.startsWith(START);
         }
-        else { //make previous constituent if it exists
-          if (type != null) {
-            //System.err.println("inserting tag "+tags[j]);
-            Parse p1 = p.getChildren()[start];
-            Parse p2 = p.getChildren()[end];
-            // System.err.println("Putting "+type+" at "+start+","+end+" for "
-            // +j+" "+newParses[si].getProb());
-            Parse[] cons = new Parse[end - start + 1];
-            cons[0] = p1;
-            //cons[0].label="Start-"+type;
-            if (end - start != 0) {
-              cons[end - start] = p2;
-              //cons[end-start].label="Cont-"+type;
-              for (int ci = 1; ci < end - start; ci++) {
-                cons[ci] = p.getChildren()[ci + start];
-                //cons[ci].label="Cont-"+type;
-              }
+      }
+      newParses[si] = new ParseHypothesis(prob, numNodes == 1,
+          () -> deriveChunks(p, sequence, sequenceIndex));
+    }
+    return newParses;
+  }
+
+  /**
+   * Inserts the chunks of the specified chunk sequence into a copy of the specified parse.
+   */
+  private Parse deriveChunks(Parse p, Sequence sequence, int sequenceIndex) {
+    String[] tags = sequence.getOutcomes().toArray(new String[p.getChildCount()]);
+    double[] probs = sequence.getProbs();
+    Parse newParse = (Parse) p.clone(); //copies top level
+    if (createDerivationString) newParse.getDerivation().append(sequenceIndex).append(".");
+    int start = -1;
+    int end = 0;
+    String type = null;
+    for (int j = 0; j <= tags.length; j++) {
+      if (j != tags.length) {
+        newParse.addProb(Math.log(probs[j]));
+      }
+      // if continue just update end chunking tag don't use contTypeMap
+      if (j != tags.length && tags[j].startsWith(CONT)) {
+        end = j;
+      }
+      else { //make previous constituent if it exists
+        if (type != null) {
+          Parse p1 = p.getChildren()[start];
+          Parse p2 = p.getChildren()[end];
+          Parse[] cons = new Parse[end - start + 1];
+          cons[0] = p1;
+          if (end - start != 0) {
+            cons[end - start] = p2;
+            for (int ci = 1; ci < end - start; ci++) {
+              cons[ci] = p.getChildren()[ci + start];
             }
-            Parse chunk = new Parse(p1.getText(), new Span(p1.getSpan().getStart(),
-                p2.getSpan().getEnd()), type, 1, headRules.getHead(cons, type));
-            chunk.isChunk(true);
-            newParses[si].insert(chunk);
           }
-          if (j != tags.length) { //update for new constituent
-            if (tags[j].startsWith(START)) { // don't use startTypeMap these are chunk tags
-              type = tags[j].substring(START.length());
-              start = j;
-              end = j;
-            }
-            else { // other
-              type = null;
-            }
+          Parse chunk = new Parse(p1.getText(), new Span(p1.getSpan().getStart(),
+              p2.getSpan().getEnd()), type, 1, headRules.getHead(cons, type));
+          chunk.isChunk(true);
+          newParse.insert(chunk);
+        }
+        if (j != tags.length) { //update for new constituent
+          if (tags[j].startsWith(START)) { // don't use startTypeMap these are chunk tags
+            type = tags[j].substring(START.length());
+            start = j;
+            end = j;
+          }
+          else { // other
+            type = null;
           }
         }
       }
-      //newParses[si].show();System.out.println();
     }
-    return newParses;
+    return newParse;
   }
 
   /**
@@ -466,30 +597,55 @@ public abstract class AbstractBottomUpParser implements Parser {
    * @return Parses with different POS-tag sequence assignments.
    */
   protected Parse[] advanceTags(final Parse p) {
+    return ParseHypothesis.getParses(advanceTagHypotheses(p));
+  }
+
+  /**
+   * Advances the parse by assigning it POS tags and returns multiple tag sequences
+   * as hypotheses, a tag assignment is only built if it is requested.
+   * @param p The parse to be tagged.
+   * @return Parses with different POS-tag sequence assignments.
+   */
+  protected ParseHypothesis[] advanceTagHypotheses(final Parse p) {
     Parse[] children = p.getChildren();
     String[] words = new String[children.length];
-    double[] probs = new double[words.length];
     for (int i = 0,il = children.length; i < il; i++) {
       words[i] = children[i].getCoveredText();
     }
     Sequence[] ts = tagger.topKSequences(words);
-    Parse[] newParses = new Parse[ts.length];
+    ParseHypothesis[] newParses = new ParseHypothesis[ts.length];
     for (int i = 0; i < ts.length; i++) {
-      String[] tags = ts[i].getOutcomes().toArray(new String[words.length]);
-      ts[i].getProbs(probs);
-      newParses[i] = (Parse) p.clone(); //copies top level
-      if (createDerivationString) newParses[i].getDerivation().append(i).append(".");
-      for (int j = 0; j < words.length; j++) {
-        Parse word = children[j];
-        //System.err.println("inserting tag "+tags[j]);
-        double prob = probs[j];
-        newParses[i].insert(new Parse(word.getText(), word.getSpan(), tags[j], prob,j));
-        newParses[i].addProb(Math.log(prob));
+      final int sequenceIndex = i;
+      final Sequence sequence = ts[i];
+      double prob = p.getProb();
+      for (double tagProb : sequence.getProbs()) {
+        prob += Math.log(tagProb);
       }
+      // a tag replaces its word, the number of children does not change
+      newParses[i] = new ParseHypothesis(prob, children.length == 1,
+          () -> deriveTags(p, sequence, sequenceIndex));
     }
     return newParses;
   }
 
+  /**
+   * Inserts the tags of the specified tag sequence into a copy of the specified parse.
+   */
+  private Parse deriveTags(Parse p, Sequence sequence, int sequenceIndex) {
+    Parse[] children = p.getChildren();
+    String[] tags = sequence.getOutcomes().toArray(new String[children.length]);
+    double[] probs = sequence.getProbs();
+    Parse newParse = (Parse) p.clone(); //copies top level
+    if (createDerivationString) newParse.getDerivation().append(sequenceIndex).append(".");
+    for (int j = 0; j < children.length; j++) {
+      Parse word = children[j];
+      double prob = probs[j];
+      newParse.insert(new Parse(word.getText(), word.getSpan(), tags[j], prob,j));
+      newParse.addProb(Math.log(prob));
+    }
+    return newParse;
+  }
+
   /**
    * Determines the mapping between the specified index into the specified parses without punctuation to
    * the corresponding index into the specified parses.
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+import java.util.Arrays;
+
+/**
+ * A bounded min-heap of parse hypotheses which is ordered by the probability
+ * in the primitive array the heap operates on.
+ * <p>
+ * The heap keeps the hypotheses a {@link java.util.TreeSet} of parses would
+ * return first: hypotheses with a probability which was already added are
+ * dropped, like parses which compare equal to a parse in the set, and if the
+ * heap is full the hypothesis with the lowest probability is removed.
+ */
+class HypothesisHeap {
+
+  private final int capacity;
+
+  private double[] probs;
+  private ParseHypothesis[] hypotheses;
+  private int size;
+
+  /** An open addressing set of the probability bits which were added, zero marks an empty slot. */
+  private long[] added;
+  private boolean addedZero;
+  private int numAdded;
+
+  /** The lowest probability which was added, including the ones which were removed again. */
+  private double lowestAddedProb;
+
+  HypothesisHeap(int capacity) {
+    this.capacity = capacity;
+    int initialSize = Math.min(capacity, 16);
+    probs = new double[initialSize];
+    hypotheses = new ParseHypothesis[initialSize];
+    added = new long[64];
+    clear();
+  }
+
+  void clear() {
+    Arrays.fill(hypotheses, 0, size, null);
+    size = 0;
+    Arrays.fill(added, 0);
+    addedZero = false;
+    numAdded = 0;
+    lowestAddedProb = Double.POSITIVE_INFINITY;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Retrieves the lowest probability of all the hypotheses which were added since
+   * the heap was cleared, i.e. the one of the last parse in an unbounded set.
+   */
+  double getLowestAddedProb() {
+    return lowestAddedProb;
+  }
+
+  /**
+   * Adds a hypothesis.
+   *
+   * @return true if the hypothesis was added
+   */
+  boolean add(ParseHypothesis hypothesis) {
+    double prob = hypothesis.getProb();
+
+    if (!markAdded(prob)) {
+      return false;
+    }
+
+    if (Double.compare(prob, lowestAddedProb) < 0) {
+      lowestAddedProb = prob;
+    }
+
+    if (size < capacity) {
+      if (size == probs.length) {
+        int newLength = (int) Math.min(capacity, probs.length * 2L);
+        probs = Arrays.copyOf(probs, newLength);
+        hypotheses = Arrays.copyOf(hypotheses, newLength);
+      }
+      siftUp(size++, prob, hypothesis);
+      return true;
+    }
+
+    if (Double.compare(prob, probs[0]) > 0) {
+      siftDown(0, prob, hypothesis);
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Retrieves the hypotheses ordered from the highest to the lowest probability.
+   */
+  ParseHypothesis[] toSortedArray() {
+    double[] sortedProbs = Arrays.copyOf(probs, size);
+    ParseHypothesis[] sorted = Arrays.copyOf(hypotheses, size);
+
+    // heap sort, the lowest probability is moved to the end first
+    for (int end = size - 1; end > 0; end--) {
+      double prob = sortedProbs[end];
+      ParseHypothesis hypothesis = sorted[end];
+      sortedProbs[end] = sortedProbs[0];
+      sorted[end] = sorted[0];
+      siftDown(sortedProbs, sorted, end, 0, prob, hypothesis);
+    }
+
+    return sorted;
+  }
+
+  private void siftUp(int index, double prob, ParseHypothesis hypothesis) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (Double.compare(probs[parent], prob) <= 0) {
+        break;
+      }
+      probs[index] = probs[parent];
+      hypotheses[index] = hypotheses[parent];
+      index = parent;
+    }
+    probs[index] = prob;
+    hypotheses[index] = hypothesis;
+  }
+
+  private void siftDown(int index, double prob, ParseHypothesis hypothesis) {
+    siftDown(probs, hypotheses, size, index, prob, hypothesis);
+  }
+
+  private static void siftDown(double[] probs, ParseHypothesis[] hypotheses, int size,
+      int index, double prob, ParseHypothesis hypothesis) {
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      if (child + 1 < size && Double.compare(probs[child + 1], probs[child]) < 0) {
+        child++;
+      }
+      if (Double.compare(prob, probs[child]) <= 0) {
+        break;
+      }
+      probs[index] = probs[child];
+      hypotheses[index] = hypotheses[child];
+      index = child;
+    }
+    probs[index] = prob;
+    hypotheses[index] = hypothesis;
+  }
+
+  /**
+   * Marks the probability as added.
+   *
+   * @return false if the probability was already added
+   */
+  private boolean markAdded(double prob) {
+    long bits = Double.doubleToLongBits(prob);
+
+    if (bits == 0) {
+      if (addedZero) {
+        return false;
+      }
+      addedZero = true;
+      return true;
+    }
+
+    int mask = added.length - 1;
+    int slot = spread(bits) & mask;
+    while (added[slot] != 0) {
+      if (added[slot] == bits) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    added[slot] = bits;
+
+    if (++numAdded * 2 > added.length) {
+      long[] oldAdded = added;
+      added = new long[oldAdded.length * 2];
+      mask = added.length - 1;
+      for (long oldBits : oldAdded) {
+        if (oldBits != 0) {
+          slot = spread(oldBits) & mask;
+          while (added[slot] != 0) {
+            slot = (slot + 1) & mask;
+          }
+          added[slot] = oldBits;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private static int spread(long bits) {
+    int hash = (int) (bits ^ (bits >>> 32)) * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
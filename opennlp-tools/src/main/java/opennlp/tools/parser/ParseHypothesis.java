@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+/**
+ * A parse which was derived from the parse of a previous derivation stage.
+ * <p>
+ * Most parses a bottom-up parser derives fall out of the beam, they are never
+ * advanced or returned. A hypothesis therefore only records its probability and
+ * a {@link Derivation} which points to the parent parse and holds the decisions
+ * of the step, the parse tree is built when it is requested for the first time.
+ * A hypothesis can also wrap a parse which was already built.
+ *
+ * @see AbstractBottomUpParser
+ */
+public final class ParseHypothesis {
+
+  /**
+   * Builds the parse of a hypothesis from its parent parse.
+   */
+  @FunctionalInterface
+  public interface Derivation {
+
+    /**
+     * Builds the parse, the parent parse must not be modified.
+     *
+     * @return the derived parse, its probability must be the one of the hypothesis
+     */
+    Parse derive();
+  }
+
+  private final double prob;
+  private final boolean complete;
+
+  private Derivation derivation;
+  private Parse parse;
+
+  /**
+   * Initializes a hypothesis which is built on demand.
+   *
+   * @param prob the log probability of the parse
+   * @param complete true if the parse will be complete, see {@link Parse#complete()}
+   * @param derivation the derivation which builds the parse
+   */
+  public ParseHypothesis(double prob, boolean complete, Derivation derivation) {
+    this.prob = prob;
+    this.complete = complete;
+    this.derivation = derivation;
+  }
+
+  /**
+   * Initializes a hypothesis with a parse which is already built.
+   *
+   * @param parse the parse
+   */
+  public ParseHypothesis(Parse parse) {
+    this.prob = parse.getProb();
+    this.complete = parse.complete();
+    this.parse = parse;
+  }
+
+  /**
+   * Retrieves the log probability of the parse without building it.
+   *
+   * @return the log probability
+   */
+  public double getProb() {
+    return prob;
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Retrieves the parse, it is built on the first call.
+   *
+   * @return the parse
+   */
+  public Parse getParse() {
+    if (parse == null) {
+      parse = derivation.derive();
+      derivation = null;
+    }
+    return parse;
+  }
+
+  /**
+   * Wraps parses which are already built.
+   *
+   * @param parses the parses or null
+   *
+   * @return the hypotheses or null
+   */
+  public static ParseHypothesis[] of(Parse[] parses) {
+    if (parses == null) {
+      return null;
+    }
+
+    ParseHypothesis[] hypotheses = new ParseHypothesis[parses.length];
+    for (int i = 0; i < parses.length; i++) {
+      hypotheses[i] = new ParseHypothesis(parses[i]);
+    }
+    return hypotheses;
+  }
+
+  /**
+   * Builds the parses of the hypotheses.
+   *
+   * @param hypotheses the hypotheses or null
+   *
+   * @return the parses or null
+   */
+  public static Parse[] getParses(ParseHypothesis[] hypotheses) {
+    if (hypotheses == null) {
+      return null;
+    }
+
+    Parse[] parses = new Parse[hypotheses.length];
+    for (int i = 0; i < hypotheses.length; i++) {
+      parses[i] = hypotheses[i].getParse();
+    }
+    return parses;
+  }
+}
@@ -107,6 +107,16 @@ public class ParserEvaluator extends Evaluator<Parse> {
     return prediction;
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<Parse> evaluator) {
+    fmeasure.mergeInto(((ParserEvaluator) evaluator).fmeasure);
+  }
+
   /**
    * It returns the fmeasure result.
    * @return the fmeasure value
@@ -17,6 +17,8 @@
 
 package opennlp.tools.parser;
 
+import java.util.concurrent.Executor;
+
 public class ParserFactory {
 
   private ParserFactory() {
@@ -36,6 +38,20 @@ public class ParserFactory {
     }
   }
 
+  /**
+   * Creates a parser which advances the parses of a derivation stage with the
+   * specified executor.
+   *
+   * @see AbstractBottomUpParser#setExecutor(Executor)
+   */
+  public static Parser create(ParserModel model, int beamSize, double advancePercentage,
+      Executor executor) {
+    AbstractBottomUpParser parser =
+        (AbstractBottomUpParser) create(model, beamSize, advancePercentage);
+    parser.setExecutor(executor);
+    return parser;
+  }
+
   public static Parser create(ParserModel model) {
     return create(model, AbstractBottomUpParser.defaultBeamSize,
         AbstractBottomUpParser.defaultAdvancePercentage);
@@ -29,6 +29,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.chunker.ChunkerModel;
 import opennlp.tools.ml.model.AbstractModel;
@@ -130,10 +131,18 @@ public class ParserModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public ParserModel(InputStream in, Executor executor) throws IOException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public ParserModel(File modelFile) throws IOException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public ParserModel(File modelFile, Executor executor) throws IOException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public ParserModel(Path modelPath) throws IOException {
     this(modelPath.toFile());
   }
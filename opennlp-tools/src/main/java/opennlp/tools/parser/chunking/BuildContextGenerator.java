@@ -33,9 +33,6 @@ import opennlp.tools.util.StringList;
 public class BuildContextGenerator extends AbstractContextGenerator {
 
   private Dictionary dict;
-  private String[] unigram;
-  private String[] bigram;
-  private String[] trigram;
 
   /**
    * Creates a new context generator for making decisions about combining constitients togehter.
@@ -50,9 +47,6 @@ public class BuildContextGenerator extends AbstractContextGenerator {
   public BuildContextGenerator(Dictionary dict) {
     this();
     this.dict = dict;
-    unigram = new String[1];
-    bigram = new String[2];
-    trigram = new String[3];
   }
 
   public String[] getContext(Object o) {
@@ -116,6 +110,9 @@ public class BuildContextGenerator extends AbstractContextGenerator {
     boolean t012 = true;
 
     if (dict != null) {
+      String[] unigram = new String[1];
+      String[] bigram = new String[2];
+      String[] trigram = new String[3];
 
       if (p_2 != null) {
         unigram[0] = p_2.getHead().getCoveredText();
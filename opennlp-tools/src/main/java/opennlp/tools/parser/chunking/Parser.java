@@ -37,6 +37,7 @@ import opennlp.tools.parser.AbstractBottomUpParser;
 import opennlp.tools.parser.ChunkSampleStream;
 import opennlp.tools.parser.HeadRules;
 import opennlp.tools.parser.Parse;
+import opennlp.tools.parser.ParseHypothesis;
 import opennlp.tools.parser.ParserChunkerFactory;
 import opennlp.tools.parser.ParserEventTypeEnum;
 import opennlp.tools.parser.ParserModel;
@@ -131,8 +132,18 @@ public class Parser extends AbstractBottomUpParser {
     p.setType(TOP_NODE);
   }
 
+  @Override
+  protected boolean isConcurrentAdvanceSupported() {
+    return true;
+  }
+
   @Override
   protected Parse[] advanceParses(final Parse p, double probMass) {
+    return ParseHypothesis.getParses(advanceParseHypotheses(p, probMass));
+  }
+
+  @Override
+  protected ParseHypothesis[] advanceParseHypotheses(final Parse p, double probMass) {
     double q = 1 - probMass;
     /* The closest previous node which has been labeled as a start node. */
     Parse lastStartNode = null;
@@ -164,7 +175,10 @@ public class Parser extends AbstractBottomUpParser {
       }
     }
     int originalAdvanceIndex = mapParseIndex(advanceNodeIndex,children,originalChildren);
-    List<Parse> newParsesList = new ArrayList<>(buildModel.getNumOutcomes());
+    List<ParseHypothesis> newParsesList = new ArrayList<>(buildModel.getNumOutcomes());
+    // the buffers are owned by this call, parses can be advanced concurrently
+    double[] bprobs = new double[buildModel.getNumOutcomes()];
+    double[] cprobs = new double[checkModel.getNumOutcomes()];
     //call build
     buildModel.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
     double bprobSum = 0;
@@ -198,24 +212,22 @@ public class Parser extends AbstractBottomUpParser {
           continue; //Cont must match previous start or continue
         }
       }
-      Parse newParse1 = (Parse) p.clone(); //clone parse
-      if (createDerivationString) newParse1.getDerivation().append(max).append("-");
-      //replace constituent being labeled to create new derivation
-      newParse1.setChild(originalAdvanceIndex,tag);
-      newParse1.addProb(Math.log(bprob));
+      // the children of the new derivation, only the labeled constituent is copied
+      Parse[] newChildren = originalChildren.clone();
+      Parse labeledNode = (Parse) newChildren[originalAdvanceIndex].clone();
+      labeledNode.setLabel(tag);
+      newChildren[originalAdvanceIndex] = labeledNode;
+      double buildProb = p.getProb() + Math.log(bprob);
       //check
-      //String[] context = checkContextGenerator.getContext(newParse1.getChildren(), lastStartType,
-      // lastStartIndex, advanceNodeIndex);
       checkModel.eval(checkContextGenerator.getContext(
-          collapsePunctuation(newParse1.getChildren(),punctSet), lastStartType, lastStartIndex,
+          collapsePunctuation(newChildren,punctSet), lastStartType, lastStartIndex,
           advanceNodeIndex), cprobs);
       //System.out.println("check "+lastStartType+" "+cprobs[completeIndex]+" "+cprobs[incompleteIndex]
       // +" "+tag+" "+java.util.Arrays.asList(context));
-      Parse newParse2;
-      if (cprobs[completeIndex] > q) { //make sure a reduce is likely
-        newParse2 = (Parse) newParse1.clone();
-        if (createDerivationString) newParse2.getDerivation().append(1).append(".");
-        newParse2.addProb(Math.log(cprobs[completeIndex]));
+      final int buildIndex = max;
+      final double completeProb = cprobs[completeIndex];
+      final double incompleteProb = cprobs[incompleteIndex];
+      if (completeProb > q) { //make sure a reduce is likely
         Parse[] cons = new Parse[advanceNodeIndex - lastStartIndex + 1];
         boolean flat = true;
         //first
@@ -231,32 +243,56 @@ public class Parser extends AbstractBottomUpParser {
         }
         if (!flat) { //flat chunks are done by chunker
           //check for top node to include end and begining punctuation
-          if (lastStartIndex == 0 && advanceNodeIndex == numNodes - 1) {
-            //System.err.println("ParserME.advanceParses: reducing entire span: "
-            // +new Span(lastStartNode.getSpan().getStart(), advanceNode.getSpan().getEnd())+" "
-            // +lastStartType+" "+java.util.Arrays.asList(children));
-            newParse2.insert(new Parse(p.getText(), p.getSpan(), lastStartType, cprobs[1],
-                headRules.getHead(cons, lastStartType)));
+          boolean spansParse = lastStartIndex == 0 && advanceNodeIndex == numNodes - 1;
+          Span span;
+          if (spansParse) {
+            span = p.getSpan();
           }
           else {
-            newParse2.insert(new Parse(p.getText(), new Span(lastStartNode.getSpan().getStart(),
-                advanceNode.getSpan().getEnd()), lastStartType, cprobs[1],
-                headRules.getHead(cons, lastStartType)));
+            span = new Span(lastStartNode.getSpan().getStart(), advanceNode.getSpan().getEnd());
           }
-          newParsesList.add(newParse2);
+          final String type = lastStartType;
+          final double reduceProb = cprobs[1];
+          // the parse is only complete if the reduced constituent contains all children
+          newParsesList.add(new ParseHypothesis(buildProb + Math.log(completeProb),
+              spansParse, () -> {
+                Parse newParse2 = deriveBuild(p, buildIndex, tag, originalAdvanceIndex, bprob);
+                if (createDerivationString) newParse2.getDerivation().append(1).append(".");
+                newParse2.addProb(Math.log(completeProb));
+                newParse2.insert(new Parse(p.getText(), span, type, reduceProb,
+                    headRules.getHead(cons, type)));
+                return newParse2;
+              }));
         }
       }
-      if (cprobs[incompleteIndex] > q) { //make sure a shift is likely
-        if (createDerivationString) newParse1.getDerivation().append(0).append(".");
+      if (incompleteProb > q) { //make sure a shift is likely
         if (advanceNodeIndex != numNodes - 1) { //can't shift last element
-          newParse1.addProb(Math.log(cprobs[incompleteIndex]));
-          newParsesList.add(newParse1);
+          newParsesList.add(new ParseHypothesis(buildProb + Math.log(incompleteProb),
+              originalChildren.length == 1, () -> {
+                Parse newParse1 = deriveBuild(p, buildIndex, tag, originalAdvanceIndex, bprob);
+                if (createDerivationString) newParse1.getDerivation().append(0).append(".");
+                newParse1.addProb(Math.log(incompleteProb));
+                return newParse1;
+              }));
         }
       }
     }
-    Parse[] newParses = new Parse[newParsesList.size()];
-    newParsesList.toArray(newParses);
-    return newParses;
+    return newParsesList.toArray(new ParseHypothesis[newParsesList.size()]);
+  }
+
+  /**
+   * Copies the parse and labels the constituent which is advanced.
+   */
+  private Parse deriveBuild(Parse p, int buildIndex, String tag, int originalAdvanceIndex,
+      double bprob) {
+    Parse newParse = (Parse) p.clone(); //clone parse
+    if (createDerivationString) newParse.getDerivation().append(buildIndex).append("-");
+    //replace constituent being labeled to create new derivation
+    newParse.setChild(originalAdvanceIndex,tag);
+    newParse.addProb(Math.log(bprob));
+    // assigns the punctuation to the new constituent like the check did
+    collapsePunctuation(newParse.getChildren(),punctSet);
+    return newParse;
   }
 
   public static void mergeReportIntoManifest(Map<String, String> manifest,
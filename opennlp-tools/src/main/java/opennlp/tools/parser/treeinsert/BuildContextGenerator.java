@@ -35,11 +35,8 @@ import opennlp.tools.parser.Parse;
  */
 public class BuildContextGenerator extends AbstractContextGenerator {
 
-  private Parse[] leftNodes;
-
   public BuildContextGenerator() {
     super();
-    leftNodes = new Parse[2];
   }
 
   public String[] getContext(Object o) {
@@ -88,6 +85,7 @@ public class BuildContextGenerator extends AbstractContextGenerator {
       Set<String> emptyPunctSet = Collections.emptySet();
       rf = Parser.getRightFrontier(constituents[0], emptyPunctSet);
     }
+    Parse[] leftNodes = new Parse[2];
     getFrontierNodes(rf,leftNodes);
     Parse p_1 = leftNodes[0];
     Parse p_2 = leftNodes[1];
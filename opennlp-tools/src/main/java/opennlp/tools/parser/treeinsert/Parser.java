@@ -37,6 +37,7 @@ import opennlp.tools.parser.AbstractBottomUpParser;
 import opennlp.tools.parser.ChunkSampleStream;
 import opennlp.tools.parser.HeadRules;
 import opennlp.tools.parser.Parse;
+import opennlp.tools.parser.ParseHypothesis;
 import opennlp.tools.parser.ParserChunkerFactory;
 import opennlp.tools.parser.ParserEventTypeEnum;
 import opennlp.tools.parser.ParserModel;
@@ -85,10 +86,6 @@ public class Parser extends AbstractBottomUpParser {
   private AttachContextGenerator attachContextGenerator;
   private CheckContextGenerator checkContextGenerator;
 
-  private double[] bprobs;
-  private double[] aprobs;
-  private double[] cprobs;
-
   private int doneIndex;
   private int sisterAttachIndex;
   private int daughterAttachIndex;
@@ -121,10 +118,6 @@ public class Parser extends AbstractBottomUpParser {
     this.attachContextGenerator = new AttachContextGenerator(punctSet);
     this.checkContextGenerator = new CheckContextGenerator(punctSet);
 
-    this.bprobs = new double[buildModel.getNumOutcomes()];
-    this.aprobs = new double[attachModel.getNumOutcomes()];
-    this.cprobs = new double[checkModel.getNumOutcomes()];
-
     this.doneIndex = buildModel.getIndex(DONE);
     this.sisterAttachIndex = attachModel.getIndex(ATTACH_SISTER);
     this.daughterAttachIndex = attachModel.getIndex(ATTACH_DAUGHTER);
@@ -202,19 +195,34 @@ public class Parser extends AbstractBottomUpParser {
   }
 
   @Override
-  protected Parse[] advanceChunks(Parse p, double minChunkScore) {
-    Parse[] parses = super.advanceChunks(p, minChunkScore);
-    for (Parse parse : parses) {
-      Parse[] chunks = parse.getChildren();
-      for (int ci = 0; ci < chunks.length; ci++) {
-        setComplete(chunks[ci]);
-      }
+  protected ParseHypothesis[] advanceChunkHypotheses(Parse p, double minChunkScore) {
+    ParseHypothesis[] hypotheses = super.advanceChunkHypotheses(p, minChunkScore);
+    for (int hi = 0; hi < hypotheses.length; hi++) {
+      ParseHypothesis chunked = hypotheses[hi];
+      hypotheses[hi] = new ParseHypothesis(chunked.getProb(), chunked.isComplete(), () -> {
+        Parse parse = chunked.getParse();
+        Parse[] chunks = parse.getChildren();
+        for (int ci = 0; ci < chunks.length; ci++) {
+          setComplete(chunks[ci]);
+        }
+        return parse;
+      });
     }
-    return parses;
+    return hypotheses;
+  }
+
+  @Override
+  protected boolean isConcurrentAdvanceSupported() {
+    return true;
   }
 
   @Override
   protected Parse[] advanceParses(Parse p, double probMass) {
+    return ParseHypothesis.getParses(advanceParseHypotheses(p, probMass));
+  }
+
+  @Override
+  protected ParseHypothesis[] advanceParseHypotheses(Parse p, double probMass) {
     double q = 1 - probMass;
     /* The index of the node which will be labeled in this iteration of advancing the parse. */
     int advanceNodeIndex;
@@ -231,8 +239,11 @@ public class Parser extends AbstractBottomUpParser {
         return null;
       }
       else {
-        p.expandTopNode(children[0]);
-        return new Parse[] { p };
+        // the parse is expanded when it is built, the top node may be shared with other parses
+        return new ParseHypothesis[] { new ParseHypothesis(p.getProb(), true, () -> {
+          p.expandTopNode(children[0]);
+          return p;
+        })};
       }
     }
     //determines which node needs to adanced.
@@ -242,9 +253,13 @@ public class Parser extends AbstractBottomUpParser {
         break;
       }
     }
+    final Parse node = advanceNode;
     int originalZeroIndex = mapParseIndex(0,children,originalChildren);
     int originalAdvanceIndex = mapParseIndex(advanceNodeIndex,children,originalChildren);
-    List<Parse> newParsesList = new ArrayList<>();
+    List<ParseHypothesis> newParsesList = new ArrayList<>();
+    // the buffers are owned by this call, parses can be advanced concurrently
+    double[] bprobs = new double[buildModel.getNumOutcomes()];
+    double[] aprobs = new double[attachModel.getNumOutcomes()];
     //call build model
     buildModel.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
     double doneProb = bprobs[doneIndex];
@@ -271,13 +286,13 @@ public class Parser extends AbstractBottomUpParser {
         bprobSum += bprob;
         String tag = buildModel.getOutcome(max);
         if (!tag.equals(DONE)) {
-          Parse newParse1 = (Parse) p.clone();
-          Parse newNode = new Parse(p.getText(),advanceNode.getSpan(),tag,bprob,advanceNode.getHead());
-          newParse1.insert(newNode);
-          newParse1.addProb(Math.log(bprob));
-          newParsesList.add(newParse1);
           if (checkComplete) {
-            cprobs = checkModel.eval(checkContextGenerator.getContext(newNode, children,
+            Parse newParse1 = (Parse) p.clone();
+            Parse newNode = new Parse(p.getText(),advanceNode.getSpan(),tag,bprob,advanceNode.getHead());
+            newParse1.insert(newNode);
+            newParse1.addProb(Math.log(bprob));
+            Parse newParse2 = null;
+            double[] cprobs = checkModel.eval(checkContextGenerator.getContext(newNode, children,
                 advanceNodeIndex,false));
             if (debugOn) System.out.println("building " + tag + " " + bprob + " c=" + cprobs[completeIndex]);
             if (cprobs[completeIndex] > probMass) { //just complete advances
@@ -295,44 +310,58 @@ public class Parser extends AbstractBottomUpParser {
               setComplete(newNode);
               newParse1.addProb(Math.log(cprobs[completeIndex]));
 
-              Parse newParse2 = (Parse) p.clone();
+              newParse2 = (Parse) p.clone();
               Parse newNode2 = new Parse(p.getText(),advanceNode.getSpan(),tag,bprob,advanceNode.getHead());
               newParse2.insert(newNode2);
               newParse2.addProb(Math.log(bprob));
-              newParsesList.add(newParse2);
               newParse2.addProb(Math.log(1 - cprobs[completeIndex]));
               setIncomplete(newNode2); //set incomplete for non-clone
             }
+            // the probabilities are final now, the hypotheses keep them
+            newParsesList.add(new ParseHypothesis(newParse1));
+            if (newParse2 != null) {
+              newParsesList.add(new ParseHypothesis(newParse2));
+            }
           }
           else {
             if (debugOn) System.out.println("building " + tag + " " + bprob);
+            // the new node replaces the advanced node, the number of children does not change
+            newParsesList.add(new ParseHypothesis(p.getProb() + Math.log(bprob),
+                originalChildren.length == 1, () -> {
+                  Parse newParse1 = (Parse) p.clone();
+                  newParse1.insert(new Parse(p.getText(),node.getSpan(),tag,bprob,node.getHead()));
+                  newParse1.addProb(Math.log(bprob));
+                  return newParse1;
+                }));
           }
         }
       }
     }
     //advance attaches
     if (doneProb > q) {
-      Parse newParse1 = (Parse) p.clone(); //clone parse
       //mark nodes as built
+      String builtLabel;
       if (checkComplete) {
         if (isComplete(advanceNode)) {
-          //replace constituent being labeled to create new derivation
-          newParse1.setChild(originalAdvanceIndex,Parser.BUILT + "." + Parser.COMPLETE);
+          builtLabel = Parser.BUILT + "." + Parser.COMPLETE;
         }
         else {
-          //replace constituent being labeled to create new derivation
-          newParse1.setChild(originalAdvanceIndex,Parser.BUILT + "." + Parser.INCOMPLETE);
+          builtLabel = Parser.BUILT + "." + Parser.INCOMPLETE;
         }
       }
       else {
-        //replace constituent being labeled to create new derivation
-        newParse1.setChild(originalAdvanceIndex,Parser.BUILT);
+        builtLabel = Parser.BUILT;
       }
-      newParse1.addProb(Math.log(doneProb));
+      double builtProb = p.getProb() + Math.log(doneProb);
       if (advanceNodeIndex == 0) { //no attach if first node.
-        newParsesList.add(newParse1);
+        newParsesList.add(new ParseHypothesis(builtProb, originalChildren.length == 1,
+            () -> deriveBuilt(p, originalAdvanceIndex, builtLabel, doneProb)));
       }
       else {
+        // attaching removes the attached nodes from the top level
+        boolean attachCompletes =
+            originalChildren.length - (originalAdvanceIndex - originalZeroIndex) == 1;
+        Parse builtParse = null;
         List<Parse> rf = getRightFrontier(p,punctSet);
         for (int fi = 0,fs = rf.size(); fi < fs; fi++) {
           Parse fn = rf.get(fi);
@@ -355,64 +384,55 @@ public class Parser extends AbstractBottomUpParser {
                 ||
                 (checkComplete && ((attachments[ai] == daughterAttachIndex && !isComplete(fn))
                     || (attachments[ai] == sisterAttachIndex && isComplete(fn)))))) {
-              Parse newParse2 = newParse1.cloneRoot(fn,originalZeroIndex);
-              Parse[] newKids = Parser.collapsePunctuation(newParse2.getChildren(),punctSet);
-              //remove node from top level since were going to attach it (including punct)
-              for (int ri = originalZeroIndex + 1; ri <= originalAdvanceIndex; ri++) {
-                //System.out.println(at"-removing "+(originalZeroIndex+1)+" "
-                // +newParse2.getChildren()[originalZeroIndex+1]);
-                newParse2.remove(originalZeroIndex + 1);
-              }
-              List<Parse> crf = getRightFrontier(newParse2,punctSet);
-              Parse updatedNode;
-              if (attachments[ai] == daughterAttachIndex) { //attach daughter
-                updatedNode = crf.get(fi);
-                updatedNode.add(advanceNode,headRules);
+              final int frontierIndex = fi;
+              final boolean daughter = attachments[ai] == daughterAttachIndex;
+              if (!checkComplete) {
+                newParsesList.add(new ParseHypothesis(builtProb + Math.log(prob), attachCompletes,
+                    () -> {
+                      Parse newParse2 = deriveBuilt(p, originalAdvanceIndex, builtLabel, doneProb)
+                          .cloneRoot(fn,originalZeroIndex);
+                      attach(newParse2, collapsePunctuation(newParse2.getChildren(),punctSet),
+                          node, frontierIndex, daughter, originalZeroIndex, originalAdvanceIndex);
+                      newParse2.addProb(Math.log(prob));
+                      return newParse2;
+                    }));
+                continue;
               }
-              else { //attach sister
-                Parse psite;
-                if (fi + 1 < crf.size()) {
-                  psite = crf.get(fi + 1);
-                  updatedNode = psite.adjoin(advanceNode,headRules);
-                }
-                else {
-                  psite = newParse2;
-                  updatedNode = psite.adjoinRoot(advanceNode,headRules,originalZeroIndex);
-                  newKids[0] = updatedNode;
-                }
-              }
-              //update spans affected by attachment
-              for (int ni = fi + 1; ni < crf.size(); ni++) {
-                Parse node = crf.get(ni);
-                node.updateSpan();
+              if (builtParse == null) {
+                builtParse = deriveBuilt(p, originalAdvanceIndex, builtLabel, doneProb);
               }
+              Parse newParse2 = builtParse.cloneRoot(fn,originalZeroIndex);
+              Parse[] newKids = Parser.collapsePunctuation(newParse2.getChildren(),punctSet);
+              Parse updatedNode = attach(newParse2, newKids, advanceNode, fi, daughter,
+                  originalZeroIndex, originalAdvanceIndex);
               //if (debugOn) {System.out.print(ai+"-result: ");newParse2.show();System.out.println();}
               newParse2.addProb(Math.log(prob));
-              newParsesList.add(newParse2);
-              if (checkComplete) {
-                cprobs = checkModel.eval(
-                    checkContextGenerator.getContext(updatedNode,newKids,advanceNodeIndex,true));
-                if (cprobs[completeIndex] > probMass) {
-                  setComplete(updatedNode);
-                  newParse2.addProb(Math.log(cprobs[completeIndex]));
-                  if (debugOn) System.out.println("Only advancing complete node");
-                }
-                else if (1 - cprobs[completeIndex] > probMass) {
-                  setIncomplete(updatedNode);
-                  newParse2.addProb(Math.log(1 - cprobs[completeIndex]));
-                  if (debugOn) System.out.println("Only advancing incomplete node");
-                }
-                else {
-                  setComplete(updatedNode);
-                  Parse newParse3 = newParse2.cloneRoot(updatedNode,originalZeroIndex);
-                  newParse3.addProb(Math.log(cprobs[completeIndex]));
-                  newParsesList.add(newParse3);
-                  setIncomplete(updatedNode);
-                  newParse2.addProb(Math.log(1 - cprobs[completeIndex]));
-                  if (debugOn)
-                    System.out.println("Advancing both complete and incomplete nodes; c="
-                        + cprobs[completeIndex]);
-                }
+              Parse newParse3 = null;
+              double[] cprobs = checkModel.eval(
+                  checkContextGenerator.getContext(updatedNode,newKids,advanceNodeIndex,true));
+              if (cprobs[completeIndex] > probMass) {
+                setComplete(updatedNode);
+                newParse2.addProb(Math.log(cprobs[completeIndex]));
+                if (debugOn) System.out.println("Only advancing complete node");
+              }
+              else if (1 - cprobs[completeIndex] > probMass) {
+                setIncomplete(updatedNode);
+                newParse2.addProb(Math.log(1 - cprobs[completeIndex]));
+                if (debugOn) System.out.println("Only advancing incomplete node");
+              }
+              else {
+                setComplete(updatedNode);
+                newParse3 = newParse2.cloneRoot(updatedNode,originalZeroIndex);
+                newParse3.addProb(Math.log(cprobs[completeIndex]));
+                setIncomplete(updatedNode);
+                newParse2.addProb(Math.log(1 - cprobs[completeIndex]));
+                if (debugOn)
+                  System.out.println("Advancing both complete and incomplete nodes; c="
+                      + cprobs[completeIndex]);
+              }
+              newParsesList.add(new ParseHypothesis(newParse2));
+              if (newParse3 != null) {
+                newParsesList.add(new ParseHypothesis(newParse3));
               }
             }
             else {
@@ -431,9 +451,61 @@ public class Parser extends AbstractBottomUpParser {
         }
       }
     }
-    Parse[] newParses = new Parse[newParsesList.size()];
-    newParsesList.toArray(newParses);
-    return newParses;
+    return newParsesList.toArray(new ParseHypothesis[newParsesList.size()]);
+  }
+
+  /**
+   * Copies the parse and labels the advanced constituent as built.
+   */
+  private static Parse deriveBuilt(Parse p, int originalAdvanceIndex, String builtLabel,
+      double doneProb) {
+    Parse newParse1 = (Parse) p.clone(); //clone parse
+    //replace constituent being labeled to create new derivation
+    newParse1.setChild(originalAdvanceIndex,builtLabel);
+    newParse1.addProb(Math.log(doneProb));
+    return newParse1;
+  }
+
+  /**
+   * Attaches the advanced node to a node of the right frontier of the specified parse.
+   *
+   * @param newParse2 The parse with a copy of the right frontier.
+   * @param newKids The children of the parse without punctuation, the first one is
+   *                updated if the node is attached as a sister of the root.
+   * @return The node the advanced node was attached to.
+   */
+  private Parse attach(Parse newParse2, Parse[] newKids, Parse advanceNode, int fi,
+      boolean daughter, int originalZeroIndex, int originalAdvanceIndex) {
+    //remove node from top level since were going to attach it (including punct)
+    for (int ri = originalZeroIndex + 1; ri <= originalAdvanceIndex; ri++) {
+      //System.out.println(at"-removing "+(originalZeroIndex+1)+" "
+      // +newParse2.getChildren()[originalZeroIndex+1]);
+      newParse2.remove(originalZeroIndex + 1);
+    }
+    List<Parse> crf = getRightFrontier(newParse2,punctSet);
+    Parse updatedNode;
+    if (daughter) { //attach daughter
+      updatedNode = crf.get(fi);
+      updatedNode.add(advanceNode,headRules);
+    }
+    else { //attach sister
+      Parse psite;
+      if (fi + 1 < crf.size()) {
+        psite = crf.get(fi + 1);
+        updatedNode = psite.adjoin(advanceNode,headRules);
+      }
+      else {
+        psite = newParse2;
+        updatedNode = psite.adjoinRoot(advanceNode,headRules,originalZeroIndex);
+        newKids[0] = updatedNode;
+      }
+    }
+    //update spans affected by attachment
+    for (int ni = fi + 1; ni < crf.size(); ni++) {
+      Parse node = crf.get(ni);
+      node.updateSpan();
+    }
+    return updatedNode;
   }
 
   @Override
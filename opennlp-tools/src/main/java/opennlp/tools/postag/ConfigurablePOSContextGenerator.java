@@ -23,16 +23,20 @@ import java.util.Objects;
 
 import opennlp.tools.util.Cache;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.featuregen.SentenceFeatureTable;
 
 /**
  * A context generator for the POS Tagger.
+ * <p>
+ * The features of the outcome independent feature generators are kept for the
+ * tokens of the sentence of a running search, see {@link SentenceFeatureTable}.
  */
 public class ConfigurablePOSContextGenerator implements POSContextGenerator {
 
   private Cache<String, String[]> contextsCache;
   private Object wordsKey;
 
-  private final AdaptiveFeatureGenerator featureGenerator;
+  private final SentenceFeatureTable featureGenerator;
 
   /**
    * Initializes the current instance.
@@ -40,7 +44,8 @@ public class ConfigurablePOSContextGenerator implements POSContextGenerator {
    * @param cacheSize
    */
   public ConfigurablePOSContextGenerator(int cacheSize, AdaptiveFeatureGenerator featureGenerator) {
-    this.featureGenerator = Objects.requireNonNull(featureGenerator, "featureGenerator must not be null");
+    this.featureGenerator = new SentenceFeatureTable(
+        Objects.requireNonNull(featureGenerator, "featureGenerator must not be null"));
 
     if (cacheSize > 0) {
       contextsCache = new Cache<>(cacheSize);
@@ -102,4 +107,48 @@ public class ConfigurablePOSContextGenerator implements POSContextGenerator {
     }
     return contexts;
   }
+
+  /**
+   * Returns the features which do not depend on the previous outcomes, subclasses do
+   * not split their contexts because they might override
+   * {@link #getContext(int, String[], String[], Object[])}.
+   * Returns null for a subclass, the caller then uses the whole context.
+   */
+  @Override
+  public String[] getOutcomeIndependentContext(int index, String[] tokens,
+      Object[] additionalContext) {
+    if (getClass() != ConfigurablePOSContextGenerator.class) {
+      return null;
+    }
+
+    List<String> e = new ArrayList<>();
+
+    featureGenerator.createOutcomeIndependentFeatures(e, tokens, index);
+
+    return e.toArray(new String[e.size()]);
+  }
+
+  @Override
+  public String[] getOutcomeDependentContext(int index, String[] tokens, String[] tags,
+      Object[] additionalContext) {
+    if (getClass() != ConfigurablePOSContextGenerator.class) {
+      return getContext(index, tokens, tags, additionalContext);
+    }
+
+    List<String> e = new ArrayList<>();
+
+    featureGenerator.createOutcomeDependentFeatures(e, tokens, index, tags);
+
+    return e.toArray(new String[e.size()]);
+  }
+
+  @Override
+  public void startSequence(String[] sequence) {
+    featureGenerator.startSentence(sequence);
+  }
+
+  @Override
+  public void endSequence() {
+    featureGenerator.endSentence();
+  }
 }
@@ -19,6 +19,7 @@
 package opennlp.tools.postag;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -28,6 +29,10 @@ import opennlp.tools.util.StringList;
 
 /**
  * A context generator for the POS Tagger.
+ * <p>
+ * While a search runs, between {@link #startSequence(String[])} and {@link #endSequence()},
+ * the features which do not depend on the previous tags are computed once per token
+ * of its sentence.
  */
 public class DefaultPOSContextGenerator implements POSContextGenerator {
 
@@ -45,6 +50,11 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
   private Dictionary dict;
   private String[] dictGram;
 
+  // the tokens of the running search and the features of its tokens which
+  // do not depend on the tags, see createWordFeatures
+  private Object[] tableTokens;
+  private String[][][] table;
+
   /**
    * Initializes the current instance.
    *
@@ -99,10 +109,133 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
    *     given the specified tokens and previous tags.
    */
   public String[] getContext(int index, Object[] tokens, String[] tags) {
-    String next, nextnext = null, lex, prev, prevprev = null;
     String tagprev, tagprevprev;
     tagprev = tagprevprev = null;
 
+    if (index - 1 >= 0) {
+      tagprev =  tags[index - 1];
+
+      if (index - 2 >= 0) {
+        tagprevprev = tags[index - 2];
+      }
+    }
+
+    String cacheKey = index + tagprev + tagprevprev;
+    if (contextsCache != null) {
+      if (wordsKey == tokens) {
+        String[] cachedContexts = contextsCache.get(cacheKey);
+        if (cachedContexts != null) {
+          return cachedContexts;
+        }
+      }
+      else {
+        contextsCache.clear();
+        wordsKey = tokens;
+      }
+    }
+
+    String[][] tokenFeatures = getWordFeatures(index, tokens);
+    String[] words = tokenFeatures[0];
+    String[] prevPrevWord = tokenFeatures[1];
+    String[] nextWords = tokenFeatures[2];
+
+    List<String> e = new ArrayList<>(words.length + nextWords.length + 3);
+    Collections.addAll(e, words);
+
+    // add the pos's of the surrounding context
+    if (tagprev != null) {
+      e.add("t=" + tagprev);
+    }
+    if (prevPrevWord.length > 0) {
+      e.add(prevPrevWord[0]);
+      if (tagprevprev != null) {
+        e.add("t2=" + tagprevprev + "," + tagprev);
+      }
+    }
+
+    Collections.addAll(e, nextWords);
+
+    String[] contexts = e.toArray(new String[e.size()]);
+    if (contextsCache != null) {
+      contextsCache.put(cacheKey,contexts);
+    }
+    return contexts;
+  }
+
+  /**
+   * Returns the features which do not depend on the previous outcomes, subclasses do
+   * not split their contexts because they might override {@link #getContext(int, Object[], String[])}.
+   * Returns null for a subclass, the caller then uses the whole context.
+   */
+  @Override
+  public String[] getOutcomeIndependentContext(int index, String[] tokens,
+      Object[] additionalContext) {
+    if (getClass() != DefaultPOSContextGenerator.class) {
+      return null;
+    }
+
+    String[][] tokenFeatures = getWordFeatures(index, tokens);
+    String[] words = tokenFeatures[0];
+    String[] prevPrevWord = tokenFeatures[1];
+    String[] nextWords = tokenFeatures[2];
+
+    List<String> e = new ArrayList<>(words.length + nextWords.length + 1);
+    Collections.addAll(e, words);
+    Collections.addAll(e, prevPrevWord);
+    Collections.addAll(e, nextWords);
+
+    return e.toArray(new String[e.size()]);
+  }
+
+  @Override
+  public String[] getOutcomeDependentContext(int index, String[] tokens, String[] tags,
+      Object[] additionalContext) {
+    if (getClass() != DefaultPOSContextGenerator.class) {
+      return getContext(index, tokens, tags, additionalContext);
+    }
+
+    if (index == 0) {
+      return new String[0];
+    }
+    else if (index == 1) {
+      return new String[] {"t=" + tags[0]};
+    }
+    else {
+      return new String[] {"t=" + tags[index - 1], "t2=" + tags[index - 2] + "," + tags[index - 1]};
+    }
+  }
+
+  @Override
+  public void startSequence(String[] sequence) {
+    tableTokens = sequence;
+    table = new String[sequence.length][][];
+  }
+
+  @Override
+  public void endSequence() {
+    tableTokens = null;
+    table = null;
+  }
+
+  private String[][] getWordFeatures(int index, Object[] tokens) {
+    if (tokens != tableTokens) {
+      return createWordFeatures(index, tokens);
+    }
+
+    if (table[index] == null) {
+      table[index] = createWordFeatures(index, tokens);
+    }
+    return table[index];
+  }
+
+  /**
+   * Creates the features of the token at the specified index which do not
+   * depend on the previous tags: the word features, the previous previous
+   * word feature if there is one, and the next word features.
+   */
+  private String[][] createWordFeatures(int index, Object[] tokens) {
+    String next, nextnext = null, lex, prev, prevprev = null;
+
     lex = tokens[index].toString();
     if (tokens.length > index + 1) {
       next = tokens[index + 1].toString();
@@ -118,11 +251,9 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
 
     if (index - 1 >= 0) {
       prev =  tokens[index - 1].toString();
-      tagprev =  tags[index - 1];
 
       if (index - 2 >= 0) {
         prevprev = tokens[index - 2].toString();
-        tagprevprev = tags[index - 2];
       }
       else {
         prevprev = SB; // Sentence Beginning
@@ -131,19 +262,7 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
     else {
       prev = SB; // Sentence Beginning
     }
-    String cacheKey = index + tagprev + tagprevprev;
-    if (contextsCache != null) {
-      if (wordsKey == tokens) {
-        String[] cachedContexts = contextsCache.get(cacheKey);
-        if (cachedContexts != null) {
-          return cachedContexts;
-        }
-      }
-      else {
-        contextsCache.clear();
-        wordsKey = tokens;
-      }
-    }
+
     List<String> e = new ArrayList<>();
     e.add("default");
     // add the word itself
@@ -173,31 +292,21 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
         e.add("d");
       }
     }
-    // add the words and pos's of the surrounding context
-    if (prev != null) {
-      e.add("p=" + prev);
-      if (tagprev != null) {
-        e.add("t=" + tagprev);
-      }
-      if (prevprev != null) {
-        e.add("pp=" + prevprev);
-        if (tagprevprev != null) {
-          e.add("t2=" + tagprevprev + "," + tagprev);
-        }
-      }
-    }
+    // add the words of the surrounding context
+    e.add("p=" + prev);
+    String[] words = e.toArray(new String[e.size()]);
 
-    if (next != null) {
-      e.add("n=" + next);
-      if (nextnext != null) {
-        e.add("nn=" + nextnext);
-      }
+    String[] prevPrevWord = prevprev != null ? new String[] {"pp=" + prevprev} : new String[0];
+
+    String[] nextWords;
+    if (nextnext != null) {
+      nextWords = new String[] {"n=" + next, "nn=" + nextnext};
     }
-    String[] contexts = e.toArray(new String[e.size()]);
-    if (contextsCache != null) {
-      contextsCache.put(cacheKey,contexts);
+    else {
+      nextWords = new String[] {"n=" + next};
     }
-    return contexts;
+
+    return new String[][] {words, prevPrevWord, nextWords};
   }
 
 }
@@ -72,6 +72,16 @@ public class POSEvaluator extends Evaluator<POSSample> {
     return new POSSample(reference.getSentence(), predictedTags);
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<POSSample> evaluator) {
+    wordAccuracy.mergeInto(((POSEvaluator) evaluator).wordAccuracy);
+  }
+
   /**
    * Retrieves the word accuracy.
    *
@@ -25,6 +25,7 @@ import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ml.BeamSearch;
@@ -97,10 +98,18 @@ public final class POSModel extends BaseModel implements SerializableArtifact {
     super(COMPONENT_NAME, in);
   }
 
+  public POSModel(InputStream in, Executor executor) throws IOException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public POSModel(File modelFile) throws IOException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public POSModel(File modelFile, Executor executor) throws IOException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public POSModel(Path modelPath) throws IOException {
     this(modelPath.toFile());
   }
@@ -139,17 +148,8 @@ public final class POSModel extends BaseModel implements SerializableArtifact {
 
   public SequenceClassificationModel<String> getPosSequenceModel() {
 
-    Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
-
     if (artifactMap.get(POS_MODEL_ENTRY_NAME) instanceof MaxentModel) {
-      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
-
-      int beamSize = POSTaggerME.DEFAULT_BEAM_SIZE;
-      if (beamSizeString != null) {
-        beamSize = Integer.parseInt(beamSizeString);
-      }
-
-      return new BeamSearch<>(beamSize, (MaxentModel) artifactMap.get(POS_MODEL_ENTRY_NAME));
+      return getSequenceDecoder(POS_MODEL_ENTRY_NAME, POSTaggerME.DEFAULT_BEAM_SIZE);
     }
     else if (artifactMap.get(POS_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(POS_MODEL_ENTRY_NAME);
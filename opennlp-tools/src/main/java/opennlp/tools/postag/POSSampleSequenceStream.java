@@ -29,6 +29,7 @@ public class POSSampleSequenceStream implements SequenceStream {
 
   private POSContextGenerator pcg;
   private ObjectStream<POSSample> psi;
+  private final POSTaggerFactory factory;
 
   public POSSampleSequenceStream(ObjectStream<POSSample> psi) throws IOException {
     this(psi, new DefaultPOSContextGenerator(null));
@@ -36,8 +37,26 @@ public class POSSampleSequenceStream implements SequenceStream {
 
   public POSSampleSequenceStream(ObjectStream<POSSample> psi, POSContextGenerator pcg)
       throws IOException {
+    this(psi, pcg, null);
+  }
+
+  /**
+   * Initializes the stream with a context generator created by the factory, each
+   * {@link #createShardStream() shard stream} gets its own context generator and cache.
+   *
+   * @param psi the pos samples
+   * @param factory the factory which creates the context generators
+   */
+  public POSSampleSequenceStream(ObjectStream<POSSample> psi, POSTaggerFactory factory)
+      throws IOException {
+    this(psi, factory.getPOSContextGenerator(), factory);
+  }
+
+  private POSSampleSequenceStream(ObjectStream<POSSample> psi, POSContextGenerator pcg,
+      POSTaggerFactory factory) {
     this.psi = psi;
     this.pcg = pcg;
+    this.factory = factory;
   }
 
   @SuppressWarnings("unchecked")
@@ -48,11 +67,22 @@ public class POSSampleSequenceStream implements SequenceStream {
     Object[] ac = pss.getSource().getAddictionalContext();
     String[] tags = tagger.tag(pss.getSource().getSentence());
     Event[] events = new Event[sentence.length];
-    POSSampleEventStream.generateEvents(sentence, tags, ac, pcg)
-        .toArray(events);
+    // without a factory the shard streams share this stream, its context generator and cache
+    synchronized (pcg) {
+      POSSampleEventStream.generateEvents(sentence, tags, ac, pcg)
+          .toArray(events);
+    }
     return events;
   }
 
+  @Override
+  public SequenceStream createShardStream() {
+    if (factory == null) {
+      return this;
+    }
+    return new POSSampleSequenceStream(psi, factory.getPOSContextGenerator(), factory);
+  }
+
   @Override
   public Sequence read() throws IOException {
 
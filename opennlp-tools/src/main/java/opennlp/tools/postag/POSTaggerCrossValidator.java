@@ -25,10 +25,22 @@ import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
+import opennlp.tools.util.eval.FoldEvaluationMonitor;
 import opennlp.tools.util.eval.Mean;
 
 public class POSTaggerCrossValidator {
 
+  private static class FoldMonitor extends FoldEvaluationMonitor<POSSample>
+      implements POSTaggerEvaluationMonitor {
+
+    private double wordAccuracy;
+    private long wordCount;
+
+    FoldMonitor(POSTaggerEvaluationMonitor[] listeners, boolean record) {
+      super(listeners, record);
+    }
+  }
+
   private final String languageCode;
 
   private final TrainingParameters params;
@@ -93,57 +105,101 @@ public class POSTaggerCrossValidator {
    * @throws IOException
    */
   public void evaluate(ObjectStream<POSSample> samples, int nFolds) throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
 
-    CrossValidationPartitioner<POSSample> partitioner = new CrossValidationPartitioner<>(
-        samples, nFolds);
-
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<POSSample> trainingSampleStream = partitioner
-          .next();
+  /**
+   * Starts the evaluation, the folds are trained and evaluated in parallel.
+   * The results and the events which are passed to the listeners are the
+   * same as in a sequential evaluation.
+   * <p>
+   * Every fold uses a new instance of the factory class, created with
+   * {@link POSTaggerFactory#create(String, Dictionary, TagDictionary)}, so the factory class
+   * must have a public no-argument constructor. The ngram dictionary of a factory passed
+   * to the constructor is copied into the fold factories, other state of a factory
+   * subclass is not copied.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are trained and evaluated at the same time
+   *
+   * @throws IOException
+   */
+  public void evaluate(ObjectStream<POSSample> samples, int nFolds, int threads)
+      throws IOException {
+
+    String foldFactoryClassName = factory != null ? factory.getClass().getName() : factoryClassName;
+    Dictionary ngramDictionary = factory != null ? factory.getDictionary() : null;
+
+    CrossValidationPartitioner.<POSSample, FoldMonitor>evaluateFolds(samples, nFolds, threads,
+        trainingSampleStream -> {
+
+          POSTaggerFactory foldFactory;
+          if (threads == 1) {
+            if (this.factory == null) {
+              this.factory = POSTaggerFactory.create(this.factoryClassName, null, null);
+            }
+            foldFactory = this.factory;
+          }
+          else {
+            foldFactory = POSTaggerFactory.create(foldFactoryClassName, ngramDictionary, null);
+          }
+
+          return evaluateFold(trainingSampleStream, foldFactory, threads > 1);
+        },
+        foldMonitor -> {
+          foldMonitor.replay();
+          wordAccuracy.add(foldMonitor.wordAccuracy, foldMonitor.wordCount);
+        });
+  }
 
+  private FoldMonitor evaluateFold(
+      CrossValidationPartitioner.TrainingSampleStream<POSSample> trainingSampleStream,
+      POSTaggerFactory factory, boolean record) throws IOException {
 
-      if (this.tagDictionaryFile != null
-          && this.factory.getTagDictionary() == null) {
-        this.factory.setTagDictionary(this.factory
-            .createTagDictionary(tagDictionaryFile));
-      }
+    if (this.tagDictionaryFile != null
+        && factory.getTagDictionary() == null) {
+      factory.setTagDictionary(factory
+          .createTagDictionary(tagDictionaryFile));
+    }
 
-      TagDictionary dict = null;
-      if (this.tagdicCutoff != null) {
-        dict = this.factory.getTagDictionary();
-        if (dict == null) {
-          dict = this.factory.createEmptyTagDictionary();
-        }
-        if (dict instanceof MutableTagDictionary) {
-          POSTaggerME.populatePOSDictionary(trainingSampleStream, (MutableTagDictionary)dict,
-              this.tagdicCutoff);
-        } else {
-          throw new IllegalArgumentException(
-              "Can't extend a TagDictionary that does not implement MutableTagDictionary.");
-        }
-        trainingSampleStream.reset();
+    TagDictionary dict = null;
+    if (this.tagdicCutoff != null) {
+      dict = factory.getTagDictionary();
+      if (dict == null) {
+        dict = factory.createEmptyTagDictionary();
       }
-
-      if (this.factory == null) {
-        this.factory = POSTaggerFactory.create(this.factoryClassName, null, null);
+      if (dict instanceof MutableTagDictionary) {
+        POSTaggerME.populatePOSDictionary(trainingSampleStream, (MutableTagDictionary)dict,
+            this.tagdicCutoff);
+      } else {
+        throw new IllegalArgumentException(
+            "Can't extend a TagDictionary that does not implement MutableTagDictionary.");
       }
+      trainingSampleStream.reset();
+    }
 
-      factory.init(featureGeneratorBytes, resources, dict);
+    factory.init(featureGeneratorBytes, resources, dict);
 
-      POSModel model = POSTaggerME.train(languageCode, trainingSampleStream,
-          params, this.factory);
+    POSModel model = POSTaggerME.train(languageCode, trainingSampleStream,
+        params, factory);
 
-      POSEvaluator evaluator = new POSEvaluator(new POSTaggerME(model), listeners);
+    FoldMonitor foldMonitor = new FoldMonitor(listeners, record);
+    POSEvaluator evaluator = new POSEvaluator(new POSTaggerME(model), foldMonitor);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+    evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      wordAccuracy.add(evaluator.getWordAccuracy(), evaluator.getWordCount());
+    foldMonitor.wordAccuracy = evaluator.getWordAccuracy();
+    foldMonitor.wordCount = evaluator.getWordCount();
 
-      if (this.tagdicCutoff != null) {
-        this.factory.setTagDictionary(null);
-      }
+    if (this.tagdicCutoff != null) {
+      factory.setTagDictionary(null);
     }
+
+    return foldMonitor;
   }
 
   /**
@@ -154,7 +154,7 @@ public class POSTaggerFactory extends BaseToolFactory {
 
     AdaptiveFeatureGenerator generator;
     try {
-      generator = GeneratorFactory.create(descriptorIn, key -> {
+      generator = GeneratorFactory.createCompiled(descriptorIn, key -> {
         if (artifactProvider != null) {
           return artifactProvider.getArtifact(key);
         }
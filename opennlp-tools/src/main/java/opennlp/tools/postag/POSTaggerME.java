@@ -29,6 +29,7 @@ import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.SequenceDecoderFactory;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
@@ -140,6 +141,22 @@ public class POSTaggerME implements POSTagger {
     return t.toArray(new String[t.size()]);
   }
 
+  /**
+   * Tags a batch of sentences. The context generator and its cache are reused
+   * for all sentences of the batch.
+   *
+   * @param sentences the sentences to be tagged
+   *
+   * @return the tags of each sentence, in input order
+   */
+  public List<String[]> tag(List<String[]> sentences) {
+    List<String[]> tags = new ArrayList<>(sentences.size());
+    for (String[] sentence : sentences) {
+      tags.add(tag(sentence));
+    }
+    return tags;
+  }
+
   /**
    * Returns at most the specified number of taggings for the specified sentence.
    *
@@ -227,23 +244,24 @@ public class POSTaggerME implements POSTagger {
 
     int beamSize = trainParams.getIntParameter(BeamSearch.BEAM_SIZE_PARAMETER, POSTaggerME.DEFAULT_BEAM_SIZE);
 
-    POSContextGenerator contextGenerator = posFactory.getPOSContextGenerator();
-
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
+    SequenceDecoderFactory.addManifestEntries(trainParams, manifestInfoEntries);
+
     TrainerType trainerType = TrainerFactory.getTrainerType(trainParams);
 
     MaxentModel posModel = null;
     SequenceClassificationModel<String> seqPosModel = null;
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> es = new POSSampleEventStream(samples, contextGenerator);
+      ObjectStream<Event> es = new POSSampleEventStream(samples,
+          posFactory.getPOSContextGenerator());
 
       EventTrainer trainer = TrainerFactory.getEventTrainer(trainParams,
           manifestInfoEntries);
       posModel = trainer.train(es);
     }
     else if (TrainerType.EVENT_MODEL_SEQUENCE_TRAINER.equals(trainerType)) {
-      POSSampleSequenceStream ss = new POSSampleSequenceStream(samples, contextGenerator);
+      POSSampleSequenceStream ss = new POSSampleSequenceStream(samples, posFactory);
       EventModelSequenceTrainer trainer =
           TrainerFactory.getEventModelSequenceTrainer(trainParams, manifestInfoEntries);
       posModel = trainer.train(ss);
@@ -254,7 +272,7 @@ public class POSTaggerME implements POSTagger {
 
       // TODO: This will probably cause issue, since the feature generator uses the outcomes array
 
-      POSSampleSequenceStream ss = new POSSampleSequenceStream(samples, contextGenerator);
+      POSSampleSequenceStream ss = new POSSampleSequenceStream(samples, posFactory);
       seqPosModel = trainer.train(ss);
     }
     else {
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.postag;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import opennlp.tools.util.BatchUtil;
+import opennlp.tools.util.Sequence;
+
+/**
+ * A thread-safe version of the {@link POSTaggerME}. One instance can be shared
+ * by all threads, the {@link POSModel} is shared and the per call state of the
+ * tagger is kept per thread.
+ * <p>
+ * Use {@link #bestSequence(String[], Object[])} to retrieve the tags together
+ * with their probabilities instead of the {@link POSTaggerME#probs()} getter.
+ *
+ * @see POSTaggerME
+ */
+public class ThreadSafePOSTaggerME implements POSTagger {
+
+  private final ThreadLocal<POSTaggerME> tagger;
+
+  public ThreadSafePOSTaggerME(POSModel model) {
+    tagger = ThreadLocal.withInitial(() -> new POSTaggerME(model));
+  }
+
+  @Override
+  public String[] tag(String[] sentence) {
+    return tagger.get().tag(sentence);
+  }
+
+  @Override
+  public String[] tag(String[] sentence, Object[] additionaContext) {
+    return tagger.get().tag(sentence, additionaContext);
+  }
+
+  /**
+   * Tags a batch of sentences on the calling thread.
+   *
+   * @param sentences the sentences to be tagged
+   *
+   * @return the tags of each sentence, in input order
+   *
+   * @see POSTaggerME#tag(List)
+   */
+  public List<String[]> tag(List<String[]> sentences) {
+    return tagger.get().tag(sentences);
+  }
+
+  /**
+   * Tags a batch of sentences, the work is distributed in chunks over the executor.
+   *
+   * @param sentences the sentences to be tagged
+   * @param executor the executor which runs the chunks
+   *
+   * @return the tags of each sentence, in input order
+   */
+  public List<String[]> tag(List<String[]> sentences, Executor executor) {
+    return BatchUtil.process(sentences, this::tag, executor);
+  }
+
+  /**
+   * Tags the sentence and returns the tags together with their probabilities.
+   *
+   * @param sentence the tokens to be tagged
+   * @param additionalContext additional context, or null
+   *
+   * @return the best sequence, the outcomes are the tags
+   */
+  public Sequence bestSequence(String[] sentence, Object[] additionalContext) {
+    return tagger.get().topKSequences(sentence, additionalContext)[0];
+  }
+
+  @Override
+  public Sequence[] topKSequences(String[] sentence) {
+    return tagger.get().topKSequences(sentence);
+  }
+
+  @Override
+  public Sequence[] topKSequences(String[] sentence, Object[] additionaContext) {
+    return tagger.get().topKSequences(sentence, additionaContext);
+  }
+
+  public String[] getOrderedTags(List<String> words, List<String> tags, int index,
+      double[] tprobs) {
+    return tagger.get().getOrderedTags(words, tags, index, tprobs);
+  }
+}
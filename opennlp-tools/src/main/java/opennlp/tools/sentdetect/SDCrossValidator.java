@@ -23,6 +23,7 @@ import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldEvaluationMonitor;
 import opennlp.tools.util.model.ModelUtil;
 
 /**
@@ -30,6 +31,16 @@ import opennlp.tools.util.model.ModelUtil;
  */
 public class SDCrossValidator {
 
+  private static class FoldMonitor extends FoldEvaluationMonitor<SentenceSample>
+      implements SentenceDetectorEvaluationMonitor {
+
+    private FMeasure fmeasure;
+
+    FoldMonitor(SentenceDetectorEvaluationMonitor[] listeners, boolean record) {
+      super(listeners, record);
+    }
+  }
+
   private final String languageCode;
 
   private final TrainingParameters params;
@@ -91,28 +102,48 @@ public class SDCrossValidator {
    * @throws IOException
    */
   public void evaluate(ObjectStream<SentenceSample> samples, int nFolds) throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
 
-    CrossValidationPartitioner<SentenceSample> partitioner =
-        new CrossValidationPartitioner<>(samples, nFolds);
-
-    while (partitioner.hasNext()) {
+  /**
+   * Starts the evaluation, the folds are trained and evaluated in parallel.
+   * The results and the events which are passed to the listeners are the
+   * same as in a sequential evaluation.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are trained and evaluated at the same time
+   *
+   * @throws IOException
+   */
+  public void evaluate(ObjectStream<SentenceSample> samples, int nFolds, int threads)
+      throws IOException {
 
-      CrossValidationPartitioner.TrainingSampleStream<SentenceSample> trainingSampleStream =
-          partitioner.next();
+    CrossValidationPartitioner.<SentenceSample, FoldMonitor>evaluateFolds(samples, nFolds, threads,
+        trainingSampleStream -> {
 
-      SentenceModel model;
+          SentenceModel model;
 
-      model = SentenceDetectorME.train(languageCode, trainingSampleStream,
-          sdFactory, params);
+          model = SentenceDetectorME.train(languageCode, trainingSampleStream,
+              sdFactory, params);
 
-      // do testing
-      SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(
-          new SentenceDetectorME(model), listeners);
+          // do testing
+          FoldMonitor foldMonitor = new FoldMonitor(listeners, threads > 1);
+          SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(
+              new SentenceDetectorME(model), foldMonitor);
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
-    }
+          foldMonitor.fmeasure = evaluator.getFMeasure();
+          return foldMonitor;
+        },
+        foldMonitor -> {
+          foldMonitor.replay();
+          fmeasure.mergeInto(foldMonitor.fmeasure);
+        });
   }
 
   public FMeasure getFMeasure() {
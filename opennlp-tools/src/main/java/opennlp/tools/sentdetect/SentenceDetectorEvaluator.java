@@ -72,6 +72,16 @@ public class SentenceDetectorEvaluator extends Evaluator<SentenceSample> {
     return new SentenceSample(sample.getDocument(), predictions);
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<SentenceSample> evaluator) {
+    fmeasure.mergeInto(((SentenceDetectorEvaluator) evaluator).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
@@ -163,7 +163,6 @@ public class SentenceDetectorME implements SentenceDetector {
    */
   public Span[] sentPosDetect(String s) {
     sentProbs.clear();
-    StringBuffer sb = new StringBuffer(s);
     List<Integer> enders = scanner.getPositions(s);
     List<Integer> positions = new ArrayList<>(enders.size());
 
@@ -176,10 +175,9 @@ public class SentenceDetectorME implements SentenceDetector {
       }
       if (positions.size() > 0 && cint < positions.get(positions.size() - 1)) continue;
 
-      double[] probs = model.eval(cgen.getContext(sb, cint));
-      String bestOutcome = model.getBestOutcome(probs);
+      double splitProb = getSplitProbability(s, cint);
 
-      if (bestOutcome.equals(SPLIT) && isAcceptableBreak(s, index, cint)) {
+      if (splitProb >= 0 && isAcceptableBreak(s, index, cint)) {
         if (index != cint) {
           if (useTokenEnd) {
             positions.add(getFirstNonWS(s, getFirstWS(s,cint + 1)));
@@ -187,7 +185,7 @@ public class SentenceDetectorME implements SentenceDetector {
           else {
             positions.add(getFirstNonWS(s, cint + 1));
           }
-          sentProbs.add(probs[model.getIndex(bestOutcome)]);
+          sentProbs.add(splitProb);
         }
 
         index = cint + 1;
@@ -265,6 +263,28 @@ public class SentenceDetectorME implements SentenceDetector {
     return spans;
   }
 
+  /**
+   * Evaluates a sentence end candidate.
+   *
+   * @param s the text
+   * @param candidateIndex the index of the end of sentence character
+   *
+   * @return the probability of the split, or -1 if the sentence does not end there
+   */
+  double getSplitProbability(CharSequence s, int candidateIndex) {
+    double[] probs = model.eval(cgen.getContext(s, candidateIndex));
+    String bestOutcome = model.getBestOutcome(probs);
+
+    if (bestOutcome.equals(SPLIT)) {
+      return probs[model.getIndex(bestOutcome)];
+    }
+    return -1;
+  }
+
+  EndOfSentenceScanner getEndOfSentenceScanner() {
+    return scanner;
+  }
+
   /**
    * Returns the probabilities associated with the most recent
    * calls to sentDetect().
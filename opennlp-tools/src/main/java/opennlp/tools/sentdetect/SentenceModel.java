@@ -24,6 +24,7 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ml.model.MaxentModel;
@@ -92,10 +93,18 @@ public class SentenceModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public SentenceModel(InputStream in, Executor executor) throws IOException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   public SentenceModel(File modelFile) throws IOException {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public SentenceModel(File modelFile, Executor executor) throws IOException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public SentenceModel(Path modelPath) throws IOException {
     this(modelPath.toFile());
   }
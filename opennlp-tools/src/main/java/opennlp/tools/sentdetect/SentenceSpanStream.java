@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.sentdetect;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.StringUtil;
+
+/**
+ * Detects the sentences of a text which is read in chunks, and returns their spans
+ * with offsets into the whole text as soon as they are final.
+ * <p>
+ * The spans and their probabilities are the ones
+ * {@link SentenceDetectorME#sentPosDetect(String)} returns for the whole text, but
+ * only a window of the text is kept in memory. The window starts two tokens before the
+ * first undecided end of sentence candidate, because the context of a candidate
+ * reaches two tokens to the left, and it ends where the text has been read so far.
+ * A candidate is decided once the two tokens after it were read. The size of the
+ * window depends on the length of the tokens and the chunks, not on the length
+ * of the text.
+ * <p>
+ * {@link SentenceDetectorME#isAcceptableBreak(String, int, int)} is called with the
+ * text of the window, the indices are relative to the window, and the start of the
+ * segment is clipped to the start of the window.
+ * <p>
+ * The stream uses the {@link SentenceDetectorME}, it must not be used for other texts
+ * at the same time.
+ */
+public class SentenceSpanStream implements ObjectStream<Span> {
+
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  private final SentenceDetectorME detector;
+  private final ObjectStream<? extends CharSequence> chunks;
+
+  /** The text which is kept, it starts at the offset windowStart of the text. */
+  private final StringBuilder window = new StringBuilder();
+  private int windowStart;
+  private boolean endOfText;
+
+  /** The offsets of the undecided end of sentence candidates, from head to tail. */
+  private int[] candidates = new int[16];
+  private int candidateHead;
+  private int candidateTail;
+
+  /** The start of the segment after the last accepted break. */
+  private int segmentStart;
+  /** The start of the current sentence, or -1 if no sentence ended yet. */
+  private int sentenceStart = -1;
+
+  private int firstNonWhitespace = -1;
+  private int lastNonWhitespaceEnd;
+
+  private final ArrayDeque<Span> sentences = new ArrayDeque<>();
+  private boolean finished;
+
+  /**
+   * Initializes the stream.
+   *
+   * @param detector the sentence detector
+   * @param chunks the chunks of the text, in order
+   */
+  public SentenceSpanStream(SentenceDetectorME detector,
+      ObjectStream<? extends CharSequence> chunks) {
+    this.detector = detector;
+    this.chunks = chunks;
+  }
+
+  /**
+   * Initializes the stream with a text which is read from a {@link Reader}.
+   *
+   * @param detector the sentence detector
+   * @param in the reader, it is closed when the stream is closed
+   */
+  public SentenceSpanStream(SentenceDetectorME detector, Reader in) {
+    this(detector, new ReaderChunkStream(in));
+  }
+
+  /**
+   * Retrieves the span of the next sentence, the offsets refer to the whole text.
+   *
+   * @return the span with the probability of the sentence, or null if the text
+   *     has no more sentences
+   */
+  @Override
+  public Span read() throws IOException {
+    while (sentences.isEmpty() && !finished) {
+      if (candidateHead < candidateTail
+          && (endOfText || isDecidable(candidates[candidateHead] - windowStart))) {
+        decideCandidate();
+      }
+      else if (!endOfText) {
+        discardWindowStart();
+        readChunk();
+      }
+      else {
+        finish();
+      }
+    }
+
+    return sentences.poll();
+  }
+
+  private void readChunk() throws IOException {
+    CharSequence chunk = chunks.read();
+    if (chunk == null) {
+      endOfText = true;
+      return;
+    }
+
+    String text = chunk.toString();
+    int chunkStart = windowStart + window.length();
+    window.append(text);
+
+    for (int position : detector.getEndOfSentenceScanner().getPositions(text)) {
+      addCandidate(chunkStart + position);
+    }
+
+    for (int ci = 0; ci < text.length(); ci++) {
+      if (!StringUtil.isWhitespace(text.charAt(ci))) {
+        if (firstNonWhitespace < 0) {
+          firstNonWhitespace = chunkStart + ci;
+        }
+        lastNonWhitespaceEnd = chunkStart + ci + 1;
+      }
+    }
+  }
+
+  private void addCandidate(int position) {
+    if (candidateTail == candidates.length) {
+      int numCandidates = candidateTail - candidateHead;
+      if (numCandidates * 2 > candidates.length) {
+        candidates = Arrays.copyOf(candidates, candidates.length * 2);
+      }
+      System.arraycopy(candidates, candidateHead, candidates, 0, numCandidates);
+      candidateHead = 0;
+      candidateTail = numCandidates;
+    }
+    candidates[candidateTail++] = position;
+  }
+
+  /**
+   * Checks if the window contains the two tokens after the candidate, and the
+   * whitespace which follows them.
+   */
+  private boolean isDecidable(int candidate) {
+    int runs = 0;
+    for (int i = candidate + 1; i + 1 < window.length(); i++) {
+      if (StringUtil.isWhitespace(window.charAt(i))
+          && !StringUtil.isWhitespace(window.charAt(i + 1)) && ++runs == 2) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Decides the first candidate like {@link SentenceDetectorME#sentPosDetect(String)}.
+   */
+  private void decideCandidate() {
+    int candidate = candidates[candidateHead++] - windowStart;
+
+    // skip over the leading parts of non-token final delimiters
+    int fws = getFirstWS(candidate + 1);
+    if (candidateHead < candidateTail && candidates[candidateHead] - windowStart < fws) {
+      return;
+    }
+    if (sentenceStart >= 0 && windowStart + candidate < sentenceStart) {
+      return;
+    }
+
+    double splitProb = detector.getSplitProbability(window, candidate);
+
+    if (splitProb >= 0 && detector.isAcceptableBreak(window.toString(),
+        Math.max(segmentStart - windowStart, 0), candidate)) {
+      if (segmentStart != windowStart + candidate) {
+        int position;
+        if (detector.useTokenEnd) {
+          position = getFirstNonWS(getFirstWS(candidate + 1));
+        }
+        else {
+          position = getFirstNonWS(candidate + 1);
+        }
+        addSentence(windowStart + position, splitProb);
+      }
+
+      segmentStart = windowStart + candidate + 1;
+    }
+  }
+
+  private void addSentence(int end, double prob) {
+    int start = sentenceStart >= 0 ? sentenceStart : firstNonWhitespace;
+
+    int trimmedEnd = end;
+    while (trimmedEnd > start && trimmedEnd > windowStart
+        && StringUtil.isWhitespace(window.charAt(trimmedEnd - 1 - windowStart))) {
+      trimmedEnd--;
+    }
+
+    if (start >= 0 && trimmedEnd > start) {
+      sentences.add(new Span(start, trimmedEnd, prob));
+    }
+
+    sentenceStart = end;
+  }
+
+  private void finish() {
+    finished = true;
+
+    int textLength = windowStart + window.length();
+    if (sentenceStart < 0) {
+      // the text does not contain sentence end positions
+      if (firstNonWhitespace >= 0) {
+        sentences.add(new Span(firstNonWhitespace, lastNonWhitespaceEnd, 1d));
+      }
+    }
+    else if (sentenceStart != textLength && lastNonWhitespaceEnd > sentenceStart) {
+      sentences.add(new Span(sentenceStart, lastNonWhitespaceEnd, 1d));
+    }
+  }
+
+  /**
+   * Removes the text before the last two tokens which precede the first undecided
+   * candidate, or the end of the window if there is none.
+   */
+  private void discardWindowStart() {
+    int next = candidateHead < candidateTail
+        ? candidates[candidateHead] - windowStart : window.length();
+
+    int keep = next - 1;
+    for (int ti = 0; ti < 2; ti++) {
+      keep = skipBackward(keep, false);
+      keep = skipBackward(keep, true);
+    }
+
+    if (keep > 0) {
+      window.delete(0, keep);
+      windowStart += keep;
+    }
+  }
+
+  private int skipBackward(int index, boolean whitespace) {
+    while (index >= 0 && StringUtil.isWhitespace(window.charAt(index)) == whitespace) {
+      index--;
+    }
+    return index;
+  }
+
+  private int getFirstWS(int pos) {
+    while (pos < window.length() && !StringUtil.isWhitespace(window.charAt(pos)))
+      pos++;
+    return pos;
+  }
+
+  private int getFirstNonWS(int pos) {
+    while (pos < window.length() && StringUtil.isWhitespace(window.charAt(pos)))
+      pos++;
+    return pos;
+  }
+
+  @Override
+  public void reset() throws IOException, UnsupportedOperationException {
+    chunks.reset();
+
+    window.setLength(0);
+    windowStart = 0;
+    endOfText = false;
+    candidateHead = 0;
+    candidateTail = 0;
+    segmentStart = 0;
+    sentenceStart = -1;
+    firstNonWhitespace = -1;
+    lastNonWhitespaceEnd = 0;
+    sentences.clear();
+    finished = false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    chunks.close();
+  }
+
+  /**
+   * Reads the chunks of a text from a {@link Reader}.
+   */
+  private static class ReaderChunkStream implements ObjectStream<CharSequence> {
+
+    private final Reader in;
+    private final char[] buffer = new char[READ_BUFFER_SIZE];
+
+    ReaderChunkStream(Reader in) {
+      this.in = in;
+    }
+
+    @Override
+    public CharSequence read() throws IOException {
+      int length = in.read(buffer);
+      return length < 0 ? null : new String(buffer, 0, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.sentdetect;
+
+import opennlp.tools.util.Span;
+
+/**
+ * A thread-safe version of the {@link SentenceDetectorME}. One instance can be
+ * shared by all threads, the {@link SentenceModel} is shared and the per call
+ * state of the sentence detector is kept per thread.
+ * <p>
+ * The returned spans carry the probability of each sentence, the
+ * {@link SentenceDetectorME#getSentenceProbabilities()} getter is not needed.
+ *
+ * @see SentenceDetectorME
+ */
+public class ThreadSafeSentenceDetectorME implements SentenceDetector {
+
+  private final ThreadLocal<SentenceDetectorME> sentenceDetector;
+
+  public ThreadSafeSentenceDetectorME(SentenceModel model) {
+    sentenceDetector = ThreadLocal.withInitial(() -> new SentenceDetectorME(model));
+  }
+
+  @Override
+  public String[] sentDetect(String s) {
+    return sentenceDetector.get().sentDetect(s);
+  }
+
+  @Override
+  public Span[] sentPosDetect(String s) {
+    return sentenceDetector.get().sentPosDetect(s);
+  }
+}
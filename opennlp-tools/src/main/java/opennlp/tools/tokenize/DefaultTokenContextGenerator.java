@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import opennlp.tools.ml.model.CompiledMaxentModel;
 import opennlp.tools.util.StringUtil;
 
 /**
@@ -29,6 +30,9 @@ import opennlp.tools.util.StringUtil;
  */
 public class DefaultTokenContextGenerator implements TokenContextGenerator {
 
+  private static final String PREFIX = "p=";
+  private static final String SUFFIX = "s=";
+
   protected final Set<String> inducedAbbreviations;
 
   /**
@@ -73,8 +77,8 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
     List<String> preds = new ArrayList<>();
     String prefix = sentence.substring(0, index);
     String suffix = sentence.substring(index);
-    preds.add("p=" + prefix);
-    preds.add("s=" + suffix);
+    preds.add(PREFIX + prefix);
+    preds.add(SUFFIX + suffix);
     if (index > 0) {
       addCharPreds("p1", sentence.charAt(index - 1), preds);
       if (index > 1) {
@@ -109,36 +113,286 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
   }
 
 
+  /**
+   * Returns the features of all positions at which the specified token can be split.
+   * The classes of the characters are determined once per token and the character
+   * features are taken from shared tables.
+   * <p>
+   * Subclasses of this generator get the features from {@link #getContext(String, int)},
+   * they may customize {@link #createContext(String, int)}.
+   */
+  @Override
+  public String[][] getContexts(String token) {
+    if (getClass() != DefaultTokenContextGenerator.class) {
+      return TokenContextGenerator.super.getContexts(token);
+    }
+    return createContexts(token, null);
+  }
+
+  /**
+   * Returns the features of all positions at which the specified token can be split,
+   * like {@link #getContexts(String)}, but leaves out the prefix and suffix features the
+   * model does not contain. The model ignores these features, the probabilities it
+   * computes for the contexts do not change.
+   * <p>
+   * The prefix and suffix features are looked up with hash codes which are computed
+   * incrementally along the token, the time is linear in the length of the token,
+   * instead of quadratic.
+   *
+   * @param token the token
+   * @param model the model which evaluates the contexts
+   *
+   * @return the features of index i at position i - 1
+   */
+  public String[][] getContexts(String token, CompiledMaxentModel model) {
+    if (getClass() != DefaultTokenContextGenerator.class) {
+      return TokenContextGenerator.super.getContexts(token);
+    }
+    return createContexts(token, model);
+  }
+
+  private String[][] createContexts(String token, CompiledMaxentModel model) {
+    int length = token.length();
+    String[][] contexts = new String[Math.max(0, length - 1)][];
+    if (contexts.length == 0) {
+      return contexts;
+    }
+
+    int[] charClasses = new int[length];
+    for (int ci = 0; ci < length; ci++) {
+      charClasses[ci] = CharPredicates.getCharClass(token.charAt(ci));
+    }
+
+    int[] prefixHashes = null;
+    int[] suffixHashes = null;
+    AffixPredicate affix = null;
+    if (model != null) {
+      prefixHashes = new int[length];
+      int prefixHash = PREFIX.hashCode();
+      for (int i = 1; i < length; i++) {
+        prefixHash = 31 * prefixHash + token.charAt(i - 1);
+        prefixHashes[i] = prefixHash;
+      }
+
+      suffixHashes = new int[length];
+      int suffixHash = 0;
+      int power = 1;
+      for (int i = length - 1; i > 0; i--) {
+        suffixHash += token.charAt(i) * power;
+        power *= 31;
+        suffixHashes[i] = SUFFIX.hashCode() * power + suffixHash;
+      }
+
+      affix = new AffixPredicate(token);
+    }
+
+    boolean characterCode = token.charAt(0) == '&' && token.charAt(length - 1) == ';';
+    boolean abbreviation = inducedAbbreviations.contains(token);
+
+    List<String> preds = new ArrayList<>();
+    for (int index = 1; index < length; index++) {
+      preds.clear();
+
+      if (model != null) {
+        int pi = model.getPredicateIndex(affix.set(PREFIX, 0, index), prefixHashes[index]);
+        if (pi >= 0) {
+          preds.add(model.getPredicate(pi));
+        }
+        pi = model.getPredicateIndex(affix.set(SUFFIX, index, length), suffixHashes[index]);
+        if (pi >= 0) {
+          preds.add(model.getPredicate(pi));
+        }
+      }
+      else {
+        preds.add(PREFIX + token.substring(0, index));
+        preds.add(SUFFIX + token.substring(index));
+      }
+
+      char p1 = token.charAt(index - 1);
+      char f1 = token.charAt(index);
+      CharPredicates.P1.add(p1, charClasses[index - 1], preds);
+      if (index > 1) {
+        char p2 = token.charAt(index - 2);
+        CharPredicates.P2.add(p2, charClasses[index - 2], preds);
+        preds.add("p21=" + p2 + p1);
+      }
+      else {
+        preds.add("p2=bok");
+      }
+      preds.add("p1f1=" + p1 + f1);
+
+      CharPredicates.F1.add(f1, charClasses[index], preds);
+      if (index + 1 < length) {
+        char f2 = token.charAt(index + 1);
+        CharPredicates.F2.add(f2, charClasses[index + 1], preds);
+        preds.add("f12=" + f1 + f2);
+      }
+      else {
+        preds.add("f2=bok");
+      }
+      if (characterCode) {
+        preds.add("cc");//character code
+      }
+
+      if (index == length - 1 && abbreviation) {
+        preds.add("pabb");
+      }
+
+      contexts[index - 1] = preds.toArray(new String[preds.size()]);
+    }
+
+    return contexts;
+  }
+
   /**
    * Helper function for getContext.
    */
   protected void addCharPreds(String key, char c, List<String> preds) {
-    preds.add(key + "=" + c);
-    if (Character.isLetter(c)) {
-      preds.add(key + "_alpha");
-      if (Character.isUpperCase(c)) {
-        preds.add(key + "_caps");
+    CharPredicates.forKey(key).add(c, CharPredicates.getCharClass(c), preds);
+  }
+
+  /**
+   * The features of a character for one of the keys, the features of the
+   * default keys are created once.
+   */
+  private static final class CharPredicates {
+
+    private static final int OTHER = 0;
+    private static final int ALPHA = 1;
+    private static final int CAPS = 2;
+    private static final int NUM = 3;
+    private static final int WS = 4;
+    private static final int EOS = 5;
+    private static final int QUOTE = 6;
+    private static final int LP = 7;
+    private static final int RP = 8;
+
+    /** The characters whose key=c feature is kept. */
+    private static final int CACHED_CHARS = 128;
+
+    static final CharPredicates P1 = new CharPredicates("p1", true);
+    static final CharPredicates P2 = new CharPredicates("p2", true);
+    static final CharPredicates F1 = new CharPredicates("f1", true);
+    static final CharPredicates F2 = new CharPredicates("f2", true);
+
+    private final String key;
+    private final String[] classPredicates;
+    private final String[] charPredicates;
+
+    private CharPredicates(String key, boolean cacheChars) {
+      this.key = key;
+      classPredicates = new String[] {null, key + "_alpha", key + "_caps", key + "_num",
+          key + "_ws", key + "_eos", key + "_quote", key + "_lp", key + "_rp"};
+      if (cacheChars) {
+        charPredicates = new String[CACHED_CHARS];
+        for (char c = 0; c < CACHED_CHARS; c++) {
+          charPredicates[c] = key + "=" + c;
+        }
+      }
+      else {
+        charPredicates = null;
       }
     }
-    else if (Character.isDigit(c)) {
-      preds.add(key + "_num");
-    }
-    else if (StringUtil.isWhitespace(c)) {
-      preds.add(key + "_ws");
+
+    static CharPredicates forKey(String key) {
+      switch (key) {
+        case "p1":
+          return P1;
+        case "p2":
+          return P2;
+        case "f1":
+          return F1;
+        case "f2":
+          return F2;
+        default:
+          return new CharPredicates(key, false);
+      }
     }
-    else {
-      if (c == '.' || c == '?' || c == '!') {
-        preds.add(key + "_eos");
+
+    static int getCharClass(char c) {
+      if (Character.isLetter(c)) {
+        return Character.isUpperCase(c) ? CAPS : ALPHA;
+      }
+      else if (Character.isDigit(c)) {
+        return NUM;
+      }
+      else if (StringUtil.isWhitespace(c)) {
+        return WS;
+      }
+      else if (c == '.' || c == '?' || c == '!') {
+        return EOS;
       }
       else if (c == '`' || c == '"' || c == '\'') {
-        preds.add(key + "_quote");
+        return QUOTE;
       }
       else if (c == '[' || c == '{' || c == '(') {
-        preds.add(key + "_lp");
+        return LP;
       }
       else if (c == ']' || c == '}' || c == ')') {
-        preds.add(key + "_rp");
+        return RP;
+      }
+      return OTHER;
+    }
+
+    void add(char c, int charClass, List<String> preds) {
+      if (charPredicates != null && c < CACHED_CHARS) {
+        preds.add(charPredicates[c]);
       }
+      else {
+        preds.add(key + "=" + c);
+      }
+
+      if (charClass == CAPS) {
+        preds.add(classPredicates[ALPHA]);
+      }
+      if (charClass != OTHER) {
+        preds.add(classPredicates[charClass]);
+      }
+    }
+  }
+
+  /**
+   * A prefix or suffix feature of a token which is not copied into a {@link String}.
+   */
+  private static final class AffixPredicate implements CharSequence {
+
+    private final String token;
+    private String marker;
+    private int start;
+    private int end;
+
+    AffixPredicate(String token) {
+      this.token = token;
+    }
+
+    AffixPredicate set(String marker, int start, int end) {
+      this.marker = marker;
+      this.start = start;
+      this.end = end;
+      return this;
+    }
+
+    @Override
+    public int length() {
+      return marker.length() + end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < marker.length()) {
+        return marker.charAt(index);
+      }
+      return token.charAt(start + index - marker.length());
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return marker + token.substring(start, end);
     }
   }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import opennlp.tools.util.BatchUtil;
+import opennlp.tools.util.ConcurrentCache;
+import opennlp.tools.util.Span;
+
+/**
+ * A thread-safe version of the {@link TokenizerME}. One instance can be shared
+ * by all threads, the {@link TokenizerModel} is shared and the per call state
+ * of the tokenizer is kept per thread.
+ * <p>
+ * Instead of the {@link TokenizerME#getTokenProbabilities()} getter, which
+ * refers to the most recent call, the returned spans carry the
+ * probability of each token.
+ *
+ * @see TokenizerME
+ */
+public class ThreadSafeTokenizerME implements Tokenizer {
+
+  private final ThreadLocal<TokenizerME> tokenizer;
+
+  private final ConcurrentCache<String, Span[]> splitCache;
+
+  public ThreadSafeTokenizerME(TokenizerModel model) {
+    this(model, 0);
+  }
+
+  /**
+   * Initializes the tokenizer with a cache of token splits which is shared by all threads.
+   *
+   * @param model the model
+   * @param splitCacheSize the maximum number of cached tokens, zero disables the cache
+   *
+   * @see TokenizerME#TokenizerME(TokenizerModel, ConcurrentCache)
+   */
+  public ThreadSafeTokenizerME(TokenizerModel model, int splitCacheSize) {
+    splitCache = splitCacheSize > 0 ? new ConcurrentCache<>(splitCacheSize) : null;
+    tokenizer = ThreadLocal.withInitial(() -> new TokenizerME(model, splitCache));
+  }
+
+  /**
+   * Retrieves the cache of the token splits which is shared by all threads.
+   *
+   * @return the cache or null if the tokenizer has none
+   */
+  public ConcurrentCache<String, Span[]> getSplitCache() {
+    return splitCache;
+  }
+
+  @Override
+  public String[] tokenize(String s) {
+    return Span.spansToStrings(tokenizePos(s), s);
+  }
+
+  /**
+   * Tokenizes the string.
+   *
+   * @param s the string to be tokenized
+   *
+   * @return the spans of the tokens, each with the probability of the token
+   */
+  @Override
+  public Span[] tokenizePos(String s) {
+    TokenizerME threadTokenizer = tokenizer.get();
+
+    Span[] spans = threadTokenizer.tokenizePos(s);
+    double[] probs = threadTokenizer.getTokenProbabilities();
+
+    for (int i = 0; i < spans.length; i++) {
+      spans[i] = new Span(spans[i], probs[i]);
+    }
+
+    return spans;
+  }
+
+  /**
+   * Tokenizes a batch of strings on the calling thread.
+   *
+   * @param texts the strings to be tokenized
+   *
+   * @return the spans of the tokens of each string in input order, each span
+   *     carries the probability of its token
+   *
+   * @see TokenizerME#tokenizePos(List)
+   */
+  public List<Span[]> tokenizePos(List<String> texts) {
+    return tokenizer.get().tokenizePos(texts);
+  }
+
+  /**
+   * Tokenizes a batch of strings, the work is distributed in chunks over the executor.
+   *
+   * @param texts the strings to be tokenized
+   * @param executor the executor which runs the chunks
+   *
+   * @return the spans of the tokens of each string in input order, each span
+   *     carries the probability of its token
+   */
+  public List<Span[]> tokenizePos(List<String> texts, Executor executor) {
+    return BatchUtil.process(texts, this::tokenizePos, executor);
+  }
+}
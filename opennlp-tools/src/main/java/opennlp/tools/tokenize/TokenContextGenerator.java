@@ -32,4 +32,21 @@ public interface TokenContextGenerator {
    *   specified index.
    */
   String[] getContext(String sentence, int index);
+
+  /**
+   * Returns the features of all positions at which the specified token can be split,
+   * these are the indices from 1 to the length of the token minus one.
+   *
+   * @param token The token.
+   *
+   * @return an array which contains the features of index i at position i - 1,
+   *   equal to the ones {@link #getContext(String, int)} returns.
+   */
+  default String[][] getContexts(String token) {
+    String[][] contexts = new String[Math.max(0, token.length() - 1)][];
+    for (int i = 0; i < contexts.length; i++) {
+      contexts[i] = getContext(token, i + 1);
+    }
+    return contexts;
+  }
 }
@@ -23,9 +23,20 @@ import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.eval.CrossValidationPartitioner;
 import opennlp.tools.util.eval.FMeasure;
+import opennlp.tools.util.eval.FoldEvaluationMonitor;
 
 public class TokenizerCrossValidator {
 
+  private static class FoldMonitor extends FoldEvaluationMonitor<TokenSample>
+      implements TokenizerEvaluationMonitor {
+
+    private FMeasure fmeasure;
+
+    FoldMonitor(TokenizerEvaluationMonitor[] listeners, boolean record) {
+      super(listeners, record);
+    }
+  }
+
   private final TrainingParameters params;
 
   private FMeasure fmeasure = new FMeasure();
@@ -50,23 +61,44 @@ public class TokenizerCrossValidator {
    * @throws IOException
    */
   public void evaluate(ObjectStream<TokenSample> samples, int nFolds) throws IOException {
+    evaluate(samples, nFolds, 1);
+  }
 
-    CrossValidationPartitioner<TokenSample> partitioner =
-        new CrossValidationPartitioner<>(samples, nFolds);
+  /**
+   * Starts the evaluation, the folds are trained and evaluated in parallel.
+   * The results and the events which are passed to the listeners are the
+   * same as in a sequential evaluation.
+   *
+   * @param samples
+   *          the data to train and test
+   * @param nFolds
+   *          number of folds
+   * @param threads
+   *          number of folds which are trained and evaluated at the same time
+   *
+   * @throws IOException
+   */
+  public void evaluate(ObjectStream<TokenSample> samples, int nFolds, int threads)
+      throws IOException {
 
-    while (partitioner.hasNext()) {
+    CrossValidationPartitioner.<TokenSample, FoldMonitor>evaluateFolds(samples, nFolds, threads,
+        trainingSampleStream -> {
 
-      CrossValidationPartitioner.TrainingSampleStream<TokenSample> trainingSampleStream =
-          partitioner.next();
+          // Maybe throws IOException if temporary file handling fails ...
+          TokenizerModel model = TokenizerME.train(trainingSampleStream, this.factory, params);
 
-      // Maybe throws IOException if temporary file handling fails ...
-      TokenizerModel model = TokenizerME.train(trainingSampleStream, this.factory, params);
+          FoldMonitor foldMonitor = new FoldMonitor(listeners, threads > 1);
+          TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model), foldMonitor);
 
-      TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model), listeners);
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
-      fmeasure.mergeInto(evaluator.getFMeasure());
-    }
+          foldMonitor.fmeasure = evaluator.getFMeasure();
+          return foldMonitor;
+        },
+        foldMonitor -> {
+          foldMonitor.replay();
+          fmeasure.mergeInto(foldMonitor.fmeasure);
+        });
   }
 
   public FMeasure getFMeasure() {
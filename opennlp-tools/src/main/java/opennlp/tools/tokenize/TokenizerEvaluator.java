@@ -61,6 +61,16 @@ public class TokenizerEvaluator extends Evaluator<TokenSample> {
     return new TokenSample(reference.getText(), predictions);
   }
 
+  @Override
+  protected boolean isMergeSupported() {
+    return true;
+  }
+
+  @Override
+  protected void mergeScores(Evaluator<TokenSample> evaluator) {
+    fmeasure.mergeInto(((TokenizerEvaluator) evaluator).fmeasure);
+  }
+
   public FMeasure getFMeasure() {
     return fmeasure;
   }
@@ -29,9 +29,11 @@ import java.util.regex.Pattern;
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.model.CompiledMaxentModel;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.tokenize.lang.Factory;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
@@ -118,12 +120,46 @@ public class TokenizerME extends AbstractTokenizer {
 
   private List<Span> newTokens;
 
+  /**
+   * The splits of the whitespace delimited tokens which were passed to the model, or null.
+   */
+  private final ConcurrentCache<String, Span[]> splitCache;
+
   public TokenizerME(TokenizerModel model) {
+    this(model, (ConcurrentCache<String, Span[]>) null);
+  }
+
+  /**
+   * Initializes the tokenizer with a cache of the specified size.
+   *
+   * @param model the model
+   * @param splitCacheSize the maximum number of tokens whose splits are cached,
+   *     zero disables the cache
+   *
+   * @see #TokenizerME(TokenizerModel, ConcurrentCache)
+   */
+  public TokenizerME(TokenizerModel model, int splitCacheSize) {
+    this(model, splitCacheSize > 0 ? new ConcurrentCache<>(splitCacheSize) : null);
+  }
+
+  /**
+   * Initializes the tokenizer with a cache which maps whitespace delimited tokens to
+   * their splits. A token which is found in the cache is not evaluated again, the result
+   * is the same since the splits of a token only depend on the token.
+   * <p>
+   * The cache is thread safe, it can be shared by tokenizers with the same model.
+   *
+   * @param model the model
+   * @param splitCache the cache or null, the spans of a cached token are relative
+   *     to the start of the token and carry the probabilities of the tokens
+   */
+  public TokenizerME(TokenizerModel model, ConcurrentCache<String, Span[]> splitCache) {
     TokenizerFactory factory = model.getFactory();
     this.alphanumeric = factory.getAlphaNumericPattern();
     this.cg = factory.getContextGenerator();
     this.model = model.getMaxentModel();
     this.useAlphaNumericOptimization = factory.isUseAlphaNumericOptmization();
+    this.splitCache = splitCache;
 
     newTokens = new ArrayList<>();
     tokProbs = new ArrayList<>(50);
@@ -142,6 +178,7 @@ public class TokenizerME extends AbstractTokenizer {
 
     this.model = model.getMaxentModel();
     useAlphaNumericOptimization = model.useAlphaNumericOptimization();
+    splitCache = null;
 
     newTokens = new ArrayList<>();
     tokProbs = new ArrayList<>(50);
@@ -154,6 +191,16 @@ public class TokenizerME extends AbstractTokenizer {
     return abbreviations.asStringSet();
   }
 
+  /**
+   * Retrieves the cache of the token splits, its statistics show how many
+   * tokens were not evaluated again.
+   *
+   * @return the cache or null if the tokenizer has none
+   */
+  public ConcurrentCache<String, Span[]> getSplitCache() {
+    return splitCache;
+  }
+
   /**
    * Returns the probabilities associated with the most recent
    * calls to {@link TokenizerME#tokenize(String)} or {@link TokenizerME#tokenizePos(String)}.
@@ -190,24 +237,12 @@ public class TokenizerME extends AbstractTokenizer {
         newTokens.add(s);
         tokProbs.add(1d);
       } else {
-        int start = s.getStart();
-        int end = s.getEnd();
-        final int origStart = s.getStart();
-        double tokenProb = 1.0;
-        for (int j = origStart + 1; j < end; j++) {
-          double[] probs =
-              model.eval(cg.getContext(tok, j - origStart));
-          String best = model.getBestOutcome(probs);
-          tokenProb *= probs[model.getIndex(best)];
-          if (best.equals(TokenizerME.SPLIT)) {
-            newTokens.add(new Span(start, j));
-            tokProbs.add(tokenProb);
-            start = j;
-            tokenProb = 1.0;
-          }
+        Span[] splits = splitCache != null
+            ? splitCache.computeIfAbsent(tok, this::split) : split(tok);
+        for (Span split : splits) {
+          newTokens.add(new Span(s.getStart() + split.getStart(), s.getStart() + split.getEnd()));
+          tokProbs.add(split.getProb());
         }
-        newTokens.add(new Span(start, end));
-        tokProbs.add(tokenProb);
       }
     }
 
@@ -216,6 +251,66 @@ public class TokenizerME extends AbstractTokenizer {
     return spans;
   }
 
+  /**
+   * Splits a whitespace delimited token.
+   *
+   * @param tok the token
+   *
+   * @return the spans of the tokens relative to the start of the token, each with
+   *     the probability of the token
+   */
+  private Span[] split(String tok) {
+    List<Span> splits = new ArrayList<>();
+    int start = 0;
+    double tokenProb = 1.0;
+    // the split positions of a token are independent, they are evaluated in one batch
+    double[][] splitProbs = model.evalBatch(getContexts(tok));
+    for (int j = 1; j < tok.length(); j++) {
+      double[] probs = splitProbs[j - 1];
+      String best = model.getBestOutcome(probs);
+      tokenProb *= probs[model.getIndex(best)];
+      if (best.equals(TokenizerME.SPLIT)) {
+        splits.add(new Span(start, j, tokenProb));
+        start = j;
+        tokenProb = 1.0;
+      }
+    }
+    splits.add(new Span(start, tok.length(), tokenProb));
+    return splits.toArray(new Span[splits.size()]);
+  }
+
+  /**
+   * Retrieves the contexts of all split positions of a token, the prefix and suffix
+   * features are only created if a compiled model contains them.
+   */
+  private String[][] getContexts(String tok) {
+    if (cg instanceof DefaultTokenContextGenerator && model instanceof CompiledMaxentModel) {
+      return ((DefaultTokenContextGenerator) cg).getContexts(tok, (CompiledMaxentModel) model);
+    }
+    return cg.getContexts(tok);
+  }
+
+  /**
+   * Tokenizes a batch of strings. The internal buffers of the tokenizer are
+   * reused for all strings of the batch.
+   *
+   * @param texts the strings to be tokenized
+   *
+   * @return the spans of the tokens of each string in input order, each span
+   *     carries the probability of its token
+   */
+  public List<Span[]> tokenizePos(List<String> texts) {
+    List<Span[]> tokens = new ArrayList<>(texts.size());
+    for (String text : texts) {
+      Span[] spans = tokenizePos(text);
+      for (int i = 0; i < spans.length; i++) {
+        spans[i] = new Span(spans[i], tokProbs.get(i));
+      }
+      tokens.add(spans);
+    }
+    return tokens;
+  }
+
   /**
    * Trains a model for the {@link TokenizerME}.
    *
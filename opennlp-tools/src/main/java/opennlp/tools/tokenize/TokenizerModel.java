@@ -24,6 +24,7 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ml.model.AbstractModel;
@@ -71,6 +72,10 @@ public final class TokenizerModel extends BaseModel {
     super(COMPONENT_NAME, in);
   }
 
+  public TokenizerModel(InputStream in, Executor executor) throws IOException {
+    super(COMPONENT_NAME, in, executor);
+  }
+
   /**
    * Initializes the current instance.
    *
@@ -82,6 +87,10 @@ public final class TokenizerModel extends BaseModel {
     super(COMPONENT_NAME, modelFile);
   }
 
+  public TokenizerModel(File modelFile, Executor executor) throws IOException {
+    super(COMPONENT_NAME, modelFile, executor);
+  }
+
   public TokenizerModel(Path modelPath) throws IOException {
     this(modelPath.toFile());
   }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Utility methods to process batches of inputs.
+ */
+public final class BatchUtil {
+
+  private BatchUtil() {
+  }
+
+  /**
+   * Computes the index of the first input of a chunk, the product of the chunk
+   * index and the number of inputs can exceed the int range.
+   */
+  static int chunkStart(int chunk, int numInputs, int numChunks) {
+    return (int) ((long) chunk * numInputs / numChunks);
+  }
+
+  /**
+   * Splits the inputs into contiguous chunks, processes the chunks with the
+   * specified executor and concatenates the results.
+   * <p>
+   * The batch function is called once per chunk, which allows it to set up
+   * its state, e.g. to retrieve a per thread tool instance, once for all the
+   * inputs of the chunk. It must be safe to call it concurrently and it must
+   * return one result per input, in input order.
+   *
+   * @param inputs the inputs to process
+   * @param batchFunction the function which processes a chunk of inputs
+   * @param executor the executor which runs the chunks
+   *
+   * @return the results, in input order
+   */
+  public static <I, O> List<O> process(List<I> inputs, Function<List<I>, List<O>> batchFunction,
+      Executor executor) {
+
+    int numChunks = Math.min(inputs.size(), Runtime.getRuntime().availableProcessors() * 4);
+
+    if (numChunks < 2) {
+      return batchFunction.apply(inputs);
+    }
+
+    List<CompletableFuture<List<O>>> chunks = new ArrayList<>(numChunks);
+    for (int i = 0; i < numChunks; i++) {
+      List<I> chunk = inputs.subList(chunkStart(i, inputs.size(), numChunks),
+          chunkStart(i + 1, inputs.size(), numChunks));
+      chunks.add(CompletableFuture.supplyAsync(() -> batchFunction.apply(chunk), executor));
+    }
+
+    List<O> results = new ArrayList<>(inputs.size());
+    try {
+      for (CompletableFuture<List<O>> chunk : chunks) {
+        results.addAll(chunk.join());
+      }
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+
+    return results;
+  }
+}
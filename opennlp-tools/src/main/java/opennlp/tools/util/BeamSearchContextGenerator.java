@@ -31,4 +31,64 @@ public interface BeamSearchContextGenerator<T> {
      * @return the context for the specified position in the specified sequence.
      */
   String[] getContext(int index, T[] sequence, String[] priorDecisions, Object[] additionalContext);
+
+  /**
+   * Returns the features of the context for the specified position which do not depend
+   * on the prior decisions. A search which asks for the context of a position with many
+   * different prior decisions, like the {@link opennlp.tools.ml.ViterbiSearch}, retrieves
+   * them once per position and only retrieves the
+   * {@link #getOutcomeDependentContext(int, Object[], String[], Object[]) outcome dependent
+   * features} for each of the prior decisions.
+   *
+   * @param index The index of the sequence.
+   * @param sequence The sequence of items over which the search is performed.
+   * @param additionalContext Any addition context specific to a class implementing this interface.
+   * @return the outcome independent features, or null if the context generator does not
+   *     split its contexts, which is the default. A caller which receives null uses the
+   *     whole context of {@link #getContext(int, Object[], String[], Object[])} instead.
+   */
+  default String[] getOutcomeIndependentContext(int index, T[] sequence,
+      Object[] additionalContext) {
+    return null;
+  }
+
+  /**
+   * Returns the features of the context for the specified position which depend on the
+   * prior decisions. Together with the outcome independent features they are the features
+   * which {@link #getContext(int, Object[], String[], Object[])} returns, their order can
+   * differ. The default implementation returns the whole context of
+   * {@link #getContext(int, Object[], String[], Object[])}, which matches an empty or a
+   * null outcome independent context.
+   *
+   * @param index The index of the sequence.
+   * @param sequence The sequence of items over which the search is performed.
+   * @param priorDecisions The sequence of decisions made prior to the context for
+   *     which this decision is being made.
+   * @param additionalContext Any addition context specific to a class implementing this interface.
+   * @return the outcome dependent features
+   */
+  default String[] getOutcomeDependentContext(int index, T[] sequence, String[] priorDecisions,
+      Object[] additionalContext) {
+    return getContext(index, sequence, priorDecisions, additionalContext);
+  }
+
+  /**
+   * Tells the context generator that the contexts of the positions of a sequence are
+   * retrieved until {@link #endSequence()} is called. The searches call it before they
+   * retrieve the first context and do not modify the sequence until the search is done,
+   * in this time a context generator may keep the features of the elements of the
+   * sequence. The default does nothing.
+   *
+   * @param sequence The sequence of items over which the search is performed.
+   */
+  default void startSequence(T[] sequence) {
+  }
+
+  /**
+   * Tells the context generator that the search of the sequence passed to
+   * {@link #startSequence(Object[])} is done, the features kept for it are released.
+   * The default does nothing.
+   */
+  default void endSequence() {
+  }
 }
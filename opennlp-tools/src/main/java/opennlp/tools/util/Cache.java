@@ -22,6 +22,9 @@ import java.util.Map;
 
 /**
  * Provides fixed size, pre-allocated, least recently used replacement cache.
+ * <p>
+ * This class is not thread safe, use {@link ConcurrentCache} for a cache which
+ * can be shared between threads and which keeps statistics.
  */
 public class Cache<K,V> extends LinkedHashMap<K,V> {
 
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Provides a bounded, thread safe, least recently used replacement cache
+ * which counts its hits, misses and evictions.
+ * <p>
+ * The entries are distributed by their hash code over a number of segments,
+ * each segment is a small least recently used cache with its own lock, threads
+ * which access different segments do not contend. The capacity is split evenly
+ * between the segments, and eviction happens per segment.
+ * <p>
+ * The cached values are shared between all threads which use the cache,
+ * they must not be modified.
+ */
+public class ConcurrentCache<K, V> {
+
+  public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+  private final Segment<K, V>[] segments;
+  private final int segmentShift;
+  private final int capacity;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int segmentCapacity;
+    private final LongAdder evictions;
+
+    Segment(int segmentCapacity, LongAdder evictions) {
+      super(16, 0.75f, true);
+      this.segmentCapacity = segmentCapacity;
+      this.evictions = evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      if (size() > segmentCapacity) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Initializes the cache with the {@link #DEFAULT_CONCURRENCY_LEVEL}.
+   *
+   * @param capacity the maximum number of entries, must be positive
+   */
+  public ConcurrentCache(int capacity) {
+    this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Initializes the cache.
+   *
+   * @param capacity the maximum number of entries, must be positive
+   * @param concurrencyLevel the number of threads which are expected to access
+   *     the cache at the same time, it is used to determine the number of segments
+   */
+  public ConcurrentCache(int capacity, int concurrencyLevel) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    if (concurrencyLevel < 1) {
+      throw new IllegalArgumentException("concurrencyLevel must be positive: " + concurrencyLevel);
+    }
+
+    // a power of two number of segments, which is not larger than
+    // the capacity, otherwise segments would have no space
+    int numSegments = Integer.highestOneBit(Math.min(capacity, concurrencyLevel));
+
+    this.capacity = capacity;
+    segmentShift = 32 - Integer.numberOfTrailingZeros(numSegments);
+    segments = newSegments(numSegments);
+    for (int i = 0; i < numSegments; i++) {
+      // distribute the remainder over the first segments
+      segments[i] = new Segment<>(capacity / numSegments + (i < capacity % numSegments ? 1 : 0),
+          evictions);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> Segment<K, V>[] newSegments(int numSegments) {
+    return (Segment<K, V>[]) new Segment<?, ?>[numSegments];
+  }
+
+  private Segment<K, V> segmentFor(Object key) {
+    if (segments.length == 1) {
+      return segments[0];
+    }
+
+    // use the high bits, the low bits select the bucket inside the segment
+    int hash = key.hashCode() * 0x9E3779B9;
+    return segments[hash >>> segmentShift];
+  }
+
+  /**
+   * Retrieves the value which is cached for the key.
+   *
+   * @param key the key
+   *
+   * @return the value or null if the key is not cached
+   */
+  public V get(K key) {
+    Segment<K, V> segment = segmentFor(key);
+
+    V value;
+    synchronized (segment) {
+      value = segment.get(key);
+    }
+
+    if (value != null) {
+      hits.increment();
+    }
+    else {
+      misses.increment();
+    }
+
+    return value;
+  }
+
+  /**
+   * Caches the value for the key, the least recently used entry of
+   * the segment is evicted if the segment is full.
+   *
+   * @param key the key
+   * @param value the value, must not be null
+   */
+  public void put(K key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("value must not be null");
+    }
+
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      segment.put(key, value);
+    }
+  }
+
+  /**
+   * Retrieves the value which is cached for the key, or computes and caches it.
+   * <p>
+   * The value is computed without holding a lock, if two threads compute the
+   * value for the same key at the same time, both return the value which was
+   * cached first.
+   *
+   * @param key the key
+   * @param mappingFunction the function which computes the value, must not return null
+   *
+   * @return the cached or computed value
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    V value = get(key);
+
+    if (value == null) {
+      V computed = mappingFunction.apply(key);
+
+      Segment<K, V> segment = segmentFor(key);
+      synchronized (segment) {
+        value = segment.putIfAbsent(key, computed);
+      }
+
+      if (value == null) {
+        value = computed;
+      }
+    }
+
+    return value;
+  }
+
+  /**
+   * Removes all entries, the statistics are not reset.
+   */
+  public void clear() {
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /**
+   * Retrieves the number of cached entries.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Retrieves the maximum number of entries.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Retrieves the number of lookups which found a value.
+   *
+   * @return number of cache hits
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Retrieves the number of lookups which did not find a value.
+   *
+   * @return number of cache misses
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Retrieves the number of entries which were evicted to make space for new ones.
+   *
+   * @return number of evictions
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Retrieves the ratio of lookups which found a value.
+   *
+   * @return the hit rate, or 0 if there were no lookups
+   */
+  public double getHitRate() {
+    long hitCount = getHitCount();
+    long lookups = hitCount + getMissCount();
+    return lookups > 0 ? (double) hitCount / lookups : 0;
+  }
+
+  @Override
+  public String toString() {
+    return "ConcurrentCache: capacity=" + capacity + " hits=" + getHitCount()
+        + " misses=" + getMissCount() + " evictions=" + getEvictionCount()
+        + " hit%" + getHitRate();
+  }
+}
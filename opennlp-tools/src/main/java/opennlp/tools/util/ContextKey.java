@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.Arrays;
+
+/**
+ * A cache key for a context, an array of predicates, which is compared by
+ * the content of the array. Plain arrays are compared by identity, and two
+ * separately generated contexts would never match.
+ * <p>
+ * The hash code is computed once, the array must not be modified after
+ * the key was created.
+ */
+public final class ContextKey {
+
+  private final String[] context;
+  private final int hash;
+
+  public ContextKey(String[] context) {
+    this.context = context;
+    this.hash = Arrays.hashCode(context);
+  }
+
+  public String[] getContext() {
+    return context;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj instanceof ContextKey) {
+      ContextKey other = (ContextKey) obj;
+      return hash == other.hash && Arrays.equals(context, other.context);
+    }
+
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(context);
+  }
+}
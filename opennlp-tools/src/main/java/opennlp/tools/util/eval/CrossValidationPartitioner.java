@@ -19,8 +19,16 @@
 package opennlp.tools.util.eval;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import opennlp.tools.util.CollectionObjectStream;
 import opennlp.tools.util.ObjectStream;
@@ -277,6 +285,116 @@ public class CrossValidationPartitioner<E> {
     }
   }
 
+  /**
+   * Trains and evaluates one fold of a cross validation.
+   *
+   * @param <E> the type of the samples
+   * @param <R> the type of the result of a fold
+   */
+  @FunctionalInterface
+  public interface FoldEvaluator<E, R> {
+
+    /**
+     * Trains on the training samples of the fold and evaluates on its test samples.
+     *
+     * @param trainingSampleStream the training samples of the fold, the test samples
+     *     are obtained with {@link TrainingSampleStream#getTestSampleStream()}
+     *
+     * @return the result of the fold
+     *
+     * @throws IOException if reading the samples fails
+     */
+    R evaluate(TrainingSampleStream<E> trainingSampleStream) throws IOException;
+  }
+
+  /**
+   * Trains and evaluates all folds of a cross validation.
+   * <p>
+   * With one thread the folds are evaluated one after another on the calling thread,
+   * the samples are read again from the stream for every fold. With more threads the
+   * samples are read once into memory and the folds are evaluated concurrently, every
+   * fold reads the samples from memory.
+   * <p>
+   * In both cases the results are passed to the consumer in fold order on the calling
+   * thread, merging them in the consumer gives the same result regardless of the
+   * number of threads. The fold evaluator must not share mutable state between folds
+   * if more than one thread is used.
+   *
+   * @param samples the samples of the cross validation
+   * @param numberOfPartitions the number of folds
+   * @param threads the number of folds which are evaluated at the same time
+   * @param foldEvaluator trains and evaluates a fold
+   * @param consumer receives the results of the folds
+   *
+   * @throws IOException if reading the samples fails
+   */
+  public static <E, R> void evaluateFolds(ObjectStream<E> samples, int numberOfPartitions,
+      int threads, FoldEvaluator<E, R> foldEvaluator, Consumer<R> consumer) throws IOException {
+
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least one but was " + threads + "!");
+    }
+
+    if (threads == 1) {
+      CrossValidationPartitioner<E> partitioner =
+          new CrossValidationPartitioner<>(samples, numberOfPartitions);
+
+      while (partitioner.hasNext()) {
+        consumer.accept(foldEvaluator.evaluate(partitioner.next()));
+      }
+      return;
+    }
+
+    List<E> sampleList = new ArrayList<>();
+    E sample;
+    while ((sample = samples.read()) != null) {
+      sampleList.add(sample);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(threads, numberOfPartitions)));
+
+    try {
+      List<Future<R>> results = new ArrayList<>(numberOfPartitions);
+
+      for (int testIndex = 0; testIndex < numberOfPartitions; testIndex++) {
+        TrainingSampleStream<E> trainingSampleStream = new TrainingSampleStream<>(
+            new CollectionObjectStream<>(sampleList), numberOfPartitions, testIndex);
+        results.add(executor.submit(() -> foldEvaluator.evaluate(trainingSampleStream)));
+      }
+
+      for (Future<R> result : results) {
+        consumer.accept(getResult(result));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static <R> R getResult(Future<R> result) throws IOException {
+    try {
+      return result.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a fold");
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Evaluation of a fold failed", cause);
+    }
+  }
+
   @Override
   public String toString() {
     return "At partition" + Integer.toString(testIndex + 1) +
@@ -19,9 +19,18 @@
 package opennlp.tools.util.eval;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import opennlp.tools.util.ObjectStream;
 
@@ -33,6 +42,13 @@ import opennlp.tools.util.ObjectStream;
  */
 public abstract class Evaluator<T> {
 
+  /**
+   * The minimum number of samples in a shard of a parallel evaluation.
+   */
+  private static final int MIN_SHARD_SIZE = 32;
+
+  private static final int PENDING_SHARDS_PER_THREAD = 4;
+
   private List<EvaluationMonitor<T>> listeners;
 
   @SafeVarargs
@@ -76,7 +92,10 @@ public abstract class Evaluator<T> {
    *          the sample to be evaluated
    */
   public void evaluateSample(T sample) {
-    T predicted = processSample(sample);
+    notifyListeners(sample, processSample(sample));
+  }
+
+  private void notifyListeners(T sample, T predicted) {
     if (!listeners.isEmpty()) {
       if (sample.equals(predicted)) {
         for (EvaluationMonitor<T> listener : listeners) {
@@ -106,4 +125,166 @@ public abstract class Evaluator<T> {
       evaluateSample(sample);
     }
   }
+
+  /**
+   * Reads all sample objects from the stream and evaluates them on a number of
+   * worker threads.
+   * <p>
+   * The stream is split into shards of consecutive samples, every worker thread
+   * evaluates its shards with its own evaluator which is created by the factory,
+   * e.g. an evaluator with a new instance of the evaluated tool. When all samples
+   * are evaluated the scores of the worker evaluators are merged into this evaluator.
+   * The listeners of this evaluator are called on the calling thread with the samples
+   * in stream order, they receive the same calls as in {@link #evaluate(ObjectStream)}.
+   *
+   * @param samples the stream of reference which
+   *     should be evaluated.
+   * @param threads the number of worker threads, with one thread the samples
+   *     are evaluated on the calling thread with {@link #evaluate(ObjectStream)}
+   * @param evaluatorFactory creates the evaluator of a worker thread, the evaluators
+   *     must be of the same class as this evaluator and have no listeners
+   *
+   * @throws IOException IOException
+   * @throws UnsupportedOperationException if the evaluator does not support
+   *     merging of scores, before any sample is read
+   */
+  public void evaluate(ObjectStream<T> samples, int threads,
+      Supplier<? extends Evaluator<T>> evaluatorFactory) throws IOException {
+
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least one but was " + threads + "!");
+    }
+
+    if (threads == 1) {
+      evaluate(samples);
+      return;
+    }
+
+    if (!isMergeSupported()) {
+      throw new UnsupportedOperationException(getClass().getName()
+          + " does not support parallel evaluation");
+    }
+
+    Queue<Evaluator<T>> workerEvaluators = new ConcurrentLinkedQueue<>();
+    ThreadLocal<Evaluator<T>> workers = ThreadLocal.withInitial(() -> {
+      Evaluator<T> evaluator = evaluatorFactory.get();
+      workerEvaluators.add(evaluator);
+      return evaluator;
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    try {
+      Queue<Future<List<T>>> pending = new ArrayDeque<>();
+      Queue<List<T>> pendingShards = new ArrayDeque<>();
+
+      List<T> shard = new ArrayList<>();
+
+      T sample;
+      while ((sample = samples.read()) != null) {
+        if (shard.size() >= MIN_SHARD_SIZE && isShardStart(sample)) {
+          if (pending.size() == threads * PENDING_SHARDS_PER_THREAD) {
+            notifyListeners(pendingShards.poll(), getPredictions(pending.poll()));
+          }
+
+          submitShard(executor, workers, shard, pending, pendingShards);
+          shard = new ArrayList<>();
+        }
+
+        shard.add(sample);
+      }
+
+      if (!shard.isEmpty()) {
+        submitShard(executor, workers, shard, pending, pendingShards);
+      }
+
+      while (!pending.isEmpty()) {
+        notifyListeners(pendingShards.poll(), getPredictions(pending.poll()));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    for (Evaluator<T> workerEvaluator : workerEvaluators) {
+      mergeScores(workerEvaluator);
+    }
+  }
+
+  private void submitShard(ExecutorService executor, ThreadLocal<Evaluator<T>> workers,
+      List<T> shard, Queue<Future<List<T>>> pending, Queue<List<T>> pendingShards) {
+
+    pending.add(executor.submit(() -> {
+      Evaluator<T> worker = workers.get();
+
+      List<T> predictions = new ArrayList<>(shard.size());
+      for (T reference : shard) {
+        predictions.add(worker.processSample(reference));
+      }
+      return predictions;
+    }));
+    pendingShards.add(shard);
+  }
+
+  private void notifyListeners(List<T> shard, List<T> predictions) {
+    for (int i = 0; i < shard.size(); i++) {
+      notifyListeners(shard.get(i), predictions.get(i));
+    }
+  }
+
+  private static <T> List<T> getPredictions(Future<List<T>> predictions) throws IOException {
+    try {
+      return predictions.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a worker thread");
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Evaluation failed", cause);
+    }
+  }
+
+  /**
+   * Checks if a shard of a parallel evaluation can start with the sample. The
+   * default implementation returns true, evaluators whose tool keeps state between
+   * samples return true only for samples which reset this state.
+   *
+   * @param sample the sample
+   *
+   * @return true if a shard can start with the sample
+   */
+  protected boolean isShardStart(T sample) {
+    return true;
+  }
+
+  /**
+   * Checks if the evaluator can merge the scores of worker evaluators, which is
+   * required for a parallel evaluation. The default implementation returns false,
+   * evaluators which override {@link #mergeScores(Evaluator)} return true.
+   *
+   * @return true if {@link #mergeScores(Evaluator)} is supported
+   */
+  protected boolean isMergeSupported() {
+    return false;
+  }
+
+  /**
+   * Merges the scores of a worker evaluator of a parallel evaluation into the
+   * scores of this evaluator. The default implementation throws an
+   * {@link UnsupportedOperationException}.
+   *
+   * @param evaluator the worker evaluator, it is of the same class as this evaluator
+   */
+  protected void mergeScores(Evaluator<T> evaluator) {
+    throw new UnsupportedOperationException(getClass().getName()
+        + " does not support parallel evaluation");
+  }
 }
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.eval;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Passes the evaluation events of one fold of a cross validation to the listeners
+ * of the cross validation.
+ * <p>
+ * If the folds are evaluated in parallel the events are recorded instead, and they
+ * are passed on by {@link #replay()} when the results of the fold are merged. The
+ * listeners then receive the events of one fold after another in fold order, as if
+ * the folds were evaluated sequentially.
+ *
+ * @see CrossValidationPartitioner#evaluateFolds(opennlp.tools.util.ObjectStream, int, int,
+ *     CrossValidationPartitioner.FoldEvaluator, java.util.function.Consumer)
+ */
+public class FoldEvaluationMonitor<T> implements EvaluationMonitor<T> {
+
+  private final List<EvaluationMonitor<T>> listeners = new ArrayList<>();
+  private final boolean record;
+
+  private final List<T> references = new ArrayList<>();
+  private final List<T> predictions = new ArrayList<>();
+  private final BitSet correct = new BitSet();
+
+  /**
+   * Initializes the monitor.
+   *
+   * @param listeners the listeners of the cross validation, null values are ignored
+   * @param record true if the events are recorded until {@link #replay()} is called,
+   *     false if they are passed on immediately
+   */
+  public FoldEvaluationMonitor(EvaluationMonitor<T>[] listeners, boolean record) {
+    if (listeners != null) {
+      for (EvaluationMonitor<T> listener : listeners) {
+        if (listener != null) {
+          this.listeners.add(listener);
+        }
+      }
+    }
+
+    this.record = record && !this.listeners.isEmpty();
+  }
+
+  @Override
+  public void correctlyClassified(T reference, T prediction) {
+    if (record) {
+      correct.set(references.size());
+      references.add(reference);
+      predictions.add(prediction);
+    }
+    else {
+      for (EvaluationMonitor<T> listener : listeners) {
+        listener.correctlyClassified(reference, prediction);
+      }
+    }
+  }
+
+  @Override
+  public void missclassified(T reference, T prediction) {
+    if (record) {
+      references.add(reference);
+      predictions.add(prediction);
+    }
+    else {
+      for (EvaluationMonitor<T> listener : listeners) {
+        listener.missclassified(reference, prediction);
+      }
+    }
+  }
+
+  /**
+   * Passes the recorded events to the listeners in the order they occurred.
+   */
+  public void replay() {
+    for (int i = 0; i < references.size(); i++) {
+      for (EvaluationMonitor<T> listener : listeners) {
+        if (correct.get(i)) {
+          listener.correctlyClassified(references.get(i), predictions.get(i));
+        }
+        else {
+          listener.missclassified(references.get(i), predictions.get(i));
+        }
+      }
+    }
+
+    references.clear();
+    predictions.clear();
+    correct.clear();
+  }
+}
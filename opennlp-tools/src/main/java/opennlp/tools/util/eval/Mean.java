@@ -57,6 +57,16 @@ public class Mean {
     this.count += count;
   }
 
+  /**
+   * Merges the values of another mean into this mean.
+   *
+   * @param mean the mean which is merged
+   */
+  public void mergeInto(Mean mean) {
+    sum += mean.sum;
+    count += mean.count;
+  }
+
   /**
    * Retrieves the mean of all values added with
    * {@link #add(double)} or 0 if there are zero added
@@ -58,4 +58,15 @@ public interface AdaptiveFeatureGenerator {
    * is no longer valid.
    */
   default void clearAdaptiveData() {};
+
+  /**
+   * Indicates whether the features of a token only depend on the tokens of the sentence
+   * and the adaptive data, but not on the previous outcomes. The features of such
+   * a generator are computed once per token of a sentence, see {@link SentenceFeatureTable}.
+   *
+   * @return true if the features do not depend on the previous outcomes
+   */
+  default boolean isOutcomeIndependent() {
+    return false;
+  }
 }
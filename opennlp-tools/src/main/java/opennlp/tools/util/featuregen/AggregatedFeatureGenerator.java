@@ -90,6 +90,21 @@ public class AggregatedFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  /**
+   * Checks if all aggregated {@link AdaptiveFeatureGenerator}s are outcome independent.
+   */
+  @Override
+  public boolean isOutcomeIndependent() {
+
+    for (AdaptiveFeatureGenerator generator : generators) {
+      if (!generator.isOutcomeIndependent()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
   /**
    * Retrieves a {@link Collections} of all aggregated
    * {@link AdaptiveFeatureGenerator}s.
@@ -36,4 +36,9 @@ public class BigramNameFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add("wc,nc=" + wc + "," + nwc);
     }
   }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -40,4 +40,8 @@ public class BrownTokenFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -21,25 +21,46 @@ package opennlp.tools.util.featuregen;
 import java.util.ArrayList;
 import java.util.List;
 
-import opennlp.tools.util.Cache;
+import opennlp.tools.util.ConcurrentCache;
 
 /**
  * Caches features of the aggregated {@link AdaptiveFeatureGenerator}s.
+ * <p>
+ * The features of the tokens of the current sentence are cached, the cache
+ * is cleared when the generator is called with another sentence.
  */
 public class CachedFeatureGenerator implements AdaptiveFeatureGenerator {
 
+  /**
+   * The number of tokens which are cached by default.
+   */
+  public static final int DEFAULT_CACHE_SIZE = 100;
+
   private final AdaptiveFeatureGenerator generator;
 
   private String[] prevTokens;
 
-  private Cache<Integer, List<String>> contextsCache;
+  private final int cacheSize;
+  private final ConcurrentCache<Integer, List<String>> contextsCache;
 
   private long numberOfCacheHits;
   private long numberOfCacheMisses;
 
   public CachedFeatureGenerator(AdaptiveFeatureGenerator... generators) {
+    this(DEFAULT_CACHE_SIZE, generators);
+  }
+
+  /**
+   * Initializes the generator with the specified cache size.
+   *
+   * @param cacheSize the maximum number of tokens whose features are cached
+   * @param generators the generators whose features are cached
+   */
+  public CachedFeatureGenerator(int cacheSize, AdaptiveFeatureGenerator... generators) {
     this.generator = new AggregatedFeatureGenerator(generators);
-    contextsCache = new Cache<>(100);
+    this.cacheSize = cacheSize;
+    // a generator is used by one thread at a time, one segment is sufficient
+    contextsCache = new ConcurrentCache<>(cacheSize, 1);
   }
 
   public void createFeatures(List<String> features, String[] tokens, int index,
@@ -71,6 +92,14 @@ public class CachedFeatureGenerator implements AdaptiveFeatureGenerator {
     features.addAll(cacheFeatures);
   }
 
+  AdaptiveFeatureGenerator getGenerator() {
+    return generator;
+  }
+
+  int getCacheSize() {
+    return cacheSize;
+  }
+
   public void updateAdaptiveData(String[] tokens, String[] outcomes) {
     generator.updateAdaptiveData(tokens, outcomes);
   }
@@ -79,6 +108,11 @@ public class CachedFeatureGenerator implements AdaptiveFeatureGenerator {
     generator.clearAdaptiveData();
   }
 
+  @Override
+  public boolean isOutcomeIndependent() {
+    return generator.isOutcomeIndependent();
+  }
+
   /**
    * Retrieves the number of times a cache hit occurred.
    *
@@ -97,10 +131,21 @@ public class CachedFeatureGenerator implements AdaptiveFeatureGenerator {
     return numberOfCacheMisses;
   }
 
+  /**
+   * Retrieves the number of times cached features were evicted because
+   * the cache was full.
+   *
+   * @return number of cache evictions
+   */
+  public long getNumberOfCacheEvictions() {
+    return contextsCache.getEvictionCount();
+  }
+
   @Override
   public String toString() {
     return super.toString() + ": hits=" + numberOfCacheHits
-        + " misses=" + numberOfCacheMisses + " hit%" + (numberOfCacheHits > 0 ?
+        + " misses=" + numberOfCacheMisses + " evictions=" + getNumberOfCacheEvictions()
+        + " hit%" + (numberOfCacheHits > 0 ?
         (double) numberOfCacheHits / (numberOfCacheMisses + numberOfCacheHits) : 0);
   }
 }
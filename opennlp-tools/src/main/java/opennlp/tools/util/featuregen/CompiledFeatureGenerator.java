@@ -0,0 +1,579 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import opennlp.tools.util.ConcurrentCache;
+import opennlp.tools.util.StringUtil;
+
+/**
+ * A flat form of a tree of feature generators which produces the same features
+ * in the same order as the tree.
+ * <p>
+ * The aggregated, cached and window generators of the tree are resolved when the
+ * generator is compiled. Every generator which is left becomes a slot for each
+ * position of the windows it is nested in, the slot knows the offset of its token
+ * and the complete prefix of its features, e.g. <code>p1n2</code>, the prefix is
+ * created only once. The token, token class, definition, sentence, bigram, prefix
+ * and suffix generators are fused into the pipeline, they share the lower case form
+ * and the class of a token which are computed once per token of a sentence. All
+ * other generators, e.g. custom generators, are called as they are.
+ * <p>
+ * The features of outcome independent generators are computed once per token of
+ * the current sentence. The tables are cleared when the generator is called with
+ * another tokens array, or when the adaptive data is updated or cleared. A cache
+ * of features which depend on the previous outcomes keeps as many tokens as the
+ * {@link CachedFeatureGenerator} it replaces and evicts the least recently used
+ * token first, like the cached generator does.
+ *
+ * @see GeneratorFactory#createCompiled(java.io.InputStream, FeatureGeneratorResourceProvider)
+ */
+public class CompiledFeatureGenerator implements AdaptiveFeatureGenerator {
+
+  private static final String[] NO_FEATURES = new String[0];
+
+  private final Map<AdaptiveFeatureGenerator, Op> compiledOps = new IdentityHashMap<>();
+  private final List<Op> ops = new ArrayList<>();
+  private final List<Slot> allSlots = new ArrayList<>();
+
+  private final Slot[] slots;
+  private final boolean outcomeIndependent;
+
+  private String[] tokens;
+  private String[] lowercaseTokens;
+  private String[] tokenClasses;
+
+  /**
+   * Compiles a tree of feature generators.
+   *
+   * @param generator the root of the tree
+   */
+  public CompiledFeatureGenerator(AdaptiveFeatureGenerator generator) {
+    slots = compileSlots(generator);
+    outcomeIndependent = generator.isOutcomeIndependent();
+  }
+
+  private Slot[] compileSlots(AdaptiveFeatureGenerator generator) {
+    List<Slot> compiled = new ArrayList<>();
+    compile(compiled, generator, new int[0], "");
+    allSlots.addAll(compiled);
+    return compiled.toArray(new Slot[compiled.size()]);
+  }
+
+  private void compile(List<Slot> compiled, AdaptiveFeatureGenerator generator, int[] offsets,
+      String prefix) {
+
+    Class<?> type = generator.getClass();
+
+    if (type == AggregatedFeatureGenerator.class) {
+      for (AdaptiveFeatureGenerator aggregated :
+          ((AggregatedFeatureGenerator) generator).getGenerators()) {
+        compile(compiled, aggregated, offsets, prefix);
+      }
+    }
+    else if (type == CachedFeatureGenerator.class
+        && ((CachedFeatureGenerator) generator).getGenerator().isOutcomeIndependent()) {
+      // the tables of the slots replace the cache
+      compile(compiled, ((CachedFeatureGenerator) generator).getGenerator(), offsets, prefix);
+    }
+    else if (type == WindowFeatureGenerator.class) {
+      WindowFeatureGenerator window = (WindowFeatureGenerator) generator;
+
+      compile(compiled, window.getGenerator(), offsets, prefix);
+
+      for (int i = 1; i < window.getPrevWindowSize() + 1; i++) {
+        compile(compiled, window.getGenerator(), append(offsets, -i),
+            prefix + WindowFeatureGenerator.PREV_PREFIX + i);
+      }
+
+      for (int i = 1; i < window.getNextWindowSize() + 1; i++) {
+        compile(compiled, window.getGenerator(), append(offsets, i),
+            prefix + WindowFeatureGenerator.NEXT_PREFIX + i);
+      }
+    }
+    else {
+      compiled.add(new Slot(getOp(generator), offsets, prefix));
+    }
+  }
+
+  private static int[] append(int[] offsets, int offset) {
+    int[] appended = Arrays.copyOf(offsets, offsets.length + 1);
+    appended[offsets.length] = offset;
+    return appended;
+  }
+
+  /**
+   * Retrieves the op of a generator, a generator which occurs in several windows
+   * has one op.
+   */
+  private Op getOp(AdaptiveFeatureGenerator generator) {
+    Op op = compiledOps.get(generator);
+
+    if (op == null) {
+      op = createOp(generator);
+      compiledOps.put(generator, op);
+      ops.add(op);
+    }
+
+    return op;
+  }
+
+  private Op createOp(AdaptiveFeatureGenerator generator) {
+    Class<?> type = generator.getClass();
+
+    if (type == TokenFeatureGenerator.class) {
+      return new TokenOp(((TokenFeatureGenerator) generator).isLowercase());
+    }
+    else if (type == TokenClassFeatureGenerator.class) {
+      return new TokenClassOp(
+          ((TokenClassFeatureGenerator) generator).isGenerateWordAndClassFeature());
+    }
+    else if (type == OutcomePriorFeatureGenerator.class) {
+      return new ConstantOp("def");
+    }
+    else if (type == SentenceFeatureGenerator.class) {
+      SentenceFeatureGenerator sentence = (SentenceFeatureGenerator) generator;
+      return new SentenceOp(sentence.isGenerateFirstWordFeature(),
+          sentence.isGenerateLastWordFeature());
+    }
+    else if (type == BigramNameFeatureGenerator.class) {
+      return new BigramOp();
+    }
+    else if (type == PrefixFeatureGenerator.class) {
+      return new PrefixOp(((PrefixFeatureGenerator) generator).getPrefixLength());
+    }
+    else if (type == SuffixFeatureGenerator.class) {
+      return new SuffixOp(((SuffixFeatureGenerator) generator).getSuffixLength());
+    }
+    else if (type == CachedFeatureGenerator.class) {
+      // the cache keeps the features of the first call per token, even if they depend
+      // on the previous outcomes
+      CachedFeatureGenerator cached = (CachedFeatureGenerator) generator;
+      return new CachedOp(compileSlots(cached.getGenerator()), cached.getCacheSize());
+    }
+    else {
+      return new GeneratorOp(generator);
+    }
+  }
+
+  public void createFeatures(List<String> features, String[] tokens, int index,
+      String[] previousOutcomes) {
+
+    if (tokens != this.tokens) {
+      startSentence(tokens);
+    }
+
+    for (Slot slot : slots) {
+      slot.createFeatures(features, index, previousOutcomes);
+    }
+  }
+
+  private void startSentence(String[] tokens) {
+    this.tokens = tokens;
+
+    lowercaseTokens = clear(lowercaseTokens, tokens.length);
+    tokenClasses = clear(tokenClasses, tokens.length);
+
+    for (Op op : ops) {
+      if (op.table != null) {
+        op.table = clear(op.table, tokens.length);
+      }
+    }
+
+    for (Slot slot : allSlots) {
+      if (slot.table != null) {
+        slot.table = clear(slot.table, tokens.length);
+      }
+    }
+  }
+
+  private static String[] clear(String[] table, int length) {
+    if (table == null || table.length < length) {
+      return new String[length];
+    }
+    Arrays.fill(table, null);
+    return table;
+  }
+
+  private static String[][] clear(String[][] table, int length) {
+    if (table.length < length) {
+      return new String[length][];
+    }
+    Arrays.fill(table, null);
+    return table;
+  }
+
+  private String lowercaseToken(int index) {
+    String lowercase = lowercaseTokens[index];
+    if (lowercase == null) {
+      lowercase = StringUtil.toLowerCase(tokens[index]);
+      lowercaseTokens[index] = lowercase;
+    }
+    return lowercase;
+  }
+
+  private String tokenClass(int index) {
+    String tokenClass = tokenClasses[index];
+    if (tokenClass == null) {
+      tokenClass = FeatureGeneratorUtil.tokenFeature(tokens[index]);
+      tokenClasses[index] = tokenClass;
+    }
+    return tokenClass;
+  }
+
+  public void updateAdaptiveData(String[] tokens, String[] outcomes) {
+    for (Op op : ops) {
+      op.updateAdaptiveData(tokens, outcomes);
+    }
+    this.tokens = null;
+  }
+
+  public void clearAdaptiveData() {
+    for (Op op : ops) {
+      op.clearAdaptiveData();
+    }
+    this.tokens = null;
+  }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return outcomeIndependent;
+  }
+
+  /**
+   * An op at a position of a window, it creates the features of the token at the
+   * offsets from the current token and prefixes them.
+   */
+  private final class Slot {
+
+    private final Op op;
+    private final int[] offsets;
+    private final String prefix;
+
+    /** The prefixed features per token, only if the op is outcome independent. */
+    private String[][] table;
+
+    private List<String> buffer;
+
+    Slot(Op op, int[] offsets, String prefix) {
+      this.op = op;
+      this.offsets = offsets;
+      this.prefix = prefix;
+
+      if (op.table != null && !prefix.isEmpty()) {
+        table = new String[0][];
+      }
+    }
+
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+
+      int opIndex = index;
+      for (int offset : offsets) {
+        opIndex += offset;
+        if (opIndex < 0 || opIndex >= tokens.length) {
+          return;
+        }
+      }
+
+      if (op.table != null) {
+        String[] tokenFeatures;
+
+        if (table != null) {
+          tokenFeatures = table[index];
+          if (tokenFeatures == null) {
+            String[] opFeatures = op.getFeatures(opIndex);
+            tokenFeatures = new String[opFeatures.length];
+            for (int i = 0; i < opFeatures.length; i++) {
+              tokenFeatures[i] = prefix + opFeatures[i];
+            }
+            table[index] = tokenFeatures;
+          }
+        }
+        else {
+          tokenFeatures = op.getFeatures(opIndex);
+        }
+
+        Collections.addAll(features, tokenFeatures);
+      }
+      else if (prefix.isEmpty()) {
+        op.createFeatures(features, opIndex, previousOutcomes);
+      }
+      else {
+        if (buffer == null) {
+          buffer = new ArrayList<>();
+        }
+        buffer.clear();
+        op.createFeatures(buffer, opIndex, previousOutcomes);
+        for (String feature : buffer) {
+          features.add(prefix + feature);
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the features of one generator.
+   */
+  private abstract class Op {
+
+    /** The features per token, only if the op is outcome independent. */
+    String[][] table;
+
+    Op(boolean outcomeIndependent) {
+      if (outcomeIndependent) {
+        table = new String[0][];
+      }
+    }
+
+    String[] getFeatures(int index) {
+      String[] tokenFeatures = table[index];
+
+      if (tokenFeatures == null) {
+        List<String> generated = new ArrayList<>();
+        createFeatures(generated, index, null);
+        tokenFeatures = generated.isEmpty() ? NO_FEATURES
+            : generated.toArray(new String[generated.size()]);
+        table[index] = tokenFeatures;
+      }
+
+      return tokenFeatures;
+    }
+
+    abstract void createFeatures(List<String> features, int index, String[] previousOutcomes);
+
+    void updateAdaptiveData(String[] tokens, String[] outcomes) {
+    }
+
+    void clearAdaptiveData() {
+    }
+  }
+
+  /** @see TokenFeatureGenerator */
+  private final class TokenOp extends Op {
+
+    private final boolean lowercase;
+
+    TokenOp(boolean lowercase) {
+      super(true);
+      this.lowercase = lowercase;
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      features.add("w=" + (lowercase ? lowercaseToken(index) : tokens[index]));
+    }
+  }
+
+  /** @see TokenClassFeatureGenerator */
+  private final class TokenClassOp extends Op {
+
+    private final boolean generateWordAndClassFeature;
+
+    TokenClassOp(boolean generateWordAndClassFeature) {
+      super(true);
+      this.generateWordAndClassFeature = generateWordAndClassFeature;
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      String wordClass = tokenClass(index);
+      features.add("wc=" + wordClass);
+
+      if (generateWordAndClassFeature) {
+        features.add("w&c=" + lowercaseToken(index) + "," + wordClass);
+      }
+    }
+  }
+
+  /** @see OutcomePriorFeatureGenerator */
+  private final class ConstantOp extends Op {
+
+    private final String feature;
+
+    ConstantOp(String feature) {
+      super(true);
+      this.feature = feature;
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      features.add(feature);
+    }
+  }
+
+  /** @see SentenceFeatureGenerator */
+  private final class SentenceOp extends Op {
+
+    private final boolean generateFirstWordFeature;
+    private final boolean generateLastWordFeature;
+
+    SentenceOp(boolean generateFirstWordFeature, boolean generateLastWordFeature) {
+      super(true);
+      this.generateFirstWordFeature = generateFirstWordFeature;
+      this.generateLastWordFeature = generateLastWordFeature;
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      if (generateFirstWordFeature && index == 0) {
+        features.add("S=begin");
+      }
+
+      if (generateLastWordFeature && tokens.length == index + 1) {
+        features.add("S=end");
+      }
+    }
+  }
+
+  /** @see BigramNameFeatureGenerator */
+  private final class BigramOp extends Op {
+
+    BigramOp() {
+      super(true);
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      String wc = tokenClass(index);
+
+      if (index > 0) {
+        features.add("pw,w=" + tokens[index - 1] + "," + tokens[index]);
+        features.add("pwc,wc=" + tokenClass(index - 1) + "," + wc);
+      }
+      if (index + 1 < tokens.length) {
+        features.add("w,nw=" + tokens[index] + "," + tokens[index + 1]);
+        features.add("wc,nc=" + wc + "," + tokenClass(index + 1));
+      }
+    }
+  }
+
+  /** @see PrefixFeatureGenerator */
+  private final class PrefixOp extends Op {
+
+    private final int prefixLength;
+
+    PrefixOp(int prefixLength) {
+      super(true);
+      this.prefixLength = prefixLength;
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      String lex = tokens[index];
+      int prefixes = Math.min(prefixLength, lex.length());
+      for (int li = 0; li < prefixes; li++) {
+        features.add("pre=" + lex.substring(0, li + 1));
+      }
+    }
+  }
+
+  /** @see SuffixFeatureGenerator */
+  private final class SuffixOp extends Op {
+
+    private final int suffixLength;
+
+    SuffixOp(int suffixLength) {
+      super(true);
+      this.suffixLength = suffixLength;
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      String lex = tokens[index];
+      int suffixes = Math.min(suffixLength, lex.length());
+      for (int li = 0; li < suffixes; li++) {
+        features.add("suf=" + lex.substring(lex.length() - li - 1));
+      }
+    }
+  }
+
+  /**
+   * A cache whose features depend on the previous outcomes, the features of the
+   * first call for a token are kept for the sentence like {@link CachedFeatureGenerator}
+   * does, with the same size and the same least recently used eviction.
+   */
+  private final class CachedOp extends Op {
+
+    private final Slot[] cachedSlots;
+
+    private String[] cacheTokens;
+    private final ConcurrentCache<Integer, String[]> cache;
+
+    CachedOp(Slot[] cachedSlots, int cacheSize) {
+      super(false);
+      this.cachedSlots = cachedSlots;
+      // used by one thread at a time like the cached generator, one segment is sufficient
+      cache = new ConcurrentCache<>(cacheSize, 1);
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      if (cacheTokens != tokens) {
+        cacheTokens = tokens;
+        cache.clear();
+      }
+
+      String[] tokenFeatures = cache.get(index);
+
+      if (tokenFeatures == null) {
+        List<String> generated = new ArrayList<>();
+        for (Slot slot : cachedSlots) {
+          slot.createFeatures(generated, index, previousOutcomes);
+        }
+        tokenFeatures = generated.toArray(new String[generated.size()]);
+        cache.put(index, tokenFeatures);
+      }
+
+      Collections.addAll(features, tokenFeatures);
+    }
+  }
+
+  /**
+   * Calls a generator which is not fused into the pipeline.
+   */
+  private final class GeneratorOp extends Op {
+
+    private final AdaptiveFeatureGenerator generator;
+
+    GeneratorOp(AdaptiveFeatureGenerator generator) {
+      super(generator.isOutcomeIndependent());
+      this.generator = generator;
+    }
+
+    @Override
+    void createFeatures(List<String> features, int index, String[] previousOutcomes) {
+      generator.createFeatures(features, tokens, index, previousOutcomes);
+    }
+
+    @Override
+    void updateAdaptiveData(String[] tokens, String[] outcomes) {
+      generator.updateAdaptiveData(tokens, outcomes);
+    }
+
+    @Override
+    void clearAdaptiveData() {
+      generator.clearAdaptiveData();
+    }
+  }
+}
@@ -55,4 +55,8 @@ public class DictionaryFeatureGenerator implements AdaptiveFeatureGenerator {
     isg.createFeatures(features, tokens, index, previousOutcomes);
   }
 
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
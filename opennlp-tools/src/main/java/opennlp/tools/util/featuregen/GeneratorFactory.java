@@ -171,7 +171,25 @@ public class GeneratorFactory {
       AdaptiveFeatureGenerator cachedGenerator =
           GeneratorFactory.createGenerator(cachedGeneratorElement, resourceManager);
 
-      return new CachedFeatureGenerator(cachedGenerator);
+      String sizeString = generatorElement.getAttribute("size");
+
+      if (sizeString.isEmpty()) {
+        return new CachedFeatureGenerator(cachedGenerator);
+      }
+
+      int size;
+
+      try {
+        size = Integer.parseInt(sizeString);
+      } catch (NumberFormatException e) {
+        throw new InvalidFormatException("size attribute '" + sizeString + "' is not a number!", e);
+      }
+
+      if (size < 1) {
+        throw new InvalidFormatException("size attribute '" + sizeString + "' must be positive!");
+      }
+
+      return new CachedFeatureGenerator(size, cachedGenerator);
     }
 
     static void register(Map<String, XmlFeatureGeneratorFactory> factoryMap) {
@@ -775,6 +793,28 @@ public class GeneratorFactory {
     return createGenerator(generatorElement, resourceManager);
   }
 
+  /**
+   * Creates an {@link AdaptiveFeatureGenerator} from an provided XML descriptor and
+   * compiles it into a {@link CompiledFeatureGenerator}. The compiled generator
+   * produces the same features as the generator which is created by
+   * {@link #create(InputStream, FeatureGeneratorResourceProvider)}.
+   *
+   * @param xmlDescriptorIn the {@link InputStream} from which the descriptor
+   *     is read, the stream remains open and must be closed by the caller.
+   *
+   * @param resourceManager the resource manager which is used to resolve resources
+   *     referenced by a key in the descriptor
+   *
+   * @return the compiled feature generator
+   *
+   * @throws IOException if an error occurs during reading from the descriptor
+   *     {@link InputStream}
+   */
+  public static AdaptiveFeatureGenerator createCompiled(InputStream xmlDescriptorIn,
+      FeatureGeneratorResourceProvider resourceManager) throws IOException {
+    return new CompiledFeatureGenerator(create(xmlDescriptorIn, resourceManager));
+  }
+
   public static Map<String, ArtifactSerializer<?>> extractArtifactSerializerMappings(
       InputStream xmlDescriptorIn) throws IOException {
 
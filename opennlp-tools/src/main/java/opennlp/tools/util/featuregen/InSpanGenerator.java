@@ -70,4 +70,9 @@ public class InSpanGenerator implements AdaptiveFeatureGenerator {
       }
     }
   }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -64,5 +64,8 @@ public class POSTaggerNameFeatureGenerator implements AdaptiveFeatureGenerator {
     feats.add("pos=" + this.cachedTags[index]);
   }
 
-
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
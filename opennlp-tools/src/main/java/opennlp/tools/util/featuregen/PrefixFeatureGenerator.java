@@ -52,4 +52,13 @@ public class PrefixFeatureGenerator implements AdaptiveFeatureGenerator {
     }
     return prefs;
   }
+
+  int getPrefixLength() {
+    return prefixLength;
+  }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -49,4 +49,9 @@ public class PreviousMapFeatureGenerator implements AdaptiveFeatureGenerator {
   public void clearAdaptiveData() {
     previousMap.clear();
   }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
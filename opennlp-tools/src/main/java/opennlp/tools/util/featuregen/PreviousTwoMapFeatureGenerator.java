@@ -51,4 +51,9 @@ public class PreviousTwoMapFeatureGenerator implements AdaptiveFeatureGenerator
   public void clearAdaptiveData() {
     previousMap.clear();
   }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
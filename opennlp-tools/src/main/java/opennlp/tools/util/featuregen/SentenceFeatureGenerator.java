@@ -45,4 +45,16 @@ public class SentenceFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  boolean isGenerateFirstWordFeature() {
+    return isGenerateFirstWordFeature;
+  }
+
+  boolean isGenerateLastWordFeature() {
+    return isGenerateLastWordFeature;
+  }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
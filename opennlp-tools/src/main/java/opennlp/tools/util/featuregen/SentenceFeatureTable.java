@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Computes the features of the outcome independent generators once per token of
+ * the current sentence and keeps them in a table, the features of the other
+ * generators are computed on every call.
+ * <p>
+ * A sequence model typically asks for the features of a token once per hypothesis
+ * of the beam, with the table only the features which depend on the previous
+ * outcomes are computed again. The table is only used for the tokens of
+ * {@link #startSentence(String[])}, which must not be modified until {@link #endSentence()}
+ * is called, it is also released when the adaptive data is updated or cleared.
+ * For other tokens all generators are called. The features are returned in the
+ * order of the generators.
+ *
+ * @see AdaptiveFeatureGenerator#isOutcomeIndependent()
+ */
+public class SentenceFeatureTable implements AdaptiveFeatureGenerator {
+
+  private final AdaptiveFeatureGenerator[] generators;
+  private final boolean[] outcomeIndependent;
+
+  private String[] tokens;
+
+  /** The features per generator and token, null if they are not computed yet. */
+  private String[][][] table;
+
+  /**
+   * Initializes the table. The generators of an {@link AggregatedFeatureGenerator} are
+   * added individually, so that its outcome independent generators are kept in the table.
+   *
+   * @param generators the feature generators
+   */
+  public SentenceFeatureTable(AdaptiveFeatureGenerator... generators) {
+
+    List<AdaptiveFeatureGenerator> flattened = new ArrayList<>();
+    for (AdaptiveFeatureGenerator generator : generators) {
+      flatten(flattened, generator);
+    }
+
+    this.generators = flattened.toArray(new AdaptiveFeatureGenerator[flattened.size()]);
+
+    outcomeIndependent = new boolean[this.generators.length];
+    for (int i = 0; i < this.generators.length; i++) {
+      outcomeIndependent[i] = this.generators[i].isOutcomeIndependent();
+    }
+
+    table = new String[this.generators.length][][];
+  }
+
+  private static void flatten(List<AdaptiveFeatureGenerator> flattened,
+      AdaptiveFeatureGenerator generator) {
+
+    if (generator instanceof AggregatedFeatureGenerator && !generator.isOutcomeIndependent()) {
+      for (AdaptiveFeatureGenerator aggregated :
+          ((AggregatedFeatureGenerator) generator).getGenerators()) {
+        flatten(flattened, aggregated);
+      }
+    }
+    else {
+      flattened.add(generator);
+    }
+  }
+
+  public void createFeatures(List<String> features, String[] tokens, int index,
+      String[] previousOutcomes) {
+
+    for (int gi = 0; gi < generators.length; gi++) {
+      if (outcomeIndependent[gi]) {
+        Collections.addAll(features, getTokenFeatures(gi, tokens, index));
+      }
+      else {
+        generators[gi].createFeatures(features, tokens, index, previousOutcomes);
+      }
+    }
+  }
+
+  /**
+   * Creates only the features of the outcome independent generators, in the order
+   * of the generators.
+   *
+   * @param features the list the features are added to
+   * @param tokens the tokens of the sentence
+   * @param index the index of the token
+   */
+  public void createOutcomeIndependentFeatures(List<String> features, String[] tokens,
+      int index) {
+
+    for (int gi = 0; gi < generators.length; gi++) {
+      if (outcomeIndependent[gi]) {
+        Collections.addAll(features, getTokenFeatures(gi, tokens, index));
+      }
+    }
+  }
+
+  /**
+   * Creates only the features of the generators which are not outcome independent,
+   * in the order of the generators. Together with the
+   * {@link #createOutcomeIndependentFeatures(List, String[], int) outcome independent
+   * features} they are the features of {@link #createFeatures(List, String[], int, String[])}.
+   *
+   * @param features the list the features are added to
+   * @param tokens the tokens of the sentence
+   * @param index the index of the token
+   * @param previousOutcomes the previous outcomes
+   */
+  public void createOutcomeDependentFeatures(List<String> features, String[] tokens,
+      int index, String[] previousOutcomes) {
+
+    for (int gi = 0; gi < generators.length; gi++) {
+      if (!outcomeIndependent[gi]) {
+        generators[gi].createFeatures(features, tokens, index, previousOutcomes);
+      }
+    }
+  }
+
+  private String[] getTokenFeatures(int gi, String[] tokens, int index) {
+    if (tokens != this.tokens) {
+      List<String> generated = new ArrayList<>();
+      generators[gi].createFeatures(generated, tokens, index, null);
+      return generated.toArray(new String[generated.size()]);
+    }
+
+    String[] tokenFeatures = table[gi][index];
+
+    if (tokenFeatures == null) {
+      List<String> generated = new ArrayList<>();
+      generators[gi].createFeatures(generated, tokens, index, null);
+      tokenFeatures = generated.toArray(new String[generated.size()]);
+      table[gi][index] = tokenFeatures;
+    }
+
+    return tokenFeatures;
+  }
+
+  /**
+   * Starts the table for a sentence, the features of the outcome independent generators
+   * are kept for its tokens until {@link #endSentence()} is called.
+   *
+   * @param tokens the tokens of the sentence, they must not be modified until the
+   *     sentence ends
+   */
+  public void startSentence(String[] tokens) {
+    this.tokens = tokens;
+
+    for (int gi = 0; gi < generators.length; gi++) {
+      if (outcomeIndependent[gi]) {
+        table[gi] = new String[tokens.length][];
+      }
+    }
+  }
+
+  /**
+   * Ends the sentence of {@link #startSentence(String[])} and releases its features.
+   */
+  public void endSentence() {
+    tokens = null;
+    Arrays.fill(table, null);
+  }
+
+  public void updateAdaptiveData(String[] tokens, String[] outcomes) {
+    for (AdaptiveFeatureGenerator generator : generators) {
+      generator.updateAdaptiveData(tokens, outcomes);
+    }
+    endSentence();
+  }
+
+  public void clearAdaptiveData() {
+    for (AdaptiveFeatureGenerator generator : generators) {
+      generator.clearAdaptiveData();
+    }
+    endSentence();
+  }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    for (boolean independent : outcomeIndependent) {
+      if (!independent) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -53,4 +53,13 @@ public class SuffixFeatureGenerator implements AdaptiveFeatureGenerator {
     return suffs;
   }
   
+
+  int getSuffixLength() {
+    return suffixLength;
+  }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -49,4 +49,13 @@ public class TokenClassFeatureGenerator implements AdaptiveFeatureGenerator {
           "," + wordClass);
     }
   }
+
+  boolean isGenerateWordAndClassFeature() {
+    return generateWordAndClassFeature;
+  }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
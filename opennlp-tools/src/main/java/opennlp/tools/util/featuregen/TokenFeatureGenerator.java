@@ -46,4 +46,13 @@ public class TokenFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add(WORD_PREFIX + "=" + tokens[index]);
     }
   }
+
+  boolean isLowercase() {
+    return lowercase;
+  }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -86,4 +86,9 @@ public class TokenPatternFeatureGenerator implements AdaptiveFeatureGenerator {
 
     feats.add("pta=" + pattern.toString());
   }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -42,4 +42,9 @@ public class TrigramNameFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add("wc,nwc,nnwc=" + wc + "," + nwc + "," + nnwc);
     }
   }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -40,6 +40,8 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
   private final int prevWindowSize;
   private final int nextWindowSize;
 
+  private final boolean outcomeIndependent;
+
   /**
    * Initializes the current instance with the given parameters.
    *
@@ -51,6 +53,7 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
     this.generator = generator;
     this.prevWindowSize = prevWindowSize;
     this.nextWindowSize = nextWindowSize;
+    outcomeIndependent = generator.isOutcomeIndependent();
   }
 
   /**
@@ -110,6 +113,18 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
     }
   }
 
+  AdaptiveFeatureGenerator getGenerator() {
+    return generator;
+  }
+
+  int getPrevWindowSize() {
+    return prevWindowSize;
+  }
+
+  int getNextWindowSize() {
+    return nextWindowSize;
+  }
+
   public void updateAdaptiveData(String[] tokens, String[] outcomes) {
     generator.updateAdaptiveData(tokens, outcomes);
   }
@@ -118,6 +133,11 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
     generator.clearAdaptiveData();
   }
 
+  @Override
+  public boolean isOutcomeIndependent() {
+    return outcomeIndependent;
+  }
+
   @Override
   public String toString() {
     return super.toString() + ": Prev window size: " + prevWindowSize
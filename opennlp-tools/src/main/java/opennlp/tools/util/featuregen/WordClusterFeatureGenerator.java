@@ -47,4 +47,9 @@ public class WordClusterFeatureGenerator implements AdaptiveFeatureGenerator {
       features.add(resourceName + clusterId);
     }
   }
+
+  @Override
+  public boolean isOutcomeIndependent() {
+    return true;
+  }
 }
@@ -19,8 +19,9 @@ package opennlp.tools.util.model;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,17 +29,33 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import opennlp.tools.ml.SequenceDecoderFactory;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.BaseToolFactory;
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.Version;
@@ -65,12 +82,13 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
   public static final String TRAINING_CUTOFF_PROPERTY = "Training-Cutoff";
   public static final String TRAINING_ITERATIONS_PROPERTY = "Training-Iterations";
   public static final String TRAINING_EVENTHASH_PROPERTY = "Training-Eventhash";
+  public static final String FEATURE_HASHING_BITS_PROPERTY = "Feature-Hashing-Bits";
 
-  private static String SERIALIZER_CLASS_NAME_PREFIX = "serializer-class-";
+  static final String SERIALIZER_CLASS_NAME_PREFIX = "serializer-class-";
 
   private Map<String, ArtifactSerializer> artifactSerializers = new HashMap<>();
 
-  protected Map<String, Object> artifactMap = new HashMap<>();
+  protected Map<String, Object> artifactMap = new ArtifactMap();
 
   protected BaseToolFactory toolFactory;
 
@@ -81,6 +99,8 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
 
   private boolean isLoadedFromSerialized;
 
+  private transient Map<String, SequenceClassificationModel<?>> sequenceDecoders;
+
   private BaseModel(String componentName, boolean isLoadedFromSerialized) {
     this.isLoadedFromSerialized = isLoadedFromSerialized;
 
@@ -171,28 +191,69 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
    * @throws IOException
    */
   protected BaseModel(String componentName, InputStream in) throws IOException {
+    this(componentName, in, null);
+  }
+
+  /**
+   * Initializes the current instance, the artifacts are deserialized in parallel.
+   * <p>
+   * Once the manifest is read, the deserialization of each artifact is submitted to
+   * the executor. The constructor returns when the artifacts the model validation
+   * needs are available, the other artifacts are waited for on their first access.
+   * An artifact which fails to load on first access throws an {@link UncheckedIOException}.
+   *
+   * @param componentName the component name
+   * @param in the input stream containing the model
+   * @param executor the executor which deserializes the artifacts,
+   *     or null to deserialize them on the calling thread
+   *
+   * @throws IOException
+   */
+  protected BaseModel(String componentName, InputStream in, Executor executor) throws IOException {
     this(componentName, true);
 
-    loadModel(in);
+    loadModel(in, executor);
   }
 
+  /**
+   * Initializes the current instance. The artifacts of a {@link MappableArtifactSerializer}
+   * which are stored uncompressed are memory-mapped from the file.
+   *
+   * @param componentName the component name
+   * @param modelFile the model file
+   *
+   * @throws IOException
+   */
   protected BaseModel(String componentName, File modelFile) throws IOException  {
+    this(componentName, modelFile, null);
+  }
+
+  /**
+   * Initializes the current instance, the artifacts are deserialized in parallel,
+   * see {@link #BaseModel(String, InputStream, Executor)}.
+   *
+   * @param componentName the component name
+   * @param modelFile the model file
+   * @param executor the executor which deserializes the artifacts,
+   *     or null to deserialize them on the calling thread
+   *
+   * @throws IOException
+   */
+  protected BaseModel(String componentName, File modelFile, Executor executor) throws IOException  {
     this(componentName, true);
 
-    try (InputStream in = new BufferedInputStream(new FileInputStream(modelFile))) {
-      loadModel(in);
-    }
+    loadModel(modelFile, executor);
   }
 
   protected BaseModel(String componentName, URL modelURL) throws IOException  {
     this(componentName, true);
 
     try (InputStream in = new BufferedInputStream(modelURL.openStream())) {
-      loadModel(in);
+      loadModel(in, null);
     }
   }
 
-  private void loadModel(InputStream in) throws IOException {
+  private void loadModel(InputStream in, Executor executor) throws IOException {
 
     Objects.requireNonNull(in, "in must not be null");
 
@@ -235,13 +296,121 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
 
     loadArtifactSerializers();
 
+    loadFeatureHashingSerializer();
+
     // The Input Stream should always be reset-able because if markSupport returns
     // false it is wrapped before hand into an Buffered InputStream
     in.reset();
 
-    finishLoadingArtifacts(in);
+    finishLoadingArtifacts(in, executor);
 
-    checkArtifactMap();
+    checkLoadedArtifactMap();
+  }
+
+  private void loadModel(File modelFile, Executor executor) throws IOException {
+
+    createBaseArtifactSerializers(artifactSerializers);
+
+    try (ZipFile zip = new ZipFile(modelFile);
+         FileChannel channel = FileChannel.open(modelFile.toPath(), StandardOpenOption.READ)) {
+
+      // The zip file can be accessed randomly, the manifest is read first
+      // to know the serializers of all the other artifacts.
+      ZipEntry manifestEntry = zip.getEntry(MANIFEST_ENTRY);
+      if (manifestEntry != null) {
+        try (InputStream in = zip.getInputStream(manifestEntry)) {
+          artifactMap.put(MANIFEST_ENTRY, artifactSerializers.get("properties").create(in));
+        }
+      }
+
+      initializeFactory();
+
+      loadArtifactSerializers();
+
+      loadFeatureHashingSerializer();
+
+      Map<String, Long> storedEntries = null;
+
+      Map<String, Object> loadedArtifacts = new HashMap<>();
+
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        String entryName = entry.getName();
+
+        ArtifactSerializer<?> factory = getArtifactSerializerForEntry(entryName);
+
+        if (factory instanceof MappableArtifactSerializer && entry.getMethod() == ZipEntry.STORED
+            && entry.getSize() <= Integer.MAX_VALUE) {
+
+          if (storedEntries == null) {
+            storedEntries = MappedZipEntries.findStoredEntries(channel);
+          }
+
+          Long dataOffset = storedEntries.get(entryName);
+          if (dataOffset != null) {
+            // the mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, entry.getSize());
+            loadedArtifacts.put(entryName, ((MappableArtifactSerializer) factory).create(buffer));
+            continue;
+          }
+        }
+
+        try (InputStream in = zip.getInputStream(entry)) {
+          loadedArtifacts.put(entryName, createArtifact(entryName, factory, in, executor));
+        }
+      }
+
+      artifactMap.putAll(loadedArtifacts);
+    }
+
+    finishedLoadingArtifacts = true;
+
+    checkLoadedArtifactMap();
+  }
+
+  /**
+   * Creates an artifact, or submits its creation to the executor. The entry is
+   * always read on the calling thread.
+   */
+  private static Object createArtifact(String entryName, ArtifactSerializer<?> factory, InputStream in,
+      Executor executor) throws IOException {
+
+    // the manifest is needed right away
+    if (executor == null || MANIFEST_ENTRY.equals(entryName)) {
+      return factory.create(in);
+    }
+
+    byte[] entryBytes = ModelUtil.read(in);
+
+    return new PendingArtifact(CompletableFuture.supplyAsync(() -> {
+      try {
+        return factory.create(new ByteArrayInputStream(entryBytes));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, executor));
+  }
+
+  /**
+   * Validates a loaded model. The classification models are waited for first, an
+   * artifact which failed to load, before or while it is validated, is reported
+   * with its {@link IOException}.
+   */
+  private void checkLoadedArtifactMap() throws IOException {
+    if (artifactMap instanceof ArtifactMap) {
+      for (String entryName : artifactMap.keySet()) {
+        if ("model".equals(getEntryExtension(entryName))) {
+          ((ArtifactMap) artifactMap).await(entryName);
+        }
+      }
+    }
+
+    try {
+      checkArtifactMap();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
   }
 
   private void initializeFactory() throws InvalidFormatException {
@@ -280,10 +449,27 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
     subclassSerializersInitiated = true;
   }
 
+  /**
+   * Replaces the model serializer with one which reads the models as hashed models,
+   * if the manifest declares that the models were trained on hashed features.
+   */
+  private void loadFeatureHashingSerializer() throws InvalidFormatException {
+    String hashBits = getManifestProperty(FEATURE_HASHING_BITS_PROPERTY);
+
+    if (hashBits != null && artifactSerializers.get("model") instanceof GenericModelSerializer) {
+      try {
+        artifactSerializers.put("model", new GenericModelSerializer(Integer.parseInt(hashBits)));
+      } catch (NumberFormatException e) {
+        throw new InvalidFormatException("Invalid " + FEATURE_HASHING_BITS_PROPERTY + " property: "
+            + hashBits, e);
+      }
+    }
+  }
+
   /**
    * Finish loading the artifacts now that it knows all serializers.
    */
-  private void finishLoadingArtifacts(InputStream in)
+  private void finishLoadingArtifacts(InputStream in, Executor executor)
       throws IOException {
 
     final ZipInputStream zip = new ZipInputStream(in);
@@ -297,22 +483,9 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
       // there should be no need to prevent that.
 
       String entryName = entry.getName();
-      String extension = getEntryExtension(entryName);
-
-      ArtifactSerializer factory = artifactSerializers.get(extension);
-
-      String artifactSerializerClazzName =
-          getManifestProperty(SERIALIZER_CLASS_NAME_PREFIX + entryName);
 
-      if (artifactSerializerClazzName != null) {
-        factory = ExtensionLoader.instantiateExtension(ArtifactSerializer.class, artifactSerializerClazzName);
-      }
-
-      if (factory != null) {
-        artifactMap.put(entryName, factory.create(zip));
-      } else {
-        throw new InvalidFormatException("Unknown artifact format: " + extension);
-      }
+      artifactMap.put(entryName,
+          createArtifact(entryName, getArtifactSerializerForEntry(entryName), zip, executor));
 
       zip.closeEntry();
     }
@@ -322,6 +495,35 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
     finishedLoadingArtifacts = true;
   }
 
+  /**
+   * Retrieves the serializer which creates the artifact of a model package entry.
+   *
+   * @param entryName the entry name
+   *
+   * @return the serializer
+   *
+   * @throws InvalidFormatException if there is no serializer for the entry
+   */
+  private ArtifactSerializer<?> getArtifactSerializerForEntry(String entryName)
+      throws InvalidFormatException {
+    String extension = getEntryExtension(entryName);
+
+    ArtifactSerializer<?> factory = artifactSerializers.get(extension);
+
+    String artifactSerializerClazzName =
+        getManifestProperty(SERIALIZER_CLASS_NAME_PREFIX + entryName);
+
+    if (artifactSerializerClazzName != null) {
+      factory = ExtensionLoader.instantiateExtension(ArtifactSerializer.class, artifactSerializerClazzName);
+    }
+
+    if (factory == null) {
+      throw new InvalidFormatException("Unknown artifact format: " + extension);
+    }
+
+    return factory;
+  }
+
   /**
    * Extracts the "." extension from an entry name.
    *
@@ -556,7 +758,7 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
 
     for (Entry<String, Object> entry : artifactMap.entrySet()) {
       final String name = entry.getKey();
-      final Object artifact = entry.getValue();
+      final Object artifact = artifactMap.get(name);
       if (artifact instanceof SerializableArtifact) {
 
         SerializableArtifact serializableArtifact = (SerializableArtifact) artifact;
@@ -569,13 +771,13 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
       }
     }
 
-    ZipOutputStream zip = new ZipOutputStream(out);
+    MappedZipEntries.CountingOutputStream counter = new MappedZipEntries.CountingOutputStream(out);
+    ZipOutputStream zip = new ZipOutputStream(counter);
 
     for (Entry<String, Object> entry : artifactMap.entrySet()) {
       String name = entry.getKey();
-      zip.putNextEntry(new ZipEntry(name));
 
-      Object artifact = entry.getValue();
+      Object artifact = artifactMap.get(name);
 
       ArtifactSerializer serializer = getArtifactSerializer(name);
 
@@ -594,9 +796,18 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
         throw new IllegalStateException("Missing serializer for " + name);
       }
 
-      serializer.serialize(artifactMap.get(name), zip);
-
-      zip.closeEntry();
+      if (serializer instanceof MappableArtifactSerializer
+          && ((MappableArtifactSerializer) serializer).isMappable(artifact)) {
+        // stored uncompressed and aligned, to be memory-mapped on load
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.serialize(artifact, bytes);
+        MappedZipEntries.putStoredEntry(zip, counter.getCount(), name, bytes.toByteArray());
+      }
+      else {
+        zip.putNextEntry(new ZipEntry(name));
+        serializer.serialize(artifact, zip);
+        zip.closeEntry();
+      }
     }
 
     zip.finish();
@@ -621,6 +832,31 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
     return (T) artifact;
   }
 
+  /**
+   * Retrieves the decoder of the maxent model which is stored under the entry name.
+   * The decoder is created once, all tools which are created from this model share
+   * it and its contexts cache.
+   *
+   * @param entryName the entry name of the maxent model
+   * @param defaultBeamSize the beam size which is used if the manifest does not specify one
+   *
+   * @return the decoder
+   *
+   * @see SequenceDecoderFactory#create(MaxentModel, Properties, int)
+   */
+  @SuppressWarnings("unchecked")
+  protected synchronized <T> SequenceClassificationModel<T> getSequenceDecoder(String entryName,
+      int defaultBeamSize) {
+
+    if (sequenceDecoders == null) {
+      sequenceDecoders = new HashMap<>();
+    }
+
+    return (SequenceClassificationModel<T>) sequenceDecoders.computeIfAbsent(entryName,
+        name -> SequenceDecoderFactory.create((MaxentModel) artifactMap.get(name),
+            (Properties) artifactMap.get(MANIFEST_ENTRY), defaultBeamSize));
+  }
+
   public boolean isLoadedFromSerialized() {
     return isLoadedFromSerialized;
   }
@@ -640,10 +876,156 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
 
     isLoadedFromSerialized = true;
     artifactSerializers = new HashMap<>();
-    artifactMap = new HashMap<>();
+    artifactMap = new ArtifactMap();
 
     componentName = in.readUTF();
 
-    this.loadModel(in);
+    this.loadModel(in, null);
+  }
+
+  /**
+   * An artifact which is still deserialized on an executor.
+   */
+  private static final class PendingArtifact {
+
+    private final CompletableFuture<Object> future;
+
+    PendingArtifact(CompletableFuture<Object> future) {
+      this.future = future;
+    }
+
+    /**
+     * Waits for the artifact.
+     *
+     * @return the artifact
+     *
+     * @throws IOException if the artifact could not be created
+     */
+    Object await() throws IOException {
+      try {
+        return future.join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+
+        if (cause instanceof UncheckedIOException) {
+          throw ((UncheckedIOException) cause).getCause();
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new IOException(cause);
+      }
+    }
+  }
+
+  /**
+   * The artifact map waits for a pending artifact whenever its value is read, by
+   * {@link #get(Object)} as well as through the entry set and the views and methods
+   * based on it. An artifact which fails to load throws an {@link UncheckedIOException}.
+   * The map itself is not changed by that, it can be read by multiple threads.
+   */
+  private static final class ArtifactMap extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> artifacts = new HashMap<>();
+
+    private final Set<Entry<String, Object>> entrySet = new AbstractSet<Entry<String, Object>>() {
+
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        Iterator<Entry<String, Object>> entries = artifacts.entrySet().iterator();
+
+        return new Iterator<Entry<String, Object>>() {
+
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            Entry<String, Object> entry = entries.next();
+            return new SimpleImmutableEntry<>(entry.getKey(), resolve(entry.getValue()));
+          }
+
+          @Override
+          public void remove() {
+            entries.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return artifacts.size();
+      }
+    };
+
+    private static Object resolve(Object artifact) {
+      if (artifact instanceof PendingArtifact) {
+        try {
+          return ((PendingArtifact) artifact).await();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      return artifact;
+    }
+
+    /**
+     * Waits for an artifact.
+     *
+     * @throws IOException if the artifact could not be created
+     */
+    void await(String entryName) throws IOException {
+      Object artifact = artifacts.get(entryName);
+
+      if (artifact instanceof PendingArtifact) {
+        ((PendingArtifact) artifact).await();
+      }
+    }
+
+    @Override
+    public Object get(Object key) {
+      return resolve(artifacts.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return artifacts.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+      return resolve(artifacts.put(key, value));
+    }
+
+    @Override
+    public Object remove(Object key) {
+      return resolve(artifacts.remove(key));
+    }
+
+    @Override
+    public void clear() {
+      artifacts.clear();
+    }
+
+    @Override
+    public int size() {
+      return artifacts.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+      return artifacts.keySet();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return entrySet;
+    }
   }
 }
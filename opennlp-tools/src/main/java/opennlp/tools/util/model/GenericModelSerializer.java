@@ -17,23 +17,125 @@
 
 package opennlp.tools.util.model;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.BinaryFileDataReader;
+import opennlp.tools.ml.model.CompiledMaxentModel;
 import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.HashedMaxentModel;
+import opennlp.tools.ml.model.MappedMaxentModel;
+import opennlp.tools.util.InvalidFormatException;
 
-public class GenericModelSerializer implements ArtifactSerializer<AbstractModel> {
+public class GenericModelSerializer implements MappableArtifactSerializer<AbstractModel> {
 
+  private final int hashBits;
+
+  public GenericModelSerializer() {
+    this(0);
+  }
+
+  /**
+   * Initializes the serializer for models which were trained on hashed features.
+   *
+   * @param hashBits the number of bits the features were hashed to, or 0
+   *
+   * @see HashedMaxentModel
+   */
+  public GenericModelSerializer(int hashBits) {
+    this.hashBits = hashBits;
+  }
+
+  /**
+   * Reads a model and compiles it for evaluation, if the model type supports it.
+   * A model in the mapped format is read into a heap buffer. If the serializer
+   * was created with hash bits the model, in either format, is read as a
+   * {@link HashedMaxentModel}.
+   *
+   * @see CompiledMaxentModel
+   * @see MappedMaxentModel
+   */
   public AbstractModel create(InputStream in) throws IOException {
-    return new GenericModelReader(new BinaryFileDataReader(in)).getModel();
+    if (!in.markSupported()) {
+      in = new BufferedInputStream(in);
+    }
+
+    byte[] magic = new byte[Long.BYTES];
+    in.mark(magic.length);
+    int length = 0;
+    int count;
+    while (length < magic.length && (count = in.read(magic, length, magic.length - length)) != -1) {
+      length += count;
+    }
+    in.reset();
+
+    if (MappedMaxentModel.isMappedModel(ByteBuffer.wrap(magic, 0, length))) {
+      return hashIfNeeded(MappedMaxentModel.map(ByteBuffer.wrap(ModelUtil.read(in))));
+    }
+
+    AbstractModel model = new GenericModelReader(new BinaryFileDataReader(in)).getModel();
+
+    if (hashBits != 0) {
+      return hashIfNeeded(model);
+    }
+
+    if (CompiledMaxentModel.isCompilable(model)) {
+      return CompiledMaxentModel.compile(model);
+    }
+
+    return model;
+  }
+
+  /**
+   * Creates a {@link MappedMaxentModel} which is evaluated in place from the buffer,
+   * or reads a model in the stream based format from it. A model which was trained
+   * on hashed features is copied from the buffer into a {@link HashedMaxentModel}.
+   */
+  @Override
+  public AbstractModel create(ByteBuffer buffer) throws IOException {
+    if (MappedMaxentModel.isMappedModel(buffer)) {
+      return hashIfNeeded(MappedMaxentModel.map(buffer));
+    }
+
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return create(new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * Creates the {@link HashedMaxentModel} of a model if the serializer was created
+   * with hash bits, the predicates of such a model are the bucket numbers.
+   */
+  private AbstractModel hashIfNeeded(AbstractModel model) throws InvalidFormatException {
+    if (hashBits == 0) {
+      return model;
+    }
+
+    try {
+      return HashedMaxentModel.hash(model, hashBits);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidFormatException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public boolean isMappable(AbstractModel artifact) {
+    return artifact instanceof MappedMaxentModel;
   }
 
   public void serialize(AbstractModel artifact, OutputStream out) throws IOException {
-    ModelUtil.writeModel(artifact, out);
+    if (artifact instanceof MappedMaxentModel) {
+      MappedMaxentModel.write(artifact, out);
+    }
+    else {
+      ModelUtil.writeModel(artifact, out);
+    }
   }
 
   public static void register(Map<String, ArtifactSerializer> factories) {
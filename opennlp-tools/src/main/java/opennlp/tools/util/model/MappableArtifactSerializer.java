@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link ArtifactSerializer} which can create its artifacts in place from the bytes
+ * of an uncompressed model package entry, e.g. from a memory-mapped region of the
+ * model file.
+ * <p>
+ * The {@link BaseModel} stores the artifacts for which {@link #isMappable(Object)}
+ * returns true uncompressed and 8 byte aligned, and maps them when the model
+ * is loaded from a file.
+ */
+public interface MappableArtifactSerializer<T> extends ArtifactSerializer<T> {
+
+  /**
+   * Checks if the serialized form of the artifact can be used in place.
+   *
+   * @param artifact the artifact
+   *
+   * @return true if the artifact should be stored uncompressed
+   */
+  boolean isMappable(T artifact);
+
+  /**
+   * Creates the artifact from the bytes of its model package entry.
+   *
+   * @param buffer the bytes of the entry from its position until its limit,
+   *     the artifact may keep a reference to the buffer
+   *
+   * @return the artifact
+   *
+   * @throws IOException if the bytes cannot be read
+   */
+  T create(ByteBuffer buffer) throws IOException;
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes and locates the uncompressed model package entries which hold
+ * the artifacts of a {@link MappableArtifactSerializer}.
+ * <p>
+ * The {@link java.util.zip} classes do not expose the file offsets of the
+ * entries, these are read from the zip central directory here.
+ */
+final class MappedZipEntries {
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_HEADER_SIGNATURE = 0x06054b50;
+
+  private static final int LOCAL_HEADER_SIZE = 30;
+  private static final int CENTRAL_HEADER_SIZE = 46;
+  private static final int END_HEADER_SIZE = 22;
+  private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+  /** The extra field id which is used by the Android zipalign tool for padding. */
+  private static final int ALIGNMENT_EXTRA_ID = 0xD935;
+  private static final int EXTRA_HEADER_SIZE = 4;
+
+  static final int ALIGNMENT = 8;
+
+  private MappedZipEntries() {
+  }
+
+  /**
+   * Counts the bytes which are written to the model package, to compute
+   * the offset of the next entry.
+   */
+  static final class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+
+    long getCount() {
+      return count;
+    }
+  }
+
+  /**
+   * Writes an uncompressed entry whose data starts at an {@link #ALIGNMENT} aligned offset.
+   *
+   * @param zip the zip stream, the previous entry must be closed
+   * @param position the number of bytes which were written to the zip stream so far
+   * @param name the entry name
+   * @param data the entry data
+   */
+  static void putStoredEntry(ZipOutputStream zip, long position, String name, byte[] data)
+      throws IOException {
+
+    ZipEntry entry = new ZipEntry(name);
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(data.length);
+    entry.setCompressedSize(data.length);
+
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    entry.setCrc(crc.getValue());
+
+    long dataOffset = position + LOCAL_HEADER_SIZE
+        + name.getBytes(StandardCharsets.UTF_8).length + EXTRA_HEADER_SIZE;
+    int padding = (int) ((ALIGNMENT - dataOffset % ALIGNMENT) % ALIGNMENT);
+
+    byte[] extra = new byte[EXTRA_HEADER_SIZE + padding];
+    extra[0] = (byte) ALIGNMENT_EXTRA_ID;
+    extra[1] = (byte) (ALIGNMENT_EXTRA_ID >>> 8);
+    extra[2] = (byte) padding;
+    entry.setExtra(extra);
+
+    zip.putNextEntry(entry);
+    zip.write(data);
+    zip.closeEntry();
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Unexpected end of the model package!");
+      }
+    }
+
+    return buffer;
+  }
+
+  /**
+   * Finds the data offsets of the uncompressed entries of a model package.
+   *
+   * @param channel the channel of the model package file
+   *
+   * @return the data offset of each uncompressed entry, or an empty map if the
+   *     package uses the zip64 extensions
+   *
+   * @throws IOException if the file cannot be read or is not a zip file
+   */
+  static Map<String, Long> findStoredEntries(FileChannel channel) throws IOException {
+    long fileSize = channel.size();
+    int tailSize = (int) Math.min(fileSize, END_HEADER_SIZE + MAX_COMMENT_SIZE);
+    ByteBuffer tail = read(channel, fileSize - tailSize, tailSize);
+
+    int end = tailSize - END_HEADER_SIZE;
+    while (end >= 0 && tail.getInt(end) != END_HEADER_SIGNATURE) {
+      end--;
+    }
+
+    if (end < 0) {
+      throw new ZipException("The model package has no zip central directory!");
+    }
+
+    int entryCount = tail.getShort(end + 10) & 0xFFFF;
+    long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+    long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+
+    if (entryCount == 0xFFFF || directoryOffset == 0xFFFFFFFFL || directorySize > Integer.MAX_VALUE) {
+      return Collections.emptyMap();
+    }
+
+    ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+
+    Map<String, Long> dataOffsets = new HashMap<>();
+
+    int pos = 0;
+    for (int i = 0; i < entryCount; i++) {
+      if (directory.getInt(pos) != CENTRAL_HEADER_SIGNATURE) {
+        throw new ZipException("Invalid zip central directory entry!");
+      }
+
+      int method = directory.getShort(pos + 10) & 0xFFFF;
+      int nameLength = directory.getShort(pos + 28) & 0xFFFF;
+      int extraLength = directory.getShort(pos + 30) & 0xFFFF;
+      int commentLength = directory.getShort(pos + 32) & 0xFFFF;
+      long localHeaderOffset = directory.getInt(pos + 42) & 0xFFFFFFFFL;
+
+      if (method == ZipEntry.STORED && localHeaderOffset != 0xFFFFFFFFL) {
+        String name = new String(directory.array(), pos + CENTRAL_HEADER_SIZE, nameLength,
+            StandardCharsets.UTF_8);
+
+        ByteBuffer localHeader = read(channel, localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+          throw new ZipException("Invalid zip local header of entry " + name);
+        }
+
+        dataOffsets.put(name, localHeaderOffset + LOCAL_HEADER_SIZE
+            + (localHeader.getShort(26) & 0xFFFF) + (localHeader.getShort(28) & 0xFFFF));
+      }
+
+      pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+    }
+
+    return dataOffsets;
+  }
+}
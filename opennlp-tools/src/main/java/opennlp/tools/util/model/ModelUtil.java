@@ -17,21 +17,31 @@
 
 package opennlp.tools.util.model;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import opennlp.tools.ml.maxent.GISTrainer;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledMaxentModel;
 import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.MappedMaxentModel;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -125,6 +135,94 @@ public final class ModelUtil {
     return byteArrayOut.toByteArray();
   }
 
+  /**
+   * Converts the maxent models of a model package to the {@link MappedMaxentModel}
+   * format, which is memory-mapped when the converted package is loaded from a file.
+   * All other entries are copied unchanged.
+   * <p>
+   * The models of a package whose manifest declares {@link BaseModel#FEATURE_HASHING_BITS_PROPERTY}
+   * have the bucket numbers as predicates. They are converted as they are, and are
+   * read as hashed models again when the converted package is loaded.
+   *
+   * @param in the model package
+   * @param out the stream the converted model package is written to, it remains open
+   *
+   * @return the number of converted models
+   *
+   * @throws IOException if reading or writing the model package fails
+   * @throws InvalidFormatException if a model does not match the declared feature hashing
+   */
+  public static int convertToMappedModels(InputStream in, OutputStream out) throws IOException {
+
+    // The manifest can override the serializer of an entry and might be the last entry,
+    // the whole package is read before anything is converted.
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+
+    ZipInputStream zipIn = new ZipInputStream(in);
+    ZipEntry entry;
+    while ((entry = zipIn.getNextEntry()) != null) {
+      entries.put(entry.getName(), read(zipIn));
+      zipIn.closeEntry();
+    }
+
+    Properties manifest = new Properties();
+    if (entries.containsKey(BaseModel.MANIFEST_ENTRY)) {
+      manifest.load(new ByteArrayInputStream(entries.get(BaseModel.MANIFEST_ENTRY)));
+    }
+
+    int hashBits = 0;
+    String hashBitsProperty = manifest.getProperty(BaseModel.FEATURE_HASHING_BITS_PROPERTY);
+    if (hashBitsProperty != null) {
+      try {
+        hashBits = Integer.parseInt(hashBitsProperty);
+      } catch (NumberFormatException e) {
+        throw new InvalidFormatException("Invalid " + BaseModel.FEATURE_HASHING_BITS_PROPERTY
+            + " property: " + hashBitsProperty, e);
+      }
+    }
+
+    // the bucket numbers are kept as predicates, the models are not hashed here
+    GenericModelSerializer serializer = new GenericModelSerializer();
+
+    MappedZipEntries.CountingOutputStream counter = new MappedZipEntries.CountingOutputStream(out);
+    ZipOutputStream zipOut = new ZipOutputStream(counter);
+
+    int convertedModels = 0;
+    for (Map.Entry<String, byte[]> packageEntry : entries.entrySet()) {
+      String name = packageEntry.getKey();
+      byte[] data = packageEntry.getValue();
+
+      if (name.endsWith(".model")
+          && manifest.getProperty(BaseModel.SERIALIZER_CLASS_NAME_PREFIX + name) == null) {
+
+        AbstractModel model = serializer.create(new ByteArrayInputStream(data));
+
+        // only compilable models can be written in the mapped format
+        if (model instanceof CompiledMaxentModel || model instanceof MappedMaxentModel) {
+          ByteArrayOutputStream mappedModel = new ByteArrayOutputStream();
+          MappedMaxentModel.write(model, mappedModel);
+
+          if (hashBits != 0) {
+            // fails if the predicates are not the buckets of the declared hash bits
+            new GenericModelSerializer(hashBits).create(ByteBuffer.wrap(mappedModel.toByteArray()));
+          }
+          MappedZipEntries.putStoredEntry(zipOut, counter.getCount(), name, mappedModel.toByteArray());
+          convertedModels++;
+          continue;
+        }
+      }
+
+      zipOut.putNextEntry(new ZipEntry(name));
+      zipOut.write(data);
+      zipOut.closeEntry();
+    }
+
+    zipOut.finish();
+    zipOut.flush();
+
+    return convertedModels;
+  }
+
   public static void addCutoffAndIterations(Map<String, String> manifestInfoEntries,
       int cutoff, int iterations) {
     manifestInfoEntries.put(BaseModel.TRAINING_CUTOFF_PROPERTY, Integer.toString(cutoff));
@@ -130,6 +130,19 @@ public class ChunkerMETest {
     Assert.assertNotSame(Arrays.asList(expect1), preds[1].getOutcomes());
   }
   
+  @Test
+  public void testContextOfRefilledArrays() {
+    ChunkerContextGenerator cg = new DefaultChunkerContextGenerator();
+    String[] tokens = {"a", "b"};
+    String[] tags = {"DT", "NN"};
+
+    Assert.assertTrue(Arrays.asList(cg.getContext(0, tokens, tags, null)).contains("w1=b"));
+
+    // the features are not kept for the array outside of a search
+    tokens[1] = "c";
+    Assert.assertTrue(Arrays.asList(cg.getContext(0, tokens, tags, null)).contains("w1=c"));
+  }
+
   @Test(expected = InsufficientTrainingDataException.class)
   public void testInsufficientData() throws IOException {
 
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.CollectionObjectStream;
+
+public class ParallelProcessorTest {
+
+  private static List<Integer> numbers(int count) {
+    List<Integer> numbers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      numbers.add(i);
+    }
+    return numbers;
+  }
+
+  @Test
+  public void testResultsInInputOrder() throws IOException {
+    AtomicInteger workers = new AtomicInteger();
+
+    ParallelProcessor<Integer, Integer> processor = new ParallelProcessor<>(4, () -> {
+      workers.incrementAndGet();
+      return i -> {
+        if (i % 7 == 0) {
+          Thread.yield();
+        }
+        return i * 2;
+      };
+    });
+
+    List<Integer> results = new ArrayList<>();
+    processor.process(new CollectionObjectStream<>(numbers(1000)), results::add);
+
+    Assert.assertEquals(1000, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      Assert.assertEquals(i * 2, results.get(i).intValue());
+    }
+    Assert.assertTrue(workers.get() <= 4);
+  }
+
+  @Test
+  public void testSingleThread() throws IOException {
+    Thread caller = Thread.currentThread();
+
+    ParallelProcessor<Integer, Thread> processor =
+        new ParallelProcessor<>(1, () -> i -> Thread.currentThread());
+
+    List<Thread> results = new ArrayList<>();
+    processor.process(new CollectionObjectStream<>(numbers(10)), results::add);
+
+    Assert.assertEquals(10, results.size());
+    for (Thread thread : results) {
+      Assert.assertSame(caller, thread);
+    }
+  }
+
+  @Test
+  public void testGroupsOnOneWorker() throws IOException {
+    ParallelProcessor<Integer, String> processor = new ParallelProcessor<>(4, () -> {
+      List<Integer> processed = new ArrayList<>();
+      return i -> {
+        // the inputs of a group arrive in order on the same worker
+        if (i % 10 != 0) {
+          Assert.assertEquals(Integer.valueOf(i - 1), processed.get(processed.size() - 1));
+        }
+        processed.add(i);
+        return i + "@" + Thread.currentThread().getName();
+      };
+    });
+
+    AtomicInteger reads = new AtomicInteger();
+    List<Integer> readsAtResult = new ArrayList<>();
+    List<String> results = new ArrayList<>();
+    processor.process(new CollectionObjectStream<Integer>(numbers(1000)) {
+      @Override
+      public Integer read() {
+        reads.incrementAndGet();
+        return super.read();
+      }
+    }, i -> i % 10 == 0, result -> {
+      readsAtResult.add(reads.get());
+      results.add(result);
+    });
+
+    Assert.assertEquals(1000, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      String[] result = results.get(i).split("@");
+      Assert.assertEquals(i, Integer.parseInt(result[0]));
+      if (i % 10 != 0) {
+        Assert.assertEquals(results.get(i - 1).split("@")[1], result[1]);
+      }
+    }
+
+    // the results are passed on while the inputs are still read
+    Assert.assertTrue(readsAtResult.get(0) < 1000);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWorkerFailure() throws IOException {
+    ParallelProcessor<Integer, Integer> processor = new ParallelProcessor<>(2, () -> i -> {
+      if (i == 50) {
+        throw new IllegalStateException();
+      }
+      return i;
+    });
+
+    processor.process(new CollectionObjectStream<>(numbers(100)), i -> { });
+  }
+
+  @Test
+  public void testGetThreads() {
+    Assert.assertEquals(1, ParallelProcessor.getThreads(new String[] {"model"}));
+    Assert.assertEquals(3, ParallelProcessor.getThreads(new String[] {"-threads", "3", "model"}));
+    Assert.assertArrayEquals(new String[] {"model"},
+        CmdLineUtil.removeParameter("-threads", new String[] {"-threads", "3", "model"}));
+  }
+
+  @Test(expected = TerminateToolException.class)
+  public void testInvalidThreads() {
+    ParallelProcessor.getThreads(new String[] {"-threads", "0", "model"});
+  }
+}
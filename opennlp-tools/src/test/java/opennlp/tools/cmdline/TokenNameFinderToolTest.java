@@ -67,6 +67,33 @@ public class TokenNameFinderToolTest {
     
   }
   
+  @Test
+  public void runWithThreads() throws IOException {
+
+    File model1 = trainModel();
+
+    String[] args = new String[]{"-threads", "2", model1.getAbsolutePath()};
+
+    final String in = "It is Stefanie Schmidt.\n\nNothing in this sentence.\n\n"
+        + "It is Stefanie Schmidt.";
+    InputStream stream = new ByteArrayInputStream(in.getBytes(StandardCharsets.UTF_8));
+
+    System.setIn(stream);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PrintStream ps = new PrintStream(baos);
+    System.setOut(ps);
+
+    TokenNameFinderTool tool = new TokenNameFinderTool();
+    tool.run(args);
+    ps.flush();
+
+    final String[] lines = new String(baos.toByteArray(), StandardCharsets.UTF_8).split("\\R");
+    Assert.assertEquals("It is <START:person> Stefanie Schmidt. <END>", lines[0]);
+    Assert.assertEquals("Nothing in this sentence.", lines[2]);
+    Assert.assertEquals("It is <START:person> Stefanie Schmidt. <END>", lines[4]);
+  }
+
   @Test(expected = TerminateToolException.class)
   public void invalidModel() {
 
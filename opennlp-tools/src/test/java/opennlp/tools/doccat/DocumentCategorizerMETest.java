@@ -18,8 +18,12 @@
 package opennlp.tools.doccat;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -63,6 +67,46 @@ public class DocumentCategorizerMETest {
     Assert.assertEquals(1, cat.size());
   }
   
+  @Test
+  public void testCategorizeBatch() throws IOException {
+
+    ObjectStream<DocumentSample> samples = ObjectStreamUtils.createObjectStream(
+        new DocumentSample("1", new String[]{"a", "b", "c"}),
+        new DocumentSample("1", new String[]{"a", "b", "c", "1", "2"}),
+        new DocumentSample("0", new String[]{"x", "y", "z"}),
+        new DocumentSample("0", new String[]{"x", "y", "z", "5", "6"}));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    params.put(TrainingParameters.CUTOFF_PARAM, 0);
+
+    DoccatModel model = DocumentCategorizerME.train("x-unspecified", samples,
+        params, new DoccatFactory());
+
+    DocumentCategorizerME doccat = new DocumentCategorizerME(model);
+
+    List<String[]> texts = Arrays.asList(new String[]{"a"}, new String[]{"x", "y"},
+        new String[]{"b", "z", "1"}, new String[]{"unknown"});
+
+    List<double[]> probs = doccat.categorize(texts);
+    Assert.assertEquals(texts.size(), probs.size());
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<double[]> parallelProbs = doccat.categorize(texts, executor);
+      Assert.assertEquals(texts.size(), parallelProbs.size());
+
+      for (int i = 0; i < texts.size(); i++) {
+        double[] expected = doccat.categorize(texts.get(i));
+        Assert.assertArrayEquals(expected, probs.get(i), 0d);
+        Assert.assertArrayEquals(expected, parallelProbs.get(i), 0d);
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
   @Test(expected = InsufficientTrainingDataException.class)
   public void insufficientTestData() throws IOException {
 
@@ -86,6 +86,34 @@ public class LemmatizerMETest {
     Assert.assertArrayEquals(expect, lemmas);
   }
   
+  @Test
+  public void testLemmaCandidates() {
+
+    LemmaCandidates[] candidates = lemmatizer.predictLemmaCandidates(tokens, postags, 3, 1);
+
+    Assert.assertEquals(tokens.length, candidates.length);
+    for (int i = 0; i < candidates.length; i++) {
+      Assert.assertEquals(tokens[i], candidates[i].getToken());
+      Assert.assertTrue(candidates[i].size() > 0 && candidates[i].size() <= 3);
+      Assert.assertEquals(expect[i], candidates[i].getLemma(0));
+
+      double mass = 0;
+      for (int j = 0; j < candidates[i].size(); j++) {
+        if (j > 0) {
+          Assert.assertTrue(candidates[i].getProbability(j - 1) >= candidates[i].getProbability(j));
+        }
+        mass += candidates[i].getProbability(j);
+      }
+      Assert.assertTrue(mass <= 1.000001);
+    }
+
+    LemmaCandidates[] best = lemmatizer.predictLemmaCandidates(tokens, postags, 3, 0);
+    for (int i = 0; i < best.length; i++) {
+      Assert.assertEquals(1, best[i].size());
+      Assert.assertEquals(candidates[i].getEditScript(0), best[i].getEditScript(0));
+    }
+  }
+
   @Test(expected = InsufficientTrainingDataException.class)
   public void testInsufficientData() throws IOException {
  
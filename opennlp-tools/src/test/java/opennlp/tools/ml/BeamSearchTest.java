@@ -17,6 +17,7 @@
 
 package opennlp.tools.ml;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,6 +26,7 @@ import org.junit.Test;
 
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.Sequence;
 
 public class BeamSearchTest {
@@ -205,4 +207,56 @@ public class BeamSearchTest {
     Assert.assertNotSame("2", seq.getOutcomes().get(3));
     Assert.assertEquals("1", seq.getOutcomes().get(4));
   }
+
+  /**
+   * Tests that the top sequences are ordered by decreasing score and
+   * that more sequences than the beam size can be requested.
+   */
+  @Test
+  public void testBestSequencesOrder() {
+    String[] sequence = {"1", "2", "3", "2", "1"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    String[] outcomes = new String[] {"1", "2", "3"};
+    MaxentModel model = new IdentityModel(outcomes);
+
+    BeamSearch<String> bs = new BeamSearch<>(2, model);
+
+    Sequence[] seqs = bs.bestSequences(4, sequence, null, cg, (i, s, o, out) -> true);
+    Assert.assertEquals(4, seqs.length);
+    Assert.assertEquals(Arrays.asList(sequence), seqs[0].getOutcomes());
+
+    for (int i = 1; i < seqs.length; i++) {
+      Assert.assertEquals(sequence.length, seqs[i].getOutcomes().size());
+      Assert.assertTrue(seqs[i - 1].getScore() >= seqs[i].getScore());
+    }
+
+    Assert.assertEquals(seqs[0], bs.bestSequence(sequence, null, cg, (i, s, o, out) -> true));
+  }
+
+  /**
+   * Tests that the contexts cache is hit by equal contexts of different calls.
+   */
+  @Test
+  public void testContextsCache() {
+    String[] sequence = {"1", "2", "3", "2", "1"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    String[] outcomes = new String[] {"1", "2", "3"};
+    MaxentModel model = new IdentityModel(outcomes);
+
+    BeamSearch<String> bs = new BeamSearch<>(3, model, 100);
+
+    Sequence seq = bs.bestSequence(sequence, null, cg, (i, s, o, out) -> true);
+    Sequence cachedSeq = bs.bestSequence(sequence, null, cg, (i, s, o, out) -> true);
+
+    Assert.assertEquals(seq.getOutcomes(), cachedSeq.getOutcomes());
+    Assert.assertArrayEquals(seq.getProbs(), cachedSeq.getProbs(), 0d);
+
+    ConcurrentCache<?, ?> cache = bs.getContextsCache();
+    // the identity context generator produces three distinct contexts
+    Assert.assertEquals(3, cache.size());
+    Assert.assertEquals(3, cache.getMissCount());
+    Assert.assertTrue(cache.getHitCount() > 0);
+  }
 }
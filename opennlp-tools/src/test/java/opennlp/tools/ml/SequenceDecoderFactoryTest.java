@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.ml.BeamSearchTest.IdentityModel;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.TrainingParameters;
+
+public class SequenceDecoderFactoryTest {
+
+  private final MaxentModel model = new IdentityModel(new String[] {"1", "2", "3"});
+
+  @Test
+  public void testDefaultIsBeamSearch() {
+    Assert.assertTrue(SequenceDecoderFactory.create(model, new Properties(), 3)
+        instanceof BeamSearch);
+  }
+
+  @Test
+  public void testCreateFromManifest() {
+    Properties manifest = new Properties();
+    manifest.setProperty(SequenceDecoderFactory.DECODER_PARAMETER, SequenceDecoderFactory.VITERBI_VALUE);
+    Assert.assertTrue(SequenceDecoderFactory.create(model, manifest, 3) instanceof ViterbiSearch);
+
+    manifest.setProperty(SequenceDecoderFactory.DECODER_PARAMETER,
+        SequenceDecoderFactory.BEAM_SEARCH_VALUE);
+    manifest.setProperty(BeamSearch.CACHE_SIZE_PARAMETER, "10");
+    BeamSearch<?> beamSearch = (BeamSearch<?>) SequenceDecoderFactory.create(model, manifest, 3);
+    Assert.assertEquals(10, beamSearch.getContextsCache().getCapacity());
+  }
+
+  @Test
+  public void testAddManifestEntries() {
+    TrainingParameters params = new TrainingParameters();
+    params.put(SequenceDecoderFactory.DECODER_PARAMETER, SequenceDecoderFactory.VITERBI_VALUE);
+    params.put(BeamSearch.CACHE_SIZE_PARAMETER, 100);
+
+    Map<String, String> manifestInfoEntries = new HashMap<>();
+    SequenceDecoderFactory.addManifestEntries(params, manifestInfoEntries);
+
+    Assert.assertEquals(SequenceDecoderFactory.VITERBI_VALUE,
+        manifestInfoEntries.get(SequenceDecoderFactory.DECODER_PARAMETER));
+    Assert.assertEquals("100", manifestInfoEntries.get(BeamSearch.CACHE_SIZE_PARAMETER));
+
+    manifestInfoEntries.clear();
+    SequenceDecoderFactory.addManifestEntries(new TrainingParameters(), manifestInfoEntries);
+    Assert.assertTrue(manifestInfoEntries.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownDecoder() {
+    TrainingParameters params = new TrainingParameters();
+    params.put(SequenceDecoderFactory.DECODER_PARAMETER, "Unknown");
+
+    SequenceDecoderFactory.addManifestEntries(params, new HashMap<>());
+  }
+}
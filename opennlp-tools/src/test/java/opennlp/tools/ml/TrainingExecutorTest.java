@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrainingExecutorTest {
+
+  private TrainingExecutor executor;
+
+  @Before
+  public void startExecutor() {
+    executor = new TrainingExecutor(3);
+  }
+
+  @After
+  public void stopExecutor() {
+    executor.close();
+  }
+
+  @Test
+  public void testPartitionByContextLength() {
+    int[][] contexts = new int[][] {new int[17], new int[1], new int[1], new int[1],
+        new int[1], new int[1], new int[1], new int[1], new int[1], new int[1]};
+
+    // the long context is as much work as the nine short ones
+    Assert.assertArrayEquals(new int[] {0, 1, 10}, TrainingExecutor.partition(contexts, 2));
+  }
+
+  @Test
+  public void testPartitionWithMoreChunksThanEvents() {
+    int[] bounds = TrainingExecutor.partition(new int[][] {new int[2]}, 4);
+
+    Assert.assertEquals(5, bounds.length);
+    Assert.assertEquals(0, bounds[0]);
+    Assert.assertEquals(1, bounds[4]);
+  }
+
+  @Test
+  public void testForEach() {
+    AtomicIntegerArray calls = new AtomicIntegerArray(100);
+
+    executor.forEach(calls.length(), calls::incrementAndGet);
+
+    for (int i = 0; i < calls.length(); i++) {
+      Assert.assertEquals(1, calls.get(i));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testForEachRethrowsException() {
+    executor.forEach(10, i -> {
+      if (i == 7) {
+        throw new IllegalStateException();
+      }
+    });
+  }
+
+  @Test
+  public void testSumDoesNotDependOnThreads() {
+    double[] values = new double[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1d / (i + 1);
+    }
+
+    double expected;
+    try (TrainingExecutor serial = new TrainingExecutor(1)) {
+      expected = serial.sum(values.length, i -> values[i]);
+    }
+
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(expected, executor.sum(values.length, j -> values[j]), 0d);
+    }
+  }
+
+  @Test
+  public void testReduce() {
+    int dimension = 40000;
+    double[][] partials = new double[5][dimension];
+    for (int t = 0; t < partials.length; t++) {
+      for (int i = 0; i < dimension; i++) {
+        partials[t][i] = t * dimension + i;
+      }
+    }
+
+    double[] result = new double[dimension];
+    executor.reduce(partials, result);
+
+    for (int i = 0; i < dimension; i++) {
+      Assert.assertEquals(10d * dimension + 5 * i, result[i], 0d);
+    }
+  }
+}
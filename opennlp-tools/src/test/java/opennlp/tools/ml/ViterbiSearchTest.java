@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.ml.BeamSearchTest.IdentityFeatureGenerator;
+import opennlp.tools.ml.BeamSearchTest.IdentityModel;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+public class ViterbiSearchTest {
+
+  private static final String[] OUTCOMES = {"A", "B", "C", "D"};
+
+  /**
+   * A context generator whose context depends on the token and the previous outcome.
+   */
+  static class FirstOrderContextGenerator implements BeamSearchContextGenerator<String> {
+
+    public String[] getContext(int index, String[] sequence,
+        String[] priorDecisions, Object[] additionalContext) {
+      return new String[] {index > 0 ? priorDecisions[index - 1] : "S", sequence[index]};
+    }
+  }
+
+  /**
+   * A context generator which splits its context into the features of the token and
+   * its neighbours, and the feature of the previous outcome. It counts how often the
+   * parts of the contexts are generated.
+   */
+  static class SplitContextGenerator implements BeamSearchContextGenerator<String> {
+
+    int[] independentCalls;
+    int[] dependentCalls;
+    int contextCalls;
+
+    SplitContextGenerator(int length) {
+      independentCalls = new int[length];
+      dependentCalls = new int[length];
+    }
+
+    public String[] getContext(int index, String[] sequence,
+        String[] priorDecisions, Object[] additionalContext) {
+      contextCalls++;
+      String[] independent = createIndependentContext(index, sequence);
+      String[] context = Arrays.copyOf(independent, independent.length + 1);
+      context[independent.length] = createDependentContext(index, priorDecisions)[0];
+      return context;
+    }
+
+    @Override
+    public String[] getOutcomeIndependentContext(int index, String[] sequence,
+        Object[] additionalContext) {
+      independentCalls[index]++;
+      return createIndependentContext(index, sequence);
+    }
+
+    @Override
+    public String[] getOutcomeDependentContext(int index, String[] sequence,
+        String[] priorDecisions, Object[] additionalContext) {
+      dependentCalls[index]++;
+      return createDependentContext(index, priorDecisions);
+    }
+
+    private static String[] createIndependentContext(int index, String[] sequence) {
+      return new String[] {"w=" + sequence[index],
+          "n=" + (index + 1 < sequence.length ? sequence[index + 1] : "E")};
+    }
+
+    private static String[] createDependentContext(int index, String[] priorDecisions) {
+      return new String[] {"p=" + (index > 0 ? priorDecisions[index - 1] : "S")};
+    }
+  }
+
+  /**
+   * Creates a GIS model with pseudo random parameters for the features of the
+   * {@link SplitContextGenerator}.
+   */
+  private static GISModel createSplitModel(String[] tokens) {
+    List<String> predicates = new ArrayList<>();
+    for (String token : tokens) {
+      predicates.add("w=" + token);
+      predicates.add("n=" + token);
+    }
+    predicates.add("n=E");
+    predicates.add("p=S");
+    for (String outcome : OUTCOMES) {
+      predicates.add("p=" + outcome);
+    }
+
+    Random random = new Random(42);
+    int[] outcomePattern = new int[OUTCOMES.length];
+    for (int i = 0; i < outcomePattern.length; i++) {
+      outcomePattern[i] = i;
+    }
+
+    Context[] params = new Context[predicates.size()];
+    for (int i = 0; i < params.length; i++) {
+      double[] parameters = new double[OUTCOMES.length];
+      for (int o = 0; o < parameters.length; o++) {
+        parameters[o] = random.nextGaussian();
+      }
+      params[i] = new Context(outcomePattern, parameters);
+    }
+
+    return new GISModel(params, predicates.toArray(new String[predicates.size()]), OUTCOMES);
+  }
+
+  /**
+   * A model which assigns pseudo random probabilities to each context.
+   */
+  static class RandomModel extends IdentityModel {
+
+    RandomModel(String[] outcomes) {
+      super(outcomes);
+    }
+
+    @Override
+    public double[] eval(String[] context) {
+      Random random = new Random(Arrays.hashCode(context));
+
+      double[] probs = new double[getNumOutcomes()];
+      double sum = 0;
+      for (int i = 0; i < probs.length; i++) {
+        probs[i] = 0.05 + random.nextDouble();
+        sum += probs[i];
+      }
+      for (int i = 0; i < probs.length; i++) {
+        probs[i] /= sum;
+      }
+
+      return probs;
+    }
+  }
+
+  // a "C" must not follow an "A"
+  private static final SequenceValidator<String> VALIDATOR = (i, sequence, outcomes, outcome) ->
+      i == 0 || !("A".equals(outcomes[i - 1]) && "C".equals(outcome));
+
+  /**
+   * Tests that the n best sequences are the same as the ones found by an
+   * exhaustive search, if the context depends only on the previous outcome.
+   */
+  @Test
+  public void testBestSequencesAreExact() {
+    MaxentModel model = new RandomModel(OUTCOMES);
+    BeamSearchContextGenerator<String> cg = new FirstOrderContextGenerator();
+
+    // a beam which is large enough to keep all sequences
+    BeamSearch<String> exhaustive = new BeamSearch<>(5000, model);
+    ViterbiSearch<String> viterbi = new ViterbiSearch<>(model);
+
+    String[][] sequences = {{"x"}, {"x", "y"}, {"the", "quick", "brown", "fox", "jumps"},
+        {"one", "two", "three", "four", "five", "six"}};
+
+    for (String[] sequence : sequences) {
+      Sequence[] expected = exhaustive.bestSequences(5, sequence, null, cg, VALIDATOR);
+      Sequence[] actual = viterbi.bestSequences(5, sequence, null, cg, VALIDATOR);
+
+      Assert.assertEquals(expected.length, actual.length);
+      for (int i = 0; i < expected.length; i++) {
+        Assert.assertEquals(expected[i].getOutcomes(), actual[i].getOutcomes());
+        Assert.assertArrayEquals(expected[i].getProbs(), actual[i].getProbs(), 0d);
+        Assert.assertEquals(expected[i].getScore(), actual[i].getScore(), 0d);
+      }
+
+      Assert.assertEquals(expected[0], viterbi.bestSequence(sequence, null, cg, VALIDATOR));
+    }
+  }
+
+  /**
+   * Tests that the outcome independent part of a split context is generated once per
+   * position, and that the split contexts give the same sequences as whole contexts.
+   */
+  @Test
+  public void testSplitContexts() {
+    String[] sequence = {"the", "quick", "brown", "fox", "jumps", "over", "the", "dog"};
+
+    for (MaxentModel model : new MaxentModel[] {createSplitModel(sequence),
+        new RandomModel(OUTCOMES)}) {
+
+      ViterbiSearch<String> viterbi = new ViterbiSearch<>(model);
+
+      SplitContextGenerator split = new SplitContextGenerator(sequence.length);
+      Sequence[] actual = viterbi.bestSequences(3, sequence, null, split, VALIDATOR);
+      Assert.assertEquals(0, split.contextCalls);
+
+      // hides the split, the whole contexts are generated per state
+      BeamSearchContextGenerator<String> whole = split::getContext;
+      Sequence[] expected = viterbi.bestSequences(3, sequence, null, whole, VALIDATOR);
+
+      Assert.assertEquals(expected.length, actual.length);
+      for (int i = 0; i < expected.length; i++) {
+        Assert.assertEquals(expected[i].getOutcomes(), actual[i].getOutcomes());
+        Assert.assertArrayEquals(expected[i].getProbs(), actual[i].getProbs(), 0d);
+      }
+
+      for (int i = 0; i < sequence.length; i++) {
+        Assert.assertEquals(1, split.independentCalls[i]);
+        Assert.assertEquals(i == 0 ? 1 : OUTCOMES.length, split.dependentCalls[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testValidatorIsApplied() {
+    String[] sequence = {"A", "C", "A", "C"};
+
+    // the identity model prefers the outcome which is equal to the token
+    ViterbiSearch<String> viterbi = new ViterbiSearch<>(new IdentityModel(OUTCOMES));
+    Sequence seq = viterbi.bestSequence(sequence, null, new IdentityFeatureGenerator(sequence),
+        VALIDATOR);
+
+    Assert.assertEquals(sequence.length, seq.getOutcomes().size());
+    for (int i = 1; i < sequence.length; i++) {
+      Assert.assertFalse("A".equals(seq.getOutcomes().get(i - 1))
+          && "C".equals(seq.getOutcomes().get(i)));
+    }
+  }
+
+  @Test
+  public void testNoValidSequence() {
+    String[] sequence = {"A", "B"};
+
+    ViterbiSearch<String> viterbi = new ViterbiSearch<>(new IdentityModel(OUTCOMES));
+    Assert.assertNull(viterbi.bestSequence(sequence, null, new IdentityFeatureGenerator(sequence),
+        (i, s, o, out) -> i == 0));
+  }
+
+  @Test
+  public void testZeroLengthInput() {
+    String[] sequence = new String[0];
+
+    ViterbiSearch<String> viterbi = new ViterbiSearch<>(new IdentityModel(OUTCOMES));
+    Sequence seq = viterbi.bestSequence(sequence, null, new IdentityFeatureGenerator(sequence),
+        (i, s, o, out) -> true);
+
+    Assert.assertNotNull(seq);
+    Assert.assertEquals(0, seq.getOutcomes().size());
+  }
+
+  @Test
+  public void testDefaultContextSplit() {
+    BeamSearchContextGenerator<String> cg = (index, sequence, priorDecisions, additionalContext) ->
+        new String[] {"w=" + sequence[index], "p=" + (index > 0 ? priorDecisions[index - 1] : "bos")};
+
+    String[] sequence = {"a", "b"};
+    String[] priorDecisions = {"x"};
+
+    Assert.assertNull(cg.getOutcomeIndependentContext(1, sequence, null));
+    Assert.assertArrayEquals(cg.getContext(1, sequence, priorDecisions, null),
+        cg.getOutcomeDependentContext(1, sequence, priorDecisions, null));
+  }
+}
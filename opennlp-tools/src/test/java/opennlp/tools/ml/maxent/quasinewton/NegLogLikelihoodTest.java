@@ -174,6 +174,24 @@ public class NegLogLikelihoodTest {
         testDataIndexer, TOLERANCE01));
   }
 
+  @Test
+  public void testParallelValueAndGradient() throws IOException {
+    // given
+    RealValueFileEventStream rvfes1 = new RealValueFileEventStream(
+        "src/test/resources/data/opennlp/maxent/real-valued-weights-training-data.txt", "UTF-8");
+    testDataIndexer.index(rvfes1);
+    NegLogLikelihood objectFunction = new NegLogLikelihood(testDataIndexer);
+    double[] nonInitialPoint = new double[] { 0.2, 0.5, 0.2, 0.5, 0.2, 0.5, 0.2, 0.5, 0.2, 0.5 };
+    // when
+    try (ParallelNegLogLikelihood parallelFunction = new ParallelNegLogLikelihood(testDataIndexer, 2)) {
+      // then
+      Assert.assertEquals(objectFunction.valueAt(nonInitialPoint),
+          parallelFunction.valueAt(nonInitialPoint), TOLERANCE02);
+      Assert.assertArrayEquals(objectFunction.gradientAt(nonInitialPoint),
+          parallelFunction.gradientAt(nonInitialPoint), TOLERANCE02);
+    }
+  }
+
   private double[] alignDoubleArrayForTestData(double[] expected,
       String[] predLabels, String[] outcomeLabels) {
     double[] aligned = new double[predLabels.length * outcomeLabels.length];
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent.sgd;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.ml.AbstractTrainer;
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.maxent.quasinewton.QNModel;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.TrainingParameters;
+
+public class SGDTrainerTest {
+
+  private static MaxentModel train(String solver, double l1Cost) throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(AbstractTrainer.ALGORITHM_PARAM, SGDTrainer.MAXENT_SGD_VALUE);
+    trainParams.put(AbstractTrainer.VERBOSE_PARAM, false);
+    trainParams.put(SGDTrainer.SOLVER_PARAM, solver);
+    trainParams.put(SGDTrainer.L1COST_PARAM, l1Cost);
+
+    EventTrainer trainer = TrainerFactory.getEventTrainer(trainParams, null);
+    Assert.assertTrue(trainer instanceof SGDTrainer);
+
+    return trainer.train(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  @Test
+  public void testSGDOnPrepAttachData() throws IOException {
+    PrepAttachDataUtil.testModel(train(SGDTrainer.SOLVER_SGD_VALUE, 0), 0.7472146570933399);
+  }
+
+  @Test
+  public void testAdaGradOnPrepAttachData() throws IOException {
+    PrepAttachDataUtil.testModel(train(SGDTrainer.SOLVER_ADAGRAD_VALUE, 0), 0.8195097796484279);
+  }
+
+  @Test
+  public void testFTRLOnPrepAttachData() throws IOException {
+    PrepAttachDataUtil.testModel(train(SGDTrainer.SOLVER_FTRL_VALUE, 0), 0.8165387472146571);
+  }
+
+  @Test
+  public void testL1CostRemovesPredicates() throws IOException {
+    QNModel dense = (QNModel) train(SGDTrainer.SOLVER_FTRL_VALUE, 0);
+    QNModel sparse = (QNModel) train(SGDTrainer.SOLVER_FTRL_VALUE, 0.5);
+
+    Map<?, ?> densePredicates = (Map<?, ?>) dense.getDataStructures()[1];
+    Map<?, ?> sparsePredicates = (Map<?, ?>) sparse.getDataStructures()[1];
+    Assert.assertTrue(sparsePredicates.size() < densePredicates.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownSolver() throws IOException {
+    train("Newton", 0);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.maxent.GISTrainer;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.naivebayes.NaiveBayesTrainer;
+import opennlp.tools.ml.perceptron.PerceptronTrainer;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.GenericModelSerializer;
+
+public class CompiledMaxentModelTest {
+
+  private static List<Event> events;
+
+  @BeforeClass
+  public static void readEvents() throws IOException {
+    events = new ArrayList<>();
+
+    try (ObjectStream<Event> eventStream = PrepAttachDataUtil.createTrainingStream()) {
+      Event event;
+      while ((event = eventStream.read()) != null) {
+        events.add(event);
+      }
+    }
+
+    // a context with predicates the model has never seen
+    events.add(new Event("N", new String[] {"verb=unknown", "noun=unknown"}));
+  }
+
+  private static AbstractModel train(String algorithm) throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+    params.put(TrainingParameters.ITERATIONS_PARAM, 20);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+
+    return (AbstractModel) TrainerFactory.getEventTrainer(params, null)
+        .train(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  private static void assertIdenticalProbabilities(AbstractModel model) {
+    CompiledMaxentModel compiled = CompiledMaxentModel.compile(model);
+
+    Assert.assertEquals(model.getModelType(), compiled.getModelType());
+    Assert.assertEquals(model.getNumOutcomes(), compiled.getNumOutcomes());
+
+    for (Event event : events) {
+      String[] context = event.getContext();
+
+      Assert.assertArrayEquals(model.eval(context), compiled.eval(context), 0d);
+
+      float[] values = new float[context.length];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = 0.5f + i;
+      }
+
+      Assert.assertArrayEquals(model.eval(context, values), compiled.eval(context, values), 0d);
+    }
+  }
+
+  @Test
+  public void testGISModel() throws IOException {
+    assertIdenticalProbabilities(train(GISTrainer.MAXENT_VALUE));
+  }
+
+  @Test
+  public void testQNModel() throws IOException {
+    assertIdenticalProbabilities(train(QNTrainer.MAXENT_QN_VALUE));
+  }
+
+  @Test
+  public void testPerceptronModel() throws IOException {
+    assertIdenticalProbabilities(train(PerceptronTrainer.PERCEPTRON_VALUE));
+  }
+
+  @Test
+  public void testNaiveBayesModel() throws IOException {
+    assertIdenticalProbabilities(train(NaiveBayesTrainer.NAIVE_BAYES_VALUE));
+  }
+
+  @Test
+  public void testPredicateIndex() throws IOException {
+    AbstractModel model = train(GISTrainer.MAXENT_VALUE);
+    CompiledMaxentModel compiled = CompiledMaxentModel.compile(model);
+
+    Assert.assertEquals(-1, compiled.getPredicateIndex("verb=unknown"));
+
+    String predicate = events.get(0).getContext()[0];
+    int index = compiled.getPredicateIndex(predicate);
+    Assert.assertTrue(index >= 0);
+    Assert.assertEquals(index, compiled.getPredicateIndex(new String(predicate)));
+  }
+
+  @Test
+  public void testCompiledOnLoad() throws IOException {
+    AbstractModel model = train(GISTrainer.MAXENT_VALUE);
+
+    GenericModelSerializer serializer = new GenericModelSerializer();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializer.serialize(model, out);
+
+    AbstractModel loaded = serializer.create(new ByteArrayInputStream(out.toByteArray()));
+    Assert.assertTrue(loaded instanceof CompiledMaxentModel);
+    Assert.assertEquals(model, loaded);
+
+    // a compiled model must serialize to the same bytes as its source model
+    ByteArrayOutputStream compiledOut = new ByteArrayOutputStream();
+    serializer.serialize(loaded, compiledOut);
+    Assert.assertArrayEquals(out.toByteArray(), compiledOut.toByteArray());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCompileTwice() throws IOException {
+    CompiledMaxentModel.compile(CompiledMaxentModel.compile(train(GISTrainer.MAXENT_VALUE)));
+  }
+}
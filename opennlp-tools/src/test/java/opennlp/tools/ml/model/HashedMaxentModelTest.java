@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.maxent.GISTrainer;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.naivebayes.NaiveBayesTrainer;
+import opennlp.tools.ml.perceptron.PerceptronTrainer;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.GenericModelSerializer;
+
+public class HashedMaxentModelTest {
+
+  private static final int HASH_BITS = 16;
+
+  private static TrainingParameters createParameters(String algorithm) {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+    params.put(TrainingParameters.ITERATIONS_PARAM, 20);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+    return params;
+  }
+
+  private static AbstractModel train(String algorithm, Map<String, String> reportMap)
+      throws IOException {
+    TrainingParameters params = createParameters(algorithm);
+    params.put(AbstractEventTrainer.FEATURE_HASHING_BITS_PARAM, HASH_BITS);
+
+    return (AbstractModel) TrainerFactory.getEventTrainer(params, reportMap)
+        .train(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  /**
+   * Trains the same model on the hashed events without feature hashing,
+   * the hashed model must produce its probabilities from the plain features.
+   */
+  private static void assertHashedProbabilities(String algorithm) throws IOException {
+    AbstractModel model = train(algorithm, null);
+    Assert.assertTrue(model instanceof HashedMaxentModel);
+
+    EventTrainer trainer = TrainerFactory.getEventTrainer(createParameters(algorithm), null);
+    AbstractModel bucketModel = (AbstractModel) trainer.train(
+        new FeatureHashingEventStream(PrepAttachDataUtil.createTrainingStream(), HASH_BITS));
+
+    try (ObjectStream<Event> events = PrepAttachDataUtil.createTrainingStream()) {
+      Event event;
+      while ((event = events.read()) != null) {
+        String[] context = event.getContext();
+        String[] buckets = new String[context.length];
+        for (int i = 0; i < context.length; i++) {
+          buckets[i] = Integer.toString(HashedMaxentModel.bucket(context[i], HASH_BITS));
+        }
+
+        Assert.assertArrayEquals(bucketModel.eval(buckets), model.eval(context), 0d);
+      }
+    }
+  }
+
+  @Test
+  public void testMurmur3() {
+    // the MurmurHash3 x86 32 bit values of the UTF-16LE encoded strings, seed 0
+    Assert.assertEquals(0, HashedMaxentModel.murmur3(""));
+    Assert.assertEquals(1867108634, HashedMaxentModel.murmur3("a"));
+    Assert.assertEquals(374890698, HashedMaxentModel.murmur3("ab"));
+    Assert.assertEquals(-675079799, HashedMaxentModel.murmur3("hello"));
+    Assert.assertEquals(2017936342, HashedMaxentModel.murmur3("verb=join"));
+  }
+
+  @Test
+  public void testGISModel() throws IOException {
+    assertHashedProbabilities(GISTrainer.MAXENT_VALUE);
+  }
+
+  @Test
+  public void testQNModel() throws IOException {
+    assertHashedProbabilities(QNTrainer.MAXENT_QN_VALUE);
+  }
+
+  @Test
+  public void testPerceptronModel() throws IOException {
+    assertHashedProbabilities(PerceptronTrainer.PERCEPTRON_VALUE);
+  }
+
+  @Test
+  public void testNaiveBayesModel() throws IOException {
+    assertHashedProbabilities(NaiveBayesTrainer.NAIVE_BAYES_VALUE);
+  }
+
+  @Test
+  public void testHashingIsReported() throws IOException {
+    Map<String, String> reportMap = new HashMap<>();
+    train(GISTrainer.MAXENT_VALUE, reportMap);
+
+    Assert.assertEquals(Integer.toString(HASH_BITS), reportMap.get("Feature-Hashing-Bits"));
+  }
+
+  @Test
+  public void testSerialization() throws IOException {
+    AbstractModel model = train(QNTrainer.MAXENT_QN_VALUE, null);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new GenericModelSerializer().serialize(model, out);
+
+    AbstractModel loaded = new GenericModelSerializer(HASH_BITS)
+        .create(new ByteArrayInputStream(out.toByteArray()));
+    Assert.assertTrue(loaded instanceof HashedMaxentModel);
+    Assert.assertEquals(model, loaded);
+
+    // the written model contains only bucket numbers as predicates
+    for (String predicate : ((Map<String, Context>) loaded.getDataStructures()[1]).keySet()) {
+      Assert.assertTrue(Integer.parseInt(predicate) < 1 << HASH_BITS);
+    }
+  }
+
+  @Test(expected = InvalidFormatException.class)
+  public void testModelWithoutHashedFeatures() throws IOException {
+    AbstractModel model = (AbstractModel) TrainerFactory.getEventTrainer(
+        createParameters(GISTrainer.MAXENT_VALUE), null)
+        .train(PrepAttachDataUtil.createTrainingStream());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new GenericModelSerializer().serialize(model, out);
+
+    new GenericModelSerializer(HASH_BITS).create(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidHashBits() throws IOException {
+    TrainingParameters params = createParameters(GISTrainer.MAXENT_VALUE);
+    params.put(AbstractEventTrainer.FEATURE_HASHING_BITS_PARAM, HashedMaxentModel.MAX_HASH_BITS + 1);
+
+    TrainerFactory.getEventTrainer(params, null).train(PrepAttachDataUtil.createTrainingStream());
+  }
+}
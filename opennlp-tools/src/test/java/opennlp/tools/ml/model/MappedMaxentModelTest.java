@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.maxent.GISTrainer;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.naivebayes.NaiveBayesTrainer;
+import opennlp.tools.ml.perceptron.PerceptronTrainer;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.TrainingParameters;
+
+public class MappedMaxentModelTest {
+
+  private static List<Event> events;
+
+  @BeforeClass
+  public static void readEvents() throws IOException {
+    events = new ArrayList<>();
+
+    try (ObjectStream<Event> eventStream = PrepAttachDataUtil.createTrainingStream()) {
+      Event event;
+      while ((event = eventStream.read()) != null) {
+        events.add(event);
+      }
+    }
+
+    // a context with predicates the model has never seen
+    events.add(new Event("N", new String[] {"verb=unknown", "noun=unknown", "noun=grün"}));
+  }
+
+  private static AbstractModel train(String algorithm, ObjectStream<Event> eventStream)
+      throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+    params.put(TrainingParameters.ITERATIONS_PARAM, 20);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+
+    return (AbstractModel) TrainerFactory.getEventTrainer(params, null).train(eventStream);
+  }
+
+  private static MappedMaxentModel map(AbstractModel model, boolean direct) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MappedMaxentModel.write(model, out);
+
+    byte[] bytes = out.toByteArray();
+    Assert.assertTrue(MappedMaxentModel.isMappedModel(ByteBuffer.wrap(bytes)));
+
+    ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.allocate(bytes.length);
+    buffer.put(bytes);
+    buffer.flip();
+
+    return MappedMaxentModel.map(buffer);
+  }
+
+  private static void assertIdenticalProbabilities(AbstractModel model, List<Event> events)
+      throws IOException {
+
+    for (boolean direct : new boolean[] {false, true}) {
+      MappedMaxentModel mapped = map(model, direct);
+
+      Assert.assertEquals(model.getModelType(), mapped.getModelType());
+      Assert.assertEquals(model.getNumOutcomes(), mapped.getNumOutcomes());
+      for (int i = 0; i < model.getNumOutcomes(); i++) {
+        Assert.assertEquals(model.getOutcome(i), mapped.getOutcome(i));
+      }
+
+      for (Event event : events) {
+        String[] context = event.getContext();
+
+        Assert.assertArrayEquals(model.eval(context), mapped.eval(context), 0d);
+
+        float[] values = new float[context.length];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = 0.5f + i;
+        }
+
+        Assert.assertArrayEquals(model.eval(context, values), mapped.eval(context, values), 0d);
+      }
+
+      // the heap data structures are created on demand
+      Assert.assertEquals(model, mapped);
+      Assert.assertEquals(mapped, model);
+
+      // a mapped model is written as it is
+      ByteArrayOutputStream original = new ByteArrayOutputStream();
+      MappedMaxentModel.write(model, original);
+      ByteArrayOutputStream copy = new ByteArrayOutputStream();
+      MappedMaxentModel.write(mapped, copy);
+      Assert.assertArrayEquals(original.toByteArray(), copy.toByteArray());
+    }
+  }
+
+  private static void assertIdenticalProbabilities(String algorithm) throws IOException {
+    assertIdenticalProbabilities(train(algorithm, PrepAttachDataUtil.createTrainingStream()), events);
+  }
+
+  @Test
+  public void testGISModel() throws IOException {
+    assertIdenticalProbabilities(GISTrainer.MAXENT_VALUE);
+  }
+
+  @Test
+  public void testQNModel() throws IOException {
+    assertIdenticalProbabilities(QNTrainer.MAXENT_QN_VALUE);
+  }
+
+  @Test
+  public void testPerceptronModel() throws IOException {
+    assertIdenticalProbabilities(PerceptronTrainer.PERCEPTRON_VALUE);
+  }
+
+  @Test
+  public void testNaiveBayesModel() throws IOException {
+    assertIdenticalProbabilities(NaiveBayesTrainer.NAIVE_BAYES_VALUE);
+  }
+
+  @Test
+  public void testNonAsciiPredicates() throws IOException {
+    List<Event> events = new ArrayList<>();
+    events.add(new Event("A", new String[] {"w=grün", "w=зеленый"}));
+    events.add(new Event("B", new String[] {"w=blau", "w=😀"}));
+    events.add(new Event("A", new String[] {"w=grün", "w=grünlich"}));
+    events.add(new Event("B", new String[] {"w=gr", "w=😀"}));
+
+    AbstractModel model = train(GISTrainer.MAXENT_VALUE,
+        ObjectStreamUtils.createObjectStream(events));
+
+    MappedMaxentModel mapped = map(model, false);
+
+    for (Event event : events) {
+      for (String predicate : event.getContext()) {
+        Assert.assertTrue(predicate, mapped.getPredicateIndex(predicate) >= 0);
+      }
+    }
+    Assert.assertEquals(-1, mapped.getPredicateIndex("w=grüne"));
+    Assert.assertEquals(-1, mapped.getPredicateIndex("w=g"));
+
+    assertIdenticalProbabilities(model, events);
+  }
+
+  @Test(expected = InvalidFormatException.class)
+  public void testMapInvalidBuffer() throws IOException {
+    MappedMaxentModel.map(ByteBuffer.allocate(256));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWriteMappedModelFromCompiledModelOnly() throws IOException {
+    MappedMaxentModel.write(new GISModel(new Context[0], new String[0], new String[] {"A"},
+        new Prior() {
+          @Override
+          public void logPrior(double[] dist, int[] context) {
+          }
+
+          @Override
+          public void logPrior(double[] dist, int[] context, float[] values) {
+          }
+
+          @Override
+          public void logPrior(double[] dist, Context[] context, float[] values) {
+          }
+
+          @Override
+          public void setLabels(String[] outcomeLabels, String[] contextLabels) {
+          }
+        }), new ByteArrayOutputStream());
+  }
+}
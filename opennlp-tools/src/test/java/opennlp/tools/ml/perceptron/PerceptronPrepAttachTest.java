@@ -96,6 +96,23 @@ public class PerceptronPrepAttachTest {
     PrepAttachDataUtil.testModel(model, 0.7791532557563754);
   }
 
+  @Test
+  public void testPerceptronOnPrepAttachDataInParallel() throws IOException {
+
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(AbstractTrainer.ALGORITHM_PARAM, PerceptronTrainer.PERCEPTRON_VALUE);
+    trainParams.put(AbstractTrainer.CUTOFF_PARAM, 1);
+    trainParams.put(TrainingParameters.THREADS_PARAM, 3);
+
+    EventTrainer trainer = TrainerFactory.getEventTrainer(trainParams, null);
+    AbstractModel modelA = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel modelB = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    // the shards are fixed, the model does not depend on the thread scheduling
+    Assert.assertEquals(modelA, modelB);
+    PrepAttachDataUtil.testModel(modelA, 0.7974746224312949);
+  }
+
   @Test
   public void testModelSerialization() throws IOException {
 
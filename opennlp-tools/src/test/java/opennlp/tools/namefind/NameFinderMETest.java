@@ -19,16 +19,22 @@ package opennlp.tools.namefind;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.HashMap;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import opennlp.tools.ml.SequenceDecoderFactory;
+import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.ViterbiSearch;
+import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.MockInputStreamFactory;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.ModelType;
 
 /**
  * This is the test class for {@link NameFinderME}.
@@ -108,6 +114,45 @@ public class NameFinderMETest {
     Assert.assertEquals(new Span(4, 6, DEFAULT), names[1]);
   }
 
+  @Test
+  public void testNameFinderWithViterbi() throws Exception {
+
+    String encoding = "ISO-8859-1";
+
+    ObjectStream<NameSample> sampleStream =
+        new NameSampleDataStream(
+            new PlainTextByLineStream(new MockInputStreamFactory(
+              new File("opennlp/tools/namefind/AnnotatedSentences.txt")), encoding));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, 70);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+    params.put(SequenceDecoderFactory.DECODER_PARAMETER, SequenceDecoderFactory.VITERBI_VALUE);
+
+    TokenNameFinderModel nameFinderModel = NameFinderME.train("eng", null, sampleStream,
+        params, TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec()));
+
+    Assert.assertTrue(nameFinderModel.getNameFinderSequenceModel() instanceof ViterbiSearch);
+
+    TokenNameFinder nameFinder = new NameFinderME(nameFinderModel);
+
+    String[] sentence = new String[] {
+        "Hi",
+        "Mike",
+        ",",
+        "it's",
+        "Stefanie",
+        "Schmidt",
+        "."
+    };
+
+    Span[] names = nameFinder.find(sentence);
+
+    Assert.assertEquals(2, names.length);
+    Assert.assertEquals(new Span(1, 2, DEFAULT), names[0]);
+    Assert.assertEquals(new Span(4, 6, DEFAULT), names[1]);
+  }
+
   /**
    * Train NamefinderME using AnnotatedSentencesWithTypes.txt with "person"
    * nameType and try the model in a sample text.
@@ -299,6 +344,37 @@ public class NameFinderMETest {
     return false;
   }
 
+  /**
+   * Trains a perceptron sequence model twice with several threads, the adaptive data
+   * of each shard must not depend on the thread scheduling.
+   */
+  @Test
+  public void testParallelPerceptronSequenceTrainingIsDeterministic() throws Exception {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, ModelType.PERCEPTRON_SEQUENCE.toString());
+    params.put(TrainingParameters.ITERATIONS_PARAM, 10);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+    params.put(TrainingParameters.THREADS_PARAM, 4);
+
+    AbstractModel first = trainSequenceModel(params);
+    AbstractModel second = trainSequenceModel(params);
+
+    Assert.assertArrayEquals((Object[]) first.getDataStructures()[0],
+        (Object[]) second.getDataStructures()[0]);
+  }
+
+  private static AbstractModel trainSequenceModel(TrainingParameters params) throws Exception {
+    ObjectStream<NameSample> sampleStream = new NameSampleDataStream(
+        new PlainTextByLineStream(new MockInputStreamFactory(
+            new File("opennlp/tools/namefind/AnnotatedSentences.txt")), "ISO-8859-1"));
+
+    TokenNameFinderFactory factory =
+        TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec());
+
+    return (AbstractModel) TrainerFactory.getEventModelSequenceTrainer(params, new HashMap<>())
+        .train(new NameSampleSequenceStream(sampleStream, factory, true));
+  }
+
   @Test
   public void testDropOverlappingSpans() {
     Span[] spans = new Span[] {new Span(1, 10), new Span(1,11), new Span(1,11), new Span(5, 15)};
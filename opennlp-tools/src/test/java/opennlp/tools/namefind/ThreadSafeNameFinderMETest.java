@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.namefind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the {@link ThreadSafeNameFinderME} class.
+ */
+public class ThreadSafeNameFinderMETest {
+
+  private static final String[][] SENTENCES = {
+      {"Alisa", "appreciated", "the", "hint", "and", "enjoyed", "a", "delicious",
+          "traditional", "meal."},
+      {"Hi", "Mike", ",", "it's", "Stefanie", "Schmidt", "."}
+  };
+
+  @Test
+  public void testFindConcurrently() throws Exception {
+    TokenNameFinderModel model = trainModel();
+
+    ThreadSafeNameFinderME nameFinder = new ThreadSafeNameFinderME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Span[]>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        String[] sentence = SENTENCES[i % SENTENCES.length];
+        results.add(executor.submit(() -> {
+          Span[] names = nameFinder.find(sentence);
+          nameFinder.clearAdaptiveData();
+          return names;
+        }));
+      }
+
+      NameFinderME reference = new NameFinderME(model);
+      for (int i = 0; i < results.size(); i++) {
+        Span[] expected = reference.find(SENTENCES[i % SENTENCES.length]);
+        reference.clearAdaptiveData();
+
+        Span[] names = results.get(i).get();
+        Assert.assertArrayEquals(expected, names);
+        for (int ni = 0; ni < names.length; ni++) {
+          Assert.assertEquals(expected[ni].getProb(), names[ni].getProb(), 0d);
+        }
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testFindBatch() throws Exception {
+    TokenNameFinderModel model = trainModel();
+
+    NameFinderME reference = new NameFinderME(model);
+    ThreadSafeNameFinderME nameFinder = new ThreadSafeNameFinderME(model);
+
+    List<String[]> sentences = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      sentences.add(SENTENCES[i % SENTENCES.length]);
+    }
+
+    List<Span[]> batchNames = reference.find(sentences);
+    List<Span[]> parallelNames;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      parallelNames = nameFinder.find(sentences, executor);
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    for (int i = 0; i < sentences.size(); i++) {
+      Span[] expected = reference.find(sentences.get(i));
+      reference.clearAdaptiveData();
+
+      Assert.assertArrayEquals(expected, batchNames.get(i));
+      Assert.assertArrayEquals(expected, parallelNames.get(i));
+    }
+
+    Assert.assertEquals(Arrays.asList(), nameFinder.find(new ArrayList<>()));
+  }
+
+  private TokenNameFinderModel trainModel() throws Exception {
+    ObjectStream<NameSample> sampleStream = new NameSampleDataStream(
+        new PlainTextByLineStream(new ResourceAsStreamFactory(getClass(),
+            "/opennlp/tools/namefind/AnnotatedSentences.txt"), "ISO-8859-1"));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, 70);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+
+    return NameFinderME.train("eng", null, sampleStream,
+        params, TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec()));
+  }
+}
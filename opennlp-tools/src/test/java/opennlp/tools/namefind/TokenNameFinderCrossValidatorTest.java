@@ -97,6 +97,40 @@ public class TokenNameFinderCrossValidatorTest {
     Assert.assertNotNull(cv.getFMeasure());
   }
   
+  @Test
+  public void testParallelFolds() throws Exception {
+
+    InputStreamFactory in = new ResourceAsStreamFactory(getClass(),
+        "/opennlp/tools/namefind/AnnotatedSentences.txt");
+
+    TrainingParameters mlParams = new TrainingParameters();
+    mlParams.put(TrainingParameters.ITERATIONS_PARAM, 70);
+    mlParams.put(TrainingParameters.CUTOFF_PARAM, 1);
+
+    mlParams.put(TrainingParameters.ALGORITHM_PARAM,
+        ModelType.MAXENT.toString());
+
+    ByteArrayOutputStream sequentialOut = new ByteArrayOutputStream();
+    TokenNameFinderCrossValidator sequentialCv = new TokenNameFinderCrossValidator("eng",
+        TYPE, mlParams, null, Collections.emptyMap(),
+        new NameEvaluationErrorListener(sequentialOut));
+
+    sequentialCv.evaluate(new NameSampleDataStream(
+        new PlainTextByLineStream(in, StandardCharsets.ISO_8859_1)), 3);
+
+    ByteArrayOutputStream parallelOut = new ByteArrayOutputStream();
+    TokenNameFinderCrossValidator parallelCv = new TokenNameFinderCrossValidator("eng",
+        TYPE, mlParams, null, Collections.emptyMap(),
+        new NameEvaluationErrorListener(parallelOut));
+
+    parallelCv.evaluate(new NameSampleDataStream(
+        new PlainTextByLineStream(in, StandardCharsets.ISO_8859_1)), 3, 3);
+
+    Assert.assertTrue(sequentialOut.size() > 0);
+    Assert.assertEquals(sequentialOut.toString("UTF-8"), parallelOut.toString("UTF-8"));
+    Assert.assertEquals(sequentialCv.getFMeasure().toString(), parallelCv.getFMeasure().toString());
+  }
+
   @Test(expected = InsufficientTrainingDataException.class)
   public void testWithInsufficientData() throws Exception {
 
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.Span;
+
+public class HypothesisHeapTest {
+
+  private static Parse createParse(double prob) {
+    return new Parse("x", new Span(0, 1), "NN", prob, 0);
+  }
+
+  @Test
+  public void testSameParsesAsTreeSet() {
+    Random random = new Random(7);
+
+    for (int capacity : new int[] {1, 3, 20}) {
+      HypothesisHeap heap = new HypothesisHeap(capacity);
+      TreeSet<Parse> set = new TreeSet<>();
+
+      for (int i = 0; i < 500; i++) {
+        // few distinct probabilities, so that many of them are added twice
+        Parse parse = createParse(-random.nextInt(60) / 4d);
+        heap.add(new ParseHypothesis(parse));
+        set.add(parse);
+      }
+
+      Assert.assertEquals(Math.min(capacity, set.size()), heap.size());
+      Assert.assertEquals(set.last().getProb(), heap.getLowestAddedProb(), 0d);
+
+      ParseHypothesis[] sorted = heap.toSortedArray();
+      Iterator<Parse> expected = set.iterator();
+      for (ParseHypothesis hypothesis : sorted) {
+        Assert.assertSame(expected.next(), hypothesis.getParse());
+      }
+    }
+  }
+
+  @Test
+  public void testClear() {
+    HypothesisHeap heap = new HypothesisHeap(2);
+    Assert.assertTrue(heap.add(new ParseHypothesis(createParse(-1))));
+    Assert.assertFalse(heap.add(new ParseHypothesis(createParse(-1))));
+
+    heap.clear();
+    Assert.assertEquals(0, heap.size());
+    Assert.assertEquals(0, heap.toSortedArray().length);
+    Assert.assertTrue(heap.add(new ParseHypothesis(createParse(-1))));
+  }
+
+  @Test
+  public void testHypothesisIsBuiltOnce() {
+    List<Parse> derived = new ArrayList<>();
+    ParseHypothesis hypothesis = new ParseHypothesis(-2, false, () -> {
+      Parse parse = createParse(-2);
+      derived.add(parse);
+      return parse;
+    });
+
+    HypothesisHeap heap = new HypothesisHeap(Integer.MAX_VALUE);
+    heap.add(hypothesis);
+    heap.add(new ParseHypothesis(createParse(-3)));
+    Assert.assertTrue(derived.isEmpty());
+
+    Parse parse = heap.toSortedArray()[0].getParse();
+    Assert.assertSame(parse, hypothesis.getParse());
+    Assert.assertEquals(1, derived.size());
+  }
+}
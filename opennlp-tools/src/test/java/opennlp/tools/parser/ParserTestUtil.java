@@ -23,9 +23,12 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 
+import opennlp.tools.cmdline.parser.ParserTool;
 import opennlp.tools.formats.ResourceAsStreamFactory;
 import opennlp.tools.parser.lang.en.HeadRules;
 import opennlp.tools.util.InputStreamFactory;
@@ -80,4 +83,46 @@ public class ParserTestUtil {
 
     return resetableSampleStream;
   }
+
+  /**
+   * Parses sentences of the training data with a parser which advances its parses
+   * with an executor and checks that the parses are identical to the ones of a
+   * parser which advances them in the calling thread.
+   */
+  public static void assertConcurrentAdvanceIsDeterministic(ParserModel model)
+      throws IOException {
+    Parser sequentialParser = ParserFactory.create(model, 10, 0.95);
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      Parser concurrentParser = ParserFactory.create(model, 10, 0.95, executor);
+
+      try (ObjectStream<Parse> samples = openTestTrainingData()) {
+        Parse sample;
+        for (int si = 0; si < 10 && (sample = samples.read()) != null; si++) {
+          StringBuilder sentence = new StringBuilder();
+          for (Parse token : sample.getTagNodes()) {
+            sentence.append(token.getCoveredText()).append(' ');
+          }
+          String line = sentence.toString().trim();
+
+          Parse[] expected = ParserTool.parseLine(line, sequentialParser, 5);
+          Parse[] parses = ParserTool.parseLine(line, concurrentParser, 5);
+
+          Assert.assertEquals(expected.length, parses.length);
+          for (int pi = 0; pi < expected.length; pi++) {
+            Assert.assertEquals(expected[pi].getProb(), parses[pi].getProb(), 0d);
+            StringBuffer expectedTree = new StringBuffer();
+            expected[pi].show(expectedTree);
+            StringBuffer tree = new StringBuffer();
+            parses[pi].show(tree);
+            Assert.assertEquals(expectedTree.toString(), tree.toString());
+          }
+        }
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
 }
@@ -65,4 +65,12 @@ public class ParserTest {
 
     // TODO: compare both models
   }
+
+  @Test
+  public void testConcurrentAdvance() throws Exception {
+    ParserModel model = Parser.train("eng", ParserTestUtil.openTestTrainingData(),
+        ParserTestUtil.createTestHeadRules(), TrainingParameters.defaultParams());
+
+    ParserTestUtil.assertConcurrentAdvanceIsDeterministic(model);
+  }
 }
@@ -62,4 +62,12 @@ public class ParserTest {
 
     // TODO: compare both models
   }
+
+  @Test
+  public void testConcurrentAdvance() throws Exception {
+    ParserModel model = Parser.train("eng", ParserTestUtil.openTestTrainingData(),
+        ParserTestUtil.createTestHeadRules(), 100, 0);
+
+    ParserTestUtil.assertConcurrentAdvanceIsDeterministic(model);
+  }
 }
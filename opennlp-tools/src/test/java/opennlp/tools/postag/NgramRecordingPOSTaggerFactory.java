@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.postag;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import opennlp.tools.dictionary.Dictionary;
+
+/**
+ * Records the ngram dictionary of every factory which creates a context generator,
+ * the fold factories are created with the public no-argument constructor.
+ */
+public class NgramRecordingPOSTaggerFactory extends POSTaggerFactory {
+
+  static final Queue<Dictionary> ngramDictionaries = new ConcurrentLinkedQueue<>();
+
+  public NgramRecordingPOSTaggerFactory() {
+  }
+
+  NgramRecordingPOSTaggerFactory(Dictionary ngramDictionary) {
+    super(ngramDictionary, null);
+  }
+
+  @Override
+  public POSContextGenerator getPOSContextGenerator() {
+    ngramDictionaries.add(getDictionary());
+    return super.getPOSContextGenerator();
+  }
+}
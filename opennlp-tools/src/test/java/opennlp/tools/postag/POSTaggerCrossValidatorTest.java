@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.postag;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.InputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.StringList;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.ModelType;
+
+/**
+ * Tests for the {@link POSTaggerCrossValidator} class.
+ */
+public class POSTaggerCrossValidatorTest {
+
+  private static ObjectStream<POSSample> createSampleStream() throws IOException {
+    InputStreamFactory in = new ResourceAsStreamFactory(POSTaggerCrossValidatorTest.class,
+        "/opennlp/tools/postag/AnnotatedSentences.txt");
+
+    return new WordTagSampleStream(new PlainTextByLineStream(in, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testParallelFoldsKeepNgramDictionary() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(TrainingParameters.ITERATIONS_PARAM, 10);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+
+    Dictionary ngramDictionary = new Dictionary();
+    ngramDictionary.put(new StringList("the", "driver"));
+
+    POSTaggerCrossValidator sequentialCv = new POSTaggerCrossValidator("eng", params,
+        new NgramRecordingPOSTaggerFactory(ngramDictionary));
+    sequentialCv.evaluate(createSampleStream(), 3);
+
+    POSTaggerCrossValidator parallelCv = new POSTaggerCrossValidator("eng", params,
+        new NgramRecordingPOSTaggerFactory(ngramDictionary));
+    parallelCv.evaluate(createSampleStream(), 3, 3);
+
+    Assert.assertEquals(6, NgramRecordingPOSTaggerFactory.ngramDictionaries.size());
+    for (Dictionary dictionary : NgramRecordingPOSTaggerFactory.ngramDictionaries) {
+      Assert.assertSame(ngramDictionary, dictionary);
+    }
+
+    Assert.assertEquals(sequentialCv.getWordCount(), parallelCv.getWordCount());
+    Assert.assertEquals(sequentialCv.getWordAccuracy(), parallelCv.getWordAccuracy(), 0d);
+  }
+}
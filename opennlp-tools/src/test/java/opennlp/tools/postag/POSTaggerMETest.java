@@ -17,6 +17,8 @@
 
 package opennlp.tools.postag;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
@@ -24,11 +26,14 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.model.HashedMaxentModel;
 import opennlp.tools.util.InputStreamFactory;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.BaseModel;
 import opennlp.tools.util.model.ModelType;
 
 /**
@@ -54,6 +59,17 @@ public class POSTaggerMETest {
     params.put(TrainingParameters.ITERATIONS_PARAM, 100);
     params.put(TrainingParameters.CUTOFF_PARAM, 5);
 
+    return trainPOSModel(params);
+  }
+
+  /**
+   * Trains a POSModel from the annotated test data.
+   *
+   * @param params the training parameters
+   *
+   * @return {@link POSModel}
+   */
+  public static POSModel trainPOSModel(TrainingParameters params) throws IOException {
     return POSTaggerME.train("eng", createSampleStream(), params,
         new POSTaggerFactory());
   }
@@ -81,6 +97,64 @@ public class POSTaggerMETest {
     Assert.assertEquals(".", tags[5]);
   }
 
+  @Test
+  public void testTaggersShareSequenceDecoder() throws IOException {
+    POSModel posModel = trainPOSModel(ModelType.MAXENT);
+
+    Assert.assertSame(posModel.getPosSequenceModel(), posModel.getPosSequenceModel());
+  }
+
+  @Test
+  public void testPOSTaggerWithParallelPerceptronSequence() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, ModelType.PERCEPTRON_SEQUENCE.toString());
+    params.put(TrainingParameters.ITERATIONS_PARAM, 10);
+    params.put(TrainingParameters.CUTOFF_PARAM, 5);
+    params.put(TrainingParameters.THREADS_PARAM, 2);
+
+    POSModel posModel = POSTaggerME.train("eng", createSampleStream(), params,
+        new POSTaggerFactory());
+
+    POSTagger tagger = new POSTaggerME(posModel);
+
+    String[] tags = tagger.tag(new String[] {
+        "The",
+        "driver",
+        "got",
+        "badly",
+        "injured",
+        "."});
+
+    Assert.assertArrayEquals(new String[] {"DT", "NN", "VBD", "RB", "VBN", "."}, tags);
+  }
+
+  @Test
+  public void testPOSTaggerWithFeatureHashing() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    params.put(TrainingParameters.CUTOFF_PARAM, 5);
+    params.put(AbstractEventTrainer.FEATURE_HASHING_BITS_PARAM, 18);
+
+    POSModel posModel = POSTaggerME.train("eng", createSampleStream(), params,
+        new POSTaggerFactory());
+
+    Assert.assertEquals("18", posModel.getManifestProperty(BaseModel.FEATURE_HASHING_BITS_PROPERTY));
+    Assert.assertTrue(posModel.getPosModel() instanceof HashedMaxentModel);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    posModel.serialize(out);
+
+    POSModel loadedModel = new POSModel(new ByteArrayInputStream(out.toByteArray()));
+    Assert.assertTrue(loadedModel.getPosModel() instanceof HashedMaxentModel);
+
+    String[] sentence = {"The", "driver", "got", "badly", "injured", "."};
+    String[] tags = new POSTaggerME(posModel).tag(sentence);
+
+    Assert.assertArrayEquals(tags, new POSTaggerME(loadedModel).tag(sentence));
+    Assert.assertArrayEquals(new String[] {"DT", "NN", "VBD", "RB", "VBN", "."}, tags);
+  }
+
   @Test
   public void testBuildNGramDictionary() throws IOException {
     ObjectStream<POSSample> samples = createSampleStream();
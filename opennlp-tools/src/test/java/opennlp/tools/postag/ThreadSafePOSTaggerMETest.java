@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.postag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.model.ModelType;
+
+/**
+ * Tests for the {@link ThreadSafePOSTaggerME} class.
+ */
+public class ThreadSafePOSTaggerMETest {
+
+  private static final String[][] SENTENCES = {
+      {"The", "driver", "got", "badly", "injured", "."},
+      {"Just", "a", "test", "."},
+      {"The", "test", "was", "not", "a", "good", "test", "."}
+  };
+
+  @Test
+  public void testTagConcurrently() throws Exception {
+    POSModel model = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    POSTaggerME reference = new POSTaggerME(model);
+    ThreadSafePOSTaggerME tagger = new ThreadSafePOSTaggerME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Sequence>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        String[] sentence = SENTENCES[i % SENTENCES.length];
+        results.add(executor.submit(() -> tagger.bestSequence(sentence, null)));
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        String[] sentence = SENTENCES[i % SENTENCES.length];
+
+        String[] expectedTags = reference.tag(sentence);
+        double[] expectedProbs = reference.probs();
+
+        Sequence sequence = results.get(i).get();
+        Assert.assertEquals(expectedTags.length, sequence.getOutcomes().size());
+        Assert.assertArrayEquals(expectedTags, sequence.getOutcomes().toArray(new String[0]));
+        Assert.assertArrayEquals(expectedProbs, sequence.getProbs(), 0d);
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    Assert.assertArrayEquals(reference.tag(SENTENCES[0]), tagger.tag(SENTENCES[0]));
+  }
+
+  @Test
+  public void testTagBatch() throws Exception {
+    POSModel model = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    POSTaggerME reference = new POSTaggerME(model);
+    ThreadSafePOSTaggerME tagger = new ThreadSafePOSTaggerME(model);
+
+    List<String[]> sentences = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      sentences.add(SENTENCES[i % SENTENCES.length]);
+    }
+
+    List<String[]> batchTags = reference.tag(sentences);
+    List<String[]> parallelTags;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      parallelTags = tagger.tag(sentences, executor);
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    for (int i = 0; i < sentences.size(); i++) {
+      String[] expected = reference.tag(sentences.get(i));
+      Assert.assertArrayEquals(expected, batchTags.get(i));
+      Assert.assertArrayEquals(expected, parallelTags.get(i));
+    }
+
+    Assert.assertEquals(Arrays.asList(), tagger.tag(new ArrayList<>()));
+  }
+}
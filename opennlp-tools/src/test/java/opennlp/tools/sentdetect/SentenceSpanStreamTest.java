@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.sentdetect;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.InputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the {@link SentenceSpanStream} class.
+ */
+public class SentenceSpanStreamTest {
+
+  private static final String[] TEXTS = {
+      "This is a test. There are many tests, this is the second.",
+      "This is a test. There are many tests, this is the second",
+      "This is a \"test\". He said \"There are many tests, this is the second.\"",
+      "This is a \"test\". I said \"This is a test.\"  Any questions?",
+      "  Leading and trailing whitespace. Is it removed?  \n\n ",
+      "No end of sentence at all",
+      ".Starts with a period. Ends with three...",
+      "Really?! Yes. Mr. Smith went to Washington D.C. yesterday.Then he left.",
+      "Tabs\tand\nnewlines.\n\nAre\r\nwhitespace too.",
+      "a. b. c. d. e.",
+      "",
+      "   ",
+      "."
+  };
+
+  private static SentenceModel model;
+  private static String document;
+
+  @BeforeClass
+  public static void trainModel() throws IOException {
+    InputStreamFactory in = new ResourceAsStreamFactory(SentenceSpanStreamTest.class,
+        "/opennlp/tools/sentdetect/Sentences.txt");
+
+    TrainingParameters mlParams = new TrainingParameters();
+    mlParams.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    mlParams.put(TrainingParameters.CUTOFF_PARAM, 0);
+
+    model = SentenceDetectorME.train("eng", new SentenceSampleStream(
+        new PlainTextByLineStream(in, StandardCharsets.UTF_8)),
+        new SentenceDetectorFactory("eng", true, null, null), mlParams);
+
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        in.createInputStream(), StandardCharsets.UTF_8))) {
+      document = reader.lines().collect(Collectors.joining(" "));
+    }
+  }
+
+  private static List<CharSequence> split(String text, int chunkSize) {
+    List<CharSequence> chunks = new ArrayList<>();
+    for (int i = 0; i < text.length(); i += chunkSize) {
+      chunks.add(text.substring(i, Math.min(text.length(), i + chunkSize)));
+    }
+    return chunks;
+  }
+
+  private static void assertSentences(SentenceDetectorME detector, String text,
+      ObjectStream<Span> stream) throws IOException {
+    Span[] expected = detector.sentPosDetect(text);
+    double[] expectedProbs = detector.getSentenceProbabilities();
+
+    List<Span> spans = new ArrayList<>();
+    Span span;
+    while ((span = stream.read()) != null) {
+      spans.add(span);
+    }
+
+    Assert.assertArrayEquals(text, expected, spans.toArray(new Span[spans.size()]));
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expectedProbs[i], spans.get(i).getProb(), 0d);
+    }
+  }
+
+  @Test
+  public void testChunkedText() throws IOException {
+    SentenceDetectorME detector = new SentenceDetectorME(model);
+
+    List<String> texts = new ArrayList<>();
+    for (String text : TEXTS) {
+      texts.add(text);
+    }
+    texts.add(String.join(" ", TEXTS));
+
+    for (boolean useTokenEnd : new boolean[] {true, false}) {
+      detector.useTokenEnd = useTokenEnd;
+      for (String text : texts) {
+        for (int chunkSize : new int[] {1, 2, 3, 7, 64, Math.max(1, text.length())}) {
+          assertSentences(detector, text, new SentenceSpanStream(detector,
+              new CollectionObjectStream<>(split(text, chunkSize))));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReader() throws IOException {
+    SentenceDetectorME detector = new SentenceDetectorME(model);
+
+    try (SentenceSpanStream stream =
+        new SentenceSpanStream(detector, new StringReader(document))) {
+      assertSentences(detector, document, stream);
+    }
+
+    assertSentences(detector, document, new SentenceSpanStream(detector,
+        new CollectionObjectStream<>(split(document, 5))));
+  }
+
+  @Test
+  public void testReset() throws IOException {
+    SentenceDetectorME detector = new SentenceDetectorME(model);
+
+    SentenceSpanStream stream = new SentenceSpanStream(detector,
+        new CollectionObjectStream<>(split(TEXTS[0], 4)));
+
+    Span first = stream.read();
+    stream.reset();
+    Assert.assertEquals(first, stream.read());
+    Assert.assertNotNull(stream.read());
+    Assert.assertNull(stream.read());
+  }
+}
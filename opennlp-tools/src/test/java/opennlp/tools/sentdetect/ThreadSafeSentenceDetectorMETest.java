@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.sentdetect;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.InputStreamFactory;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the {@link ThreadSafeSentenceDetectorME} class.
+ */
+public class ThreadSafeSentenceDetectorMETest {
+
+  private static final String[] TEXTS = {
+      "This is a test. There are many tests, this is the second.",
+      "This is a test. There are many tests, this is the second",
+      "This is a \"test\". He said \"There are many tests, this is the second.\"",
+      "This is a test.     "
+  };
+
+  @Test
+  public void testSentDetectConcurrently() throws Exception {
+    InputStreamFactory in = new ResourceAsStreamFactory(getClass(),
+        "/opennlp/tools/sentdetect/Sentences.txt");
+
+    TrainingParameters mlParams = new TrainingParameters();
+    mlParams.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    mlParams.put(TrainingParameters.CUTOFF_PARAM, 0);
+
+    SentenceModel model = SentenceDetectorME.train("eng",
+        new SentenceSampleStream(new PlainTextByLineStream(in, StandardCharsets.UTF_8)),
+        new SentenceDetectorFactory("eng", true, null, null), mlParams);
+
+    SentenceDetectorME reference = new SentenceDetectorME(model);
+    SentenceDetector sentenceDetector = new ThreadSafeSentenceDetectorME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Span[]>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        String text = TEXTS[i % TEXTS.length];
+        results.add(executor.submit(() -> sentenceDetector.sentPosDetect(text)));
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        Span[] expected = reference.sentPosDetect(TEXTS[i % TEXTS.length]);
+        Span[] sentences = results.get(i).get();
+
+        Assert.assertArrayEquals(expected, sentences);
+        for (int si = 0; si < sentences.length; si++) {
+          Assert.assertEquals(expected[si].getProb(), sentences[si].getProb(), 0d);
+        }
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    Assert.assertArrayEquals(reference.sentDetect(TEXTS[0]), sentenceDetector.sentDetect(TEXTS[0]));
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledMaxentModel;
+
+/**
+ * Tests for the {@link DefaultTokenContextGenerator} class.
+ */
+public class DefaultTokenContextGeneratorTest {
+
+  private static final String[] TOKENS = {"it,", "(Mr.", "&amp;", "\"Sounds\"",
+      "http://opennlp.apache.org/docs/1.8.3/manual/opennlp.html#tools.tokenizer",
+      "Été-à", "don't!", "中文。", "x\ty"};
+
+  @Test
+  public void testContextsOfAllSplits() {
+    DefaultTokenContextGenerator cg =
+        new DefaultTokenContextGenerator(Collections.singleton("(Mr."));
+
+    for (String token : TOKENS) {
+      String[][] contexts = cg.getContexts(token);
+
+      Assert.assertEquals(token.length() - 1, contexts.length);
+      for (int i = 1; i < token.length(); i++) {
+        Assert.assertArrayEquals(cg.getContext(token, i), contexts[i - 1]);
+      }
+    }
+
+    Assert.assertEquals(0, cg.getContexts("a").length);
+  }
+
+  @Test
+  public void testContextsWithCompiledModel() throws IOException {
+    CompiledMaxentModel model = CompiledMaxentModel.compile(
+        (AbstractModel) TokenizerTestUtil.createMaxentTokenModel().getMaxentModel());
+
+    DefaultTokenContextGenerator cg = new DefaultTokenContextGenerator();
+
+    boolean affixFound = false;
+    for (String token : new String[] {"it's", "through!", "Sounds", "properly", TOKENS[4]}) {
+      String[][] contexts = cg.getContexts(token, model);
+
+      for (int i = 1; i < token.length(); i++) {
+        List<String> expected = new ArrayList<>();
+        for (String pred : cg.getContext(token, i)) {
+          boolean affix = pred.startsWith("p=") || pred.startsWith("s=");
+          if (!affix || model.getPredicateIndex(pred) >= 0) {
+            expected.add(pred);
+            affixFound |= affix;
+          }
+        }
+
+        Assert.assertArrayEquals(expected.toArray(new String[expected.size()]), contexts[i - 1]);
+        Assert.assertArrayEquals(model.eval(cg.getContext(token, i)), model.eval(contexts[i - 1]), 0d);
+      }
+    }
+
+    Assert.assertTrue(affixFound);
+  }
+
+  @Test
+  public void testCustomizedContext() {
+    DefaultTokenContextGenerator cg = new DefaultTokenContextGenerator() {
+      @Override
+      protected List<String> createContext(String sentence, int index) {
+        List<String> preds = super.createContext(sentence, index);
+        preds.add("custom");
+        return preds;
+      }
+    };
+
+    String[][] contexts = cg.getContexts("it,");
+    Assert.assertEquals("custom", contexts[0][contexts[0].length - 1]);
+    Assert.assertEquals("custom", contexts[1][contexts[1].length - 1]);
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.Span;
+
+/**
+ * Tests for the {@link ThreadSafeTokenizerME} class.
+ */
+public class ThreadSafeTokenizerMETest {
+
+  private static final String[] TEXTS = {
+      "test,",
+      "Sounds like it's not properly thought through!",
+      "A test, with punctuation; and \"quotes\".",
+      "It's a sentence with tokens, doesn't it?"
+  };
+
+  @Test
+  public void testTokenizeConcurrently() throws Exception {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    TokenizerME reference = new TokenizerME(model);
+    Tokenizer tokenizer = new ThreadSafeTokenizerME(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Span[]>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        String text = TEXTS[i % TEXTS.length];
+        results.add(executor.submit(() -> tokenizer.tokenizePos(text)));
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        String text = TEXTS[i % TEXTS.length];
+
+        Span[] expected = reference.tokenizePos(text);
+        double[] expectedProbs = reference.getTokenProbabilities();
+
+        Span[] tokens = results.get(i).get();
+        Assert.assertArrayEquals(expected, tokens);
+        for (int ti = 0; ti < tokens.length; ti++) {
+          Assert.assertEquals(expectedProbs[ti], tokens[ti].getProb(), 0d);
+        }
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    Assert.assertArrayEquals(reference.tokenize(TEXTS[1]), tokenizer.tokenize(TEXTS[1]));
+  }
+
+  @Test
+  public void testTokenizePosBatch() throws Exception {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    TokenizerME reference = new TokenizerME(model);
+    ThreadSafeTokenizerME tokenizer = new ThreadSafeTokenizerME(model);
+
+    List<String> texts = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      texts.add(TEXTS[i % TEXTS.length]);
+    }
+
+    List<Span[]> batchTokens = reference.tokenizePos(texts);
+    List<Span[]> parallelTokens;
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      parallelTokens = tokenizer.tokenizePos(texts, executor);
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    Assert.assertEquals(texts.size(), batchTokens.size());
+    Assert.assertEquals(texts.size(), parallelTokens.size());
+
+    for (int i = 0; i < texts.size(); i++) {
+      Span[] expected = tokenizer.tokenizePos(texts.get(i));
+      assertSpansAndProbs(expected, batchTokens.get(i));
+      assertSpansAndProbs(expected, parallelTokens.get(i));
+    }
+
+    Assert.assertTrue(tokenizer.tokenizePos(Arrays.asList()).isEmpty());
+  }
+
+  @Test
+  public void testSharedSplitCache() throws Exception {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    TokenizerME reference = new TokenizerME(model);
+    ThreadSafeTokenizerME tokenizer = new ThreadSafeTokenizerME(model, 100);
+
+    List<String> texts = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      texts.add(TEXTS[i % TEXTS.length]);
+    }
+
+    List<Span[]> parallelTokens;
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      parallelTokens = tokenizer.tokenizePos(texts, executor);
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    List<Span[]> expectedTokens = reference.tokenizePos(texts);
+    for (int i = 0; i < texts.size(); i++) {
+      assertSpansAndProbs(expectedTokens.get(i), parallelTokens.get(i));
+    }
+
+    Assert.assertTrue(tokenizer.getSplitCache().getHitRate() > 0.8);
+  }
+
+  private static void assertSpansAndProbs(Span[] expected, Span[] actual) {
+    Assert.assertArrayEquals(expected, actual);
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i].getProb(), actual[i].getProb(), 0d);
+    }
+  }
+}
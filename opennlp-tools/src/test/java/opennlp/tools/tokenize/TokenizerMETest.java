@@ -17,6 +17,8 @@
 
 package opennlp.tools.tokenize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
@@ -24,10 +26,13 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.model.CompiledMaxentModel;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.InputStreamFactory;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -74,6 +79,49 @@ public class TokenizerMETest {
     Assert.assertEquals("!", tokens[8]);
   }
   
+  @Test
+  public void testTokenizerWithCompiledModel() throws IOException {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    model.serialize(out);
+    TokenizerModel compiledModel = new TokenizerModel(new ByteArrayInputStream(out.toByteArray()));
+    Assert.assertTrue(compiledModel.getMaxentModel() instanceof CompiledMaxentModel);
+
+    String sentence = "Sounds like it's not properly thought through!";
+    TokenizerME tokenizer = new TokenizerME(model);
+    TokenizerME compiledTokenizer = new TokenizerME(compiledModel);
+
+    Assert.assertArrayEquals(tokenizer.tokenizePos(sentence), compiledTokenizer.tokenizePos(sentence));
+    Assert.assertArrayEquals(tokenizer.getTokenProbabilities(),
+        compiledTokenizer.getTokenProbabilities(), 0d);
+  }
+
+  @Test
+  public void testTokenizerWithSplitCache() throws IOException {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    String sentence = "Sounds like it's not properly thought through!";
+    TokenizerME tokenizer = new TokenizerME(model);
+    Span[] expectedSpans = tokenizer.tokenizePos(sentence);
+    double[] expectedProbs = tokenizer.getTokenProbabilities();
+
+    TokenizerME cachedTokenizer = new TokenizerME(model, 10);
+    ConcurrentCache<String, Span[]> cache = cachedTokenizer.getSplitCache();
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertArrayEquals(expectedSpans, cachedTokenizer.tokenizePos(sentence));
+      Assert.assertArrayEquals(expectedProbs, cachedTokenizer.getTokenProbabilities(), 0d);
+    }
+
+    // only "it's" and "through!" are evaluated, the other tokens are alpha numeric
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(2, cache.getMissCount());
+    Assert.assertEquals(4, cache.getHitCount());
+
+    Assert.assertNull(new TokenizerME(model, 0).getSplitCache());
+  }
+
   @Test(expected = InsufficientTrainingDataException.class)
   public void testInsufficientData() throws IOException {
 
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchUtilTest {
+
+  private ExecutorService executor;
+
+  @Before
+  public void startExecutor() {
+    executor = Executors.newFixedThreadPool(3);
+  }
+
+  @After
+  public void stopExecutor() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testResultsAreInInputOrder() {
+    List<Integer> inputs = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      inputs.add(i);
+    }
+
+    List<String> results = BatchUtil.process(inputs,
+        chunk -> chunk.stream().map(String::valueOf).collect(Collectors.toList()), executor);
+
+    Assert.assertEquals(inputs.size(), results.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      Assert.assertEquals(String.valueOf(i), results.get(i));
+    }
+  }
+
+  @Test
+  public void testEmptyInput() {
+    List<String> results = BatchUtil.process(new ArrayList<String>(), chunk -> chunk, executor);
+    Assert.assertTrue(results.isEmpty());
+  }
+
+  @Test
+  public void testChunkBoundsOfLargeInput() {
+    int numInputs = 20_000_000;
+    int numChunks = 128;
+
+    Assert.assertEquals(0, BatchUtil.chunkStart(0, numInputs, numChunks));
+    Assert.assertEquals(numInputs / 2, BatchUtil.chunkStart(numChunks / 2, numInputs, numChunks));
+    Assert.assertEquals(numInputs, BatchUtil.chunkStart(numChunks, numInputs, numChunks));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testExceptionIsRethrown() {
+    List<Integer> inputs = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      inputs.add(i);
+    }
+
+    BatchUtil.process(inputs, chunk -> {
+      if (chunk.contains(42)) {
+        throw new IllegalStateException();
+      }
+      return chunk;
+    }, executor);
+  }
+}
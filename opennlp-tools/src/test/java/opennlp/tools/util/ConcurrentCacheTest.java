@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentCacheTest {
+
+  @Test
+  public void testHitsAndMisses() {
+    ConcurrentCache<String, Integer> cache = new ConcurrentCache<>(10);
+
+    Assert.assertNull(cache.get("a"));
+    cache.put("a", 1);
+    Assert.assertEquals(Integer.valueOf(1), cache.get("a"));
+    Assert.assertEquals(Integer.valueOf(1), cache.get("a"));
+
+    Assert.assertEquals(2, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissCount());
+    Assert.assertEquals(2d / 3, cache.getHitRate(), 0.0001d);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    // one segment, to make the eviction order deterministic
+    ConcurrentCache<String, Integer> cache = new ConcurrentCache<>(2, 1);
+
+    cache.put("a", 1);
+    cache.put("b", 2);
+
+    // makes b the least recently used entry
+    cache.get("a");
+
+    cache.put("c", 3);
+
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(1, cache.getEvictionCount());
+    Assert.assertNull(cache.get("b"));
+    Assert.assertEquals(Integer.valueOf(1), cache.get("a"));
+    Assert.assertEquals(Integer.valueOf(3), cache.get("c"));
+  }
+
+  @Test
+  public void testCapacityIsNotExceeded() {
+    ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(100, 8);
+
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, i);
+    }
+
+    Assert.assertTrue(cache.size() <= cache.getCapacity());
+    Assert.assertEquals(1000 - cache.size(), cache.getEvictionCount());
+
+    cache.clear();
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testComputeIfAbsent() {
+    ConcurrentCache<String, Integer> cache = new ConcurrentCache<>(10);
+
+    AtomicInteger computations = new AtomicInteger();
+
+    Assert.assertEquals(Integer.valueOf(1), cache.computeIfAbsent("abc",
+        key -> computations.incrementAndGet()));
+    Assert.assertEquals(Integer.valueOf(1), cache.computeIfAbsent("abc",
+        key -> computations.incrementAndGet()));
+
+    Assert.assertEquals(1, computations.get());
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(50);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            int key = i % 100;
+            if (!String.valueOf(key).equals(cache.computeIfAbsent(key, String::valueOf))) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+
+      for (Future<Boolean> result : results) {
+        Assert.assertTrue(result.get());
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    Assert.assertTrue(cache.size() <= 50);
+    Assert.assertEquals(80000, cache.getHitCount() + cache.getMissCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCapacity() {
+    new ConcurrentCache<String, String>(0);
+  }
+}
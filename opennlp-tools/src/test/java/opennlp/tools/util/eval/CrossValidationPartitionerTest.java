@@ -27,6 +27,7 @@ import java.util.NoSuchElementException;
 import org.junit.Assert;
 import org.junit.Test;
 
+import opennlp.tools.util.CollectionObjectStream;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.eval.CrossValidationPartitioner.TrainingSampleStream;
 
@@ -207,6 +208,50 @@ public class CrossValidationPartitionerTest {
     }
   }
 
+  private static List<String> evaluateFolds(int threads) throws IOException {
+    List<String> samples = new LinkedList<>();
+    for (int i = 0; i < 23; i++) {
+      samples.add(Integer.toString(i));
+    }
+
+    List<String> folds = new LinkedList<>();
+
+    CrossValidationPartitioner.<String, String>evaluateFolds(
+        new CollectionObjectStream<>(samples), 5, threads, trainingSampleStream -> {
+          StringBuilder fold = new StringBuilder();
+
+          String sample;
+          while ((sample = trainingSampleStream.read()) != null) {
+            fold.append(sample).append(' ');
+          }
+
+          trainingSampleStream.reset();
+          Assert.assertNotNull(trainingSampleStream.read());
+
+          fold.append('|');
+
+          ObjectStream<String> testSampleStream = trainingSampleStream.getTestSampleStream();
+          while ((sample = testSampleStream.read()) != null) {
+            fold.append(' ').append(sample);
+          }
+
+          return fold.toString();
+        }, folds::add);
+
+    return folds;
+  }
+
+  @Test
+  public void testEvaluateFoldsInParallel() throws IOException {
+    List<String> folds = evaluateFolds(1);
+
+    Assert.assertEquals(5, folds.size());
+    Assert.assertTrue(folds.get(1).endsWith("| 1 6 11 16 21"));
+
+    Assert.assertEquals(folds, evaluateFolds(3));
+    Assert.assertEquals(folds, evaluateFolds(8));
+  }
+
   @Test
   public void testToString() {
     Collection<String> emptyCollection = Collections.emptySet();
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.eval;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.CollectionObjectStream;
+
+public class EvaluatorTest {
+
+  /**
+   * Predicts the sample itself if it is divisible by three, the samples of a
+   * document must be evaluated in order.
+   */
+  private static class DivisibleByThreeEvaluator extends Evaluator<Integer> {
+
+    private final Mean accuracy = new Mean();
+
+    private Integer previous;
+
+    @SafeVarargs
+    DivisibleByThreeEvaluator(EvaluationMonitor<Integer>... listeners) {
+      super(listeners);
+    }
+
+    @Override
+    protected Integer processSample(Integer reference) {
+      if (reference % 100 != 0) {
+        Assert.assertEquals(Integer.valueOf(reference - 1), previous);
+      }
+      previous = reference;
+
+      Integer prediction = reference % 3 == 0 ? reference : -reference;
+      accuracy.add(reference.equals(prediction) ? 1 : 0);
+      return prediction;
+    }
+
+    @Override
+    protected boolean isShardStart(Integer sample) {
+      return sample % 100 == 0;
+    }
+
+    @Override
+    protected boolean isMergeSupported() {
+      return true;
+    }
+
+    @Override
+    protected void mergeScores(Evaluator<Integer> evaluator) {
+      accuracy.mergeInto(((DivisibleByThreeEvaluator) evaluator).accuracy);
+    }
+  }
+
+  private static class EventListener implements EvaluationMonitor<Integer> {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    public void correctlyClassified(Integer reference, Integer prediction) {
+      events.add("+" + reference);
+    }
+
+    @Override
+    public void missclassified(Integer reference, Integer prediction) {
+      events.add("-" + reference + "/" + prediction);
+    }
+  }
+
+  @Test
+  public void testParallelEvaluation() throws IOException {
+    List<Integer> samples = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      samples.add(i);
+    }
+
+    EventListener sequentialListener = new EventListener();
+    DivisibleByThreeEvaluator sequential = new DivisibleByThreeEvaluator(sequentialListener);
+    sequential.evaluate(new CollectionObjectStream<>(samples));
+
+    EventListener parallelListener = new EventListener();
+    DivisibleByThreeEvaluator parallel = new DivisibleByThreeEvaluator(parallelListener);
+    parallel.evaluate(new CollectionObjectStream<>(samples), 4, DivisibleByThreeEvaluator::new);
+
+    Assert.assertEquals(2000, sequentialListener.events.size());
+    Assert.assertEquals(sequentialListener.events, parallelListener.events);
+    Assert.assertEquals(sequential.accuracy.count(), parallel.accuracy.count());
+    Assert.assertEquals(sequential.accuracy.mean(), parallel.accuracy.mean(), 0d);
+  }
+
+  @Test
+  public void testParallelEvaluationWithoutMerge() throws IOException {
+    List<String> samples = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      samples.add(Integer.toString(i));
+    }
+
+    Evaluator<String> evaluator = new Evaluator<String>() {
+      @Override
+      protected String processSample(String reference) {
+        Assert.fail("No sample must be evaluated");
+        return reference;
+      }
+    };
+
+    CollectionObjectStream<String> sampleStream = new CollectionObjectStream<>(samples);
+    try {
+      evaluator.evaluate(sampleStream, 2, () -> evaluator);
+      Assert.fail("The evaluator does not support merging");
+    } catch (UnsupportedOperationException e) {
+      // the evaluation fails before any sample is read
+      Assert.assertEquals("0", sampleStream.read());
+    }
+  }
+}
@@ -137,4 +137,25 @@ public class CachedFeatureGeneratorTest {
     Assert.assertTrue(features.contains(expectedToken));
     Assert.assertEquals(1, features.size());
   }
+
+  /**
+   * Tests that the cache size can be configured.
+   */
+  @Test
+  public void testCacheSize() {
+    CachedFeatureGenerator generator = new CachedFeatureGenerator(2, identityGenerator);
+
+    for (int i = 0; i < testSentence1.length; i++) {
+      generator.createFeatures(features, testSentence1, i, null);
+    }
+
+    Assert.assertEquals(testSentence1.length, generator.getNumberOfCacheMisses());
+    Assert.assertEquals(testSentence1.length - 2, generator.getNumberOfCacheEvictions());
+
+    features.clear();
+
+    // the features of the last token are still cached
+    generator.createFeatures(features, testSentence1, testSentence1.length - 1, null);
+    Assert.assertEquals(1, generator.getNumberOfCacheHits());
+  }
 }
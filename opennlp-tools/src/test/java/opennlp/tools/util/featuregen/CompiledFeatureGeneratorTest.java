@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledFeatureGeneratorTest {
+
+  private static final String[][] SENTENCES = {
+      {"Mr.", "Smith", "visited", "IBM", "in", "1999", "."},
+      {"He", "left", "."},
+      {"Bye"}
+  };
+
+  private static final String[] OUTCOMES = {"A", "B", "C"};
+
+  private static AdaptiveFeatureGenerator create(String descriptor) throws IOException {
+    return GeneratorFactory.create(new ByteArrayInputStream(
+        descriptor.getBytes(StandardCharsets.UTF_8)), null);
+  }
+
+  private static AdaptiveFeatureGenerator createCompiled(String descriptor) throws IOException {
+    return GeneratorFactory.createCompiled(new ByteArrayInputStream(
+        descriptor.getBytes(StandardCharsets.UTF_8)), null);
+  }
+
+  private static AdaptiveFeatureGenerator create(InputStream descriptorIn) throws IOException {
+    try (InputStream in = descriptorIn) {
+      return GeneratorFactory.create(in, null);
+    }
+  }
+
+  /**
+   * Asks both generators for the features of every token with several previous
+   * outcomes, like a beam search does, and compares them.
+   */
+  private static void assertSameFeatures(AdaptiveFeatureGenerator expected,
+      AdaptiveFeatureGenerator compiled) {
+
+    for (String[] sentence : SENTENCES) {
+      String[] tokens = sentence.clone();
+
+      for (int index = 0; index < tokens.length; index++) {
+        for (String outcome : OUTCOMES) {
+          String[] previousOutcomes = new String[tokens.length];
+          for (int i = 0; i < index; i++) {
+            previousOutcomes[i] = outcome + i;
+          }
+
+          List<String> expectedFeatures = new ArrayList<>();
+          expected.createFeatures(expectedFeatures, tokens, index, previousOutcomes);
+
+          List<String> compiledFeatures = new ArrayList<>();
+          compiled.createFeatures(compiledFeatures, tokens, index, previousOutcomes);
+
+          Assert.assertEquals(expectedFeatures, compiledFeatures);
+        }
+      }
+
+      String[] outcomes = new String[tokens.length];
+      for (int i = 0; i < outcomes.length; i++) {
+        outcomes[i] = i == 1 ? "person" : "other";
+      }
+      expected.updateAdaptiveData(tokens, outcomes);
+      compiled.updateAdaptiveData(tokens, outcomes);
+    }
+
+    Assert.assertEquals(expected.isOutcomeIndependent(), compiled.isOutcomeIndependent());
+  }
+
+  @Test
+  public void testDefaultNameFinderFeatures() throws IOException {
+    AdaptiveFeatureGenerator expected = create(getClass().getResourceAsStream(
+        "/opennlp/tools/namefind/ner-default-features.xml"));
+    AdaptiveFeatureGenerator compiled = new CompiledFeatureGenerator(create(
+        getClass().getResourceAsStream("/opennlp/tools/namefind/ner-default-features.xml")));
+
+    assertSameFeatures(expected, compiled);
+  }
+
+  @Test
+  public void testDefaultPOSTaggerFeatures() throws IOException {
+    AdaptiveFeatureGenerator expected = create(getClass().getResourceAsStream(
+        "/opennlp/tools/postag/pos-default-features.xml"));
+    AdaptiveFeatureGenerator compiled = new CompiledFeatureGenerator(create(
+        getClass().getResourceAsStream("/opennlp/tools/postag/pos-default-features.xml")));
+
+    assertSameFeatures(expected, compiled);
+    Assert.assertFalse(compiled.isOutcomeIndependent());
+  }
+
+  @Test
+  public void testNestedWindows() throws IOException {
+    String descriptor = "<generators>"
+        + "<window prevLength=\"1\" nextLength=\"2\">"
+        + "<generators>"
+        + "<window prevLength=\"2\" nextLength=\"1\"><tokenclass wordAndClass=\"false\"/></window>"
+        + "<prefix length=\"2\"/>"
+        + "<suffix/>"
+        + "<tokenpattern/>"
+        + "<postagger/>"
+        + "</generators>"
+        + "</window>"
+        + "<cache><window prevLength=\"1\" nextLength=\"1\"><token/></window></cache>"
+        + "<docbegin/>"
+        + "<sentence begin=\"false\" end=\"true\"/>"
+        + "</generators>";
+
+    assertSameFeatures(create(descriptor), createCompiled(descriptor));
+  }
+
+  /**
+   * Tests that a cache of outcome dependent features evicts tokens like the
+   * cached generator does.
+   */
+  @Test
+  public void testCacheEviction() {
+    AdaptiveFeatureGenerator previousOutcome = new AdaptiveFeatureGenerator() {
+      @Override
+      public void createFeatures(List<String> features, String[] tokens, int index,
+          String[] previousOutcomes) {
+        features.add("po=" + previousOutcomes[index]);
+      }
+    };
+
+    AdaptiveFeatureGenerator expected = new CachedFeatureGenerator(2, previousOutcome);
+    AdaptiveFeatureGenerator compiled =
+        new CompiledFeatureGenerator(new CachedFeatureGenerator(2, previousOutcome));
+
+    String[] tokens = SENTENCES[0];
+    int[] indexes = {0, 1, 0, 2, 3, 0, 2};
+    for (int i = 0; i < indexes.length; i++) {
+      String[] previousOutcomes = new String[tokens.length];
+      previousOutcomes[indexes[i]] = OUTCOMES[i % OUTCOMES.length];
+
+      List<String> expectedFeatures = new ArrayList<>();
+      expected.createFeatures(expectedFeatures, tokens, indexes[i], previousOutcomes);
+
+      List<String> compiledFeatures = new ArrayList<>();
+      compiled.createFeatures(compiledFeatures, tokens, indexes[i], previousOutcomes);
+
+      Assert.assertEquals(expectedFeatures, compiledFeatures);
+    }
+  }
+
+  @Test
+  public void testAdaptiveData() throws IOException {
+    String descriptor = "<window prevLength=\"2\" nextLength=\"2\"><prevmap/></window>";
+
+    AdaptiveFeatureGenerator expected = create(descriptor);
+    AdaptiveFeatureGenerator compiled = createCompiled(descriptor);
+
+    assertSameFeatures(expected, compiled);
+
+    expected.clearAdaptiveData();
+    compiled.clearAdaptiveData();
+
+    assertSameFeatures(expected, compiled);
+  }
+}
@@ -17,8 +17,10 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
@@ -137,4 +139,33 @@ public class GeneratorFactoryTest {
 
     Assert.assertTrue(mapping.get("test.dictionary") instanceof DictionarySerializer);
   }
+
+  @Test
+  public void testCreationWithCacheSize() throws IOException {
+    String descriptor = "<generators><cache size=\"2\"><generators>"
+        + "<tokenclass/></generators></cache></generators>";
+
+    AggregatedFeatureGenerator aggregatedGenerator = (AggregatedFeatureGenerator)
+        GeneratorFactory.create(new ByteArrayInputStream(
+            descriptor.getBytes(StandardCharsets.UTF_8)), null);
+
+    CachedFeatureGenerator generator =
+        (CachedFeatureGenerator) aggregatedGenerator.getGenerators().iterator().next();
+
+    String[] tokens = {"a", "b", "c"};
+    for (int i = 0; i < tokens.length; i++) {
+      generator.createFeatures(new ArrayList<>(), tokens, i, null);
+    }
+
+    Assert.assertEquals(1, generator.getNumberOfCacheEvictions());
+  }
+
+  @Test(expected = InvalidFormatException.class)
+  public void testCreationWithInvalidCacheSize() throws IOException {
+    String descriptor = "<generators><cache size=\"0\"><generators>"
+        + "<tokenclass/></generators></cache></generators>";
+
+    GeneratorFactory.create(new ByteArrayInputStream(
+        descriptor.getBytes(StandardCharsets.UTF_8)), null);
+  }
 }
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the {@link SentenceFeatureTable} class.
+ */
+public class SentenceFeatureTableTest {
+
+  private static final String[] SENTENCE = {"a", "b", "c"};
+
+  /**
+   * Counts the calls and adds a feature with the previous outcome.
+   */
+  private static class PreviousOutcomeFeatureGenerator implements AdaptiveFeatureGenerator {
+
+    private int calls;
+
+    public void createFeatures(List<String> features, String[] tokens, int index,
+        String[] previousOutcomes) {
+      calls++;
+      features.add("po=" + (index > 0 ? previousOutcomes[index - 1] : "bos"));
+    }
+  }
+
+  /**
+   * Counts the calls of an outcome independent generator.
+   */
+  private static class CountingFeatureGenerator extends IdentityFeatureGenerator {
+
+    private int calls;
+
+    @Override
+    public void createFeatures(List<String> features, String[] tokens, int index,
+        String[] previousOutcomes) {
+      calls++;
+      super.createFeatures(features, tokens, index, previousOutcomes);
+    }
+
+    @Override
+    public boolean isOutcomeIndependent() {
+      return true;
+    }
+  }
+
+  @Test
+  public void testOutcomeIndependentFeaturesAreComputedOnce() {
+    CountingFeatureGenerator independent = new CountingFeatureGenerator();
+    PreviousOutcomeFeatureGenerator dependent = new PreviousOutcomeFeatureGenerator();
+
+    SentenceFeatureTable table = new SentenceFeatureTable(
+        new AggregatedFeatureGenerator(independent, dependent));
+
+    Assert.assertFalse(table.isOutcomeIndependent());
+
+    table.startSentence(SENTENCE);
+    for (String[] outcomes : new String[][] {{"x", "y"}, {"y", "x"}}) {
+      for (int i = 0; i < SENTENCE.length; i++) {
+        List<String> features = new ArrayList<>();
+        table.createFeatures(features, SENTENCE, i, outcomes);
+
+        Assert.assertEquals(Arrays.asList(SENTENCE[i],
+            "po=" + (i > 0 ? outcomes[i - 1] : "bos")), features);
+      }
+    }
+
+    Assert.assertEquals(SENTENCE.length, independent.calls);
+    Assert.assertEquals(2 * SENTENCE.length, dependent.calls);
+  }
+
+  @Test
+  public void testSplitFeatures() {
+    CountingFeatureGenerator independent = new CountingFeatureGenerator();
+    PreviousOutcomeFeatureGenerator dependent = new PreviousOutcomeFeatureGenerator();
+
+    SentenceFeatureTable table = new SentenceFeatureTable(
+        new AggregatedFeatureGenerator(dependent, independent));
+
+    String[] outcomes = {"x", "y"};
+    table.startSentence(SENTENCE);
+    for (int i = 0; i < SENTENCE.length; i++) {
+      List<String> independentFeatures = new ArrayList<>();
+      table.createOutcomeIndependentFeatures(independentFeatures, SENTENCE, i);
+      Assert.assertEquals(Arrays.asList(SENTENCE[i]), independentFeatures);
+
+      List<String> dependentFeatures = new ArrayList<>();
+      table.createOutcomeDependentFeatures(dependentFeatures, SENTENCE, i, outcomes);
+      Assert.assertEquals(Arrays.asList("po=" + (i > 0 ? outcomes[i - 1] : "bos")),
+          dependentFeatures);
+
+      // the independent features are taken from the table
+      List<String> features = new ArrayList<>();
+      table.createFeatures(features, SENTENCE, i, outcomes);
+      Assert.assertEquals(Arrays.asList(dependentFeatures.get(0), SENTENCE[i]), features);
+    }
+
+    Assert.assertEquals(SENTENCE.length, independent.calls);
+  }
+
+  @Test
+  public void testTableIsCleared() {
+    CountingFeatureGenerator independent = new CountingFeatureGenerator();
+    SentenceFeatureTable table = new SentenceFeatureTable(independent);
+
+    Assert.assertTrue(table.isOutcomeIndependent());
+
+    // without a started sentence the features are not kept, a refilled array
+    // gets the features of its new tokens
+    String[] sentence = SENTENCE.clone();
+    List<String> features = new ArrayList<>();
+    table.createFeatures(features, sentence, 0, null);
+    sentence[0] = "d";
+    table.createFeatures(features, sentence, 0, null);
+    Assert.assertEquals(2, independent.calls);
+
+    table.startSentence(sentence);
+    table.createFeatures(features, sentence, 0, null);
+    table.createFeatures(features, sentence, 0, null);
+    Assert.assertEquals(3, independent.calls);
+
+    // other tokens do not use the table
+    table.createFeatures(features, SENTENCE, 0, null);
+    Assert.assertEquals(4, independent.calls);
+
+    table.endSentence();
+    table.createFeatures(features, sentence, 0, null);
+    Assert.assertEquals(5, independent.calls);
+
+    // the adaptive data changes the features
+    table.startSentence(sentence);
+    table.createFeatures(features, sentence, 0, null);
+    table.updateAdaptiveData(sentence, new String[] {"x", "y", "z"});
+    table.createFeatures(features, sentence, 0, null);
+    Assert.assertEquals(7, independent.calls);
+
+    table.startSentence(sentence);
+    table.createFeatures(features, sentence, 0, null);
+    table.clearAdaptiveData();
+    table.createFeatures(features, sentence, 0, null);
+    Assert.assertEquals(9, independent.calls);
+
+    Assert.assertEquals(Arrays.asList("a", "d", "d", "d", "a", "d", "d", "d", "d", "d"),
+        features);
+  }
+}
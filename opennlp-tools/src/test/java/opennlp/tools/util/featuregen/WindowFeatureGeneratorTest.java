@@ -18,6 +18,7 @@
 package opennlp.tools.util.featuregen;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -116,4 +117,31 @@ public class WindowFeatureGeneratorTest {
     Assert.assertTrue(features.contains(WindowFeatureGenerator.NEXT_PREFIX + "2" +
         testSentence[testTokenIndex + 2]));
   }
+
+  /**
+   * Tests that the window is outcome independent if its generator is, and that
+   * a refilled tokens array gets the features of its new tokens.
+   */
+  @Test
+  public void testOutcomeIndependentGenerator() {
+    AdaptiveFeatureGenerator windowFeatureGenerator = new WindowFeatureGenerator(
+        new IdentityFeatureGenerator() {
+          @Override
+          public boolean isOutcomeIndependent() {
+            return true;
+          }
+        }, 1, 1);
+
+    Assert.assertTrue(windowFeatureGenerator.isOutcomeIndependent());
+    Assert.assertFalse(new WindowFeatureGenerator(
+        new IdentityFeatureGenerator(), 1, 1).isOutcomeIndependent());
+
+    String[] sentence = {"a", "b"};
+    windowFeatureGenerator.createFeatures(features, sentence, 0, null);
+
+    sentence[1] = "c";
+    features.clear();
+    windowFeatureGenerator.createFeatures(features, sentence, 0, null);
+    Assert.assertEquals(Arrays.asList("a", WindowFeatureGenerator.NEXT_PREFIX + "1c"), features);
+  }
 }
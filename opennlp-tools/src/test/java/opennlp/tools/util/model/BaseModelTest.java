@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.postag.POSTaggerMETest;
+
+public class BaseModelTest {
+
+  private static final String POS_MODEL_ENTRY_NAME = "pos.model";
+
+  private static final String[] SENTENCE = {"The", "driver", "got", "badly", "injured", "."};
+
+  private static POSModel model;
+  private static byte[] modelBytes;
+
+  /**
+   * A serializer which always fails, it is configured for an entry in the manifest.
+   */
+  public static class FailingSerializer implements ArtifactSerializer<Object> {
+
+    @Override
+    public Object create(InputStream in) throws IOException {
+      throw new IOException("Broken artifact");
+    }
+
+    @Override
+    public void serialize(Object artifact, OutputStream out) throws IOException {
+    }
+  }
+
+  @BeforeClass
+  public static void trainModel() throws IOException {
+    model = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    model.serialize(out);
+    modelBytes = out.toByteArray();
+  }
+
+  private ExecutorService executor;
+
+  @Before
+  public void startExecutor() {
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdown();
+  }
+
+  /**
+   * Adds or replaces an entry whose artifact cannot be created.
+   */
+  private static byte[] withBrokenEntry(String brokenEntryName) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(modelBytes));
+         ZipOutputStream zipOut = new ZipOutputStream(out)) {
+
+      ZipEntry entry;
+      while ((entry = zipIn.getNextEntry()) != null) {
+        byte[] data = ModelUtil.read(zipIn);
+
+        if (BaseModel.MANIFEST_ENTRY.equals(entry.getName())) {
+          Properties manifest = new Properties();
+          manifest.load(new ByteArrayInputStream(data));
+          manifest.setProperty(BaseModel.SERIALIZER_CLASS_NAME_PREFIX + brokenEntryName,
+              FailingSerializer.class.getName());
+
+          ByteArrayOutputStream manifestOut = new ByteArrayOutputStream();
+          manifest.store(manifestOut, null);
+          data = manifestOut.toByteArray();
+        }
+
+        if (!brokenEntryName.equals(entry.getName())) {
+          zipOut.putNextEntry(new ZipEntry(entry.getName()));
+          zipOut.write(data);
+          zipOut.closeEntry();
+        }
+      }
+
+      zipOut.putNextEntry(new ZipEntry(brokenEntryName));
+      zipOut.write(new byte[] {1, 2, 3});
+      zipOut.closeEntry();
+    }
+
+    return out.toByteArray();
+  }
+
+  private static File writeTempFile(byte[] bytes) throws IOException {
+    File file = File.createTempFile("base-model", ".bin");
+    file.deleteOnExit();
+    Files.write(file.toPath(), bytes);
+    return file;
+  }
+
+  @Test
+  public void testParallelLoading() throws IOException {
+    String[] expectedTags = new POSTaggerME(model).tag(SENTENCE);
+
+    POSModel streamedModel = new POSModel(new ByteArrayInputStream(modelBytes), executor);
+    Assert.assertTrue(streamedModel.getArtifact(POS_MODEL_ENTRY_NAME) instanceof AbstractModel);
+    Assert.assertArrayEquals(expectedTags, new POSTaggerME(streamedModel).tag(SENTENCE));
+
+    POSModel fileModel = new POSModel(writeTempFile(modelBytes), executor);
+    Assert.assertArrayEquals(expectedTags, new POSTaggerME(fileModel).tag(SENTENCE));
+
+    // a model with pending artifacts serializes like the original model
+    POSModel pendingModel = new POSModel(new ByteArrayInputStream(modelBytes), executor);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pendingModel.serialize(out);
+    POSModel reloadedModel = new POSModel(new ByteArrayInputStream(out.toByteArray()));
+    Assert.assertArrayEquals(expectedTags, new POSTaggerME(reloadedModel).tag(SENTENCE));
+  }
+
+  @Test
+  public void testOptionalArtifactFailsOnFirstAccess() throws IOException {
+    byte[] brokenModel = withBrokenEntry("broken.bin");
+
+    for (POSModel loadedModel : new POSModel[] {
+        new POSModel(new ByteArrayInputStream(brokenModel), executor),
+        new POSModel(writeTempFile(brokenModel), executor)}) {
+
+      Assert.assertNotNull(loadedModel.getPosSequenceModel());
+
+      try {
+        loadedModel.getArtifact("broken.bin");
+        Assert.fail("The broken artifact must fail on access");
+      } catch (UncheckedIOException e) {
+        Assert.assertEquals("Broken artifact", e.getCause().getMessage());
+      }
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testOptionalArtifactFailsWithoutExecutor() throws IOException {
+    new POSModel(new ByteArrayInputStream(withBrokenEntry("broken.bin")));
+  }
+
+  @Test
+  public void testRequiredArtifactFailsOnLoad() throws IOException {
+    byte[] brokenModel = withBrokenEntry(POS_MODEL_ENTRY_NAME);
+
+    try {
+      new POSModel(new ByteArrayInputStream(brokenModel), executor);
+      Assert.fail("The broken model must fail on load");
+    } catch (IOException e) {
+      Assert.assertEquals("Broken artifact", e.getMessage());
+    }
+
+    try {
+      new POSModel(writeTempFile(brokenModel), executor);
+      Assert.fail("The broken model must fail on load");
+    } catch (IOException e) {
+      Assert.assertEquals("Broken artifact", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testArtifactMapResolvesPendingArtifacts() throws IOException {
+    POSModel loadedModel = new POSModel(new ByteArrayInputStream(modelBytes), executor);
+
+    for (Map.Entry<String, Object> entry : loadedModel.artifactMap.entrySet()) {
+      Assert.assertSame(loadedModel.artifactMap.get(entry.getKey()), entry.getValue());
+    }
+
+    Assert.assertTrue(loadedModel.artifactMap.values().stream()
+        .anyMatch(artifact -> artifact instanceof AbstractModel));
+    Assert.assertTrue(loadedModel.artifactMap.getOrDefault(POS_MODEL_ENTRY_NAME, null)
+        instanceof AbstractModel);
+    Assert.assertEquals(new HashMap<>(loadedModel.artifactMap), loadedModel.artifactMap);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.model.CompiledMaxentModel;
+import opennlp.tools.ml.model.HashedMaxentModel;
+import opennlp.tools.ml.model.MappedMaxentModel;
+import opennlp.tools.postag.DefaultPOSContextGenerator;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.postag.POSTaggerMETest;
+import opennlp.tools.util.TrainingParameters;
+
+public class ModelUtilTest {
+
+  private static final String POS_MODEL_ENTRY_NAME = "pos.model";
+
+  private static final String[] SENTENCE = {"The", "driver", "got", "badly", "injured", "."};
+
+  private static File createTempFile() throws IOException {
+    File file = File.createTempFile("mapped-model", ".bin");
+    file.deleteOnExit();
+    return file;
+  }
+
+  private static void assertAlignedStoredEntry(File modelFile, String entryName) throws IOException {
+    try (ZipFile zip = new ZipFile(modelFile)) {
+      Assert.assertEquals(ZipEntry.STORED, zip.getEntry(entryName).getMethod());
+    }
+
+    try (FileChannel channel = FileChannel.open(modelFile.toPath(), StandardOpenOption.READ)) {
+      Map<String, Long> storedEntries = MappedZipEntries.findStoredEntries(channel);
+      Assert.assertEquals(1, storedEntries.size());
+      Assert.assertEquals(0, storedEntries.get(entryName) % MappedZipEntries.ALIGNMENT);
+    }
+  }
+
+  @Test
+  public void testConvertToMappedModels() throws IOException {
+    POSModel model = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    ByteArrayOutputStream modelBytes = new ByteArrayOutputStream();
+    model.serialize(modelBytes);
+
+    File mappedModelFile = createTempFile();
+    try (OutputStream out = new FileOutputStream(mappedModelFile)) {
+      Assert.assertEquals(1, ModelUtil.convertToMappedModels(
+          new ByteArrayInputStream(modelBytes.toByteArray()), out));
+    }
+
+    assertAlignedStoredEntry(mappedModelFile, POS_MODEL_ENTRY_NAME);
+
+    String[] expectedTags = new POSTaggerME(model).tag(SENTENCE);
+
+    // loaded from a file the model is memory-mapped
+    POSModel mappedModel = new POSModel(mappedModelFile);
+    Assert.assertTrue(mappedModel.getArtifact(POS_MODEL_ENTRY_NAME) instanceof MappedMaxentModel);
+    Assert.assertArrayEquals(expectedTags, new POSTaggerME(mappedModel).tag(SENTENCE));
+
+    // loaded from a stream the model is read into the heap
+    try (InputStream in = new FileInputStream(mappedModelFile)) {
+      POSModel streamedModel = new POSModel(in);
+      Assert.assertTrue(streamedModel.getArtifact(POS_MODEL_ENTRY_NAME) instanceof MappedMaxentModel);
+      Assert.assertArrayEquals(expectedTags, new POSTaggerME(streamedModel).tag(SENTENCE));
+    }
+
+    // a mapped model keeps its format when it is serialized again
+    File reserializedModelFile = createTempFile();
+    mappedModel.serialize(reserializedModelFile);
+    assertAlignedStoredEntry(reserializedModelFile, POS_MODEL_ENTRY_NAME);
+
+    POSModel reloadedModel = new POSModel(reserializedModelFile);
+    Assert.assertTrue(reloadedModel.getArtifact(POS_MODEL_ENTRY_NAME) instanceof MappedMaxentModel);
+    Assert.assertArrayEquals(expectedTags, new POSTaggerME(reloadedModel).tag(SENTENCE));
+  }
+
+  @Test
+  public void testConvertHashedModel() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    params.put(TrainingParameters.CUTOFF_PARAM, 5);
+    params.put(AbstractEventTrainer.FEATURE_HASHING_BITS_PARAM, 18);
+
+    POSModel model = POSTaggerMETest.trainPOSModel(params);
+
+    ByteArrayOutputStream modelBytes = new ByteArrayOutputStream();
+    model.serialize(modelBytes);
+
+    File mappedModelFile = createTempFile();
+    try (OutputStream out = new FileOutputStream(mappedModelFile)) {
+      Assert.assertEquals(1, ModelUtil.convertToMappedModels(
+          new ByteArrayInputStream(modelBytes.toByteArray()), out));
+    }
+
+    String[] context = new DefaultPOSContextGenerator(null).getContext(0, SENTENCE,
+        new String[0], null);
+    double[] expectedProbs = model.getPosModel().eval(context);
+    String[] expectedTags = new POSTaggerME(model).tag(SENTENCE);
+
+    POSModel mappedModel = new POSModel(mappedModelFile);
+    Assert.assertTrue(mappedModel.getPosModel() instanceof HashedMaxentModel);
+    Assert.assertArrayEquals(expectedProbs, mappedModel.getPosModel().eval(context), 1e-10);
+    Assert.assertArrayEquals(expectedTags, new POSTaggerME(mappedModel).tag(SENTENCE));
+
+    try (InputStream in = new FileInputStream(mappedModelFile)) {
+      POSModel streamedModel = new POSModel(in);
+      Assert.assertTrue(streamedModel.getPosModel() instanceof HashedMaxentModel);
+      Assert.assertArrayEquals(expectedProbs, streamedModel.getPosModel().eval(context), 1e-10);
+    }
+  }
+
+  @Test
+  public void testLoadCompressedModelFromFile() throws IOException {
+    POSModel model = POSTaggerMETest.trainPOSModel(ModelType.MAXENT);
+
+    File modelFile = createTempFile();
+    model.serialize(modelFile);
+
+    POSModel loadedModel = new POSModel(modelFile);
+    Assert.assertTrue(loadedModel.getArtifact(POS_MODEL_ENTRY_NAME) instanceof CompiledMaxentModel);
+    Assert.assertArrayEquals(new POSTaggerME(model).tag(SENTENCE),
+        new POSTaggerME(loadedModel).tag(SENTENCE));
+  }
+}